@@ -0,0 +1,36 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence;
+
+import java.util.Iterator;
+
+/**
+ * An iterator over query results that holds on to resources like a database cursor until it is closed.
+ * Iterating over all elements closes the iterator automatically.
+ *
+ * @param <T> The element type
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public interface CloseableIterator<T> extends Iterator<T>, AutoCloseable {
+
+    /**
+     * Releases the resources held by this iterator.
+     */
+    @Override
+    public void close();
+}
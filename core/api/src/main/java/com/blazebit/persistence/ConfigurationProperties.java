@@ -108,6 +108,15 @@ public final class ConfigurationProperties {
      */
     public static final String EXPRESSION_CACHE_CLASS = "com.blazebit.persistence.expression.cache_class";
 
+    /**
+     * The maximum number of entries per expression cache name when using the default bounded expression cache.
+     * A cache name specific maximum size can be configured by appending a dot and the cache name to this property name.
+     * Default is <code>10000</code>
+     *
+     * @since 1.5.0
+     */
+    public static final String EXPRESSION_CACHE_MAXIMUM_SIZE = "com.blazebit.persistence.expression.cache_maximum_size";
+
     /**
      * If set to false, tuples of a VALUES clause with all null values won't be filtered out.
      * Valid values for this property are <code>true</code> or <code>false</code>.
@@ -192,6 +201,114 @@ public final class ConfigurationProperties {
      */
     public static final String QUERY_PLAN_CACHE_ENABLED = "com.blazebit.persistence.query_plan_cache_enabled";
 
+    /**
+     * The maximum number of query plans to cache for queries that require SQL generation by Blaze-Persistence.
+     * The cache is shared by all criteria builder factories that use the same persistence unit,
+     * so the value of the first factory that uses the cache is taken.
+     * Default is <code>2048</code>.
+     * This configuration option currently only takes effect when Hibernate is used as JPA provider.
+     *
+     * @since 1.5.0
+     */
+    public static final String QUERY_PLAN_CACHE_MAXIMUM_SIZE = "com.blazebit.persistence.query_plan_cache_maximum_size";
+
+    /**
+     * The maximum number of query templates to cache. A query template contains the final SQL of a select query without CTEs
+     * that requires SQL generation by Blaze-Persistence e.g. for the VALUES clause or entity functions. Templates are keyed by the JPQL
+     * query string and the sizes of collection valued parameters, so a cache hit skips the SQL generation of the JPA provider
+     * and the SQL transformations of Blaze-Persistence. The JPQL query string is still built on every execution.
+     * When the maximum is reached, the least recently used template is evicted.
+     * Since the key doesn't cover session specific state, this must not be enabled when using e.g. Hibernate filters.
+     * Query templates are only used if the query plan cache is enabled, see {@link #QUERY_PLAN_CACHE_ENABLED}.
+     * Default is <code>0</code> which disables the cache
+     *
+     * @since 1.5.0
+     */
+    public static final String QUERY_TEMPLATE_CACHE_MAXIMUM_SIZE = "com.blazebit.persistence.query_template_cache_maximum_size";
+
+    /**
+     * If set to true, the results of count queries of paginated criteria builders are cached and reused for later pages.
+     * The cache key is made up of the count query string and the parameter values, so the cache must not be used
+     * if the result of a query also depends on other state like e.g. Hibernate filters or the tenant of a multi-tenant setup.
+     * Queries with parameter values other than basic immutable values like strings, numbers, enums or temporal values,
+     * e.g. entities or collections, are never cached.
+     * Cached counts are invalidated when the configured expiration is reached or when {@link CountCache#invalidate(Class)}
+     * is invoked for an entity type that is used anywhere in the query, including subqueries and CTEs.
+     * Counts are neither read from nor put into the cache while the entity manager has changes that aren't committed yet,
+     * as far as the JPA provider can determine that. For DataNucleus and OpenJPA, this means the cache is bypassed in every active transaction.
+     * Valid values for this property are <code>true</code> and <code>false</code>.
+     * Default is <code>false</code>.
+     *
+     * The property can be changed for a criteria builder before constructing a query.
+     *
+     * @since 1.5.0
+     * @see #COUNT_CACHE_MAXIMUM_SIZE
+     * @see #COUNT_CACHE_EXPIRATION
+     */
+    public static final String COUNT_CACHE_ENABLED = "com.blazebit.persistence.count_cache_enabled";
+
+    /**
+     * The maximum number of count query results to cache, see {@link #COUNT_CACHE_ENABLED}.
+     * When the maximum is reached, the least recently used entry is evicted.
+     * Default is <code>1024</code>.
+     *
+     * @since 1.5.0
+     */
+    public static final String COUNT_CACHE_MAXIMUM_SIZE = "com.blazebit.persistence.count_cache_maximum_size";
+
+    /**
+     * The time in milliseconds after which a cached count query result expires, see {@link #COUNT_CACHE_ENABLED}.
+     * Default is <code>60000</code>.
+     *
+     * @since 1.5.0
+     */
+    public static final String COUNT_CACHE_EXPIRATION = "com.blazebit.persistence.count_cache_expiration";
+
+    /**
+     * If set to true, the values of collection valued parameters are padded to the next power of two size by repeating the last element.
+     * Since the SQL of a query with a collection valued parameter depends on the size of the collection,
+     * padding allows to reuse the generated SQL and database execution plans across many different collection sizes.
+     * Padding is only applied to values that are set on the criteria builder. Values that are set directly on a query
+     * obtained via e.g. {@link Queryable#getQuery()} are bound as they are.
+     * Valid values for this property are <code>true</code> and <code>false</code>.
+     * Default is <code>false</code>.
+     *
+     * The property can be changed for a criteria builder before constructing a query.
+     *
+     * @since 1.5.0
+     */
+    public static final String IN_LIST_PADDING = "com.blazebit.persistence.in_list_padding";
+
+    /**
+     * The minimum value count of a VALUES clause from which on the values are loaded into a temporary table instead of being rendered as parameters.
+     * This keeps the SQL size constant for very big value sets, but requires the dbms to support temporary tables
+     * and the query to be executed within a transaction, as the rows are deleted at the end of a transaction.
+     * Values are bound as plain JDBC values, so temporary tables are only used for values of simple types like strings and numbers
+     * that are mapped without a converter or custom type.
+     * A value of <code>0</code> disables the use of temporary tables.
+     * Valid values for this property are non-negative integers.
+     * Default is <code>0</code>.
+     *
+     * The property can be changed for a criteria builder before using the VALUES clause.
+     *
+     * @since 1.5.0
+     */
+    public static final String VALUES_TEMPORARY_TABLE_THRESHOLD = "com.blazebit.persistence.values.temporary_table_threshold";
+
+    /**
+     * If set to true, the values of a VALUES clause are bound as a single array parameter per attribute which is turned into rows by the dbms.
+     * This keeps the SQL the same regardless of the value count and allows the dbms to reuse execution plans.
+     * Array binding is only used if the dbms supports it and only for VALUES clauses of basic values.
+     * Array elements are bound via their string representation, so only strings, booleans and numbers that are mapped without a converter or custom type are supported.
+     * Valid values for this property are <code>true</code> or <code>false</code>.
+     * Default is <code>false</code>
+     *
+     * The property can be changed for a criteria builder before using the VALUES clause.
+     *
+     * @since 1.5.0
+     */
+    public static final String VALUES_ARRAY_BINDING = "com.blazebit.persistence.values.array_binding";
+
     private ConfigurationProperties() {
     }
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence;
+
+/**
+ * A cache for the results of count queries of paginated criteria builders.
+ * The cache is available through {@link CriteriaBuilderFactory#getService(Class)}
+ * and is used for queries that enable the {@link ConfigurationProperties#COUNT_CACHE_ENABLED} property.
+ * Entity managers with changes that are not committed yet neither read from nor write to the cache.
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public interface CountCache {
+
+    /**
+     * Invalidates all cached counts of queries that use the given entity type or a super or sub type of it anywhere in the query,
+     * including subqueries and CTEs.
+     * This should be invoked after changes to instances of the given entity type were committed.
+     *
+     * @param entityClass The entity type that was changed
+     */
+    public void invalidate(Class<?> entityClass);
+
+    /**
+     * Invalidates all cached counts.
+     */
+    public void invalidateAll();
+
+    /**
+     * Returns the number of cached counts.
+     *
+     * @return The number of cached counts
+     */
+    public int size();
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence;
+
+/**
+ * An object builder that can build the objects of a result incrementally.
+ * Consecutive tuples that have the same group key form a group and {@link #buildList(java.util.List)} is invoked for every group.
+ * Object builders that don't implement this interface are considered to produce one group per tuple.
+ * If the builder can't tell the groups for a query, i.e. {@link #isGroupingSupported()} returns <code>false</code>,
+ * the whole result list is fetched and built at once.
+ *
+ * @param <T> The type that this builder produces
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public interface GroupingObjectBuilder<T> extends ObjectBuilder<T> {
+
+    /**
+     * Returns the group key for the given tuple. This method is invoked before {@link #build(Object[])} is invoked for the tuple.
+     *
+     * @param tuple The result tuple
+     * @return The group key
+     */
+    public Object getGroupKey(Object[] tuple);
+
+    /**
+     * Returns whether the tuples of the query can be grouped via {@link #getGroupKey(Object[])}.
+     *
+     * @return True if grouping is supported, false otherwise
+     */
+    public boolean isGroupingSupported();
+}
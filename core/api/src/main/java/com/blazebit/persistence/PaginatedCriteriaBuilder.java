@@ -17,6 +17,7 @@
 package com.blazebit.persistence;
 
 import javax.persistence.TypedQuery;
+import java.util.concurrent.Executor;
 
 /**
  * A builder for paginated criteria queries.
@@ -135,6 +136,28 @@ public interface PaginatedCriteriaBuilder<T> extends FullQueryBuilder<T, Paginat
      */
     public long getBoundedCount();
 
+    /**
+     * Sets the executor on which the count query is executed concurrently to the id or object query.
+     * The count query is executed on a separate {@link javax.persistence.EntityManager} of the same {@link javax.persistence.EntityManagerFactory},
+     * so it doesn't see uncommitted or unflushed changes of the current persistence context.
+     * Concurrent execution is only done if the count query can't be inlined, no reference entity is used for navigation,
+     * no bounded count is used and the count query doesn't require custom SQL. Otherwise, the count query is executed as usual.
+     * Passing <code>null</code> disables concurrent execution which is the default.
+     *
+     * @param executor the executor on which to execute the count query or <code>null</code>
+     * @return The query builder for chaining calls
+     * @since 1.5.0
+     */
+    public PaginatedCriteriaBuilder<T> withCountQueryExecutor(Executor executor);
+
+    /**
+     * Returns the executor on which the count query is executed concurrently or <code>null</code> if disabled.
+     *
+     * @return the executor for the count query or <code>null</code>
+     * @since 1.5.0
+     */
+    public Executor getCountQueryExecutor();
+
     /**
      * Forces the use of an id query even if the pagination would not need it.
      *
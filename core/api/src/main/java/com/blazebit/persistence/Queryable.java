@@ -58,4 +58,20 @@ public interface Queryable<T, X extends Queryable<T, X>> {
      */
     public T getSingleResult();
 
+    /**
+     * Execute the query and return an iterator over the results.
+     * Results are built incrementally while iterating, so only the objects of the current group are held in memory.
+     * If the query fetches collections, tuples that belong to the same root object must be consecutive
+     * which can be ensured by ordering by the identifier of the root object.
+     * If the tuples can't be grouped, e.g. because an entity view with collections has no id, the whole result list is fetched instead.
+     * Entities that were loaded by the iterator are detached from the entity manager once the iterator moved past the group they belong to.
+     * Entities that were already managed before the query was executed stay managed.
+     * The iterator must be closed when it is not fully consumed.
+     *
+     * @return The iterator over the results
+     * @since 1.5.0
+     * @see GroupingObjectBuilder
+     */
+    public CloseableIterator<T> getResultIterator();
+
 }
@@ -177,6 +177,15 @@ public interface DbmsDialect {
      */
     public boolean supportsReturningColumns();
 
+    /**
+     * Returns true if the JDBC driver of the dbms reports the actual update counts for the executions of a JDBC batch, false otherwise.
+     * If false, a batch might report {@link java.sql.Statement#SUCCESS_NO_INFO} so that e.g. optimistic lock violations can't be detected.
+     *
+     * @return Whether update counts of batch executions are reported
+     * @since 1.5.0
+     */
+    public boolean supportsBatchUpdateCounts();
+
     /**
      * Returns true if the dbms supports matching non-trivial expressions that appear in the group by clause with usages in the having clause.
      *
@@ -344,6 +353,42 @@ public interface DbmsDialect {
      */
     public ValuesStrategy getValuesStrategy();
 
+    /**
+     * Returns the SQL to create a temporary table with the given columns if it doesn't exist yet,
+     * or <code>null</code> if the dbms has no support for temporary tables.
+     * The table must only be visible to the current session and its rows must be deleted at the end of a transaction.
+     * Temporary tables are used for the {@link ValuesStrategy#TEMPORARY_TABLE} strategy.
+     *
+     * @param tableName The name of the temporary table
+     * @param columnNames The column names
+     * @param columnTypes The sql types of the columns
+     * @return The SQL to create the temporary table or null
+     * @since 1.5.0
+     */
+    public String getTemporaryTableCreationSql(String tableName, String[] columnNames, String[] columnTypes);
+
+    /**
+     * Returns a table expression with the given alias that produces a row for every array element of the array parameters,
+     * or <code>null</code> if the dbms has no support for array parameters.
+     * Every column is bound as single parameter containing the array literal of the column values.
+     * Table expressions like these are used for the {@link ValuesStrategy#ARRAY} strategy.
+     *
+     * @param tableAlias The alias of the table expression
+     * @param columnNames The column names
+     * @param columnTypes The sql types of the array elements
+     * @return The table expression or null
+     * @since 1.5.0
+     */
+    public String getArrayTableSql(String tableAlias, String[] columnNames, String[] columnTypes);
+
+    /**
+     * Returns the maximum number of elements an IN predicate may contain, or -1 if the dbms imposes no such limit.
+     *
+     * @return The maximum number of IN predicate elements or -1
+     * @since 1.5.0
+     */
+    public int getMaximumInListSize();
+
     /**
      * Returns whether parameters need to be casted if occurring in an untyped context like e.g. VALUES clause.
      *
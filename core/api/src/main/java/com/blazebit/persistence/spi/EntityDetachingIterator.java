@@ -0,0 +1,39 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.spi;
+
+import com.blazebit.persistence.CloseableIterator;
+
+/**
+ * A result iterator that can detach the entities it loaded from the entity manager.
+ * The iterator never detaches entities on its own while iterating, so a consumer that reads ahead can decide
+ * when the entities of the previous elements aren't needed anymore. Closing the iterator detaches all entities it loaded.
+ * Entities that were already managed before the query was executed are never detached.
+ *
+ * @param <T> The element type
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public interface EntityDetachingIterator<T> extends CloseableIterator<T> {
+
+    /**
+     * Detaches the entities that were loaded by this iterator so far.
+     *
+     * @param keepCurrentElement Whether the entities of the element that was returned last by {@link #next()} should stay managed
+     */
+    public void detachLoadedEntities(boolean keepCurrentElement);
+}
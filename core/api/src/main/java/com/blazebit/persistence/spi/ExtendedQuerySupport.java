@@ -126,6 +126,56 @@ public interface ExtendedQuerySupport {
      */
     public int executeUpdate(ServiceProvider serviceProvider, List<Query> participatingQueries, Query baseQuery, Query query, String sqlOverride, boolean queryPlanCacheEnabled);
 
+    /**
+     * Creates a batch for executions of the Query by replacing the SQL with the given overriding SQL query.
+     * The parameter values of the participating queries are captured on every {@link ModificationBatch#addBatch()} call.
+     *
+     * @param serviceProvider The service provider to access {@linkplain EntityManager} and others
+     * @param participatingQueries The list of participating queries from which to combine parameters
+     * @param baseQuery The base query which represents the original modification query
+     * @param query The main query to execute
+     * @param sqlOverride The actual SQL query to execute instead of the query's original SQL
+     * @param queryPlanCacheEnabled Designates whether query plans can be cached and reused
+     * @return The batch or <code>null</code> if batching is not supported
+     * @since 1.5.0
+     */
+    public ModificationBatch createModificationBatch(ServiceProvider serviceProvider, List<Query> participatingQueries, Query baseQuery, Query query, String sqlOverride, boolean queryPlanCacheEnabled);
+
+    /**
+     * Executes the given plain SQL statement once for every given parameter row as JDBC batch on the connection of the entity manager.
+     * The values of a parameter row are bound to the positional parameters of the statement in order.
+     *
+     * @param em The entity manager
+     * @param sql The SQL statement to execute
+     * @param batchParameters The parameter rows
+     * @return The update counts of the executions
+     * @since 1.5.0
+     */
+    public int[] executeBatch(EntityManager em, String sql, List<Object[]> batchParameters);
+
+    /**
+     * Creates a temporary table by executing the given SQL on the connection of the entity manager,
+     * unless a table with the given name was already created on that connection.
+     *
+     * @param em The entity manager
+     * @param tableName The name of the temporary table
+     * @param creationSql The SQL to create the temporary table
+     * @since 1.5.0
+     */
+    public void createTemporaryTable(EntityManager em, String tableName, String creationSql);
+
+    /**
+     * Executes the given plain SQL query with the given positional parameters on the connection of the entity manager
+     * and returns whether the query produced at least one row.
+     *
+     * @param em The entity manager
+     * @param sql The SQL query to execute
+     * @param parameters The parameters
+     * @return Whether the query produced a row
+     * @since 1.5.0
+     */
+    public boolean executeExists(EntityManager em, String sql, Object[] parameters);
+
     /**
      * Executes and returns the returning result of the Query by replacing the SQL with the given overriding SQL query.
      *
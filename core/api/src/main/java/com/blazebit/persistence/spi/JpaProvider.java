@@ -16,6 +16,7 @@
 
 package com.blazebit.persistence.spi;
 
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.JoinType;
 
 import javax.persistence.EntityManager;
@@ -375,6 +376,17 @@ public interface JpaProvider {
      */
     public boolean isBag(EntityType<?> ownerType, String attributeName);
 
+    /**
+     * Whether the values of the given basic attribute are transformed by an attribute converter or a custom type of the JPA provider before being bound via JDBC.
+     * Returns true if that can't be determined.
+     *
+     * @param ownerType The declaring type of the attribute to check
+     * @param attributeName The name of the attribute to check
+     * @return True if the values are converted or if that is unknown, false otherwise
+     * @since 1.5.0
+     */
+    public boolean isConvertedBasicAttribute(EntityType<?> ownerType, String attributeName);
+
     /**
      * Whether orphan removal is activated for the given attribute.
      *
@@ -573,6 +585,30 @@ public interface JpaProvider {
      */
     public void setCacheable(Query query);
 
+    /**
+     * Executes the given query and returns an iterator that scrolls over the result with a database cursor.
+     * The elements are the same as the elements of the list returned by {@link Query#getResultList()}.
+     * If the iterator is an {@link EntityDetachingIterator}, the caller detaches the entities that were loaded by the iterator
+     * once they aren't needed anymore, so the persistence context doesn't grow.
+     *
+     * @param em The entity manager the query belongs to
+     * @param query The query to execute
+     * @return The iterator over the results or <code>null</code> if scrolling is not supported
+     * @since 1.5.0
+     */
+    public CloseableIterator<Object> getResultIterator(EntityManager em, Query query);
+
+    /**
+     * Returns whether the entity manager has changes that other transactions can't see yet,
+     * i.e. changes that are not flushed yet or that were flushed in the still active transaction.
+     * Returns true if that can't be determined and a transaction is active.
+     *
+     * @param em The entity manager
+     * @return True if there are or might be uncommitted changes, false otherwise
+     * @since 1.5.0
+     */
+    public boolean hasPendingChanges(EntityManager em);
+
     /**
      * Get the identifier or unique key inverse properties of an association attribute.
      *
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.spi;
+
+/**
+ * A batch of executions of a modification query with different parameter values that are sent to the database as JDBC batch.
+ *
+ * Modification queries that require SQL generation, like collection DML queries, implement this interface.
+ * Executions of such queries that are added to a batch see the changes of the previously added executions as they are executed in order.
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public interface ModificationBatch {
+
+    /**
+     * Adds an execution of the modification query with the currently bound parameter values to the batch.
+     */
+    public void addBatch();
+
+    /**
+     * Returns the number of executions that were added to the batch but not yet returned by {@link #executeBatch()}.
+     *
+     * @return The number of pending executions
+     */
+    public int getBatchSize();
+
+    /**
+     * Executes all pending executions of the batch in the order they were added and clears the batch.
+     * An update count might be {@link java.sql.Statement#SUCCESS_NO_INFO} if the JDBC driver does not report update counts for batches.
+     *
+     * @return The update counts of the executions
+     */
+    public int[] executeBatch();
+}
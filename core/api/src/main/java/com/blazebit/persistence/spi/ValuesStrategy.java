@@ -25,8 +25,24 @@ package com.blazebit.persistence.spi;
 public enum ValuesStrategy {
     VALUES,
     SELECT_VALUES,
-    SELECT_UNION;
-
-    // NOTE: another possible strategy would be to use a temporary table
-    // CREATE TEMPORARY TABLE IF NOT EXISTS table2 AS (SELECT * FROM table1)
+    SELECT_UNION,
+    /**
+     * Loads the values into a temporary table via JDBC batching and uses the table as table reference.
+     * This strategy is only used for VALUES clauses with a value count reaching the configured threshold
+     * and only if the dbms supports temporary tables.
+     *
+     * @see com.blazebit.persistence.ConfigurationProperties#VALUES_TEMPORARY_TABLE_THRESHOLD
+     * @see DbmsDialect#getTemporaryTableCreationSql(String, String[], String[])
+     * @since 1.5.0
+     */
+    TEMPORARY_TABLE,
+    /**
+     * Binds the values of every attribute as single array parameter and uses a table expression that turns the arrays into rows.
+     * This strategy is only used for VALUES clauses if array binding is enabled and the dbms supports it.
+     *
+     * @see com.blazebit.persistence.ConfigurationProperties#VALUES_ARRAY_BINDING
+     * @see DbmsDialect#getArrayTableSql(String, String[], String[])
+     * @since 1.5.0
+     */
+    ARRAY;
 }
@@ -19,6 +19,7 @@ package com.blazebit.persistence.impl;
 import com.blazebit.persistence.BaseSubqueryBuilder;
 import com.blazebit.persistence.CTEBuilder;
 import com.blazebit.persistence.CaseWhenStarterBuilder;
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.CriteriaBuilder;
 import com.blazebit.persistence.CriteriaBuilderFactory;
 import com.blazebit.persistence.DefaultKeyset;
@@ -60,6 +61,7 @@ import com.blazebit.persistence.impl.query.DefaultQuerySpecification;
 import com.blazebit.persistence.impl.query.EntityFunctionNode;
 import com.blazebit.persistence.impl.query.ObjectBuilderTypedQuery;
 import com.blazebit.persistence.impl.query.QuerySpecification;
+import com.blazebit.persistence.impl.query.RowDetachingResultIterator;
 import com.blazebit.persistence.impl.transform.ExpressionModifierVisitor;
 import com.blazebit.persistence.impl.transform.ExpressionTransformerGroup;
 import com.blazebit.persistence.impl.transform.OuterFunctionVisitor;
@@ -90,6 +92,7 @@ import com.blazebit.persistence.spi.ConfigurationSource;
 import com.blazebit.persistence.spi.DbmsDialect;
 import com.blazebit.persistence.spi.DbmsModificationState;
 import com.blazebit.persistence.spi.DbmsStatementType;
+import com.blazebit.persistence.spi.EntityDetachingIterator;
 import com.blazebit.persistence.spi.ExtendedAttribute;
 import com.blazebit.persistence.spi.ExtendedManagedType;
 import com.blazebit.persistence.spi.JpqlMacro;
@@ -856,29 +859,38 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
     }
 
     public <T> BuilderType fromValues(Class<T> valueClass, String alias, Collection<T> values) {
-        BuilderType result = fromValues(valueClass, alias, values.size());
+        BuilderType result = fromValues(valueClass, alias, getValuesCount(values));
         setParameter(alias, values);
         return result;
     }
 
     public BuilderType fromValues(Class<?> entityBaseClass, String attributeName, String alias, Collection<?> values) {
-        BuilderType result = fromValues(entityBaseClass, attributeName, alias, values.size());
+        BuilderType result = fromValues(entityBaseClass, attributeName, alias, getValuesCount(values));
         setParameter(alias, values);
         return result;
     }
 
     public <T> BuilderType fromIdentifiableValues(Class<T> valueClass, String alias, Collection<T> values) {
-        BuilderType result = fromIdentifiableValues(valueClass, alias, values.size());
+        BuilderType result = fromIdentifiableValues(valueClass, alias, getValuesCount(values));
         setParameter(alias, values);
         return result;
     }
 
     public <T> BuilderType fromIdentifiableValues(Class<T> valueClass, String identifierAttribute, String alias, Collection<T> values) {
-        BuilderType result = fromIdentifiableValues(valueClass, identifierAttribute, alias, values.size());
+        BuilderType result = fromIdentifiableValues(valueClass, identifierAttribute, alias, getValuesCount(values));
         setParameter(alias, values);
         return result;
     }
 
+    private int getValuesCount(Collection<?> values) {
+        QueryConfiguration queryConfiguration = mainQuery.getQueryConfiguration();
+        // Padding is only possible if the additional null rows are filtered
+        if (queryConfiguration.isInListPaddingEnabled() && queryConfiguration.isValuesClauseFilterNullsEnabled()) {
+            return ParameterManager.getPaddedSize(values.size());
+        }
+        return values.size();
+    }
+
     public BuilderType fromIdentifiableValues(Class<?> valueClass, String alias, int valueCount) {
         return fromIdentifiableValues(valueClass, null, alias, valueCount);
     }
@@ -2580,6 +2592,34 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         orderByManager.acceptVisitor(expressionVisitor);
     }
 
+    /**
+     * Collects the entity types that are used in the from clause, joins, subqueries and inline CTEs of this query.
+     *
+     * @param entityClasses The set to add the entity types to
+     */
+    void collectEntityClasses(final Set<Class<?>> entityClasses) {
+        joinManager.acceptVisitor(new JoinNodeVisitor() {
+            @Override
+            public void visit(JoinNode node) {
+                if (node.getNodeType() instanceof EntityType<?>) {
+                    entityClasses.add(node.getNodeType().getJavaType());
+                }
+                CTEInfo inlineCte = node.getInlineCte();
+                if (inlineCte != null) {
+                    inlineCte.collectEntityClasses(entityClasses);
+                }
+            }
+        });
+        applyVisitor(new VisitorAdapter() {
+            @Override
+            public void visit(SubqueryExpression expression) {
+                if (expression.getSubquery() instanceof AbstractCommonQueryBuilder<?, ?, ?, ?, ?>) {
+                    ((AbstractCommonQueryBuilder<?, ?, ?, ?, ?>) expression.getSubquery()).collectEntityClasses(entityClasses);
+                }
+            }
+        });
+    }
+
     public void applyExpressionTransformersAndBuildGroupByClauses(boolean addsGroupBy, JoinVisitor joinVisitor) {
         groupByManager.resetCollected();
         groupByManager.collectGroupByClauses(joinVisitor);
@@ -2681,7 +2721,8 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         List<CTENode> ctes = shouldRenderCteNodes ? getCteNodes(false) : Collections.<CTENode>emptyList();
         QuerySpecification querySpecification = new CustomQuerySpecification(
                 this, baseQuery, parameterManager.getParameters(), parameterListNames, limit, offset, keyRestrictedLeftJoinAliases, entityFunctionNodes,
-                mainQuery.cteManager.isRecursive(), ctes, shouldRenderCteNodes, mainQuery.getQueryConfiguration().isQueryPlanCacheEnabled()
+                mainQuery.cteManager.isRecursive(), ctes, shouldRenderCteNodes, mainQuery.getQueryConfiguration().isQueryPlanCacheEnabled(),
+                baseQueryString, mainQuery.cbf.getQueryTemplateCache()
         );
 
         TypedQuery<QueryResultType> query = new CustomSQLTypedQuery<QueryResultType>(
@@ -2757,11 +2798,15 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
             String rootAlias = node.getAlias();
             String castedParameter = node.getValuesCastedParameter();
             String[] attributes = node.getValuesAttributes();
+            // Values clauses that are loaded into a temporary table or bound as arrays select from a table expression
+            ValuesStrategy valuesStrategy = node.getValuesStrategy() == null ? strategy : node.getValuesStrategy();
+            boolean tableBased = valuesStrategy == ValuesStrategy.TEMPORARY_TABLE || valuesStrategy == ValuesStrategy.ARRAY;
+            int renderedValueCount = tableBased ? 1 : valueCount;
 
             // We construct an example query representing the values clause with a SELECT clause that selects the fields in the right order which we need to construct SQL
             // that uses proper aliases and filters null values which are there in the first place to pad up parameters in case we don't reach the desired value count
-            StringBuilder valuesSb = new StringBuilder(20 + valueCount * attributes.length * 3);
-            Query valuesExampleQuery = getValuesExampleQuery(clazz, valueCount, identifiableReference, valueClazzAttributeName, rootAlias, castedParameter, attributes, valuesSb, strategy, dummyTable, node);
+            StringBuilder valuesSb = new StringBuilder(20 + renderedValueCount * attributes.length * 3);
+            Query valuesExampleQuery = getValuesExampleQuery(clazz, renderedValueCount, identifiableReference, valueClazzAttributeName, rootAlias, castedParameter, attributes, valuesSb, valuesStrategy, dummyTable, node);
 
             String exampleQuerySql = mainQuery.cbf.getExtendedQuerySupport().getSql(mainQuery.em, valuesExampleQuery);
             String exampleQuerySqlAlias = mainQuery.cbf.getExtendedQuerySupport().getSqlAlias(mainQuery.em, valuesExampleQuery, "e");
@@ -2771,13 +2816,13 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
             }
             StringBuilder whereClauseSb = new StringBuilder(exampleQuerySql.length());
             String filterNullsTableAlias = "fltr_nulls_tbl_als_";
-            String valuesAliases = getValuesAliases(exampleQuerySqlAlias, attributes.length, exampleQuerySql, whereClauseSb, filterNullsTableAlias, strategy, dummyTable);
+            String valuesAliases = getValuesAliases(exampleQuerySqlAlias, attributes.length, exampleQuerySql, whereClauseSb, filterNullsTableAlias, valuesStrategy, dummyTable);
 
-            if (strategy == ValuesStrategy.SELECT_VALUES) {
+            if (valuesStrategy == ValuesStrategy.SELECT_VALUES || tableBased) {
                 valuesSb.insert(0, valuesAliases);
                 valuesSb.append(')');
                 valuesAliases = null;
-            } else if (strategy == ValuesStrategy.SELECT_UNION) {
+            } else if (valuesStrategy == ValuesStrategy.SELECT_UNION) {
                 valuesSb.insert(0, valuesAliases);
                 if (!filterNulls) {
                     // We must order by all values and use a limit in such a case
@@ -2920,7 +2965,7 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         if (strategy == ValuesStrategy.VALUES) {
             sb = new StringBuilder((endIndex - startIndex) - (tableAlias.length() + 3) * attributeCount);
             sb.append('(');
-        } else if (strategy == ValuesStrategy.SELECT_VALUES) {
+        } else if (strategy == ValuesStrategy.SELECT_VALUES || strategy == ValuesStrategy.TEMPORARY_TABLE || strategy == ValuesStrategy.ARRAY) {
             sb = new StringBuilder(endIndex - startIndex);
             sb.append("(select ");
         } else if (strategy == ValuesStrategy.SELECT_UNION) {
@@ -2943,8 +2988,8 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
             whereClauseSb.append(columnNames[i]);
             whereClauseSb.append(" is not null");
 
-            if (strategy == ValuesStrategy.SELECT_VALUES) {
-                // TODO: This naming is actually H2 specific
+            if (strategy == ValuesStrategy.SELECT_VALUES || strategy == ValuesStrategy.TEMPORARY_TABLE || strategy == ValuesStrategy.ARRAY) {
+                // TODO: This naming is actually H2 specific, the columns of temporary tables are named the same way
                 sb.append('c');
                 sb.append(i + 1);
                 sb.append(' ');
@@ -2958,7 +3003,7 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
 
         if (strategy == ValuesStrategy.VALUES) {
             sb.setCharAt(sb.length() - 1, ')');
-        } else if (strategy == ValuesStrategy.SELECT_VALUES) {
+        } else if (strategy == ValuesStrategy.SELECT_VALUES || strategy == ValuesStrategy.TEMPORARY_TABLE || strategy == ValuesStrategy.ARRAY) {
             sb.setCharAt(sb.length() - 1, ' ');
             sb.append(" from ");
         } else if (strategy == ValuesStrategy.SELECT_UNION) {
@@ -3080,6 +3125,11 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         sb.append(" WHERE ");
         joinManager.renderPlaceholderRequiringPredicate(sb, valuesNode, "e", false, false);
 
+        if (strategy == ValuesStrategy.TEMPORARY_TABLE || strategy == ValuesStrategy.ARRAY) {
+            valuesSb.append(valuesNode.getValuesTableSql());
+            return mainQuery.em.createQuery(sb.toString());
+        }
+
         if (strategy == ValuesStrategy.SELECT_VALUES || strategy == ValuesStrategy.VALUES) {
             valuesSb.append("(VALUES ");
         } else if (strategy == ValuesStrategy.SELECT_UNION) {
@@ -3727,6 +3777,18 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         }
     }
 
+    @SuppressWarnings("unchecked")
+    protected final CloseableIterator<QueryResultType> getResultIterator(TypedQuery<QueryResultType> query) {
+        if (query instanceof ObjectBuilderTypedQuery<?>) {
+            return ((ObjectBuilderTypedQuery<QueryResultType>) query).getResultIterator(mainQuery.em, mainQuery.jpaProvider);
+        }
+        CloseableIterator<Object> iterator = ObjectBuilderTypedQuery.getTupleIterator(mainQuery.em, query, mainQuery.jpaProvider);
+        if (iterator instanceof EntityDetachingIterator<?>) {
+            iterator = new RowDetachingResultIterator<>((EntityDetachingIterator<Object>) iterator);
+        }
+        return (CloseableIterator<QueryResultType>) (CloseableIterator<?>) iterator;
+    }
+
     @SuppressWarnings("unchecked")
     protected final TypedQuery<QueryResultType> applyObjectBuilder(TypedQuery<?> query) {
         ObjectBuilder<QueryResultType> selectObjectBuilder = selectManager.getSelectObjectBuilder();
@@ -635,7 +635,7 @@ public abstract class AbstractFullQueryBuilder<T, X extends FullQueryBuilder<T,
             String valueParameterName = dualNode.getAlias() + "_value_0";
             String[][] parameterNames = new String[1][1];
             parameterNames[0][0] = valueParameterName;
-            ParameterManager.ValuesParameterWrapper valuesParameterWrapper = new ParameterManager.ValuesParameterWrapper(dualNode.getJavaType(), parameterNames, new AttributeAccessor[1]);
+            ParameterManager.ValuesParameterWrapper valuesParameterWrapper = new ParameterManager.ValuesParameterWrapper(dualNode.getJavaType(), new ValuesParameterBinder(parameterNames, new AttributeAccessor[1]));
             parameters.add(new ParameterManager.ParameterImpl<Object>(dualNode.getAlias(), false, null, null, valuesParameterWrapper));
             valuesParameters = new HashMap<>(valuesParameters);
             valuesParameters.put(valueParameterName, dualNode.getAlias());
@@ -658,7 +658,8 @@ public abstract class AbstractFullQueryBuilder<T, X extends FullQueryBuilder<T,
         List<CTENode> ctes = shouldRenderCteNodes ? getCteNodes(false) : Collections.EMPTY_LIST;
         QuerySpecification querySpecification = new CustomQuerySpecification(
                 this, baseQuery, parameters, parameterListNames, null, null, keyRestrictedLeftJoinAliases, entityFunctionNodes,
-                mainQuery.cteManager.isRecursive(), ctes, shouldRenderCteNodes, mainQuery.getQueryConfiguration().isQueryPlanCacheEnabled()
+                mainQuery.cteManager.isRecursive(), ctes, shouldRenderCteNodes, mainQuery.getQueryConfiguration().isQueryPlanCacheEnabled(),
+                countQueryString, mainQuery.cbf.getQueryTemplateCache()
         );
 
         TypedQuery<Long> countQuery = new CustomSQLTypedQuery<>(
@@ -20,6 +20,7 @@ import java.util.List;
 
 import javax.persistence.TypedQuery;
 
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.FullQueryBuilder;
 import com.blazebit.persistence.Queryable;
 import com.blazebit.persistence.spi.DbmsStatementType;
@@ -62,4 +63,9 @@ public abstract class AbstractQueryBuilder<T, X extends Queryable<T, X>, Z, W, F
         return getQuery().getSingleResult();
     }
 
+    @Override
+    public CloseableIterator<T> getResultIterator() {
+        return getResultIterator(getQuery());
+    }
+
 }
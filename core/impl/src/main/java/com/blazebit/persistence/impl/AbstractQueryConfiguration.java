@@ -45,6 +45,11 @@ public abstract class AbstractQueryConfiguration implements QueryConfiguration {
             case ConfigurationProperties.INLINE_COUNT_QUERY: return getInlineCountQueryEnabled() == null ? "auto" : Boolean.toString(getInlineCountQueryEnabled());
             case ConfigurationProperties.INLINE_CTES: return getInlineCtesEnabled() == null ? "auto" : Boolean.toString(getInlineCtesEnabled());
             case ConfigurationProperties.QUERY_PLAN_CACHE_ENABLED: return Boolean.toString(isQueryPlanCacheEnabled());
+            case ConfigurationProperties.QUERY_PLAN_CACHE_MAXIMUM_SIZE: return Integer.toString(getQueryPlanCacheMaximumSize());
+            case ConfigurationProperties.COUNT_CACHE_ENABLED: return Boolean.toString(isCountCacheEnabled());
+            case ConfigurationProperties.IN_LIST_PADDING: return Boolean.toString(isInListPaddingEnabled());
+            case ConfigurationProperties.VALUES_TEMPORARY_TABLE_THRESHOLD: return Integer.toString(getValuesTemporaryTableThreshold());
+            case ConfigurationProperties.VALUES_ARRAY_BINDING: return Boolean.toString(isValuesArrayBindingEnabled());
             default: return null;
         }
     }
@@ -66,6 +71,11 @@ public abstract class AbstractQueryConfiguration implements QueryConfiguration {
         properties.put(ConfigurationProperties.INLINE_COUNT_QUERY, getInlineCountQueryEnabled() == null ? "auto" : Boolean.toString(getInlineCountQueryEnabled()));
         properties.put(ConfigurationProperties.INLINE_CTES, getInlineCtesEnabled() == null ? "auto" : Boolean.toString(getInlineCtesEnabled()));
         properties.put(ConfigurationProperties.QUERY_PLAN_CACHE_ENABLED, Boolean.toString(isQueryPlanCacheEnabled()));
+        properties.put(ConfigurationProperties.QUERY_PLAN_CACHE_MAXIMUM_SIZE, Integer.toString(getQueryPlanCacheMaximumSize()));
+        properties.put(ConfigurationProperties.COUNT_CACHE_ENABLED, Boolean.toString(isCountCacheEnabled()));
+        properties.put(ConfigurationProperties.IN_LIST_PADDING, Boolean.toString(isInListPaddingEnabled()));
+        properties.put(ConfigurationProperties.VALUES_TEMPORARY_TABLE_THRESHOLD, Integer.toString(getValuesTemporaryTableThreshold()));
+        properties.put(ConfigurationProperties.VALUES_ARRAY_BINDING, Boolean.toString(isValuesArrayBindingEnabled()));
         return properties;
     }
 
@@ -18,6 +18,7 @@ package com.blazebit.persistence.impl;
 
 import com.blazebit.persistence.BaseFinalSetOperationBuilder;
 import com.blazebit.persistence.BaseOngoingFinalSetOperationBuilder;
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.impl.function.querywrapper.QueryWrapperFunction;
 import com.blazebit.persistence.impl.query.CTENode;
 import com.blazebit.persistence.impl.query.CustomSQLQuery;
@@ -450,4 +451,8 @@ public abstract class BaseFinalSetOperationBuilderImpl<T, X extends BaseFinalSet
         return getTypedQuery(null, null).getSingleResult();
     }
 
+    public CloseableIterator<T> getResultIterator() {
+        return getResultIterator(getTypedQuery(null, null));
+    }
+
 }
@@ -21,6 +21,7 @@ import com.blazebit.persistence.parser.expression.ExpressionCopyContext;
 import javax.persistence.metamodel.EntityType;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Christian Beikov
@@ -51,6 +52,13 @@ class CTEInfo {
         this.recursiveCriteriaBuilder = recursiveCriteriaBuilder;
     }
 
+    void collectEntityClasses(Set<Class<?>> entityClasses) {
+        nonRecursiveCriteriaBuilder.collectEntityClasses(entityClasses);
+        if (recursiveCriteriaBuilder != null) {
+            recursiveCriteriaBuilder.collectEntityClasses(entityClasses);
+        }
+    }
+
     CTEInfo copy(CTEManager cteManager, Map<JoinManager, JoinManager> joinManagerMapping, ExpressionCopyContext copyContext) {
         CTEInfo cteInfo = new CTEInfo(
                 name,
@@ -16,6 +16,7 @@
 
 package com.blazebit.persistence.impl;
 
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.JoinType;
 import com.blazebit.persistence.spi.ExtendedAttribute;
 import com.blazebit.persistence.spi.ExtendedManagedType;
@@ -117,6 +118,11 @@ public final class CachingJpaProvider implements JpaProvider {
         return attribute != null && attribute.isBag();
     }
 
+    @Override
+    public boolean isConvertedBasicAttribute(EntityType<?> ownerType, String attributeName) {
+        return jpaProvider.isConvertedBasicAttribute(ownerType, attributeName);
+    }
+
     @Override
     public boolean isOrphanRemoval(ManagedType<?> ownerType, String attributeName) {
         ExtendedManagedType managedType  = entityMetamodel.getManagedType(ExtendedManagedType.class, ownerType);
@@ -374,6 +380,16 @@ public final class CachingJpaProvider implements JpaProvider {
         jpaProvider.setCacheable(query);
     }
 
+    @Override
+    public CloseableIterator<Object> getResultIterator(EntityManager em, Query query) {
+        return jpaProvider.getResultIterator(em, query);
+    }
+
+    @Override
+    public boolean hasPendingChanges(EntityManager em) {
+        return jpaProvider.hasPendingChanges(em);
+    }
+
     @Override
     public List<String> getIdentifierOrUniqueKeyEmbeddedPropertyNames(EntityType<?> owner, String attributeName) {
         // TODO: cache this via extended metamodel
@@ -482,7 +482,7 @@ import com.blazebit.persistence.impl.function.window.percentrank.PercentRankFunc
 import com.blazebit.persistence.impl.function.window.rank.RankFunction;
 import com.blazebit.persistence.impl.function.window.row.RowNumberFunction;
 import com.blazebit.persistence.impl.function.window.sum.SumFunction;
-import com.blazebit.persistence.parser.expression.ConcurrentHashMapExpressionCache;
+import com.blazebit.persistence.parser.expression.BoundedExpressionCache;
 import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
 import com.blazebit.persistence.spi.DbmsDialect;
 import com.blazebit.persistence.spi.EntityManagerFactoryIntegrator;
@@ -1784,7 +1784,7 @@ public class CriteriaBuilderConfigurationImpl implements CriteriaBuilderConfigur
     private void loadDefaultProperties() {
         properties.put(ConfigurationProperties.COMPATIBLE_MODE, "false");
         properties.put(ConfigurationProperties.RETURNING_CLAUSE_CASE_SENSITIVE, "true");
-        properties.put(ConfigurationProperties.EXPRESSION_CACHE_CLASS, ConcurrentHashMapExpressionCache.class.getName());
+        properties.put(ConfigurationProperties.EXPRESSION_CACHE_CLASS, BoundedExpressionCache.class.getName());
         properties.put(ConfigurationProperties.OPTIMIZED_KEYSET_PREDICATE_RENDERING, "true");
         properties.put(ConfigurationProperties.INLINE_ID_QUERY, "auto");
         properties.put(ConfigurationProperties.INLINE_COUNT_QUERY, "auto");
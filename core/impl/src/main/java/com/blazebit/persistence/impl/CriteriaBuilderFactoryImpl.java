@@ -16,6 +16,8 @@
 
 package com.blazebit.persistence.impl;
 
+import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.CountCache;
 import com.blazebit.persistence.CriteriaBuilder;
 import com.blazebit.persistence.CriteriaBuilderFactory;
 import com.blazebit.persistence.DeleteCriteriaBuilder;
@@ -23,10 +25,15 @@ import com.blazebit.persistence.InsertCriteriaBuilder;
 import com.blazebit.persistence.LeafOngoingFinalSetOperationCriteriaBuilder;
 import com.blazebit.persistence.StartOngoingSetOperationCriteriaBuilder;
 import com.blazebit.persistence.UpdateCriteriaBuilder;
+import com.blazebit.persistence.impl.query.CountCacheImpl;
+import com.blazebit.persistence.impl.query.QueryTemplateCache;
+import com.blazebit.persistence.impl.util.PropertyUtils;
 import com.blazebit.persistence.parser.FunctionKind;
 import com.blazebit.persistence.parser.expression.ExpressionCache;
+import com.blazebit.persistence.parser.expression.ExpressionCacheStatistics;
 import com.blazebit.persistence.parser.expression.ExpressionFactory;
 import com.blazebit.persistence.parser.expression.ExpressionFactoryImpl;
+import com.blazebit.persistence.parser.expression.InstrumentedExpressionCache;
 import com.blazebit.persistence.parser.expression.MacroConfiguration;
 import com.blazebit.persistence.parser.expression.SimpleCachingExpressionFactory;
 import com.blazebit.persistence.parser.expression.SubqueryExpressionFactory;
@@ -56,6 +63,10 @@ import java.util.Map;
  */
 public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
 
+    private static final String SUBQUERY_EXPRESSION_CACHE_NAME_PREFIX = "com.blazebit.persistence.parser.expression.cache.subquery.";
+    private static final int DEFAULT_COUNT_CACHE_MAXIMUM_SIZE = 1024;
+    private static final int DEFAULT_COUNT_CACHE_EXPIRATION = 60000;
+
     private final PackageOpener packageOpener;
     private final EntityManagerFactory entityManagerFactory;
     private final EntityMetamodelImpl metamodel;
@@ -66,6 +77,8 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
     private final ExpressionCache expressionCache;
     private final ExpressionFactory expressionFactory;
     private final ExpressionFactory subqueryExpressionFactory;
+    private final QueryTemplateCache queryTemplateCache;
+    private final CountCacheImpl countCache;
     private final QueryConfiguration queryConfiguration;
 
     private final MacroConfiguration macroConfiguration;
@@ -115,18 +128,30 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
         this.namedTypes = resolveNamedTypes(config.getNamedTypes());
 
         ExpressionFactory originalExpressionFactory = new ExpressionFactoryImpl(functions, metamodel.getEntityTypes(), metamodel.getEnumTypes(), metamodel.getEnumTypesForLiterals(), !compatibleMode, optimize);
-        this.expressionCache = createCache(queryConfiguration.getExpressionCacheClass());
+        this.expressionCache = createCache(queryConfiguration.getExpressionCacheClass(), (Map<String, String>) (Map<?, ?>) config.getProperties());
         ExpressionFactory cachingExpressionFactory = new SimpleCachingExpressionFactory(originalExpressionFactory, expressionCache);
-        ExpressionFactory cachingSubqueryExpressionFactory = new SimpleCachingExpressionFactory(new SubqueryExpressionFactory(functions, metamodel.getEntityTypes(), metamodel.getEnumTypes(), metamodel.getEnumTypesForLiterals(), !compatibleMode, optimize, originalExpressionFactory));
+        ExpressionFactory cachingSubqueryExpressionFactory = new SimpleCachingExpressionFactory(new SubqueryExpressionFactory(functions, metamodel.getEntityTypes(), metamodel.getEnumTypes(), metamodel.getEnumTypesForLiterals(), !compatibleMode, optimize, originalExpressionFactory), expressionCache, SUBQUERY_EXPRESSION_CACHE_NAME_PREFIX);
         this.macroConfiguration = MacroConfiguration.of(JpqlMacroAdapter.createMacros(config.getMacros(), cachingExpressionFactory));
         JpqlMacroStorage macroStorage = new JpqlMacroStorage(null, macroConfiguration);
         this.expressionFactory = new JpqlMacroAwareExpressionFactory(cachingExpressionFactory, macroStorage);
         this.subqueryExpressionFactory = new JpqlMacroAwareExpressionFactory(cachingSubqueryExpressionFactory, macroStorage);
+        int queryTemplateCacheMaximumSize = PropertyUtils.getAsIntProperty((Map<String, String>) (Map<?, ?>) config.getProperties(), ConfigurationProperties.QUERY_TEMPLATE_CACHE_MAXIMUM_SIZE, 0);
+        this.queryTemplateCache = queryTemplateCacheMaximumSize > 0 ? new QueryTemplateCache(queryTemplateCacheMaximumSize) : null;
+        this.countCache = new CountCacheImpl(
+                PropertyUtils.getAsIntProperty((Map<String, String>) (Map<?, ?>) config.getProperties(), ConfigurationProperties.COUNT_CACHE_MAXIMUM_SIZE, DEFAULT_COUNT_CACHE_MAXIMUM_SIZE),
+                PropertyUtils.getAsIntProperty((Map<String, String>) (Map<?, ?>) config.getProperties(), ConfigurationProperties.COUNT_CACHE_EXPIRATION, DEFAULT_COUNT_CACHE_EXPIRATION)
+        );
     }
 
-    private ExpressionCache createCache(String className) {
+    private ExpressionCache createCache(String className, Map<String, String> properties) {
         try {
-            return (ExpressionCache) Class.forName(className).newInstance();
+            Class<?> cacheClass = Class.forName(className);
+            try {
+                // Cache implementations may accept the configuration properties to configure themselves
+                return (ExpressionCache) cacheClass.getConstructor(Map.class).newInstance(properties);
+            } catch (NoSuchMethodException ex) {
+                return (ExpressionCache) cacheClass.newInstance();
+            }
         } catch (Exception ex) {
             throw new IllegalArgumentException("Could not instantiate expression cache: " + className, ex);
         }
@@ -200,6 +225,14 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
         return extendedQuerySupport;
     }
 
+    public QueryTemplateCache getQueryTemplateCache() {
+        return queryTemplateCache;
+    }
+
+    public CountCacheImpl getCountCache() {
+        return countCache;
+    }
+
     public Map<String, FunctionKind> getFunctions() {
         return functions;
     }
@@ -354,6 +387,12 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
             return (T) jpaProvider;
         } else if (ExpressionCache.class.equals(serviceClass)) {
             return (T) expressionCache;
+        } else if (CountCache.class.equals(serviceClass)) {
+            return (T) countCache;
+        } else if (ExpressionCacheStatistics.class.equals(serviceClass)) {
+            if (expressionCache instanceof InstrumentedExpressionCache<?>) {
+                return (T) ((InstrumentedExpressionCache<?>) expressionCache).getStatistics();
+            }
         } else if (Metamodel.class.isAssignableFrom(serviceClass)) {
             return (T) metamodel;
         } else if (EntityManagerFactory.class.equals(serviceClass)) {
@@ -45,11 +45,21 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
     private final Boolean inlineCountQuery;
     private final Boolean inlineCtes;
     private final boolean queryPlanCacheEnabled;
+    private final boolean countCacheEnabled;
+    private final boolean inListPaddingEnabled;
+    private final int queryPlanCacheMaximumSize;
+    private final int valuesTemporaryTableThreshold;
+    private final boolean valuesArrayBindingEnabled;
 
     public ImmutableQueryConfiguration(Map<String, String> properties) {
         this.compatibleModeEnabled = PropertyUtils.getAsBooleanProperty(properties, ConfigurationProperties.COMPATIBLE_MODE, false);
         this.expressionOptimizationEnabled = PropertyUtils.getAsBooleanProperty(properties, ConfigurationProperties.EXPRESSION_OPTIMIZATION, true);
         this.expressionCacheClass = properties.get(ConfigurationProperties.EXPRESSION_CACHE_CLASS);
+        this.queryPlanCacheMaximumSize = PropertyUtils.getAsIntProperty(properties, ConfigurationProperties.QUERY_PLAN_CACHE_MAXIMUM_SIZE, 2048);
+        this.valuesTemporaryTableThreshold = PropertyUtils.getAsIntProperty(properties, ConfigurationProperties.VALUES_TEMPORARY_TABLE_THRESHOLD, 0);
+        if (valuesTemporaryTableThreshold < 0) {
+            throw new IllegalArgumentException("Invalid negative value for property " + ConfigurationProperties.VALUES_TEMPORARY_TABLE_THRESHOLD + ": " + valuesTemporaryTableThreshold);
+        }
 
         this.returningClauseCaseSensitive =                 getBooleanProperty(properties, ConfigurationProperties.RETURNING_CLAUSE_CASE_SENSITIVE,     "false");
         this.sizeToCountTransformationEnabled =             getBooleanProperty(properties, ConfigurationProperties.SIZE_TO_COUNT_TRANSFORMATION,        "true");
@@ -66,6 +76,9 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
         this.inlineCountQuery = "auto".equalsIgnoreCase(inlineCountQuery) ? null : Boolean.parseBoolean(inlineCountQuery);
         this.inlineCtes = "auto".equalsIgnoreCase(inlineCtes) ? null : Boolean.parseBoolean(inlineCtes);
         this.queryPlanCacheEnabled =                        getBooleanProperty(properties, ConfigurationProperties.QUERY_PLAN_CACHE_ENABLED,            "true");
+        this.countCacheEnabled =                            getBooleanProperty(properties, ConfigurationProperties.COUNT_CACHE_ENABLED,                 "false");
+        this.inListPaddingEnabled =                         getBooleanProperty(properties, ConfigurationProperties.IN_LIST_PADDING,                     "false");
+        this.valuesArrayBindingEnabled =                    getBooleanProperty(properties, ConfigurationProperties.VALUES_ARRAY_BINDING,                "false");
     }
 
     @Override
@@ -153,6 +166,31 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
         return queryPlanCacheEnabled;
     }
 
+    @Override
+    public int getQueryPlanCacheMaximumSize() {
+        return queryPlanCacheMaximumSize;
+    }
+
+    @Override
+    public boolean isCountCacheEnabled() {
+        return countCacheEnabled;
+    }
+
+    @Override
+    public boolean isInListPaddingEnabled() {
+        return inListPaddingEnabled;
+    }
+
+    @Override
+    public int getValuesTemporaryTableThreshold() {
+        return valuesTemporaryTableThreshold;
+    }
+
+    @Override
+    public boolean isValuesArrayBindingEnabled() {
+        return valuesArrayBindingEnabled;
+    }
+
     @Override
     public String getProperty(String name) {
         switch (name) {
@@ -171,6 +209,11 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
             case ConfigurationProperties.INLINE_COUNT_QUERY: return inlineIdQuery == null ? "auto" : Boolean.toString(inlineIdQuery);
             case ConfigurationProperties.INLINE_CTES: return inlineCtes == null ? "auto" : Boolean.toString(inlineCtes);
             case ConfigurationProperties.QUERY_PLAN_CACHE_ENABLED: return Boolean.toString(queryPlanCacheEnabled);
+            case ConfigurationProperties.QUERY_PLAN_CACHE_MAXIMUM_SIZE: return Integer.toString(queryPlanCacheMaximumSize);
+            case ConfigurationProperties.COUNT_CACHE_ENABLED: return Boolean.toString(countCacheEnabled);
+            case ConfigurationProperties.IN_LIST_PADDING: return Boolean.toString(inListPaddingEnabled);
+            case ConfigurationProperties.VALUES_TEMPORARY_TABLE_THRESHOLD: return Integer.toString(valuesTemporaryTableThreshold);
+            case ConfigurationProperties.VALUES_ARRAY_BINDING: return Boolean.toString(valuesArrayBindingEnabled);
             default: return null;
         }
     }
@@ -193,6 +236,11 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
         properties.put(ConfigurationProperties.INLINE_COUNT_QUERY, getInlineCountQueryEnabled() == null ? "auto" : Boolean.toString(getInlineCountQueryEnabled()));
         properties.put(ConfigurationProperties.INLINE_CTES, getInlineCtesEnabled() == null ? "auto" : Boolean.toString(getInlineCtesEnabled()));
         properties.put(ConfigurationProperties.QUERY_PLAN_CACHE_ENABLED, Boolean.toString(queryPlanCacheEnabled));
+        properties.put(ConfigurationProperties.QUERY_PLAN_CACHE_MAXIMUM_SIZE, Integer.toString(queryPlanCacheMaximumSize));
+        properties.put(ConfigurationProperties.COUNT_CACHE_ENABLED, Boolean.toString(countCacheEnabled));
+        properties.put(ConfigurationProperties.IN_LIST_PADDING, Boolean.toString(inListPaddingEnabled));
+        properties.put(ConfigurationProperties.VALUES_TEMPORARY_TABLE_THRESHOLD, Integer.toString(valuesTemporaryTableThreshold));
+        properties.put(ConfigurationProperties.VALUES_ARRAY_BINDING, Boolean.toString(valuesArrayBindingEnabled));
         return properties;
     }
 
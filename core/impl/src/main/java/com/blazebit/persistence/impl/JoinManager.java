@@ -72,6 +72,7 @@ import com.blazebit.persistence.spi.ExtendedAttribute;
 import com.blazebit.persistence.spi.ExtendedManagedType;
 import com.blazebit.persistence.spi.JpaMetamodelAccessor;
 import com.blazebit.persistence.spi.JpaProvider;
+import com.blazebit.persistence.spi.ValuesStrategy;
 
 import javax.persistence.metamodel.Attribute;
 import javax.persistence.metamodel.BasicType;
@@ -470,23 +471,23 @@ public class JoinManager extends AbstractManager<ExpressionModifier> {
             }
         }
 
-        String[][] parameterNames = new String[valueCount][attributePaths.size()];
-        String[] attributes = new String[attributePaths.size()];
-        AttributeAccessor<Object, Object>[] pathExpressions = new AttributeAccessor[attributePaths.size()];
+        String[] attributes = attributePaths.toArray(new String[attributePaths.size()]);
+        ValuesParameterBinder binder = ValuesParameterBinder.create(mainQuery, rootAlias, valueCount, extendedManagedType, valueClass, simpleValue, valuesClassAttributeName, attributes, valueClazzAttributeSingular && qualificationExpression == null);
+        String[][] parameterNames = binder.getParameterNames();
+        AttributeAccessor<Object, Object>[] pathExpressions = binder.getPathExpressions();
 
         for (int i = 0; i < attributePaths.size(); i++) {
             String attributeName = attributePaths.get(i);
             String parameterPart = attributeName.replace('.', '_');
-            attributes[i] = attributeName;
             if (simpleValueAttributePrefix.isEmpty()) {
                 pathExpressions[i] = CompositeAttributeAccessor.of(mainQuery.metamodel.getManagedType(ExtendedManagedType.class, valueClass), attributeName);
-                for (int j = 0; j < valueCount; j++) {
+                for (int j = 0; j < parameterNames.length; j++) {
                     parameterNames[j][i] = rootAlias + '_' + parameterPart + '_' + j;
                 }
             } else {
                 if (attributeName.startsWith(simpleValueAttributePrefix)) {
                     pathExpressions[i] = CompositeAttributeAccessor.of(mainQuery.metamodel.getManagedType(ExtendedManagedType.class, valueClass), attributeName.substring(simpleValueAttributePrefix.length()));
-                    for (int j = 0; j < valueCount; j++) {
+                    for (int j = 0; j < parameterNames.length; j++) {
                         parameterNames[j][i] = rootAlias + '_' + parameterPart + '_' + j;
                     }
                 } else if (simpleValue || attributeName.equals(valuesClassAttributeName)) {
@@ -494,22 +495,22 @@ public class JoinManager extends AbstractManager<ExpressionModifier> {
                     if (qualificationExpression != null) {
                         parameterPart += '_' + qualificationExpression.toLowerCase();
                     }
-                    for (int j = 0; j < valueCount; j++) {
+                    for (int j = 0; j < parameterNames.length; j++) {
                         parameterNames[j][i] = rootAlias + '_' + parameterPart + '_' + j;
                     }
                 } else {
                     pathExpressions[i] = CompositeAttributeAccessor.of(mainQuery.metamodel.getManagedType(ExtendedManagedType.class, valueClass), attributeName);
-                    for (int j = 0; j < valueCount; j++) {
+                    for (int j = 0; j < parameterNames.length; j++) {
                         parameterNames[j][i] = rootAlias + '_' + parameterPart + '_' + j;
                     }
                 }
             }
         }
 
-        parameterManager.registerValuesParameter(rootAlias, valueClass, parameterNames, pathExpressions, queryBuilder);
+        parameterManager.registerValuesParameter(rootAlias, valueClass, binder, queryBuilder);
 
         JoinAliasInfo rootAliasInfo = new JoinAliasInfo(rootAlias, rootAlias, false, true, aliasManager);
-        JoinNode rootNode = JoinNode.createValuesRootNode(type, entityType, typeName, valueCount, idAttributeNames, valueLikeClause, qualificationExpression, valueClazzAttributeSingular, simpleValue, valuesClassAttributeName, castedParameter, attributes, rootAliasInfo);
+        JoinNode rootNode = JoinNode.createValuesRootNode(type, entityType, typeName, valueCount, idAttributeNames, valueLikeClause, qualificationExpression, valueClazzAttributeSingular, simpleValue, valuesClassAttributeName, castedParameter, attributes, binder.getValuesStrategy(), binder.getValuesTableSql(), rootAliasInfo);
         rootAliasInfo.setJoinNode(rootNode);
         rootNodes.add(rootNode);
         explicitJoinNodes.add(rootNode);
@@ -1496,8 +1497,11 @@ public class JoinManager extends AbstractManager<ExpressionModifier> {
                 String[] attributes = rootNode.getValuesAttributes();
                 String valueClazzAttributeName = rootNode.getValuesLikeAttribute();
                 String prefix = rootNode.getAlias();
+                // The values of a temporary table or array aren't passed as parameter per value, so a single row is enough
+                ValuesStrategy valuesStrategy = rootNode.getValuesStrategy();
+                int rowCount = valuesStrategy == null ? valueCount : 1;
 
-                for (int i = 0; i < valueCount; i++) {
+                for (int i = 0; i < rowCount; i++) {
                     for (int j = 0; j < attributes.length; j++) {
                         if (typeName != null) {
                             sb.append("TREAT_");
@@ -1533,7 +1537,16 @@ public class JoinManager extends AbstractManager<ExpressionModifier> {
                             }
                         }
 
-                        sb.append(" = ");
+                        if (valuesStrategy == null) {
+                            sb.append(" = ");
+                        } else {
+                            // The array literal and load id parameters must not be typed by the attribute, so we compare them with a string instead
+                            sb.append(" IS NULL OR ");
+                            // The temporary table only has a single load id parameter
+                            if (valuesStrategy == ValuesStrategy.TEMPORARY_TABLE && j > 0) {
+                                continue;
+                            }
+                        }
 
                         sb.append(':');
                         sb.append(prefix);
@@ -1548,6 +1561,9 @@ public class JoinManager extends AbstractManager<ExpressionModifier> {
                             sb.append(rootNode.getQualificationExpression().toLowerCase());
                         }
                         sb.append('_').append(i);
+                        if (valuesStrategy != null) {
+                            sb.append(" <> ''");
+                        }
                         sb.append(" OR ");
                     }
                 }
@@ -37,6 +37,7 @@ import com.blazebit.persistence.parser.predicate.CompoundPredicate;
 import com.blazebit.persistence.parser.predicate.EqPredicate;
 import com.blazebit.persistence.parser.predicate.Predicate;
 import com.blazebit.persistence.parser.util.JpaMetamodelUtils;
+import com.blazebit.persistence.spi.ValuesStrategy;
 
 import javax.persistence.metamodel.Attribute;
 import javax.persistence.metamodel.EntityType;
@@ -85,6 +86,8 @@ public class JoinNode implements From, ExpressionModifier, BaseNode {
     private final String valuesLikeAttribute;
     private final String valuesCastedParameter;
     private final String[] valuesAttributes;
+    private final ValuesStrategy valuesStrategy;
+    private final String valuesTableSql;
     private final String qualificationExpression;
     private final JoinAliasInfo aliasInfo;
     private final List<JoinNode> joinNodesForTreatConstraint;
@@ -129,6 +132,8 @@ public class JoinNode implements From, ExpressionModifier, BaseNode {
         this.valuesLikeAttribute = treatedJoinNode.valuesLikeAttribute;
         this.valuesCastedParameter = treatedJoinNode.valuesCastedParameter;
         this.valuesAttributes = treatedJoinNode.valuesAttributes;
+        this.valuesStrategy = treatedJoinNode.valuesStrategy;
+        this.valuesTableSql = treatedJoinNode.valuesTableSql;
         this.aliasInfo = treatedJoinAliasInfo;
         this.lateral = treatedJoinNode.lateral;
         List<JoinNode> joinNodesForTreatConstraint = new ArrayList<>(treatedJoinNode.joinNodesForTreatConstraint.size() + 1);
@@ -156,6 +161,8 @@ public class JoinNode implements From, ExpressionModifier, BaseNode {
         this.valuesLikeAttribute = null;
         this.valuesCastedParameter = null;
         this.valuesAttributes = null;
+        this.valuesStrategy = null;
+        this.valuesTableSql = null;
         this.qualificationExpression = qualificationExpression;
         this.aliasInfo = aliasInfo;
         if (treatType != null) {
@@ -177,7 +184,8 @@ public class JoinNode implements From, ExpressionModifier, BaseNode {
         onUpdate(null);
     }
 
-    private JoinNode(Type<?> nodeType, EntityType<?> valueType, String valuesTypeName, int valueCount, Set<String> valuesIdNames, String valuesLikeClause, String valueClazzAttributeQualificationExpression, boolean valueClazzAttributeSingular, boolean valueClazzSimpleValue, String valuesLikeAttribute, String valuesCastedParameter, String[] valuesAttributes, JoinAliasInfo aliasInfo) {
+    private JoinNode(Type<?> nodeType, EntityType<?> valueType, String valuesTypeName, int valueCount, Set<String> valuesIdNames, String valuesLikeClause, String valueClazzAttributeQualificationExpression, boolean valueClazzAttributeSingular, boolean valueClazzSimpleValue, String valuesLikeAttribute, String valuesCastedParameter, String[] valuesAttributes,
+                     ValuesStrategy valuesStrategy, String valuesTableSql, JoinAliasInfo aliasInfo) {
         this.parent = null;
         this.parentTreeNode = null;
         this.joinType = null;
@@ -195,6 +203,8 @@ public class JoinNode implements From, ExpressionModifier, BaseNode {
         this.valuesLikeAttribute = valuesLikeAttribute;
         this.valuesCastedParameter = valuesCastedParameter;
         this.valuesAttributes = valuesAttributes;
+        this.valuesStrategy = valuesStrategy;
+        this.valuesTableSql = valuesTableSql;
         this.qualificationExpression = valueClazzAttributeQualificationExpression;
         this.aliasInfo = aliasInfo;
         this.joinNodesForTreatConstraint = Collections.emptyList();
@@ -210,11 +220,12 @@ public class JoinNode implements From, ExpressionModifier, BaseNode {
         String sqlType = mainQuery.dbmsDialect.getSqlType(Long.class);
         String valuesTypeName = mainQuery.cbf.getNamedTypes().get(Long.class);
         String valuesCastedParameter = mainQuery.dbmsDialect.cast("?", sqlType);
-        return new JoinNode(mainQuery.metamodel.type(nodeType), mainQuery.metamodel.entity(ValuesEntity.class), valuesTypeName, valueCount, null, null, null, true, true, "value", valuesCastedParameter, new String[] { "value" }, aliasInfo);
+        return new JoinNode(mainQuery.metamodel.type(nodeType), mainQuery.metamodel.entity(ValuesEntity.class), valuesTypeName, valueCount, null, null, null, true, true, "value", valuesCastedParameter, new String[] { "value" }, null, null, aliasInfo);
     }
 
-    public static JoinNode createValuesRootNode(Type<?> nodeType, EntityType<?> valueType, String valuesTypeName, int valueCount, Set<String> valuesIdName, String valuesLikeClause, String qualificationExpression, boolean valueClazzAttributeSingular, boolean valueClazzSimpleValue, String valuesLikeAttribute, String valuesCastedParameter, String[] valuesAttributes, JoinAliasInfo aliasInfo) {
-        return new JoinNode(nodeType, valueType, valuesTypeName, valueCount, valuesIdName, valuesLikeClause, qualificationExpression, valueClazzAttributeSingular, valueClazzSimpleValue, valuesLikeAttribute, valuesCastedParameter, valuesAttributes, aliasInfo);
+    public static JoinNode createValuesRootNode(Type<?> nodeType, EntityType<?> valueType, String valuesTypeName, int valueCount, Set<String> valuesIdName, String valuesLikeClause, String qualificationExpression, boolean valueClazzAttributeSingular, boolean valueClazzSimpleValue, String valuesLikeAttribute, String valuesCastedParameter, String[] valuesAttributes,
+                                                ValuesStrategy valuesStrategy, String valuesTableSql, JoinAliasInfo aliasInfo) {
+        return new JoinNode(nodeType, valueType, valuesTypeName, valueCount, valuesIdName, valuesLikeClause, qualificationExpression, valueClazzAttributeSingular, valueClazzSimpleValue, valuesLikeAttribute, valuesCastedParameter, valuesAttributes, valuesStrategy, valuesTableSql, aliasInfo);
     }
 
     public static JoinNode createCorrelationRootNode(JoinNode correlationParent, String correlationPath, Attribute<?, ?> correlatedAttribute, Type<?> nodeType, EntityType<?> treatType, JoinAliasInfo aliasInfo, boolean lateral) {
@@ -233,7 +244,7 @@ public class JoinNode implements From, ExpressionModifier, BaseNode {
         // NOTE: no cloning of treatedJoinNodes and entityJoinNodes is intentional
         JoinNode newNode;
         if (valueCount > 0) {
-            newNode = createValuesRootNode(nodeType, valueType, valuesTypeName, valueCount, valuesIdNames, valuesLikeClause, qualificationExpression, valueClazzAttributeSingular, valueClazzSimpleValue, valuesLikeAttribute, valuesCastedParameter, valuesAttributes, aliasInfo);
+            newNode = createValuesRootNode(nodeType, valueType, valuesTypeName, valueCount, valuesIdNames, valuesLikeClause, qualificationExpression, valueClazzAttributeSingular, valueClazzSimpleValue, valuesLikeAttribute, valuesCastedParameter, valuesAttributes, valuesStrategy, valuesTableSql, aliasInfo);
         } else if (correlationParent == null) {
             newNode = createRootNode((EntityType<?>) nodeType, aliasInfo);
         } else {
@@ -736,6 +747,14 @@ public class JoinNode implements From, ExpressionModifier, BaseNode {
         return valuesAttributes;
     }
 
+    public ValuesStrategy getValuesStrategy() {
+        return valuesStrategy;
+    }
+
+    public String getValuesTableSql() {
+        return valuesTableSql;
+    }
+
     public JoinNode getCorrelationParent() {
         return correlationParent;
     }
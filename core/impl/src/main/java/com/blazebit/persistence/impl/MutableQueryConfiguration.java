@@ -30,6 +30,7 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
     private final boolean compatibleModeEnabled;
     private final boolean expressionOptimizationEnabled;
     private final String expressionCacheClass;
+    private final int queryPlanCacheMaximumSize;
 
     private boolean returningClauseCaseSensitive;
     private boolean sizeToCountTransformationEnabled;
@@ -44,11 +45,16 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
     private Boolean inlineCountQuery;
     private Boolean inlineCtes;
     private boolean queryPlanCacheEnabled;
+    private boolean countCacheEnabled;
+    private boolean inListPaddingEnabled;
+    private int valuesTemporaryTableThreshold;
+    private boolean valuesArrayBindingEnabled;
 
     public MutableQueryConfiguration(QueryConfiguration queryConfiguration) {
         this.compatibleModeEnabled = queryConfiguration.isCompatibleModeEnabled();
         this.expressionOptimizationEnabled = queryConfiguration.isExpressionOptimizationEnabled();
         this.expressionCacheClass = queryConfiguration.getExpressionCacheClass();
+        this.queryPlanCacheMaximumSize = queryConfiguration.getQueryPlanCacheMaximumSize();
         this.returningClauseCaseSensitive = queryConfiguration.isReturningClauseCaseSensitive();
         this.sizeToCountTransformationEnabled = queryConfiguration.isCountTransformationEnabled();
         this.implicitGroupByFromSelectEnabled = queryConfiguration.isImplicitGroupByFromSelectEnabled();
@@ -61,6 +67,11 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
         this.inlineIdQuery = queryConfiguration.getInlineIdQueryEnabled();
         this.inlineCountQuery = queryConfiguration.getInlineCountQueryEnabled();
         this.inlineCtes = queryConfiguration.getInlineCtesEnabled();
+        this.queryPlanCacheEnabled = queryConfiguration.isQueryPlanCacheEnabled();
+        this.countCacheEnabled = queryConfiguration.isCountCacheEnabled();
+        this.inListPaddingEnabled = queryConfiguration.isInListPaddingEnabled();
+        this.valuesTemporaryTableThreshold = queryConfiguration.getValuesTemporaryTableThreshold();
+        this.valuesArrayBindingEnabled = queryConfiguration.isValuesArrayBindingEnabled();
     }
 
     @Override
@@ -148,6 +159,31 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
         return queryPlanCacheEnabled;
     }
 
+    @Override
+    public int getQueryPlanCacheMaximumSize() {
+        return queryPlanCacheMaximumSize;
+    }
+
+    @Override
+    public boolean isCountCacheEnabled() {
+        return countCacheEnabled;
+    }
+
+    @Override
+    public boolean isInListPaddingEnabled() {
+        return inListPaddingEnabled;
+    }
+
+    @Override
+    public int getValuesTemporaryTableThreshold() {
+        return valuesTemporaryTableThreshold;
+    }
+
+    @Override
+    public boolean isValuesArrayBindingEnabled() {
+        return valuesArrayBindingEnabled;
+    }
+
     @Override
     public void setProperties(Map<String, String> properties) {
         for (Map.Entry<String, String> entry : properties.entrySet()) {
@@ -174,6 +210,11 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
             case ConfigurationProperties.INLINE_COUNT_QUERY:                    inlineCountQuery = "auto".equalsIgnoreCase(propertyValue) ? null : booleanOrFail(propertyName, propertyValue); break;
             case ConfigurationProperties.INLINE_CTES:                           inlineCtes = "auto".equalsIgnoreCase(propertyValue) ? null : booleanOrFail(propertyName, propertyValue); break;
             case ConfigurationProperties.QUERY_PLAN_CACHE_ENABLED:              queryPlanCacheEnabled = booleanOrFail(propertyName, propertyValue); break;
+            case ConfigurationProperties.QUERY_PLAN_CACHE_MAXIMUM_SIZE:         throw propertySetNotAllowed(propertyName);
+            case ConfigurationProperties.COUNT_CACHE_ENABLED:                   countCacheEnabled = booleanOrFail(propertyName, propertyValue); break;
+            case ConfigurationProperties.IN_LIST_PADDING:                       inListPaddingEnabled = booleanOrFail(propertyName, propertyValue); break;
+            case ConfigurationProperties.VALUES_TEMPORARY_TABLE_THRESHOLD:      valuesTemporaryTableThreshold = nonNegativeIntOrFail(propertyName, propertyValue); break;
+            case ConfigurationProperties.VALUES_ARRAY_BINDING:                  valuesArrayBindingEnabled = booleanOrFail(propertyName, propertyValue); break;
             default: break;
         }
         // CHECKSTYLE:ON: OneStatementPerLine
@@ -192,4 +233,17 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
 
         throw new IllegalArgumentException("Illegal value '" + propertyValue + "' for boolean property '" + propertyName + "'");
     }
+
+    private int nonNegativeIntOrFail(String propertyName, String propertyValue) {
+        try {
+            int value = Integer.parseInt(propertyValue.trim());
+            if (value >= 0) {
+                return value;
+            }
+        } catch (NumberFormatException ex) {
+            // Fall through
+        }
+
+        throw new IllegalArgumentException("Illegal value '" + propertyValue + "' for non-negative integer property '" + propertyName + "'");
+    }
 }
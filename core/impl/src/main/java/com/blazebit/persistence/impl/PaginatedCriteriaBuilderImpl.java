@@ -17,6 +17,7 @@
 package com.blazebit.persistence.impl;
 
 import com.blazebit.persistence.CaseWhenStarterBuilder;
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.ConfigurationProperties;
 import com.blazebit.persistence.CriteriaBuilder;
 import com.blazebit.persistence.FullQueryBuilder;
@@ -46,9 +47,12 @@ import com.blazebit.persistence.impl.keyset.KeysetMode;
 import com.blazebit.persistence.impl.keyset.KeysetPaginationHelper;
 import com.blazebit.persistence.impl.keyset.SimpleKeysetLink;
 import com.blazebit.persistence.impl.query.CTENode;
+import com.blazebit.persistence.impl.query.ConcurrentCountQuery;
+import com.blazebit.persistence.impl.query.CountCacheImpl;
 import com.blazebit.persistence.impl.query.CustomQuerySpecification;
 import com.blazebit.persistence.impl.query.CustomSQLTypedQuery;
 import com.blazebit.persistence.impl.query.EntityFunctionNode;
+import com.blazebit.persistence.impl.query.ListResultIterator;
 import com.blazebit.persistence.impl.query.ObjectBuilderTypedQuery;
 import com.blazebit.persistence.impl.query.QuerySpecification;
 import com.blazebit.persistence.parser.expression.PathExpression;
@@ -66,6 +70,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  *
@@ -86,6 +91,7 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
     private Boolean withInlineIdQuery;
     private boolean withInlineCountQuery;
     private long maximumCount = Long.MAX_VALUE;
+    private Executor countQueryExecutor;
     private int highestOffset = 0;
     private final KeysetPage keysetPage;
     private final ResolvedExpression[] identifierExpressions;
@@ -261,6 +267,17 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         return maximumCount;
     }
 
+    @Override
+    public PaginatedCriteriaBuilder<T> withCountQueryExecutor(Executor executor) {
+        this.countQueryExecutor = executor;
+        return this;
+    }
+
+    @Override
+    public Executor getCountQueryExecutor() {
+        return countQueryExecutor;
+    }
+
     @Override
     public PaginatedCriteriaBuilder<T> withForceIdQuery(boolean withForceIdQuery) {
         this.withForceIdQuery = withForceIdQuery;
@@ -428,7 +445,7 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
             String valueParameterName = dualNode.getAlias() + "_value_0";
             String[][] parameterNames = new String[1][1];
             parameterNames[0][0] = valueParameterName;
-            ParameterManager.ValuesParameterWrapper valuesParameterWrapper = new ParameterManager.ValuesParameterWrapper(dualNode.getJavaType(), parameterNames, new AttributeAccessor[1]);
+            ParameterManager.ValuesParameterWrapper valuesParameterWrapper = new ParameterManager.ValuesParameterWrapper(dualNode.getJavaType(), new ValuesParameterBinder(parameterNames, new AttributeAccessor[1]));
             parameters.add(new ParameterManager.ParameterImpl<Object>(dualNode.getAlias(), false, null, null, valuesParameterWrapper));
             valuesParameters = new HashMap<>(valuesParameters);
             valuesParameters.put(valueParameterName, dualNode.getAlias());
@@ -495,6 +512,21 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         ObjectBuilder<T> objectBuilder;
         boolean inlinedIdQuery;
         boolean inlinedCountQuery = firstResult < maximumCount && withCountQuery && withInlineCountQuery;
+        ConcurrentCountQuery concurrentCountQuery = null;
+        // Only a plain JPQL count query can be recreated on a different entity manager
+        if (countQueryExecutor != null && withCountQuery && !inlinedCountQuery && entityId == null && maximumCount == Long.MAX_VALUE
+                && normalQueryMode && isEmpty(keyRestrictedLeftJoins, COUNT_QUERY_CLAUSE_EXCLUSIONS)) {
+            concurrentCountQuery = new ConcurrentCountQuery(countQueryExecutor, em.getEntityManagerFactory(), mainQuery.jpaProvider, countQueryString, isCacheable());
+        }
+        CountCacheImpl countCache = null;
+        String countCacheQueryString = null;
+        Set<Class<?>> countCacheEntityClasses = null;
+        if (mainQuery.getQueryConfiguration().isCountCacheEnabled() && firstResult < maximumCount && withCountQuery && !inlinedCountQuery && entityId == null) {
+            countCache = mainQuery.cbf.getCountCache();
+            // The external query string also contains CTEs and entity functions, so it fully describes the count query
+            countCacheQueryString = getExternalPageCountQueryString();
+            countCacheEntityClasses = getUsedEntityClasses();
+        }
         if (!isWithInlineIdQuery() && (hasCollections || withForceIdQuery)) {
             String idQueryString = getPageIdQueryStringWithoutCheck();
             if (normalQueryMode) {
@@ -542,16 +574,37 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
                 keysetPage,
                 forceFirstResult,
                 inlinedIdQuery,
-                inlinedCountQuery
+                inlinedCountQuery,
+                concurrentCountQuery,
+                countCache,
+                countCacheQueryString,
+                countCacheEntityClasses,
+                em,
+                mainQuery.jpaProvider
         );
         return query;
     }
 
+    private Set<Class<?>> getUsedEntityClasses() {
+        Set<Class<?>> entityClasses = new HashSet<>();
+        collectEntityClasses(entityClasses);
+        for (CTEInfo cteInfo : mainQuery.cteManager.getCtes()) {
+            cteInfo.collectEntityClasses(entityClasses);
+        }
+        return entityClasses;
+    }
+
     @Override
     public PagedList<T> getResultList() {
         return getQuery().getResultList();
     }
 
+    @Override
+    public CloseableIterator<T> getResultIterator() {
+        // The memory needed for a page is bounded by the page size, so there is no need for scrolling
+        return new ListResultIterator<>(getResultList());
+    }
+
     @Override
     public String getCountQueryString() {
         return getPageCountQueryString();
@@ -882,7 +935,7 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
                 String valueParameterName = dualNode.getAlias() + "_value_0";
                 String[][] parameterNames = new String[1][1];
                 parameterNames[0][0] = valueParameterName;
-                ParameterManager.ValuesParameterWrapper valuesParameterWrapper = new ParameterManager.ValuesParameterWrapper(dualNode.getJavaType(), parameterNames, new AttributeAccessor[1]);
+                ParameterManager.ValuesParameterWrapper valuesParameterWrapper = new ParameterManager.ValuesParameterWrapper(dualNode.getJavaType(), new ValuesParameterBinder(parameterNames, new AttributeAccessor[1]));
                 parameters.add(new ParameterManager.ParameterImpl<Object>(dualNode.getAlias(), false, null, null, valuesParameterWrapper));
                 valuesParameters = new HashMap<>(valuesParameters);
                 valuesParameters.put(valueParameterName, dualNode.getAlias());
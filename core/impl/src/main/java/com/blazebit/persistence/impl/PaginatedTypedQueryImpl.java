@@ -26,8 +26,12 @@ import com.blazebit.persistence.impl.builder.object.KeysetExtractionObjectBuilde
 import com.blazebit.persistence.impl.keyset.KeysetMode;
 import com.blazebit.persistence.DefaultKeysetPage;
 import com.blazebit.persistence.impl.keyset.KeysetPaginationHelper;
+import com.blazebit.persistence.impl.query.ConcurrentCountQuery;
+import com.blazebit.persistence.impl.query.CountCacheImpl;
 import com.blazebit.persistence.impl.util.SetView;
+import com.blazebit.persistence.spi.JpaProvider;
 
+import javax.persistence.EntityManager;
 import javax.persistence.FlushModeType;
 import javax.persistence.LockModeType;
 import javax.persistence.NoResultException;
@@ -48,6 +52,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * @author Christian Beikov
@@ -78,9 +84,16 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
     private final boolean forceFirstResult;
     private final boolean inlinedIdQuery;
     private final boolean inlinedCountQuery;
+    private final ConcurrentCountQuery concurrentCountQuery;
+    private final CountCacheImpl countCache;
+    private final String countCacheQueryString;
+    private final Set<Class<?>> countCacheEntityClasses;
+    private final EntityManager em;
+    private final JpaProvider jpaProvider;
 
     public PaginatedTypedQueryImpl(boolean withExtractAllKeysets, boolean withCount, boolean boundedCount, int highestOffset, TypedQuery<?> countQuery, TypedQuery<?> idQuery, TypedQuery<X> objectQuery, ObjectBuilder<X> objectBuilder, Set<Parameter<?>> parameters,
-                                   Object entityId, int firstResult, int pageSize, int identifierCount, boolean needsNewIdList, int[] keysetToSelectIndexMapping, KeysetMode keysetMode, KeysetPage keysetPage, boolean forceFirstResult, boolean inlinedIdQuery, boolean inlinedCountQuery) {
+                                   Object entityId, int firstResult, int pageSize, int identifierCount, boolean needsNewIdList, int[] keysetToSelectIndexMapping, KeysetMode keysetMode, KeysetPage keysetPage, boolean forceFirstResult, boolean inlinedIdQuery, boolean inlinedCountQuery, ConcurrentCountQuery concurrentCountQuery,
+                                   CountCacheImpl countCache, String countCacheQueryString, Set<Class<?>> countCacheEntityClasses, EntityManager em, JpaProvider jpaProvider) {
         this.withExtractAllKeysets = withExtractAllKeysets;
         this.withCount = withCount;
         this.boundedCount = boundedCount;
@@ -101,6 +114,12 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
         this.forceFirstResult = forceFirstResult;
         this.inlinedIdQuery = inlinedIdQuery;
         this.inlinedCountQuery = inlinedCountQuery;
+        this.concurrentCountQuery = concurrentCountQuery;
+        this.countCache = countCache;
+        this.countCacheQueryString = countCacheQueryString;
+        this.countCacheEntityClasses = countCacheEntityClasses;
+        this.em = em;
+        this.jpaProvider = jpaProvider;
 
         Map<String, Parameter<?>> params = new HashMap<>(parameters.size());
         for (Parameter<?> parameter : parameters) {
@@ -159,16 +178,34 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
         return name;
     }
 
+    private Object getCountCacheKey() {
+        // Counts that might see uncommitted changes must neither be read from nor be put into the shared cache
+        if (countCache == null || jpaProvider.hasPendingChanges(em)) {
+            return null;
+        }
+        return countCache.createKey(countCacheQueryString, countQuery);
+    }
+
     @Override
     public long getTotalCount() {
-        return ((Number) countQuery.getSingleResult()).longValue();
+        Object countCacheKey = getCountCacheKey();
+        if (countCacheKey == null) {
+            return ((Number) countQuery.getSingleResult()).longValue();
+        }
+        Long cachedCount = countCache.get(countCacheKey);
+        if (cachedCount != null) {
+            return cachedCount;
+        }
+        long count = ((Number) countQuery.getSingleResult()).longValue();
+        countCache.put(countCacheKey, count, countCacheEntityClasses);
+        return count;
     }
 
     @Override
     public List<X> getPageResultList() {
         int queryFirstResult = firstResult;
         int firstRow = firstResult;
-        return getResultList(queryFirstResult, firstRow, -1L);
+        return getResultList(queryFirstResult, firstRow, -1L, null, null);
     }
 
     @Override
@@ -177,9 +214,25 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
         int queryFirstResult = firstResult;
         int firstRow = firstResult;
         long totalSize = -1L;
+        Object countCacheKey = null;
+        Future<Long> totalCountFuture = null;
         if (withCount && !inlinedCountQuery) {
             if (entityId == null) {
-                totalSize = ((Number) countQuery.getSingleResult()).longValue();
+                Long cachedCount = null;
+                countCacheKey = getCountCacheKey();
+                if (countCacheKey != null) {
+                    cachedCount = countCache.get(countCacheKey);
+                }
+                if (cachedCount != null) {
+                    totalSize = cachedCount;
+                } else if (concurrentCountQuery == null) {
+                    totalSize = ((Number) countQuery.getSingleResult()).longValue();
+                    if (countCacheKey != null) {
+                        countCache.put(countCacheKey, totalSize, countCacheEntityClasses);
+                    }
+                } else {
+                    totalCountFuture = concurrentCountQuery.execute(countQuery);
+                }
             } else {
                 Object[] result = (Object[]) countQuery.getSingleResult();
                 totalSize = ((Number) result[0]).longValue();
@@ -200,10 +253,44 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
             return new PagedArrayList<X>(null, totalSize, queryFirstResult, pageSize);
         }
 
-        return getResultList(queryFirstResult, firstRow, totalSize);
+        if (totalCountFuture == null) {
+            return getResultList(queryFirstResult, firstRow, totalSize, null, null);
+        }
+
+        boolean success = false;
+        try {
+            PagedList<X> resultList = getResultList(queryFirstResult, firstRow, totalSize, totalCountFuture, countCacheKey);
+            success = true;
+            return resultList;
+        } finally {
+            if (!success) {
+                totalCountFuture.cancel(false);
+            }
+        }
+    }
+
+    private long getTotalCount(Future<Long> totalCountFuture, Object countCacheKey) {
+        if (totalCountFuture == null) {
+            return getTotalCount();
+        }
+        try {
+            long count = totalCountFuture.get();
+            if (countCacheKey != null) {
+                countCache.put(countCacheKey, count, countCacheEntityClasses);
+            }
+            return count;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PersistenceException("Interrupted while waiting for the count query result", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new PersistenceException("Error during the execution of the count query", e.getCause());
+        }
     }
 
-    private PagedList<X> getResultList(int queryFirstResult, int firstRow, long totalSize) {
+    private PagedList<X> getResultList(int queryFirstResult, int firstRow, long totalSize, Future<Long> totalCountFuture, Object countCacheKey) {
         if (idQuery != null) {
             idQuery.setMaxResults(pageSize);
 
@@ -223,7 +310,7 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                 }
                 long size;
                 if (withCount && totalSize == -1) {
-                    size = getTotalCount();
+                    size = getTotalCount(totalCountFuture, countCacheKey);
                 } else {
                     size = totalSize;
                 }
@@ -369,8 +456,11 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                 newKeyset = new DefaultKeysetPage(firstRow, pageSize, lowest, highest, keysets);
             }
 
-            totalSize = Math.max(totalSize, firstRow + ids.size());
             List<X> queryResultList = objectQuery.getResultList();
+            if (totalCountFuture != null) {
+                totalSize = getTotalCount(totalCountFuture, countCacheKey);
+            }
+            totalSize = Math.max(totalSize, firstRow + ids.size());
 
             PagedList<X> pagedResultList = new PagedArrayList<X>(queryResultList, newKeyset, totalSize, queryFirstResult, pageSize);
             return pagedResultList;
@@ -398,7 +488,7 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                     if (inlinedCountQuery) {
                         totalSize = 0L;
                     } else if (withCount) {
-                        totalSize = getTotalCount();
+                        totalSize = getTotalCount(totalCountFuture, countCacheKey);
                     }
                 }
                 if (boundedCount) {
@@ -448,6 +538,9 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                 }
             }
 
+            if (totalCountFuture != null) {
+                totalSize = getTotalCount(totalCountFuture, countCacheKey);
+            }
             totalSize = Math.max(totalSize, firstRow + result.size());
 
             PagedList<X> pagedResultList = new PagedArrayList<X>(result, newKeyset, totalSize, queryFirstResult, pageSize);
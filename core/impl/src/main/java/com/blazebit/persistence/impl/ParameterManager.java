@@ -18,7 +18,6 @@ package com.blazebit.persistence.impl;
 
 import com.blazebit.persistence.parser.expression.Expression;
 import com.blazebit.persistence.parser.expression.ParameterExpression;
-import com.blazebit.persistence.spi.AttributeAccessor;
 
 import javax.persistence.Parameter;
 import javax.persistence.Query;
@@ -46,6 +45,7 @@ import java.util.TreeMap;
 public class ParameterManager {
 
     private static final String PREFIX = "param_";
+    private final MainQuery mainQuery;
     private int counter;
     private final Map<String, ParameterImpl<?>> parameters = new TreeMap<>();
     private final Map<String, String> valuesParameters = new TreeMap<>();
@@ -53,7 +53,8 @@ public class ParameterManager {
     private final ParameterUnregistrationVisitor parameterUnregistrationVisitor;
     private int positionalOffset = -1; // Records the last positional parameter index that was used
 
-    public ParameterManager() {
+    public ParameterManager(MainQuery mainQuery) {
+        this.mainQuery = mainQuery;
         this.parameterRegistrationVisitor = new ParameterRegistrationVisitor(this);
         this.parameterUnregistrationVisitor = new ParameterUnregistrationVisitor(this);
     }
@@ -188,6 +189,7 @@ public class ParameterManager {
     }
 
     void parameterizeQuery(Query q, String skippedParameterPrefix) {
+        boolean inListPadding = mainQuery.getQueryConfiguration().isInListPaddingEnabled();
         Set<String> requestedValueParameters = new HashSet<String>();
         for (Parameter<?> p : q.getParameters()) {
             String parameterName = p.getName();
@@ -215,16 +217,52 @@ public class ParameterManager {
                     q.setParameter(parameterName, parameter.getValue());
                 }
             } else {
-                parameter.bind(q);
+                parameter.bind(q, inListPadding);
             }
         }
 
         for (String parameterName : requestedValueParameters) {
             ParameterImpl<?> parameter = parameters.get(parameterName);
-            parameter.bind(q);
+            parameter.bind(q, false);
         }
     }
 
+    /**
+     * Returns the next power of two for the given size, which is the size to which collection valued parameters are padded.
+     *
+     * @param size The actual size
+     * @return The padded size
+     */
+    static int getPaddedSize(int size) {
+        if (size < 3) {
+            return size;
+        }
+        int paddedSize = Integer.highestOneBit(size - 1) << 1;
+        return paddedSize < 0 ? size : paddedSize;
+    }
+
+    /**
+     * Pads the given collection to the next power of two size by repeating the last element,
+     * so that queries with collection valued parameters of different sizes can share the same SQL.
+     *
+     * @param collection The collection to pad
+     * @return The padded collection or the given collection if no padding is necessary
+     */
+    static Collection<?> padCollection(Collection<?> collection) {
+        int size = collection.size();
+        int paddedSize = getPaddedSize(size);
+        if (paddedSize == size) {
+            return collection;
+        }
+        List<Object> list = new ArrayList<>(paddedSize);
+        list.addAll(collection);
+        Object lastElement = list.get(size - 1);
+        for (int i = size; i < paddedSize; i++) {
+            list.add(lastElement);
+        }
+        return list;
+    }
+
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public ParameterImpl<?> getParameter(String parameterName) {
         if (parameterName == null) {
@@ -376,14 +414,15 @@ public class ParameterManager {
         }
     }
 
-    public void registerValuesParameter(String parameterName, Class<?> type, String[][] parameterNames, AttributeAccessor<Object, Object>[] pathExpressions, AbstractCommonQueryBuilder<?, ?, ?, ?, ?> queryBuilder) {
+    public void registerValuesParameter(String parameterName, Class<?> type, ValuesParameterBinder binder, AbstractCommonQueryBuilder<?, ?, ?, ?, ?> queryBuilder) {
         if (parameterName == null) {
             throw new NullPointerException("parameterName");
         }
         if (parameters.containsKey(parameterName)) {
             throw new IllegalArgumentException("Can't register parameter for VALUES clause because there already exists a parameter with the name: " + parameterName);
         }
-        parameters.put(parameterName, new ParameterImpl<Object>(parameterName, false, ClauseType.JOIN, queryBuilder, new ValuesParameterWrapper(type, parameterNames, pathExpressions)));
+        parameters.put(parameterName, new ParameterImpl<Object>(parameterName, false, ClauseType.JOIN, queryBuilder, new ValuesParameterWrapper(type, binder)));
+        String[][] parameterNames = binder.getParameterNames();
         for (int i = 0; i < parameterNames.length; i++) {
             for (int j = 0; j < parameterNames[i].length; j++) {
                 valuesParameters.put(parameterNames[i][j], parameterName);
@@ -612,7 +651,7 @@ public class ParameterManager {
             }
         }
 
-        public void bind(Query q) {
+        public void bind(Query q, boolean inListPadding) {
             if (valueSet) {
                 if (value instanceof ParameterValue) {
                     if (name == null) {
@@ -621,10 +660,14 @@ public class ParameterManager {
                         ((ParameterValue) value).bind(q, name);
                     }
                 } else {
+                    Object boundValue = value;
+                    if (inListPadding && boundValue instanceof Collection<?>) {
+                        boundValue = padCollection((Collection<?>) boundValue);
+                    }
                     if (name == null) {
-                        q.setParameter(position, value);
+                        q.setParameter(position, boundValue);
                     } else {
-                        q.setParameter(name, value);
+                        q.setParameter(name, boundValue);
                     }
                 }
             }
@@ -785,12 +828,7 @@ public class ParameterManager {
         private final ValuesParameterBinder binder;
         private Collection<Object> value;
 
-        public ValuesParameterWrapper(Class<?> type, String[][] parameterNames, AttributeAccessor<Object, Object>[] pathExpressions) {
-            this.type = type;
-            this.binder = new ValuesParameterBinder(parameterNames, pathExpressions);
-        }
-
-        private ValuesParameterWrapper(Class<?> type, ValuesParameterBinder binder) {
+        public ValuesParameterWrapper(Class<?> type, ValuesParameterBinder binder) {
             this.type = type;
             this.binder = binder;
         }
@@ -66,4 +66,14 @@ public interface QueryConfiguration {
     public boolean isCacheable();
 
     public boolean isQueryPlanCacheEnabled();
+
+    public int getQueryPlanCacheMaximumSize();
+
+    public boolean isCountCacheEnabled();
+
+    public boolean isInListPaddingEnabled();
+
+    public int getValuesTemporaryTableThreshold();
+
+    public boolean isValuesArrayBindingEnabled();
 }
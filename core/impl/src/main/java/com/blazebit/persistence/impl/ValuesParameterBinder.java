@@ -17,6 +17,8 @@
 package com.blazebit.persistence.impl;
 
 import com.blazebit.persistence.spi.AttributeAccessor;
+import com.blazebit.persistence.spi.ExtendedManagedType;
+import com.blazebit.persistence.spi.ValuesStrategy;
 
 import javax.persistence.Query;
 import java.util.Collection;
@@ -31,13 +33,74 @@ public class ValuesParameterBinder {
 
     private final String[][] parameterNames;
     private final AttributeAccessor<Object, Object>[] pathExpressions;
+    private final ValuesStrategy valuesStrategy;
+    private final String valuesTableSql;
+    private final ValuesTemporaryTable temporaryTable;
+    private final int size;
 
     public ValuesParameterBinder(String[][] parameterNames, AttributeAccessor<Object, Object>[] pathExpressions) {
+        this(parameterNames, pathExpressions, null, null, null, parameterNames.length);
+    }
+
+    private ValuesParameterBinder(String[][] parameterNames, AttributeAccessor<Object, Object>[] pathExpressions, ValuesStrategy valuesStrategy, String valuesTableSql, ValuesTemporaryTable temporaryTable, int size) {
         this.parameterNames = parameterNames;
         this.pathExpressions = pathExpressions;
+        this.valuesStrategy = valuesStrategy;
+        this.valuesTableSql = valuesTableSql;
+        this.temporaryTable = temporaryTable;
+        this.size = size;
+    }
+
+    /**
+     * Creates a binder for a VALUES clause with the given value count that chooses between a temporary table, array binding and a parameter per value.
+     * The parameter names and path expressions are allocated with the required size and must be filled by the caller.
+     */
+    @SuppressWarnings("unchecked")
+    public static ValuesParameterBinder create(MainQuery mainQuery, String alias, int valueCount, ExtendedManagedType<?> valueHolderType, Class<?> valueClass, boolean simpleValue, String valuesClassAttributeName, String[] attributes, boolean tableBased) {
+        AttributeAccessor<Object, Object>[] pathExpressions = new AttributeAccessor[attributes.length];
+        if (tableBased) {
+            ValuesTemporaryTable temporaryTable = ValuesTemporaryTable.create(mainQuery, alias, valueCount, valueHolderType, valueClass, simpleValue, valuesClassAttributeName, attributes);
+            if (temporaryTable != null) {
+                // Values that are loaded into a temporary table only need a parameter for the load id
+                return new ValuesParameterBinder(new String[1][attributes.length], pathExpressions, ValuesStrategy.TEMPORARY_TABLE, temporaryTable.getTableName() + " where lid = ?", temporaryTable, valueCount);
+            }
+            if (mainQuery.getQueryConfiguration().isValuesArrayBindingEnabled()) {
+                String arrayTableSql = getArrayTableSql(mainQuery, valueHolderType, valueClass, simpleValue, valuesClassAttributeName, attributes);
+                if (arrayTableSql != null) {
+                    // Values bound as arrays need a single parameter per attribute
+                    return new ValuesParameterBinder(new String[1][attributes.length], pathExpressions, ValuesStrategy.ARRAY, arrayTableSql, null, valueCount);
+                }
+            }
+        }
+        return new ValuesParameterBinder(new String[valueCount][attributes.length], pathExpressions);
+    }
+
+    private static String getArrayTableSql(MainQuery mainQuery, ExtendedManagedType<?> valueHolderType, Class<?> valueClass, boolean simpleValue, String valuesClassAttributeName, String[] attributes) {
+        // Array elements are bound via their string representation, so we rely on the same restriction to unconverted strings, booleans and numbers
+        // as for temporary tables, as the representation of these types is unambiguous
+        String[] columnTypes = ValuesTemporaryTable.getColumnTypes(mainQuery, valueHolderType, valueClass, simpleValue, valuesClassAttributeName, attributes);
+        if (columnTypes == null) {
+            return null;
+        }
+        String[] columnNames = new String[columnTypes.length];
+        for (int i = 0; i < columnTypes.length; i++) {
+            // The names match the ones used for the SELECT_VALUES strategy, so we can reuse the aliasing logic
+            columnNames[i] = "c" + (i + 1);
+        }
+        return mainQuery.dbmsDialect.getArrayTableSql("values_arr_", columnNames, columnTypes);
     }
 
     public void bind(Query query, Collection<Object> value) {
+        if (valuesStrategy == ValuesStrategy.TEMPORARY_TABLE) {
+            query.setParameter(parameterNames[0][0], temporaryTable.getLoadId());
+            return;
+        }
+        if (valuesStrategy == ValuesStrategy.ARRAY) {
+            for (int j = 0; j < parameterNames[0].length; j++) {
+                query.setParameter(parameterNames[0][j], toArrayLiteral(value, pathExpressions[j]));
+            }
+            return;
+        }
         Iterator<Object> iterator = value.iterator();
         for (int i = 0; i < parameterNames.length; i++) {
             Object element;
@@ -57,6 +120,42 @@ public class ValuesParameterBinder {
         }
     }
 
+    private static String toArrayLiteral(Collection<Object> value, AttributeAccessor<Object, Object> pathExpression) {
+        StringBuilder sb = new StringBuilder(2 + value.size() * 8);
+        sb.append('{');
+        for (Object element : value) {
+            // Null elements are only used for padding, so we skip them just like the null filtering of the VALUES clause does
+            if (element != null) {
+                Object elementValue = pathExpression == null ? element : pathExpression.getNullSafe(element);
+                if (elementValue == null) {
+                    sb.append("NULL");
+                } else {
+                    String elementString = elementValue.toString();
+                    sb.append('"');
+                    for (int i = 0; i < elementString.length(); i++) {
+                        char c = elementString.charAt(i);
+                        if (c == '"' || c == '\\') {
+                            sb.append('\\');
+                        }
+                        sb.append(c);
+                    }
+                    sb.append('"');
+                }
+                sb.append(',');
+            }
+        }
+        if (sb.length() == 1) {
+            sb.append('}');
+        } else {
+            sb.setCharAt(sb.length() - 1, '}');
+        }
+        return sb.toString();
+    }
+
+    public void loadTemporaryTable(Collection<Object> value) {
+        temporaryTable.load(pathExpressions, value);
+    }
+
     public String[][] getParameterNames() {
         return parameterNames;
     }
@@ -65,7 +164,19 @@ public class ValuesParameterBinder {
         return pathExpressions;
     }
 
+    public ValuesStrategy getValuesStrategy() {
+        return valuesStrategy;
+    }
+
+    public String getValuesTableSql() {
+        return valuesTableSql;
+    }
+
+    public ValuesTemporaryTable getTemporaryTable() {
+        return temporaryTable;
+    }
+
     public int size() {
-        return parameterNames.length;
+        return size;
     }
 }
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.impl.function.entity.ValuesEntity;
+import com.blazebit.persistence.spi.AttributeAccessor;
+import com.blazebit.persistence.spi.ExtendedAttribute;
+import com.blazebit.persistence.spi.ExtendedManagedType;
+import com.blazebit.persistence.spi.ExtendedQuerySupport;
+
+import javax.persistence.EntityManager;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A session scoped temporary table that holds the values of a VALUES clause.
+ * The table is created once per connection and loaded via JDBC batching before a query is executed.
+ * Every load is tagged with a load id that the query filters by, so that rows of open cursors aren't affected by later loads.
+ * The dbms deletes the rows at the end of the transaction.
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public class ValuesTemporaryTable {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String LOAD_ID_COLUMN = "lid";
+    private static final AtomicLong LOAD_ID_SEQUENCE = new AtomicLong();
+    // Values are bound via setObject, so we only allow types for which every JDBC driver agrees on the mapping
+    private static final Set<Class<?>> SUPPORTED_TYPES = new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+            String.class, Boolean.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class, BigDecimal.class,
+            boolean.class, byte.class, short.class, int.class, long.class, float.class, double.class
+    ));
+
+    private final EntityManager em;
+    private final ExtendedQuerySupport extendedQuerySupport;
+    private final String tableName;
+    private final String creationSql;
+    private final String existsSql;
+    private final String insertSql;
+    private final int columnCount;
+    private String loadId;
+    private List<Object[]> loadedRows;
+
+    private ValuesTemporaryTable(EntityManager em, ExtendedQuerySupport extendedQuerySupport, String tableName, String creationSql, int columnCount) {
+        this.em = em;
+        this.extendedQuerySupport = extendedQuerySupport;
+        this.tableName = tableName;
+        this.creationSql = creationSql;
+        this.existsSql = "select 1 from " + tableName + " where " + LOAD_ID_COLUMN + " = ?";
+        StringBuilder sb = new StringBuilder(32 + tableName.length() + columnCount * 2);
+        sb.append("insert into ").append(tableName).append(" values (");
+        // The load id is the last column
+        for (int i = 0; i <= columnCount; i++) {
+            sb.append("?,");
+        }
+        sb.setCharAt(sb.length() - 1, ')');
+        this.insertSql = sb.toString();
+        this.columnCount = columnCount;
+    }
+
+    public static ValuesTemporaryTable create(MainQuery mainQuery, String alias, int valueCount, ExtendedManagedType<?> valueHolderType, Class<?> valueClass, boolean simpleValue, String valuesClassAttributeName, String[] attributes) {
+        int threshold = mainQuery.getQueryConfiguration().getValuesTemporaryTableThreshold();
+        if (threshold == 0 || valueCount < threshold) {
+            return null;
+        }
+        String[] columnTypes = getColumnTypes(mainQuery, valueHolderType, valueClass, simpleValue, valuesClassAttributeName, attributes);
+        String loadIdType = mainQuery.dbmsDialect.getSqlType(String.class);
+        if (columnTypes == null || loadIdType == null) {
+            return null;
+        }
+        String[] columnNames = new String[columnTypes.length + 1];
+        for (int i = 0; i < columnTypes.length; i++) {
+            // The names match the ones used for the SELECT_VALUES strategy, so we can reuse the aliasing logic
+            columnNames[i] = "c" + (i + 1);
+        }
+        columnNames[columnTypes.length] = LOAD_ID_COLUMN;
+        String[] tableColumnTypes = Arrays.copyOf(columnTypes, columnTypes.length + 1);
+        tableColumnTypes[columnTypes.length] = loadIdType;
+        // Queries might use the same alias for different types, so we have to make the type part of the name
+        String tableName = "values_" + alias + "_" + Integer.toHexString(Arrays.hashCode(columnTypes));
+        String creationSql = mainQuery.dbmsDialect.getTemporaryTableCreationSql(tableName, columnNames, tableColumnTypes);
+        if (creationSql == null) {
+            return null;
+        }
+        return new ValuesTemporaryTable(mainQuery.em, mainQuery.cbf.getExtendedQuerySupport(), tableName, creationSql, columnTypes.length);
+    }
+
+    static String[] getColumnTypes(MainQuery mainQuery, ExtendedManagedType<?> valueHolderType, Class<?> valueClass, boolean simpleValue, String valuesClassAttributeName, String[] attributes) {
+        if (valueHolderType.getType().getJavaType() == ValuesEntity.class) {
+            if (!SUPPORTED_TYPES.contains(valueClass)) {
+                return null;
+            }
+            String sqlType = mainQuery.dbmsDialect.getSqlType(valueClass);
+            return sqlType == null ? null : new String[]{ sqlType };
+        }
+        // We can't tell if attributes of non-entity types are converted, so we don't support them
+        if (!(valueHolderType.getType() instanceof EntityType<?>)) {
+            return null;
+        }
+        EntityType<?> entityType = (EntityType<?>) valueHolderType.getType();
+        String[] columnTypes = new String[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            String attributeName = simpleValue ? valuesClassAttributeName : attributes[i];
+            ExtendedAttribute<?, ?> attribute = valueHolderType.getAttribute(attributeName);
+            // Values are bound as plain JDBC values, so we only support single column basic attributes without converters or custom types
+            if (attribute.getAttribute().getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC
+                    || attribute.getColumnTypes().length != 1 || !SUPPORTED_TYPES.contains(attribute.getElementClass())
+                    || mainQuery.jpaProvider.isConvertedBasicAttribute(entityType, attributeName)) {
+                return null;
+            }
+            columnTypes[i] = attribute.getColumnTypes()[0];
+        }
+        return columnTypes;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getLoadId() {
+        return loadId;
+    }
+
+    public void load(AttributeAccessor<Object, Object>[] pathExpressions, Collection<Object> values) {
+        extendedQuerySupport.createTemporaryTable(em, tableName, creationSql);
+        List<Object[]> rows = new ArrayList<>(values.size());
+        for (Object element : values) {
+            // Null elements are only used for padding, so we skip them just like the null filtering of the VALUES clause does
+            if (element != null) {
+                Object[] row = new Object[columnCount + 1];
+                for (int i = 0; i < columnCount; i++) {
+                    if (pathExpressions[i] == null) {
+                        row[i] = element;
+                    } else {
+                        row[i] = pathExpressions[i].getNullSafe(element);
+                    }
+                }
+                rows.add(row);
+            }
+        }
+        // The count, id and object query of a paginated query use the same values, so we reuse the rows if they are still there
+        if (loadId != null && rowsEqual(rows, loadedRows) && extendedQuerySupport.executeExists(em, existsSql, new Object[]{ loadId })) {
+            return;
+        }
+        String newLoadId = Long.toString(LOAD_ID_SEQUENCE.incrementAndGet());
+        List<Object[]> batchParameters = new ArrayList<>(Math.min(rows.size(), BATCH_SIZE));
+        for (Object[] row : rows) {
+            row[columnCount] = newLoadId;
+            batchParameters.add(row);
+            if (batchParameters.size() == BATCH_SIZE) {
+                extendedQuerySupport.executeBatch(em, insertSql, batchParameters);
+                batchParameters.clear();
+            }
+        }
+        if (!batchParameters.isEmpty()) {
+            extendedQuerySupport.executeBatch(em, insertSql, batchParameters);
+        }
+        this.loadId = newLoadId;
+        this.loadedRows = rows;
+    }
+
+    private boolean rowsEqual(List<Object[]> rows, List<Object[]> otherRows) {
+        if (rows.size() != otherRows.size()) {
+            return false;
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            // The load id column is ignored
+            Object[] row = rows.get(i);
+            Object[] otherRow = otherRows.get(i);
+            for (int j = 0; j < columnCount; j++) {
+                if (row[j] == null ? otherRow[j] != null : !row[j].equals(otherRow[j])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
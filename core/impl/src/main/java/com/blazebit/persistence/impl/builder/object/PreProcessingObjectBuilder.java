@@ -16,6 +16,7 @@
 
 package com.blazebit.persistence.impl.builder.object;
 
+import com.blazebit.persistence.GroupingObjectBuilder;
 import com.blazebit.persistence.ObjectBuilder;
 import com.blazebit.persistence.SelectBuilder;
 
@@ -26,7 +27,7 @@ import java.util.List;
  * @author Christian Beikov
  * @since 1.5.0
  */
-public class PreProcessingObjectBuilder<T> implements ObjectBuilder<T> {
+public class PreProcessingObjectBuilder<T> implements GroupingObjectBuilder<T> {
 
     private final ObjectBuilder<Object[]> preProcessor;
     private final ObjectBuilder<T> objectBuilder;
@@ -41,6 +42,21 @@ public class PreProcessingObjectBuilder<T> implements ObjectBuilder<T> {
         objectBuilder.applySelects(selectBuilder);
     }
 
+    @Override
+    public Object getGroupKey(Object[] tuple) {
+        // The pre-processor only replaces elements in place, so the positions of the delegate are still valid
+        if (objectBuilder instanceof GroupingObjectBuilder<?>) {
+            return ((GroupingObjectBuilder<?>) objectBuilder).getGroupKey(tuple);
+        }
+        // A non-grouping builder produces one group per tuple
+        return new Object();
+    }
+
+    @Override
+    public boolean isGroupingSupported() {
+        return !(objectBuilder instanceof GroupingObjectBuilder<?>) || ((GroupingObjectBuilder<?>) objectBuilder).isGroupingSupported();
+    }
+
     @Override
     public T build(Object[] tuple) {
         return objectBuilder.build(preProcessor.build(tuple));
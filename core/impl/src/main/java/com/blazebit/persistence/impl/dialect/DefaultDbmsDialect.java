@@ -497,6 +497,11 @@ public class DefaultDbmsDialect implements DbmsDialect {
         return false;
     }
 
+    @Override
+    public boolean supportsBatchUpdateCounts() {
+        return true;
+    }
+
     @Override
     public boolean supportsGroupByExpressionInHavingMatching() {
         return true;
@@ -512,6 +517,32 @@ public class DefaultDbmsDialect implements DbmsDialect {
         return ValuesStrategy.VALUES;
     }
 
+    @Override
+    public String getTemporaryTableCreationSql(String tableName, String[] columnNames, String[] columnTypes) {
+        return null;
+    }
+
+    @Override
+    public String getArrayTableSql(String tableAlias, String[] columnNames, String[] columnTypes) {
+        return null;
+    }
+
+    @Override
+    public int getMaximumInListSize() {
+        return -1;
+    }
+
+    protected static void appendColumnDefinitions(StringBuilder sb, String[] columnNames, String[] columnTypes) {
+        sb.append('(');
+        for (int i = 0; i < columnNames.length; i++) {
+            sb.append(columnNames[i]);
+            sb.append(' ');
+            sb.append(columnTypes[i]);
+            sb.append(',');
+        }
+        sb.setCharAt(sb.length() - 1, ')');
+    }
+
     @Override
     public boolean needsCastParameters() {
         return true;
@@ -99,6 +99,17 @@ public class H2DbmsDialect extends DefaultDbmsDialect {
         return ValuesStrategy.SELECT_VALUES;
     }
 
+    @Override
+    public String getTemporaryTableCreationSql(String tableName, String[] columnNames, String[] columnTypes) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("create local temporary table if not exists ");
+        sb.append(tableName);
+        appendColumnDefinitions(sb, columnNames, columnTypes);
+        // The transactional keyword prevents the implicit commit that DDL statements usually cause
+        sb.append(" on commit delete rows transactional");
+        return sb.toString();
+    }
+
     @Override
     public boolean supportsBooleanAggregation() {
         return true;
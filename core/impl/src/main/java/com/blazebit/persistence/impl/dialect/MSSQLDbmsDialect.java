@@ -56,6 +56,12 @@ public class MSSQLDbmsDialect extends DefaultDbmsDialect {
         return true;
     }
 
+    @Override
+    public int getMaximumInListSize() {
+        // A statement may have at most 2100 parameters, so we leave some room for the other parameters
+        return 2000;
+    }
+
     @Override
     public boolean isNullSmallest() {
         return true;
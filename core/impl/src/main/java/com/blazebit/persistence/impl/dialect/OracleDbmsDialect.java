@@ -208,6 +208,12 @@ public class OracleDbmsDialect extends DefaultDbmsDialect {
         return true;
     }
 
+    @Override
+    public boolean supportsBatchUpdateCounts() {
+        // Oracle JDBC drivers before 12c report SUCCESS_NO_INFO for every execution of a batch
+        return false;
+    }
+
     @Override
     public boolean supportsRowValueConstructor() {
         return false;
@@ -244,6 +250,12 @@ public class OracleDbmsDialect extends DefaultDbmsDialect {
         return true;
     }
 
+    @Override
+    public int getMaximumInListSize() {
+        // ORA-01795: maximum number of expressions in a list is 1000
+        return 1000;
+    }
+
     @Override
     public boolean supportsArbitraryLengthMultiset() {
         return true;
@@ -266,6 +266,38 @@ public class PostgreSQLDbmsDialect extends DefaultDbmsDialect {
         return endIndex;
     }
 
+    @Override
+    public String getTemporaryTableCreationSql(String tableName, String[] columnNames, String[] columnTypes) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("create temporary table if not exists ");
+        sb.append(tableName);
+        appendColumnDefinitions(sb, columnNames, columnTypes);
+        sb.append(" on commit delete rows");
+        return sb.toString();
+    }
+
+    @Override
+    public String getArrayTableSql(String tableAlias, String[] columnNames, String[] columnTypes) {
+        StringBuilder sb = new StringBuilder();
+        // The array literals are bound as strings and converted to arrays of the element type through the cast
+        sb.append("unnest(");
+        for (int i = 0; i < columnTypes.length; i++) {
+            sb.append("cast(? as ");
+            sb.append(columnTypes[i]);
+            sb.append("[]),");
+        }
+        sb.setCharAt(sb.length() - 1, ')');
+        sb.append(' ');
+        sb.append(tableAlias);
+        sb.append('(');
+        for (int i = 0; i < columnNames.length; i++) {
+            sb.append(columnNames[i]);
+            sb.append(',');
+        }
+        sb.setCharAt(sb.length() - 1, ')');
+        return sb.toString();
+    }
+
     @Override
     public boolean supportsBooleanAggregation() {
         return true;
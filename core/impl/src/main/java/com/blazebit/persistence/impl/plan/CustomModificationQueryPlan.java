@@ -17,6 +17,7 @@
 package com.blazebit.persistence.impl.plan;
 
 import com.blazebit.persistence.spi.ExtendedQuerySupport;
+import com.blazebit.persistence.spi.ModificationBatch;
 import com.blazebit.persistence.spi.ServiceProvider;
 
 import javax.persistence.Query;
@@ -52,4 +53,9 @@ public class CustomModificationQueryPlan implements ModificationQueryPlan {
         return extendedQuerySupport.executeUpdate(serviceProvider, participatingQueries, baseQuery, delegate, sql, queryPlanCacheEnabled);
     }
 
+    @Override
+    public ModificationBatch createModificationBatch() {
+        return extendedQuerySupport.createModificationBatch(serviceProvider, participatingQueries, baseQuery, delegate, sql, queryPlanCacheEnabled);
+    }
+
 }
@@ -21,6 +21,7 @@ import com.blazebit.persistence.ReturningResult;
 import com.blazebit.persistence.impl.DefaultReturningResult;
 import com.blazebit.persistence.spi.DbmsDialect;
 import com.blazebit.persistence.spi.ExtendedQuerySupport;
+import com.blazebit.persistence.spi.ModificationBatch;
 import com.blazebit.persistence.spi.ServiceProvider;
 
 import javax.persistence.Query;
@@ -71,6 +72,11 @@ public class CustomReturningModificationQueryPlan<T> implements ModificationQuer
         return result.getUpdateCount();
     }
 
+    @Override
+    public ModificationBatch createModificationBatch() {
+        return null;
+    }
+
     @Override
     public List<ReturningResult<T>> getResultList() {
         return Arrays.asList(getSingleResult());
@@ -17,6 +17,7 @@
 package com.blazebit.persistence.impl.plan;
 
 import com.blazebit.persistence.spi.DbmsStatementType;
+import com.blazebit.persistence.spi.ModificationBatch;
 
 import javax.persistence.Query;
 
@@ -49,4 +50,9 @@ public class DefaultModificationQueryPlan implements ModificationQueryPlan {
         return query.executeUpdate();
     }
 
+    @Override
+    public ModificationBatch createModificationBatch() {
+        return null;
+    }
+
 }
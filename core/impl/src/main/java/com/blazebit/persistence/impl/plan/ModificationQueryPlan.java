@@ -16,6 +16,8 @@
 
 package com.blazebit.persistence.impl.plan;
 
+import com.blazebit.persistence.spi.ModificationBatch;
+
 /**
  *
  * @author Christian Beikov
@@ -25,4 +27,12 @@ public interface ModificationQueryPlan {
 
     public int executeUpdate();
 
+    /**
+     * Returns a batch for executions of this plan or <code>null</code> if the plan can't be batched.
+     *
+     * @return The batch or <code>null</code>
+     * @since 1.5.0
+     */
+    public ModificationBatch createModificationBatch();
+
 }
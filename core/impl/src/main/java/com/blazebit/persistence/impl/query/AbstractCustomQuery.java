@@ -18,6 +18,7 @@ package com.blazebit.persistence.impl.query;
 
 import com.blazebit.persistence.impl.ParameterValueTransformer;
 import com.blazebit.persistence.impl.ValuesParameterBinder;
+import com.blazebit.persistence.impl.ValuesTemporaryTable;
 import com.blazebit.persistence.impl.util.SetView;
 import com.blazebit.persistence.spi.CteQueryWrapper;
 
@@ -117,6 +118,20 @@ public abstract class AbstractCustomQuery<T> implements Query, CteQueryWrapper {
 
     protected void bindParameters() {
         Set<String> missingParameters = null;
+        for (ValuesParameter valuesParameter : valuesParameters.values()) {
+            ValuesTemporaryTable temporaryTable = valuesParameter.getTemporaryTable();
+            // Temporary tables are loaded first, as the participating queries are bound to the load id
+            if (temporaryTable != null && querySpecification.getSql().contains(temporaryTable.getTableName())) {
+                if (valuesParameter.getValue() == null) {
+                    if (missingParameters == null) {
+                        missingParameters = new HashSet<>();
+                    }
+                    missingParameters.add(valuesParameter.getName());
+                } else {
+                    valuesParameter.loadTemporaryTable();
+                }
+            }
+        }
         for (Query q : querySpecification.getParticipatingQueries()) {
             for (Parameter<?> p : q.getParameters()) {
                 String name = p.getName();
@@ -432,5 +447,13 @@ public abstract class AbstractCustomQuery<T> implements Query, CteQueryWrapper {
         public void bind(Query query) {
             binder.bind(query, value);
         }
+
+        public ValuesTemporaryTable getTemporaryTable() {
+            return binder.getTemporaryTable();
+        }
+
+        public void loadTemporaryTable() {
+            binder.loadTemporaryTable(value);
+        }
     }
 }
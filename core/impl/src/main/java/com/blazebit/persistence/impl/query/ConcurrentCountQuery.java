@@ -0,0 +1,91 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import com.blazebit.persistence.spi.JpaProvider;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Parameter;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Executes a count query on a separate entity manager through an executor, so that it can run concurrently to other queries.
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public class ConcurrentCountQuery {
+
+    private final Executor executor;
+    private final EntityManagerFactory entityManagerFactory;
+    private final JpaProvider jpaProvider;
+    private final String queryString;
+    private final boolean cacheable;
+
+    public ConcurrentCountQuery(Executor executor, EntityManagerFactory entityManagerFactory, JpaProvider jpaProvider, String queryString, boolean cacheable) {
+        this.executor = executor;
+        this.entityManagerFactory = entityManagerFactory;
+        this.jpaProvider = jpaProvider;
+        this.queryString = queryString;
+        this.cacheable = cacheable;
+    }
+
+    public Future<Long> execute(Query countQuery) {
+        // Capture the parameter values in the calling thread as the query might be modified afterwards
+        final List<Object> parameterKeys = new ArrayList<>();
+        final List<Object> parameterValues = new ArrayList<>();
+        for (Parameter<?> parameter : countQuery.getParameters()) {
+            if (countQuery.isBound(parameter)) {
+                parameterKeys.add(parameter.getName() == null ? parameter.getPosition() : parameter.getName());
+                parameterValues.add(countQuery.getParameterValue(parameter));
+            }
+        }
+
+        FutureTask<Long> task = new FutureTask<>(new Callable<Long>() {
+            @Override
+            public Long call() {
+                EntityManager em = entityManagerFactory.createEntityManager();
+                try {
+                    Query query = em.createQuery(queryString);
+                    if (cacheable) {
+                        jpaProvider.setCacheable(query);
+                    }
+                    for (int i = 0; i < parameterKeys.size(); i++) {
+                        Object key = parameterKeys.get(i);
+                        if (key instanceof String) {
+                            query.setParameter((String) key, parameterValues.get(i));
+                        } else {
+                            query.setParameter((Integer) key, parameterValues.get(i));
+                        }
+                    }
+                    return ((Number) query.getSingleResult()).longValue();
+                } finally {
+                    em.close();
+                }
+            }
+        });
+        executor.execute(task);
+        return task;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import com.blazebit.persistence.CountCache;
+
+import javax.persistence.Parameter;
+import javax.persistence.Query;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A size-bounded least recently used cache for count query results with expiration.
+ * Only queries with parameter values of immutable basic types are cached, so that keys don't hold on to entities or collections.
+ * Entity managers that might have uncommitted changes must not use the cache, as they could see or publish uncommitted state.
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public class CountCacheImpl implements CountCache {
+
+    private static final Object UNSUPPORTED_VALUE = new Object();
+
+    private final long expirationNanos;
+    private final LinkedHashMap<Key, Entry> entries;
+
+    public CountCacheImpl(final int maximumSize, long expirationMillis) {
+        this.expirationNanos = expirationMillis * 1000000L;
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the key for the given query or <code>null</code> if the query has parameter values that can't be used in a key.
+     *
+     * @param queryString The query string of the count query
+     * @param query The count query
+     * @return The key or <code>null</code>
+     */
+    public Object createKey(String queryString, Query query) {
+        Map<Object, Object> parameterValues = new HashMap<>();
+        for (Parameter<?> parameter : query.getParameters()) {
+            if (query.isBound(parameter)) {
+                Object value = normalizeValue(query.getParameterValue(parameter));
+                if (value == UNSUPPORTED_VALUE) {
+                    return null;
+                }
+                parameterValues.put(parameter.getName() == null ? parameter.getPosition() : parameter.getName(), value);
+            }
+        }
+        return new Key(queryString, Collections.unmodifiableMap(parameterValues));
+    }
+
+    private static Object normalizeValue(Object value) {
+        if (value == null || value instanceof String || value instanceof Boolean || value instanceof Character || value instanceof Enum<?>
+                || value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte
+                || value instanceof Double || value instanceof Float || value instanceof BigDecimal || value instanceof BigInteger
+                || value instanceof UUID || value.getClass().getName().startsWith("java.time.")) {
+            return value;
+        }
+        if (value instanceof Date) {
+            // Dates are mutable, so we use a copy
+            return ((Date) value).clone();
+        }
+        // Entities, collections, arrays and other types might be mutable or expensive to retain, so we don't support them
+        return UNSUPPORTED_VALUE;
+    }
+
+    public Long get(Object key) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (now - entry.creationTime >= expirationNanos) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.count;
+        }
+    }
+
+    public void put(Object key, long count, Set<Class<?>> entityClasses) {
+        Entry entry = new Entry(count, entityClasses, System.nanoTime());
+        synchronized (entries) {
+            entries.put((Key) key, entry);
+        }
+    }
+
+    @Override
+    public void invalidate(Class<?> entityClass) {
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().uses(entityClass)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @Override
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private static final class Key {
+        private final String queryString;
+        private final Map<Object, Object> parameterValues;
+        private final int hash;
+
+        public Key(String queryString, Map<Object, Object> parameterValues) {
+            this.queryString = queryString;
+            this.parameterValues = parameterValues;
+            this.hash = 31 * queryString.hashCode() + parameterValues.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) o;
+            return hash == key.hash && queryString.equals(key.queryString) && parameterValues.equals(key.parameterValues);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private static final class Entry {
+        private final long count;
+        private final Set<Class<?>> entityClasses;
+        private final long creationTime;
+
+        public Entry(long count, Set<Class<?>> entityClasses, long creationTime) {
+            this.count = count;
+            this.entityClasses = entityClasses;
+            this.creationTime = creationTime;
+        }
+
+        public boolean uses(Class<?> entityClass) {
+            for (Class<?> usedClass : entityClasses) {
+                if (usedClass.isAssignableFrom(entityClass) || entityClass.isAssignableFrom(usedClass)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -71,10 +71,18 @@ public class CustomQuerySpecification<T> implements QuerySpecification<T> {
     protected List<Query> participatingQueries;
     protected Map<String, String> addedCtes;
     protected boolean queryPlanCacheEnabled;
+    private final String queryString;
+    private final QueryTemplateCache queryTemplateCache;
 
     public CustomQuerySpecification(AbstractCommonQueryBuilder<?, ?, ?, ?, ?> commonQueryBuilder, Query baseQuery, Set<Parameter<?>> parameters, Set<String> listParameters, String limit, String offset,
                                     List<String> keyRestrictedLeftJoinAliases, List<EntityFunctionNode> entityFunctionNodes, boolean recursive, List<CTENode> ctes, boolean shouldRenderCtes,
                                     boolean queryPlanCacheEnabled) {
+        this(commonQueryBuilder, baseQuery, parameters, listParameters, limit, offset, keyRestrictedLeftJoinAliases, entityFunctionNodes, recursive, ctes, shouldRenderCtes, queryPlanCacheEnabled, null, null);
+    }
+
+    public CustomQuerySpecification(AbstractCommonQueryBuilder<?, ?, ?, ?, ?> commonQueryBuilder, Query baseQuery, Set<Parameter<?>> parameters, Set<String> listParameters, String limit, String offset,
+                                    List<String> keyRestrictedLeftJoinAliases, List<EntityFunctionNode> entityFunctionNodes, boolean recursive, List<CTENode> ctes, boolean shouldRenderCtes,
+                                    boolean queryPlanCacheEnabled, String queryString, QueryTemplateCache queryTemplateCache) {
         this.em = commonQueryBuilder.getEntityManager();
         this.dbmsDialect = commonQueryBuilder.getService(DbmsDialect.class);
         this.serviceProvider = commonQueryBuilder;
@@ -97,6 +105,8 @@ public class CustomQuerySpecification<T> implements QuerySpecification<T> {
         this.shouldRenderCtes = shouldRenderCtes;
         this.dirty = true;
         this.queryPlanCacheEnabled = queryPlanCacheEnabled;
+        this.queryString = queryString;
+        this.queryTemplateCache = queryTemplateCache;
     }
 
     @Override
@@ -161,6 +171,20 @@ public class CustomQuerySpecification<T> implements QuerySpecification<T> {
             baseQuery.setParameter(entry.getKey(), entry.getValue());
         }
 
+        QueryTemplateCache.Key queryTemplateKey = null;
+        if (isTemplatable()) {
+            queryTemplateKey = new QueryTemplateCache.Key(queryString, listParameters, limit, offset, keyRestrictedLeftJoinAliases, entityFunctionNodes);
+            QueryTemplate queryTemplate = queryTemplateCache.get(queryTemplateKey);
+            if (queryTemplate != null) {
+                participatingQueries.add(baseQuery);
+                this.sql = queryTemplate.getSql();
+                this.participatingQueries = participatingQueries;
+                this.addedCtes = queryTemplate.getAddedCtes();
+                this.dirty = false;
+                return;
+            }
+        }
+
         String sqlQuery = extendedQuerySupport.getSql(em, baseQuery);
         StringBuilder sqlSb = applySqlTransformations(sqlQuery);
         StringBuilder withClause = applyCtes(sqlSb, baseQuery, participatingQueries);
@@ -171,6 +195,22 @@ public class CustomQuerySpecification<T> implements QuerySpecification<T> {
         this.participatingQueries = participatingQueries;
         this.addedCtes = addedCtes;
         this.dirty = false;
+
+        if (queryTemplateKey != null) {
+            queryTemplateCache.putIfAbsent(queryTemplateKey, new QueryTemplate(sql, addedCtes));
+        }
+    }
+
+    /**
+     * Only plain select queries without CTEs are templated. The SQL of such queries only depends on the JPQL query string,
+     * the sizes of collection valued parameters and the state of this query specification, which is what the template key consists of.
+     * Modification queries are handled by subclasses and CTEs contribute participating queries, so these are excluded.
+     *
+     * @return Whether the SQL of this query specification may be cached in the query template cache
+     */
+    private boolean isTemplatable() {
+        return queryTemplateCache != null && queryString != null && queryPlanCacheEnabled && statementType == DbmsStatementType.SELECT
+                && (!shouldRenderCtes || ctes.isEmpty()) && getClass() == CustomQuerySpecification.class;
     }
 
     protected Map<String, String> applyExtendedSql(StringBuilder sqlSb, boolean isSubquery, boolean isEmbedded, StringBuilder withClause, String[] returningColumns, Map<DbmsModificationState, String> includedModificationStates) {
@@ -18,11 +18,14 @@ package com.blazebit.persistence.impl.query;
 
 import com.blazebit.persistence.impl.ParameterValueTransformer;
 import com.blazebit.persistence.impl.ValuesParameterBinder;
+import com.blazebit.persistence.impl.plan.ModificationQueryPlan;
+import com.blazebit.persistence.spi.ModificationBatch;
 
 import javax.persistence.FlushModeType;
 import javax.persistence.LockModeType;
 import javax.persistence.PersistenceException;
 import javax.persistence.Query;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -30,9 +33,12 @@ import java.util.Map;
  * @author Christian Beikov
  * @since 1.2.0
  */
-public class CustomSQLQuery extends AbstractCustomQuery<Object> {
+public class CustomSQLQuery extends AbstractCustomQuery<Object> implements ModificationBatch {
 
     private final Query delegate;
+    private final List<Integer> executedUpdateCounts = new ArrayList<>();
+    private ModificationBatch batch;
+    private String batchSql;
 
     public CustomSQLQuery(QuerySpecification querySpecification, Query delegate, Map<String, ParameterValueTransformer> transformers, Map<String, String> valuesParameters, Map<String, ValuesParameterBinder> valuesBinders) {
         super(querySpecification, transformers, valuesParameters, valuesBinders);
@@ -60,6 +66,53 @@ public class CustomSQLQuery extends AbstractCustomQuery<Object> {
         return querySpecification.createModificationPlan(firstResult, maxResults).executeUpdate();
     }
 
+    @Override
+    public void addBatch() {
+        bindParameters();
+        ModificationQueryPlan modificationPlan = querySpecification.createModificationPlan(firstResult, maxResults);
+        String sql = querySpecification.getSql();
+        // Changes of collection parameters may change the SQL, so execute what we have so far
+        if (batch != null && !sql.equals(batchSql)) {
+            executePendingBatch();
+        }
+        if (batch == null) {
+            batch = modificationPlan.createModificationBatch();
+            if (batch == null) {
+                executedUpdateCounts.add(modificationPlan.executeUpdate());
+                return;
+            }
+            batchSql = sql;
+        }
+        batch.addBatch();
+    }
+
+    @Override
+    public int getBatchSize() {
+        return executedUpdateCounts.size() + (batch == null ? 0 : batch.getBatchSize());
+    }
+
+    @Override
+    public int[] executeBatch() {
+        executePendingBatch();
+        int[] updateCounts = new int[executedUpdateCounts.size()];
+        for (int i = 0; i < updateCounts.length; i++) {
+            updateCounts[i] = executedUpdateCounts.get(i);
+        }
+        executedUpdateCounts.clear();
+        return updateCounts;
+    }
+
+    private void executePendingBatch() {
+        if (batch != null) {
+            ModificationBatch pendingBatch = batch;
+            batch = null;
+            batchSql = null;
+            for (int updateCount : pendingBatch.executeBatch()) {
+                executedUpdateCounts.add(updateCount);
+            }
+        }
+    }
+
     @Override
     public Query setHint(String hintName, Object value) {
         // TODO: implement
@@ -16,6 +16,8 @@
 
 package com.blazebit.persistence.impl.query;
 
+import java.util.Objects;
+
 /**
  *
  * @author Christian Beikov
@@ -80,4 +82,30 @@ public class EntityFunctionNode {
     public boolean isLateral() {
         return lateral;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EntityFunctionNode)) {
+            return false;
+        }
+
+        EntityFunctionNode that = (EntityFunctionNode) o;
+        return lateral == that.lateral
+                && Objects.equals(subquery, that.subquery)
+                && Objects.equals(aliases, that.aliases)
+                && Objects.equals(entityName, that.entityName)
+                && Objects.equals(tableAlias, that.tableAlias)
+                && Objects.equals(pluralCollectionTableAlias, that.pluralCollectionTableAlias)
+                && Objects.equals(pluralTableAlias, that.pluralTableAlias)
+                && Objects.equals(pluralTableJoin, that.pluralTableJoin)
+                && Objects.equals(syntheticPredicate, that.syntheticPredicate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(subquery, aliases, entityName, tableAlias, pluralCollectionTableAlias, pluralTableAlias, pluralTableJoin, syntheticPredicate, lateral);
+    }
 }
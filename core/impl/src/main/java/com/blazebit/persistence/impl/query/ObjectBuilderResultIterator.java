@@ -0,0 +1,140 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import com.blazebit.persistence.CloseableIterator;
+import com.blazebit.persistence.GroupingObjectBuilder;
+import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.spi.EntityDetachingIterator;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Builds objects incrementally from an iterator over result tuples.
+ * Tuples are collected into groups as defined by {@link GroupingObjectBuilder} and a group is transformed as a whole
+ * via {@link ObjectBuilder#buildList(List)} as soon as the first tuple of the next group is encountered.
+ * If the tuple iterator is a {@link EntityDetachingIterator}, the entities loaded for a group are only detached
+ * after the objects of the group were consumed, so that the entities within a group stay identical and managed.
+ *
+ * @param <T> The element type
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public class ObjectBuilderResultIterator<T> implements CloseableIterator<T> {
+
+    private static final Object NO_GROUP = new Object();
+
+    private final CloseableIterator<Object> tupleIterator;
+    private final ObjectBuilder<T> builder;
+    private final GroupingObjectBuilder<T> groupingBuilder;
+    private final EntityDetachingIterator<Object> detachingIterator;
+    private final List<T> currentGroup = new ArrayList<>();
+    private Iterator<T> currentResults;
+    private Object[] nextTuple;
+    private Object nextGroupKey = NO_GROUP;
+    private boolean closed;
+
+    public ObjectBuilderResultIterator(CloseableIterator<Object> tupleIterator, ObjectBuilder<T> builder) {
+        this.tupleIterator = tupleIterator;
+        this.builder = builder;
+        this.groupingBuilder = builder instanceof GroupingObjectBuilder<?> ? (GroupingObjectBuilder<T>) builder : null;
+        this.detachingIterator = tupleIterator instanceof EntityDetachingIterator<?> ? (EntityDetachingIterator<Object>) tupleIterator : null;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (currentResults == null || !currentResults.hasNext()) {
+            if (!advanceGroup()) {
+                close();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return currentResults.next();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove");
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            tupleIterator.close();
+        }
+    }
+
+    private boolean advanceGroup() {
+        if (closed) {
+            return false;
+        }
+        if (detachingIterator != null) {
+            // The objects of the previous group were consumed, only the tuple that was read ahead is still needed
+            detachingIterator.detachLoadedEntities(nextTuple != null);
+        }
+        if (nextTuple == null) {
+            if (!tupleIterator.hasNext()) {
+                return false;
+            }
+            nextTuple = toTuple(tupleIterator.next());
+            nextGroupKey = getGroupKey(nextTuple);
+        }
+
+        currentGroup.clear();
+        Object groupKey = nextGroupKey;
+        do {
+            currentGroup.add(builder.build(nextTuple));
+            nextTuple = null;
+            if (groupingBuilder == null || !tupleIterator.hasNext()) {
+                break;
+            }
+            nextTuple = toTuple(tupleIterator.next());
+            nextGroupKey = getGroupKey(nextTuple);
+        } while (groupKey == null ? nextGroupKey == null : groupKey.equals(nextGroupKey));
+
+        // The group list is only cleared after the results were consumed, so it's safe to reuse it
+        currentResults = builder.buildList(currentGroup).iterator();
+        return true;
+    }
+
+    private Object getGroupKey(Object[] tuple) {
+        if (groupingBuilder == null) {
+            return NO_GROUP;
+        }
+        return groupingBuilder.getGroupKey(tuple);
+    }
+
+    private Object[] toTuple(Object element) {
+        if (element instanceof Object[]) {
+            return (Object[]) element;
+        }
+        // We can't reuse the array as grouping builders might hold on to the tuple
+        return new Object[]{ element };
+    }
+}
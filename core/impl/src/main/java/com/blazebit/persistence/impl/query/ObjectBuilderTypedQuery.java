@@ -16,13 +16,18 @@
 
 package com.blazebit.persistence.impl.query;
 
+import com.blazebit.persistence.CloseableIterator;
+import com.blazebit.persistence.GroupingObjectBuilder;
 import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.spi.JpaProvider;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.NonUniqueResultException;
+import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 
 /**
@@ -74,4 +79,25 @@ public class ObjectBuilderTypedQuery<X> extends TypedQueryWrapper<X> {
         
         return builder.buildList(newList);
     }
+
+    public CloseableIterator<X> getResultIterator(EntityManager em, JpaProvider jpaProvider) {
+        // If the builder can't tell which tuples belong together, we have to build the whole result at once
+        if (builder instanceof GroupingObjectBuilder<?> && !((GroupingObjectBuilder<?>) builder).isGroupingSupported()) {
+            return new ListResultIterator<>(getResultList());
+        }
+        return new ObjectBuilderResultIterator<>(getTupleIterator(em, delegate, jpaProvider), builder);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static CloseableIterator<Object> getTupleIterator(EntityManager em, Query query, JpaProvider jpaProvider) {
+        // Queries for which we generate the SQL or that transform results can't be scrolled through the JPA provider
+        if (!(query instanceof AbstractCustomQuery<?>) && !(query instanceof TypedQueryWrapper<?>)) {
+            CloseableIterator<Object> iterator = jpaProvider.getResultIterator(em, query);
+            if (iterator != null) {
+                return iterator;
+            }
+        }
+
+        return new ListResultIterator<Object>(query.getResultList());
+    }
 }
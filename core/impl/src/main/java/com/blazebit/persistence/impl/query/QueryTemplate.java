@@ -0,0 +1,47 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The immutable result of the SQL generation of a {@link CustomQuerySpecification} that can be reused by
+ * query specifications with an equal {@link QueryTemplateCache.Key}. It contains the final SQL and the CTEs that were
+ * added by the DBMS dialect.
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public final class QueryTemplate {
+
+    private final String sql;
+    private final Map<String, String> addedCtes;
+
+    public QueryTemplate(String sql, Map<String, String> addedCtes) {
+        this.sql = sql;
+        this.addedCtes = addedCtes == null ? null : Collections.unmodifiableMap(addedCtes);
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public Map<String, String> getAddedCtes() {
+        return addedCtes;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A size-bounded least recently used cache for {@link QueryTemplate}s. The key is built from the JPQL query string and the SQL relevant
+ * state of a {@link CustomQuerySpecification} before any SQL is generated, so a cache hit skips the SQL generation
+ * of the JPA provider as well as the SQL transformations done by Blaze-Persistence.
+ *
+ * The JPQL query string is part of the key, so the preparation of the builder, e.g. implicit join resolution,
+ * and the rendering of the JPQL query string still happen on every execution.
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public class QueryTemplateCache {
+
+    private final LinkedHashMap<Key, QueryTemplate> templates;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public QueryTemplateCache(final int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Invalid maximum size: " + maximumSize);
+        }
+        this.templates = new LinkedHashMap<Key, QueryTemplate>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, QueryTemplate> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    public QueryTemplate get(Key key) {
+        QueryTemplate template;
+        synchronized (templates) {
+            template = templates.get(key);
+        }
+        if (template == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+        return template;
+    }
+
+    public void putIfAbsent(Key key, QueryTemplate template) {
+        synchronized (templates) {
+            if (!templates.containsKey(key)) {
+                templates.put(key, template);
+            }
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public int size() {
+        synchronized (templates) {
+            return templates.size();
+        }
+    }
+
+    /**
+     * The immutable key of a query template. All components are already available before SQL generation.
+     *
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    public static final class Key {
+        private final String queryString;
+        private final Map<String, Integer> listParameterSizes;
+        private final String limit;
+        private final String offset;
+        private final List<String> keyRestrictedLeftJoinAliases;
+        private final List<EntityFunctionNode> entityFunctionNodes;
+        private final int hash;
+
+        public Key(String queryString, Map<String, ? extends Collection<?>> listParameters, String limit, String offset, List<String> keyRestrictedLeftJoinAliases, List<EntityFunctionNode> entityFunctionNodes) {
+            Map<String, Integer> listParameterSizes = new TreeMap<>();
+            for (Map.Entry<String, ? extends Collection<?>> entry : listParameters.entrySet()) {
+                listParameterSizes.put(entry.getKey(), entry.getValue().size());
+            }
+            this.queryString = queryString;
+            this.listParameterSizes = Collections.unmodifiableMap(listParameterSizes);
+            this.limit = limit;
+            this.offset = offset;
+            this.keyRestrictedLeftJoinAliases = Collections.unmodifiableList(new ArrayList<>(keyRestrictedLeftJoinAliases));
+            this.entityFunctionNodes = Collections.unmodifiableList(new ArrayList<>(entityFunctionNodes));
+            int hash = queryString.hashCode();
+            hash = 31 * hash + this.listParameterSizes.hashCode();
+            hash = 31 * hash + (limit == null ? 0 : limit.hashCode());
+            hash = 31 * hash + (offset == null ? 0 : offset.hashCode());
+            hash = 31 * hash + this.keyRestrictedLeftJoinAliases.hashCode();
+            hash = 31 * hash + this.entityFunctionNodes.hashCode();
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) o;
+            return hash == key.hash
+                    && queryString.equals(key.queryString)
+                    && listParameterSizes.equals(key.listParameterSizes)
+                    && (limit == null ? key.limit == null : limit.equals(key.limit))
+                    && (offset == null ? key.offset == null : offset.equals(key.offset))
+                    && keyRestrictedLeftJoinAliases.equals(key.keyRestrictedLeftJoinAliases)
+                    && entityFunctionNodes.equals(key.entityFunctionNodes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import com.blazebit.persistence.CloseableIterator;
+import com.blazebit.persistence.spi.EntityDetachingIterator;
+
+/**
+ * A closeable iterator over plain result rows that detaches the entities loaded for a row once the iterator moves past it.
+ *
+ * @param <T> The element type
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public class RowDetachingResultIterator<T> implements CloseableIterator<T> {
+
+    private final EntityDetachingIterator<T> iterator;
+
+    public RowDetachingResultIterator(EntityDetachingIterator<T> iterator) {
+        this.iterator = iterator;
+    }
+
+    @Override
+    public boolean hasNext() {
+        iterator.detachLoadedEntities(false);
+        return iterator.hasNext();
+    }
+
+    @Override
+    public T next() {
+        iterator.detachLoadedEntities(false);
+        return iterator.next();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove");
+    }
+
+    @Override
+    public void close() {
+        iterator.close();
+    }
+}
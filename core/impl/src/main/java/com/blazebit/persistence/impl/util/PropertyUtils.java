@@ -37,4 +37,16 @@ public class PropertyUtils {
         String value = properties.get(key);
         return value == null ? defaultValue : Boolean.parseBoolean(value);
     }
+
+    public static int getAsIntProperty(Map<String, String> properties, String key, int defaultValue) {
+        String value = properties.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid integer value for property " + key + ": " + value, ex);
+        }
+    }
 }
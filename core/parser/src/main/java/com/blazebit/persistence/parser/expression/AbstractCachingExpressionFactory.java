@@ -78,12 +78,30 @@ public abstract class AbstractCachingExpressionFactory extends AbstractExpressio
         }
     };
 
+    private static final String DEFAULT_CACHE_NAME_PREFIX = "com.blazebit.persistence.parser.expression.cache.";
+
     private final ExpressionFactory delegate;
     private final ExpressionCache<ExpressionCacheEntry> expressionCache;
+    private final InstrumentedExpressionCache<ExpressionCacheEntry> instrumentedExpressionCache;
+    private final String pathExpressionCacheName;
+    private final String simpleExpressionCacheName;
+    private final String inPredicateExpressionCacheName;
+    private final String inPredicateSingleExpressionCacheName;
+    private final String predicateExpressionCacheName;
 
     public AbstractCachingExpressionFactory(ExpressionFactory delegate, ExpressionCache expressionCache) {
+        this(delegate, expressionCache, DEFAULT_CACHE_NAME_PREFIX);
+    }
+
+    public AbstractCachingExpressionFactory(ExpressionFactory delegate, ExpressionCache expressionCache, String cacheNamePrefix) {
         this.delegate = delegate;
         this.expressionCache = expressionCache;
+        this.instrumentedExpressionCache = expressionCache instanceof InstrumentedExpressionCache<?> ? (InstrumentedExpressionCache<ExpressionCacheEntry>) expressionCache : null;
+        this.pathExpressionCacheName = cacheNamePrefix + "PathExpression";
+        this.simpleExpressionCacheName = cacheNamePrefix + "SimpleExpression";
+        this.inPredicateExpressionCacheName = cacheNamePrefix + "InPredicateExpression";
+        this.inPredicateSingleExpressionCacheName = cacheNamePrefix + "InPredicateSingleExpression";
+        this.predicateExpressionCacheName = cacheNamePrefix + "PredicateExpression";
     }
 
     @Override
@@ -101,12 +119,12 @@ public abstract class AbstractCachingExpressionFactory extends AbstractExpressio
 
     @Override
     public Expression createPathExpression(final String expression, final MacroConfiguration macroConfiguration, Set<String> usedMacros) {
-        return getOrDefault("com.blazebit.persistence.parser.expression.cache.PathExpression", delegate, expression, false, false, false, macroConfiguration, PATH_EXPRESSION_SUPPLIER);
+        return getOrDefault(pathExpressionCacheName, delegate, expression, false, false, false, macroConfiguration, PATH_EXPRESSION_SUPPLIER);
     }
 
     @Override
     public Expression createSimpleExpression(final String expression, boolean allowOuter, final boolean allowQuantifiedPredicates, boolean allowObjectExpression, final MacroConfiguration macroConfiguration, Set<String> usedMacros) {
-        return getOrDefault("com.blazebit.persistence.parser.expression.cache.SimpleExpression", delegate, expression, allowOuter, allowQuantifiedPredicates, allowObjectExpression, macroConfiguration, SIMPLE_EXPRESSION_SUPPLIER);
+        return getOrDefault(simpleExpressionCacheName, delegate, expression, allowOuter, allowQuantifiedPredicates, allowObjectExpression, macroConfiguration, SIMPLE_EXPRESSION_SUPPLIER);
     }
 
     @Override
@@ -133,29 +151,34 @@ public abstract class AbstractCachingExpressionFactory extends AbstractExpressio
 
     @Override
     public Expression createInItemExpression(final String parameterOrLiteralExpression, final MacroConfiguration macroConfiguration, Set<String> usedMacros) {
-        return getOrDefault("com.blazebit.persistence.parser.expression.cache.InPredicateExpression", delegate, parameterOrLiteralExpression, false, false, false, macroConfiguration, IN_ITEM_EXPRESSION_SUPPLIER);
+        return getOrDefault(inPredicateExpressionCacheName, delegate, parameterOrLiteralExpression, false, false, false, macroConfiguration, IN_ITEM_EXPRESSION_SUPPLIER);
     }
 
     @Override
     public Expression createInItemOrPathExpression(final String parameterOrLiteralExpression, final MacroConfiguration macroConfiguration, Set<String> usedMacros) {
-        return getOrDefault("com.blazebit.persistence.parser.expression.cache.InPredicateSingleExpression", delegate, parameterOrLiteralExpression, false, false, false, macroConfiguration, IN_ITEM_OR_PATH_EXPRESSION_SUPPLIER);
+        return getOrDefault(inPredicateSingleExpressionCacheName, delegate, parameterOrLiteralExpression, false, false, false, macroConfiguration, IN_ITEM_OR_PATH_EXPRESSION_SUPPLIER);
     }
 
     @Override
     public Predicate createBooleanExpression(final String expression, final boolean allowQuantifiedPredicates, final MacroConfiguration macroConfiguration, Set<String> usedMacros) {
-        return getOrDefault("com.blazebit.persistence.parser.expression.cache.PredicateExpression", delegate, expression, false, allowQuantifiedPredicates, false, macroConfiguration, BOOLEAN_EXPRESSION_SUPPLIER);
+        return getOrDefault(predicateExpressionCacheName, delegate, expression, false, allowQuantifiedPredicates, false, macroConfiguration, BOOLEAN_EXPRESSION_SUPPLIER);
     }
 
     private <E extends Expression> E getOrDefault(String cacheName, ExpressionFactory expressionFactory, String expression, boolean allowOuter, boolean allowQuantifiedPredicates, boolean allowObjectExpression, MacroConfiguration macroConfiguration, ExpressionSupplier defaultExpressionSupplier) {
         // Find the expression cache entry
-        ExpressionCacheEntry exprEntry = expressionCache.get(cacheName, new ExpressionCache.Key(expression, allowOuter, allowQuantifiedPredicates, allowObjectExpression));
+        ExpressionCache.Key key = new ExpressionCache.Key(expression, allowOuter, allowQuantifiedPredicates, allowObjectExpression);
+        ExpressionCacheEntry exprEntry = expressionCache.get(cacheName, key);
         MacroConfiguration macroKey = null;
         Expression expr;
 
         if (exprEntry == null) {
             // Create the expression object
             Set<String> usedMacros = new HashSet<>();
+            long start = instrumentedExpressionCache == null ? 0L : System.nanoTime();
             expr = defaultExpressionSupplier.get(expressionFactory, expression, allowOuter, allowQuantifiedPredicates, allowObjectExpression, macroConfiguration, usedMacros);
+            if (instrumentedExpressionCache != null) {
+                instrumentedExpressionCache.recordLoad(cacheName, System.nanoTime() - start);
+            }
             // The cache entry is macro aware
             exprEntry = new ExpressionCacheEntry(expr, usedMacros);
             if (!usedMacros.isEmpty()) {
@@ -168,7 +191,7 @@ public abstract class AbstractCachingExpressionFactory extends AbstractExpressio
                 exprEntry.addMacroConfigurationExpression(macroKey, expr);
             }
 
-            expressionCache.putIfAbsent(cacheName, new ExpressionCache.Key(expression, allowOuter, allowQuantifiedPredicates, allowObjectExpression), exprEntry);
+            expressionCache.putIfAbsent(cacheName, key, exprEntry);
             return (E) expr.copy(ExpressionCopyContext.EMPTY);
         }
 
@@ -197,6 +220,7 @@ public abstract class AbstractCachingExpressionFactory extends AbstractExpressio
             }
         }
 
+        // Immutable nodes like literals return themselves on copy, so they are shared with the cache instead of being cloned
         return (E) expr.copy(ExpressionCopyContext.EMPTY);
     }
 
@@ -0,0 +1,554 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.parser.expression;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A size-bounded expression cache that uses the W-TinyLFU eviction policy.
+ *
+ * Every cache name is backed by a separate segment with its own maximum size. A segment consists of a small LRU
+ * admission window and a segmented LRU main space that is split into a probation and a protected part. Entries that
+ * overflow the window are only admitted into the main space if their estimated access frequency, as recorded by a
+ * count-min sketch, is higher than the one of the main space victim. Lookups record accesses only if the policy lock
+ * is free, so reads never block on each other.
+ *
+ * The maximum size can be configured via the property {@link #MAXIMUM_SIZE_PROPERTY} which applies to every cache name.
+ * A cache name specific maximum size can be configured by appending a dot and the cache name to the property name.
+ *
+ * @param <T> The value type
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public class BoundedExpressionCache<T> implements InstrumentedExpressionCache<T> {
+
+    /**
+     * The property name for the maximum size of a cache, see {@code ConfigurationProperties.EXPRESSION_CACHE_MAXIMUM_SIZE}.
+     */
+    public static final String MAXIMUM_SIZE_PROPERTY = "com.blazebit.persistence.expression.cache_maximum_size";
+    /**
+     * The default maximum number of entries per cache name.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+    private final ConcurrentMap<String, Segment<T>> segments;
+    private final int defaultMaximumSize;
+    private final Map<String, Integer> maximumSizes;
+    private final ExpressionCacheStatistics statistics;
+
+    public BoundedExpressionCache() {
+        this(DEFAULT_MAXIMUM_SIZE, Collections.<String, Integer>emptyMap());
+    }
+
+    public BoundedExpressionCache(Map<String, String> properties) {
+        this(getDefaultMaximumSize(properties), getMaximumSizes(properties));
+    }
+
+    public BoundedExpressionCache(int defaultMaximumSize, Map<String, Integer> maximumSizes) {
+        if (defaultMaximumSize < 1) {
+            throw new IllegalArgumentException("Invalid maximum size: " + defaultMaximumSize);
+        }
+        for (Map.Entry<String, Integer> entry : maximumSizes.entrySet()) {
+            if (entry.getValue() < 1) {
+                throw new IllegalArgumentException("Invalid maximum size for cache '" + entry.getKey() + "': " + entry.getValue());
+            }
+        }
+        this.segments = new ConcurrentHashMap<>();
+        this.defaultMaximumSize = defaultMaximumSize;
+        this.maximumSizes = new HashMap<>(maximumSizes);
+        this.statistics = new AggregateStatistics();
+    }
+
+    private static int getDefaultMaximumSize(Map<String, String> properties) {
+        String value = properties.get(MAXIMUM_SIZE_PROPERTY);
+        return value == null ? DEFAULT_MAXIMUM_SIZE : parseMaximumSize(MAXIMUM_SIZE_PROPERTY, value);
+    }
+
+    private static Map<String, Integer> getMaximumSizes(Map<String, String> properties) {
+        String prefix = MAXIMUM_SIZE_PROPERTY + ".";
+        Map<String, Integer> maximumSizes = new HashMap<>();
+        for (Map.Entry<String, String> entry : properties.entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+                maximumSizes.put(entry.getKey().substring(prefix.length()), parseMaximumSize(entry.getKey(), entry.getValue()));
+            }
+        }
+        return maximumSizes;
+    }
+
+    private static int parseMaximumSize(String propertyName, String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid integer value for property " + propertyName + ": " + value, ex);
+        }
+    }
+
+    @Override
+    public T get(String cacheName, Key key) {
+        Segment<T> segment = segments.get(cacheName);
+        if (segment == null) {
+            segment = getOrCreateSegment(cacheName);
+        }
+        return segment.get(key);
+    }
+
+    @Override
+    public T putIfAbsent(String cacheName, Key key, T value) {
+        return getOrCreateSegment(cacheName).putIfAbsent(key, value);
+    }
+
+    @Override
+    public void recordLoad(String cacheName, long loadTime) {
+        Segment<T> segment = getOrCreateSegment(cacheName);
+        segment.loadCount.incrementAndGet();
+        segment.totalLoadTime.addAndGet(loadTime);
+    }
+
+    @Override
+    public Set<String> getCacheNames() {
+        return Collections.unmodifiableSet(segments.keySet());
+    }
+
+    @Override
+    public ExpressionCacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public ExpressionCacheStatistics getStatistics(String cacheName) {
+        return segments.get(cacheName);
+    }
+
+    /**
+     * Returns the maximum number of entries of the cache with the given name.
+     *
+     * @param cacheName The cache name
+     * @return The maximum size
+     */
+    public int getMaximumSize(String cacheName) {
+        Integer maximumSize = maximumSizes.get(cacheName);
+        return maximumSize == null ? defaultMaximumSize : maximumSize;
+    }
+
+    private Segment<T> getOrCreateSegment(String cacheName) {
+        Segment<T> segment = segments.get(cacheName);
+        if (segment == null) {
+            segment = new Segment<>(getMaximumSize(cacheName));
+            Segment<T> oldSegment = segments.putIfAbsent(cacheName, segment);
+            if (oldSegment != null) {
+                segment = oldSegment;
+            }
+        }
+        return segment;
+    }
+
+    /**
+     *
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private final class AggregateStatistics implements ExpressionCacheStatistics {
+
+        @Override
+        public long getHitCount() {
+            long count = 0;
+            for (Segment<T> segment : segments.values()) {
+                count += segment.getHitCount();
+            }
+            return count;
+        }
+
+        @Override
+        public long getMissCount() {
+            long count = 0;
+            for (Segment<T> segment : segments.values()) {
+                count += segment.getMissCount();
+            }
+            return count;
+        }
+
+        @Override
+        public long getEvictionCount() {
+            long count = 0;
+            for (Segment<T> segment : segments.values()) {
+                count += segment.getEvictionCount();
+            }
+            return count;
+        }
+
+        @Override
+        public long getLoadCount() {
+            long count = 0;
+            for (Segment<T> segment : segments.values()) {
+                count += segment.getLoadCount();
+            }
+            return count;
+        }
+
+        @Override
+        public long getTotalLoadTime() {
+            long time = 0;
+            for (Segment<T> segment : segments.values()) {
+                time += segment.getTotalLoadTime();
+            }
+            return time;
+        }
+
+        @Override
+        public long getSize() {
+            long size = 0;
+            for (Segment<T> segment : segments.values()) {
+                size += segment.getSize();
+            }
+            return size;
+        }
+    }
+
+    /**
+     * The W-TinyLFU cache for a single cache name.
+     *
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private static final class Segment<T> implements ExpressionCacheStatistics {
+
+        private static final byte NONE = 0;
+        private static final byte WINDOW = 1;
+        private static final byte PROBATION = 2;
+        private static final byte PROTECTED = 3;
+
+        private final ConcurrentMap<Key, Node<T>> data;
+        private final ReentrantLock policyLock;
+        private final FrequencySketch sketch;
+        private final AccessOrderDeque<T> window;
+        private final AccessOrderDeque<T> probation;
+        private final AccessOrderDeque<T> protectedDeque;
+        private final int windowMaximum;
+        private final int mainMaximum;
+        private final int protectedMaximum;
+
+        private final AtomicLong hitCount;
+        private final AtomicLong missCount;
+        private final AtomicLong evictionCount;
+        private final AtomicLong loadCount;
+        private final AtomicLong totalLoadTime;
+
+        public Segment(int maximumSize) {
+            this.data = new ConcurrentHashMap<>(Math.min(maximumSize, 1024));
+            this.policyLock = new ReentrantLock();
+            this.sketch = new FrequencySketch(maximumSize);
+            this.window = new AccessOrderDeque<>();
+            this.probation = new AccessOrderDeque<>();
+            this.protectedDeque = new AccessOrderDeque<>();
+            // Like in the W-TinyLFU paper, the window takes 1% of the capacity and the protected space 80% of the main space
+            this.windowMaximum = Math.max(1, maximumSize / 100);
+            this.mainMaximum = maximumSize - windowMaximum;
+            this.protectedMaximum = (int) (mainMaximum * 0.8);
+            this.hitCount = new AtomicLong();
+            this.missCount = new AtomicLong();
+            this.evictionCount = new AtomicLong();
+            this.loadCount = new AtomicLong();
+            this.totalLoadTime = new AtomicLong();
+        }
+
+        public T get(Key key) {
+            Node<T> node = data.get(key);
+            if (node == null) {
+                missCount.incrementAndGet();
+                return null;
+            }
+            hitCount.incrementAndGet();
+            // Recording the access is best effort, we rather skip it than blocking readers
+            if (policyLock.tryLock()) {
+                try {
+                    onAccess(node);
+                } finally {
+                    policyLock.unlock();
+                }
+            }
+            return node.value;
+        }
+
+        public T putIfAbsent(Key key, T value) {
+            Node<T> node = new Node<>(key, value);
+            Node<T> oldNode = data.putIfAbsent(key, node);
+            if (oldNode != null) {
+                return oldNode.value;
+            }
+
+            policyLock.lock();
+            try {
+                onAdd(node);
+            } finally {
+                policyLock.unlock();
+            }
+            return value;
+        }
+
+        private void onAccess(Node<T> node) {
+            sketch.increment(node.key);
+            switch (node.queue) {
+                case WINDOW:
+                    window.moveToBack(node);
+                    break;
+                case PROBATION:
+                    probation.remove(node);
+                    node.queue = PROTECTED;
+                    protectedDeque.add(node);
+                    // Demote the least recently used protected entries to make room
+                    while (protectedDeque.size > protectedMaximum) {
+                        Node<T> demoted = protectedDeque.poll();
+                        demoted.queue = PROBATION;
+                        probation.add(demoted);
+                    }
+                    break;
+                case PROTECTED:
+                    protectedDeque.moveToBack(node);
+                    break;
+                default:
+                    // The node was evicted or not yet added to the policy
+                    break;
+            }
+        }
+
+        private void onAdd(Node<T> node) {
+            sketch.increment(node.key);
+            node.queue = WINDOW;
+            window.add(node);
+            while (window.size > windowMaximum) {
+                Node<T> candidate = window.poll();
+                if (probation.size + protectedDeque.size < mainMaximum) {
+                    candidate.queue = PROBATION;
+                    probation.add(candidate);
+                    continue;
+                }
+
+                Node<T> victim = probation.peek();
+                if (victim == null) {
+                    victim = protectedDeque.peek();
+                }
+                if (victim != null && sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                    evict(victim);
+                    candidate.queue = PROBATION;
+                    probation.add(candidate);
+                } else {
+                    candidate.queue = NONE;
+                    evict(candidate);
+                }
+            }
+        }
+
+        private void evict(Node<T> node) {
+            switch (node.queue) {
+                case PROBATION:
+                    probation.remove(node);
+                    break;
+                case PROTECTED:
+                    protectedDeque.remove(node);
+                    break;
+                default:
+                    break;
+            }
+            node.queue = NONE;
+            if (data.remove(node.key, node)) {
+                evictionCount.incrementAndGet();
+            }
+        }
+
+        @Override
+        public long getHitCount() {
+            return hitCount.get();
+        }
+
+        @Override
+        public long getMissCount() {
+            return missCount.get();
+        }
+
+        @Override
+        public long getEvictionCount() {
+            return evictionCount.get();
+        }
+
+        @Override
+        public long getLoadCount() {
+            return loadCount.get();
+        }
+
+        @Override
+        public long getTotalLoadTime() {
+            return totalLoadTime.get();
+        }
+
+        @Override
+        public long getSize() {
+            return data.size();
+        }
+    }
+
+    /**
+     *
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private static final class Node<T> {
+        final Key key;
+        final T value;
+        byte queue;
+        Node<T> prev;
+        Node<T> next;
+
+        public Node(Key key, T value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * A doubly linked list of nodes ordered from least to most recently used.
+     *
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private static final class AccessOrderDeque<T> {
+        Node<T> first;
+        Node<T> last;
+        int size;
+
+        public Node<T> peek() {
+            return first;
+        }
+
+        public Node<T> poll() {
+            Node<T> node = first;
+            if (node != null) {
+                remove(node);
+            }
+            return node;
+        }
+
+        public void add(Node<T> node) {
+            node.prev = last;
+            node.next = null;
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+            size++;
+        }
+
+        public void remove(Node<T> node) {
+            if (node.prev == null) {
+                first = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                last = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        public void moveToBack(Node<T> node) {
+            if (node != last) {
+                remove(node);
+                add(node);
+            }
+        }
+    }
+
+    /**
+     * A count-min sketch with 4 hash functions and saturating 4 bit counters that are halved periodically,
+     * so that the frequency estimates age.
+     *
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private static final class FrequencySketch {
+
+        private static final int[] SEEDS = { 0x97cb3127, 0xb7e15163, 0x9e3779b9, 0x85ebca6b };
+        private static final int MAXIMUM_COUNT = 15;
+
+        private final byte[][] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        public FrequencySketch(int maximumSize) {
+            int width = Integer.highestOneBit(Math.max(16, Math.min(maximumSize, 1 << 24)) - 1) << 1;
+            this.table = new byte[SEEDS.length][width];
+            this.mask = width - 1;
+            this.sampleSize = Math.max(10 * maximumSize, 10);
+        }
+
+        public int frequency(Key key) {
+            int hash = spread(key.hashCode());
+            int frequency = MAXIMUM_COUNT;
+            for (int i = 0; i < SEEDS.length; i++) {
+                frequency = Math.min(frequency, table[i][index(hash, i)]);
+            }
+            return frequency;
+        }
+
+        public void increment(Key key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int index = index(hash, i);
+                if (table[i][index] < MAXIMUM_COUNT) {
+                    table[i][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions == sampleSize) {
+                reset();
+            }
+        }
+
+        private void reset() {
+            for (byte[] row : table) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = (byte) (row[i] >>> 1);
+                }
+            }
+            additions = additions >>> 1;
+        }
+
+        private int index(int hash, int i) {
+            int h = (hash + SEEDS[i]) * SEEDS[i];
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private static int spread(int hash) {
+            int h = hash * 0x9e3779b9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -16,8 +16,6 @@
 
 package com.blazebit.persistence.parser.expression;
 
-import java.util.Objects;
-
 /**
  *
  * @author Christian Beikov
@@ -41,6 +39,7 @@ public interface ExpressionCache<T> {
 
         private final String expression;
         private final byte flags;
+        private final int hashCode;
 
         public Key(String expression, boolean allowOuter, boolean allowQuantifiedPredicates, boolean allowObjectExpression) {
             this.expression = expression;
@@ -48,13 +47,14 @@ public interface ExpressionCache<T> {
             if (allowOuter) {
                 flags |= ALLOW_OUTER_MASK;
             }
-            if (allowOuter) {
+            if (allowQuantifiedPredicates) {
                 flags |= ALLOW_QUANTIFIED_PREDICATES_MASK;
             }
             if (allowObjectExpression) {
                 flags |= ALLOW_OBJECT_EXPRESSION_MASK;
             }
             this.flags = flags;
+            this.hashCode = 31 * expression.hashCode() + flags;
         }
 
         public boolean isAllowOuter() {
@@ -79,12 +79,13 @@ public interface ExpressionCache<T> {
             }
             Key key = (Key) o;
             return flags == key.flags &&
+                    hashCode == key.hashCode &&
                     expression.equals(key.expression);
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(expression, flags);
+            return hashCode;
         }
     }
 
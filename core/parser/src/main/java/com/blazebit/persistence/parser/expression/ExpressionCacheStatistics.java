@@ -0,0 +1,69 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.parser.expression;
+
+/**
+ * Counters of an {@link InstrumentedExpressionCache}.
+ * The values are live views, so subsequent invocations may return different values.
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public interface ExpressionCacheStatistics {
+
+    /**
+     * Returns the number of lookups that returned a cached value.
+     *
+     * @return The hit count
+     */
+    public long getHitCount();
+
+    /**
+     * Returns the number of lookups that did not find a cached value.
+     *
+     * @return The miss count
+     */
+    public long getMissCount();
+
+    /**
+     * Returns the number of entries that were evicted due to the size bound.
+     *
+     * @return The eviction count
+     */
+    public long getEvictionCount();
+
+    /**
+     * Returns the number of times a value was loaded i.e. an expression was parsed after a miss.
+     *
+     * @return The load count
+     */
+    public long getLoadCount();
+
+    /**
+     * Returns the total time in nanoseconds spent for loading values.
+     *
+     * @return The total load time in nanoseconds
+     */
+    public long getTotalLoadTime();
+
+    /**
+     * Returns the current number of cached entries.
+     *
+     * @return The number of cached entries
+     */
+    public long getSize();
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.parser.expression;
+
+import java.util.Set;
+
+/**
+ * An expression cache that collects statistics which can be accessed via
+ * {@code CriteriaBuilderFactory.getService(ExpressionCacheStatistics.class)}.
+ *
+ * @param <T> The value type
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public interface InstrumentedExpressionCache<T> extends ExpressionCache<T> {
+
+    /**
+     * Records the time it took to load i.e. parse a value for the given cache after a miss.
+     *
+     * @param cacheName The cache name
+     * @param loadTime The load time in nanoseconds
+     */
+    public void recordLoad(String cacheName, long loadTime);
+
+    /**
+     * Returns the names of the caches for which statistics are available.
+     *
+     * @return The cache names
+     */
+    public Set<String> getCacheNames();
+
+    /**
+     * Returns the statistics aggregated over all caches.
+     *
+     * @return The aggregated statistics
+     */
+    public ExpressionCacheStatistics getStatistics();
+
+    /**
+     * Returns the statistics for the cache with the given name or <code>null</code> if the cache does not exist.
+     *
+     * @param cacheName The cache name
+     * @return The statistics of the cache
+     */
+    public ExpressionCacheStatistics getStatistics(String cacheName);
+}
@@ -36,7 +36,8 @@ public class StringLiteral extends AbstractExpression implements LiteralExpressi
 
     @Override
     public Expression copy(ExpressionCopyContext copyContext) {
-        return new StringLiteral(value);
+        // We can do this since this is immutable
+        return this;
     }
 
     @Override
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.parser;
+
+import com.blazebit.persistence.parser.expression.BoundedExpressionCache;
+import com.blazebit.persistence.parser.expression.ExpressionCache;
+import com.blazebit.persistence.parser.expression.ExpressionCacheStatistics;
+import com.blazebit.persistence.parser.expression.ExpressionFactory;
+import com.blazebit.persistence.parser.expression.ExpressionFactoryImpl;
+import com.blazebit.persistence.parser.expression.SimpleCachingExpressionFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public class BoundedExpressionCacheTest {
+
+    private static final String CACHE_NAME = "test";
+
+    @Test
+    public void testSizeIsBounded() {
+        BoundedExpressionCache<String> cache = new BoundedExpressionCache<>(100, Collections.<String, Integer>emptyMap());
+        for (int i = 0; i < 1000; i++) {
+            cache.putIfAbsent(CACHE_NAME, key("e" + i), "v" + i);
+        }
+
+        ExpressionCacheStatistics statistics = cache.getStatistics(CACHE_NAME);
+        Assert.assertEquals(100, statistics.getSize());
+        Assert.assertEquals(900, statistics.getEvictionCount());
+    }
+
+    @Test
+    public void testPerCacheNameMaximumSize() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put(BoundedExpressionCache.MAXIMUM_SIZE_PROPERTY, "50");
+        properties.put(BoundedExpressionCache.MAXIMUM_SIZE_PROPERTY + ".small", "5");
+        BoundedExpressionCache<String> cache = new BoundedExpressionCache<>(properties);
+        for (int i = 0; i < 100; i++) {
+            cache.putIfAbsent("small", key("e" + i), "v" + i);
+            cache.putIfAbsent("default", key("e" + i), "v" + i);
+        }
+
+        Assert.assertEquals(5, cache.getStatistics("small").getSize());
+        Assert.assertEquals(50, cache.getStatistics("default").getSize());
+        Assert.assertEquals(55, cache.getStatistics().getSize());
+    }
+
+    @Test
+    public void testFrequentlyUsedEntriesSurviveScan() {
+        BoundedExpressionCache<String> cache = new BoundedExpressionCache<>(100, Collections.<String, Integer>emptyMap());
+        for (int i = 0; i < 10; i++) {
+            cache.putIfAbsent(CACHE_NAME, key("hot" + i), "hot" + i);
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 10; i++) {
+                Assert.assertNotNull(cache.get(CACHE_NAME, key("hot" + i)));
+            }
+        }
+        // A scan of one-hit wonders must not flush the frequently used entries
+        for (int i = 0; i < 500; i++) {
+            cache.putIfAbsent(CACHE_NAME, key("cold" + i), "cold" + i);
+        }
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals("hot" + i, cache.get(CACHE_NAME, key("hot" + i)));
+        }
+    }
+
+    @Test
+    public void testStatistics() {
+        BoundedExpressionCache cache = new BoundedExpressionCache();
+        ExpressionFactory ef = new SimpleCachingExpressionFactory(new ExpressionFactoryImpl(new HashMap<String, FunctionKind>(), true, true), cache);
+        ef.createSimpleExpression("a.b + 1", false, false, false, null, null);
+        ef.createSimpleExpression("a.b + 1", false, false, false, null, null);
+        ef.createSimpleExpression("a.c + 1", false, false, false, null, null);
+
+        ExpressionCacheStatistics statistics = cache.getStatistics();
+        Assert.assertEquals(1, statistics.getHitCount());
+        Assert.assertEquals(2, statistics.getMissCount());
+        Assert.assertEquals(2, statistics.getLoadCount());
+        Assert.assertEquals(0, statistics.getEvictionCount());
+        Assert.assertEquals(2, statistics.getSize());
+        Assert.assertTrue(statistics.getTotalLoadTime() > 0);
+    }
+
+    private static ExpressionCache.Key key(String expression) {
+        return new ExpressionCache.Key(expression, false, false, false);
+    }
+}
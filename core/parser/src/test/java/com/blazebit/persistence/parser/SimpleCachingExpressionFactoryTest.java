@@ -20,6 +20,7 @@ import com.blazebit.persistence.parser.expression.ArrayExpression;
 import com.blazebit.persistence.parser.expression.Expression;
 import com.blazebit.persistence.parser.expression.ExpressionFactory;
 import com.blazebit.persistence.parser.expression.ExpressionFactoryImpl;
+import com.blazebit.persistence.parser.expression.FunctionExpression;
 import com.blazebit.persistence.parser.expression.MacroConfiguration;
 import com.blazebit.persistence.parser.expression.MacroFunction;
 import com.blazebit.persistence.parser.expression.PathElementExpression;
@@ -54,6 +55,23 @@ public class SimpleCachingExpressionFactoryTest {
         Assert.assertEquals(expr1, expr2);
     }
 
+    @Test
+    public void testCreateSimpleExpressionCacheSharesImmutableNodes() {
+        ExpressionFactory ef = new SimpleCachingExpressionFactory(new ExpressionFactoryImpl(new HashMap<String, FunctionKind>(), true, true));
+        String expressionString = "FUNCTION('test', 'abc', 1, a.b)";
+
+        FunctionExpression expr1 = (FunctionExpression) ef.createSimpleExpression(expressionString, false, true, false, null, null);
+        FunctionExpression expr2 = (FunctionExpression) ef.createSimpleExpression(expressionString, false, true, false, null, null);
+
+        Assert.assertFalse(expr1 == expr2);
+        Assert.assertEquals(expr1, expr2);
+        // Literals are immutable and thus shared
+        Assert.assertSame(expr1.getExpressions().get(1), expr2.getExpressions().get(1));
+        Assert.assertSame(expr1.getExpressions().get(2), expr2.getExpressions().get(2));
+        // Paths are mutable and thus copied
+        Assert.assertNotSame(expr1.getExpressions().get(3), expr2.getExpressions().get(3));
+    }
+
     @Test
     public void testCreateSimpleExpressionCacheWithMacros() {
         ExpressionFactory ef = new SimpleCachingExpressionFactory(new ExpressionFactoryImpl(new HashMap<String, FunctionKind>(), true, true));
@@ -135,6 +135,11 @@ public class DelegatingDbmsDialect implements DbmsDialect {
         return delegate.supportsReturningColumns();
     }
 
+    @Override
+    public boolean supportsBatchUpdateCounts() {
+        return delegate.supportsBatchUpdateCounts();
+    }
+
     @Override
     public boolean supportsGroupByExpressionInHavingMatching() {
         return delegate.supportsGroupByExpressionInHavingMatching();
@@ -230,6 +235,21 @@ public class DelegatingDbmsDialect implements DbmsDialect {
         return delegate.getValuesStrategy();
     }
 
+    @Override
+    public String getTemporaryTableCreationSql(String tableName, String[] columnNames, String[] columnTypes) {
+        return delegate.getTemporaryTableCreationSql(tableName, columnNames, columnTypes);
+    }
+
+    @Override
+    public String getArrayTableSql(String tableAlias, String[] columnNames, String[] columnTypes) {
+        return delegate.getArrayTableSql(tableAlias, columnNames, columnTypes);
+    }
+
+    @Override
+    public int getMaximumInListSize() {
+        return delegate.getMaximumInListSize();
+    }
+
     @Override
     public boolean needsCastParameters() {
         return delegate.needsCastParameters();
@@ -207,6 +207,31 @@ public class CTETest extends AbstractCoreTest {
         assertEquals("desc", resultList.get(0).getEmbeddable().getDescription());
     }
 
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class, NoMySQLOld.class })
+    public void testCTEWithDifferentPages() {
+        // All pages share a query plan, so make sure the limit and offset of the pages are respected
+        String[] expectedNames = { "root1", "child1_1", "child1_2", "child1_1_1", "child1_2_1" };
+        for (int firstResult = 0; firstResult < expectedNames.length; firstResult += 2) {
+            CriteriaBuilder<TestCTE> cb = cbf.create(em, TestCTE.class, "t");
+            cb.with(TestCTE.class, false)
+                .from(RecursiveEntity.class, "e")
+                .bind("id").select("e.id")
+                .bind("name").select("e.name")
+                .bind("level").select("0")
+            .end();
+            cb.orderByAsc("t.id")
+                .setFirstResult(firstResult)
+                .setMaxResults(2);
+
+            List<TestCTE> resultList = cb.getResultList();
+            assertEquals(Math.min(2, expectedNames.length - firstResult), resultList.size());
+            for (int i = 0; i < resultList.size(); i++) {
+                assertEquals(expectedNames[firstResult + i], resultList.get(i).getName());
+            }
+        }
+    }
+
     // NOTE: Apparently H2 doesn't like limit in CTEs
     @Test
     @Category({ NoH2.class, NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class, NoMySQLOld.class })
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.impl.CriteriaBuilderFactoryImpl;
+import com.blazebit.persistence.impl.query.QueryTemplateCache;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public class InListPaddingTest extends AbstractCoreTest {
+
+    @Override
+    protected CriteriaBuilderConfiguration configure(CriteriaBuilderConfiguration config) {
+        config = super.configure(config);
+        config.setProperty(ConfigurationProperties.QUERY_TEMPLATE_CACHE_MAXIMUM_SIZE, "16");
+        return config;
+    }
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person p1 = new Person("p1");
+                em.persist(p1);
+                for (int i = 1; i <= 3; i++) {
+                    Document d = new Document("doc" + i, i);
+                    d.setOwner(p1);
+                    em.persist(d);
+                }
+            }
+        });
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testInListPaddingReusesTemplateForDifferentSizes() {
+        QueryTemplateCache queryTemplateCache = ((CriteriaBuilderFactoryImpl) cbf).getQueryTemplateCache();
+
+        assertEquals(Arrays.asList("doc1", "doc2", "doc3"), getPaddedDocumentNames(Arrays.asList(1L, 2L, 3L, 4L, 5L), Arrays.asList(1L, 2L, 3L, 4L, 5L)));
+        long hitCount = queryTemplateCache.getHitCount();
+        // Both collections are padded to the same size, so the template is reused
+        assertEquals(Arrays.asList("doc1", "doc3"), getPaddedDocumentNames(Arrays.asList(1L, 3L, 5L, 6L, 7L, 8L, 9L), Arrays.asList(1L, 3L, 5L, 7L, 9L, 11L)));
+        assertEquals(hitCount + 1, queryTemplateCache.getHitCount());
+    }
+
+    private List<String> getPaddedDocumentNames(List<Long> ages, List<Long> otherAges) {
+        CriteriaBuilder<String> cb = cbf.create(em, String.class);
+        cb.setProperty(ConfigurationProperties.IN_LIST_PADDING, "true");
+        cb.fromValues(Long.class, "allowedAge", ages);
+        cb.from(Document.class, "doc");
+        cb.where("doc.age").eqExpression("allowedAge");
+        cb.where("doc.age").in(otherAges);
+        cb.select("doc.name");
+        cb.orderByAsc("doc.name");
+        return cb.getResultList();
+    }
+}
@@ -25,11 +25,16 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.persistence.EntityManager;
 import javax.persistence.Tuple;
 
 import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.CountCache;
 import com.blazebit.persistence.DefaultKeyset;
 import com.blazebit.persistence.DefaultKeysetPage;
 import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
@@ -1204,4 +1209,132 @@ public class PaginationTest extends AbstractCoreTest {
         assertEquals("doc1", result.get(0).getName());
         assertEquals(2, result.getTotalSize());
     }
+
+    @Test
+    public void testConcurrentCountQuery() {
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        final AtomicInteger executions = new AtomicInteger();
+        Executor executor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                executions.incrementAndGet();
+                executorService.execute(command);
+            }
+        };
+        try {
+            PaginatedCriteriaBuilder<Document> cb = cbf.create(em, Document.class, "d")
+                    .where("owner.name").eq("Karl1")
+                    .orderByAsc("id")
+                    .page(0, 1)
+                    .withInlineCountQuery(false)
+                    .withCountQueryExecutor(executor);
+            PagedList<Document> result = cb.getResultList();
+            assertEquals(1, result.size());
+            assertEquals("doc1", result.get(0).getName());
+            assertEquals(3, result.getTotalSize());
+            assertEquals(1, executions.get());
+
+            // The count is also available when the requested page is empty
+            cb = cbf.create(em, Document.class, "d")
+                    .where("owner.name").eq("Karl1")
+                    .orderByAsc("id")
+                    .page(10, 1)
+                    .withInlineCountQuery(false)
+                    .withCountQueryExecutor(executor);
+            result = cb.getResultList();
+            assertEquals(0, result.size());
+            assertEquals(3, result.getTotalSize());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    // DataNucleus and OpenJPA can't tell if a transaction flushed changes, so the cache is bypassed in every transaction
+    @Test
+    @Category({ NoDatanucleus.class, NoOpenJPA.class })
+    public void testCountCache() {
+        CountCache countCache = cbf.getService(CountCache.class);
+        countCache.invalidateAll();
+
+        PagedList<Document> result = createCountCachedQuery(0).getResultList();
+        assertEquals(1, result.size());
+        assertEquals(3, result.getTotalSize());
+        assertEquals(1, countCache.size());
+
+        // The next page reuses the cached count
+        result = createCountCachedQuery(1).getResultList();
+        assertEquals(1, result.size());
+        assertEquals(3, result.getTotalSize());
+        assertEquals(1, countCache.size());
+
+        Person owner = cbf.create(em, Person.class).where("name").eq("Karl1").getSingleResult();
+        Document newDocument = new Document("doc8");
+        newDocument.setOwner(owner);
+        em.persist(newDocument);
+        em.flush();
+
+        // The flushed but uncommitted changes must neither be hidden by the cached count nor be published through the cache
+        result = createCountCachedQuery(1).getResultList();
+        assertEquals(1, result.size());
+        assertEquals(4, result.getTotalSize());
+        assertEquals(1, countCache.size());
+
+        countCache.invalidate(Document.class);
+        assertEquals(0, countCache.size());
+        result = createCountCachedQuery(1).getResultList();
+        assertEquals(4, result.getTotalSize());
+        assertEquals(0, countCache.size());
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoOpenJPA.class })
+    public void testCountCacheInvalidationBySubqueryEntity() {
+        CountCache countCache = cbf.getService(CountCache.class);
+        countCache.invalidateAll();
+
+        PagedList<Document> result = cbf.create(em, Document.class, "d")
+                .setProperty(ConfigurationProperties.COUNT_CACHE_ENABLED, "true")
+                .where("d.owner.id").in()
+                    .from(Person.class, "p")
+                    .select("p.id")
+                    .where("p.name").eq("Karl1")
+                .end()
+                .orderByAsc("id")
+                .page(0, 1)
+                .withInlineCountQuery(false)
+                .getResultList();
+        assertEquals(3, result.getTotalSize());
+        assertEquals(1, countCache.size());
+
+        // Person is only used in the subquery but still affects the count
+        countCache.invalidate(Person.class);
+        assertEquals(0, countCache.size());
+    }
+
+    @Test
+    public void testCountCacheSkipsEntityParameters() {
+        CountCache countCache = cbf.getService(CountCache.class);
+        countCache.invalidateAll();
+
+        Person owner = cbf.create(em, Person.class).where("name").eq("Karl1").getSingleResult();
+        PagedList<Document> result = cbf.create(em, Document.class, "d")
+                .setProperty(ConfigurationProperties.COUNT_CACHE_ENABLED, "true")
+                .where("owner").eq(owner)
+                .orderByAsc("id")
+                .page(0, 1)
+                .withInlineCountQuery(false)
+                .getResultList();
+        assertEquals(3, result.getTotalSize());
+        // Entities are mutable, so they must not become part of a cache key
+        assertEquals(0, countCache.size());
+    }
+
+    private PaginatedCriteriaBuilder<Document> createCountCachedQuery(int firstResult) {
+        return cbf.create(em, Document.class, "d")
+                .setProperty(ConfigurationProperties.COUNT_CACHE_ENABLED, "true")
+                .where("owner.name").eq("Karl1")
+                .orderByAsc("id")
+                .page(firstResult, 1)
+                .withInlineCountQuery(false);
+    }
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.impl.CriteriaBuilderFactoryImpl;
+import com.blazebit.persistence.impl.query.EntityFunctionNode;
+import com.blazebit.persistence.impl.query.QueryTemplate;
+import com.blazebit.persistence.impl.query.QueryTemplateCache;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public class QueryTemplateCacheTest extends AbstractCoreTest {
+
+    @Override
+    protected CriteriaBuilderConfiguration configure(CriteriaBuilderConfiguration config) {
+        config = super.configure(config);
+        config.setProperty(ConfigurationProperties.QUERY_TEMPLATE_CACHE_MAXIMUM_SIZE, "16");
+        return config;
+    }
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person p1 = new Person("p1");
+                em.persist(p1);
+                for (int i = 1; i <= 3; i++) {
+                    Document d = new Document("doc" + i, i);
+                    d.setOwner(p1);
+                    em.persist(d);
+                }
+            }
+        });
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testTemplateIsReusedForStructurallyIdenticalQueries() {
+        QueryTemplateCache queryTemplateCache = ((CriteriaBuilderFactoryImpl) cbf).getQueryTemplateCache();
+        long hitCount = queryTemplateCache.getHitCount();
+
+        assertEquals(Arrays.asList("doc1"), getDocumentNames(Arrays.asList(1L)));
+        assertEquals(Arrays.asList("doc2"), getDocumentNames(Arrays.asList(2L)));
+        assertEquals(Arrays.asList("doc3"), getDocumentNames(Arrays.asList(3L)));
+        assertEquals(hitCount + 2, queryTemplateCache.getHitCount());
+
+        // A different number of values results in a different template
+        assertEquals(Arrays.asList("doc1", "doc3"), getDocumentNames(Arrays.asList(1L, 3L)));
+        assertEquals(hitCount + 2, queryTemplateCache.getHitCount());
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testTemplateIsReusedWhenPropertiesAreSet() {
+        QueryTemplateCache queryTemplateCache = ((CriteriaBuilderFactoryImpl) cbf).getQueryTemplateCache();
+
+        assertEquals(Arrays.asList("doc1"), getDocumentNamesWithProperty(Arrays.asList(1L)));
+        long hitCount = queryTemplateCache.getHitCount();
+        // Setting a property on the builder must not disable the query plan cache
+        assertEquals(Arrays.asList("doc2"), getDocumentNamesWithProperty(Arrays.asList(2L)));
+        assertEquals(hitCount + 1, queryTemplateCache.getHitCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedTemplateIsEvicted() {
+        QueryTemplateCache queryTemplateCache = new QueryTemplateCache(2);
+        QueryTemplateCache.Key key1 = createKey("query1");
+        QueryTemplateCache.Key key2 = createKey("query2");
+        QueryTemplateCache.Key key3 = createKey("query3");
+        queryTemplateCache.putIfAbsent(key1, new QueryTemplate("sql1", null));
+        queryTemplateCache.putIfAbsent(key2, new QueryTemplate("sql2", null));
+        // Accessing the first template makes the second one the least recently used
+        assertNotNull(queryTemplateCache.get(key1));
+
+        queryTemplateCache.putIfAbsent(key3, new QueryTemplate("sql3", null));
+        assertEquals(2, queryTemplateCache.size());
+        assertNotNull(queryTemplateCache.get(key1));
+        assertNull(queryTemplateCache.get(key2));
+        assertNotNull(queryTemplateCache.get(key3));
+    }
+
+    private static QueryTemplateCache.Key createKey(String queryString) {
+        return new QueryTemplateCache.Key(queryString, Collections.<String, Collection<?>>emptyMap(), null, null, Collections.<String>emptyList(), Collections.<EntityFunctionNode>emptyList());
+    }
+
+    private List<String> getDocumentNamesWithProperty(List<Long> ages) {
+        CriteriaBuilder<String> cb = cbf.create(em, String.class);
+        cb.setProperty(ConfigurationProperties.SIZE_TO_COUNT_TRANSFORMATION, "true");
+        cb.fromValues(Long.class, "allowedAge", ages);
+        cb.from(Document.class, "doc");
+        cb.where("doc.age").eqExpression("allowedAge");
+        cb.select("doc.name");
+        cb.orderByAsc("doc.name");
+        return cb.getResultList();
+    }
+
+    private List<String> getDocumentNames(List<Long> ages) {
+        CriteriaBuilder<String> cb = cbf.create(em, String.class);
+        cb.fromValues(Long.class, "allowedAge", ages);
+        cb.from(Document.class, "doc");
+        cb.where("doc.age").eqExpression("allowedAge");
+        cb.select("doc.name");
+        cb.orderByAsc("doc.name");
+        return cb.getResultList();
+    }
+}
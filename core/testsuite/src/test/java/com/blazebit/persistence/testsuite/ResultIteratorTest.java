@@ -0,0 +1,239 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.CloseableIterator;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.GroupingObjectBuilder;
+import com.blazebit.persistence.SelectBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.model.DocumentViewModel;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public class ResultIteratorTest extends AbstractCoreTest {
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person p = new Person("Karl");
+                em.persist(p);
+
+                em.persist(new Document("Doc1", p));
+                em.persist(new Document("Doc2", p));
+                em.persist(new Document("Doc3", p));
+            }
+        });
+    }
+
+    @Test
+    public void testIterateEntities() {
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.name");
+
+        List<String> names = new ArrayList<>();
+        try (CloseableIterator<Document> iterator = criteria.getResultIterator()) {
+            while (iterator.hasNext()) {
+                names.add(iterator.next().getName());
+            }
+        }
+
+        assertEquals(3, names.size());
+        assertEquals("Doc1", names.get(0));
+        assertEquals("Doc2", names.get(1));
+        assertEquals("Doc3", names.get(2));
+    }
+
+    // Only Hibernate supports scrolling
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testIteratedEntitiesAreDetached() {
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.name");
+
+        try (CloseableIterator<Document> iterator = criteria.getResultIterator()) {
+            Document first = iterator.next();
+            assertTrue(em.contains(first));
+            Document second = iterator.next();
+            assertTrue(iterator.hasNext());
+            // Advancing the iterator detaches the entities of the previous row
+            assertFalse(em.contains(first));
+            assertFalse(em.contains(second));
+        }
+    }
+
+    // Only Hibernate supports scrolling
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testPreviouslyManagedEntitiesStayManaged() {
+        Document managed = cbf.create(em, Document.class, "d")
+                .where("d.name").eq("Doc1")
+                .getSingleResult();
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.name");
+
+        try (CloseableIterator<Document> iterator = criteria.getResultIterator()) {
+            assertSame(managed, iterator.next());
+            Document second = iterator.next();
+            assertTrue(iterator.hasNext());
+            // Only the entities that were loaded by the iterator are detached
+            assertTrue(em.contains(managed));
+            assertFalse(em.contains(second));
+        }
+        assertTrue(em.contains(managed));
+    }
+
+    // Only Hibernate supports scrolling
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testEntitiesOfGroupStayManaged() {
+        CriteriaBuilder<Object[]> criteria = cbf.create(em, Document.class, "d")
+                .selectNew(new OwnerGroupingObjectBuilder(em))
+                .orderByAsc("d.owner.id")
+                .orderByAsc("d.name");
+
+        List<Object[]> tuples = new ArrayList<>();
+        try (CloseableIterator<Object[]> iterator = criteria.getResultIterator()) {
+            while (iterator.hasNext()) {
+                tuples.add(iterator.next());
+            }
+        }
+
+        assertEquals(3, tuples.size());
+        // The entities are detached after the group was consumed
+        assertFalse(em.contains(tuples.get(0)[0]));
+        assertFalse(em.contains(tuples.get(0)[1]));
+    }
+
+    @Test
+    public void testIterateTuples() {
+        CriteriaBuilder<Object[]> criteria = cbf.create(em, Object[].class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .select("d.owner.name")
+                .orderByAsc("d.name");
+
+        List<Object[]> tuples = new ArrayList<>();
+        try (CloseableIterator<Object[]> iterator = criteria.getResultIterator()) {
+            while (iterator.hasNext()) {
+                tuples.add(iterator.next());
+            }
+        }
+
+        assertEquals(3, tuples.size());
+        assertEquals("Doc1", tuples.get(0)[0]);
+        assertEquals("Karl", tuples.get(0)[1]);
+        assertEquals("Doc3", tuples.get(2)[0]);
+    }
+
+    @Test
+    public void testIterateSelectNew() {
+        CriteriaBuilder<DocumentViewModel> criteria = cbf.create(em, Document.class, "d")
+                .selectNew(DocumentViewModel.class).with("d.name").end()
+                .orderByAsc("d.name");
+
+        List<String> names = new ArrayList<>();
+        try (CloseableIterator<DocumentViewModel> iterator = criteria.getResultIterator()) {
+            while (iterator.hasNext()) {
+                names.add(iterator.next().getName());
+            }
+        }
+
+        assertEquals(criteria.getResultList().size(), names.size());
+        assertEquals("Doc1", names.get(0));
+        assertEquals("Doc3", names.get(2));
+    }
+
+    @Test
+    public void testCloseBeforeExhausted() {
+        CriteriaBuilder<DocumentViewModel> criteria = cbf.create(em, Document.class, "d")
+                .selectNew(DocumentViewModel.class).with("d.name").end()
+                .orderByAsc("d.name");
+
+        CloseableIterator<DocumentViewModel> iterator = criteria.getResultIterator();
+        assertTrue(iterator.hasNext());
+        assertEquals("Doc1", iterator.next().getName());
+        iterator.close();
+        assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * Groups documents by owner and checks that the entities of a group are the same managed instances when the group is built.
+     */
+    private static class OwnerGroupingObjectBuilder implements GroupingObjectBuilder<Object[]> {
+
+        private final EntityManager em;
+
+        public OwnerGroupingObjectBuilder(EntityManager em) {
+            this.em = em;
+        }
+
+        @Override
+        public <X extends SelectBuilder<X>> void applySelects(X selectBuilder) {
+            selectBuilder.select("d.owner");
+            selectBuilder.select("d");
+        }
+
+        @Override
+        public Object getGroupKey(Object[] tuple) {
+            return ((Person) tuple[0]).getId();
+        }
+
+        @Override
+        public boolean isGroupingSupported() {
+            return true;
+        }
+
+        @Override
+        public Object[] build(Object[] tuple) {
+            return tuple;
+        }
+
+        @Override
+        public List<Object[]> buildList(List<Object[]> list) {
+            Object owner = list.get(0)[0];
+            for (Object[] tuple : list) {
+                assertSame(owner, tuple[0]);
+                assertTrue(em.contains(tuple[0]));
+                assertTrue(em.contains(tuple[1]));
+            }
+            return new ArrayList<>(list);
+        }
+    }
+}
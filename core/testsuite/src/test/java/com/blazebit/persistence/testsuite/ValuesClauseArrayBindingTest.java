@@ -0,0 +1,150 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.impl.query.CustomSQLTypedQuery;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDB2;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoFirebird;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoH2;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoMSSQL;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoMySQL;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoMySQLOld;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOracle;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoPostgreSQL;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoSQLite;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public class ValuesClauseArrayBindingTest extends AbstractCoreTest {
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person p1 = new Person("p1");
+                Person p2 = new Person("p2");
+                Document d1 = new Document("doc1", 1);
+                Document d2 = new Document("doc2", 2);
+                d1.setOwner(p1);
+                d2.setOwner(p2);
+
+                em.persist(p1);
+                em.persist(p2);
+                em.persist(d1);
+                em.persist(d2);
+            }
+        });
+    }
+
+    // Array binding is only supported for PostgreSQL
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class, NoH2.class, NoMySQL.class, NoMySQLOld.class, NoOracle.class, NoMSSQL.class, NoDB2.class, NoFirebird.class, NoSQLite.class })
+    public void testValuesArrayBinding() {
+        CriteriaBuilder<String> cb = createAllowedAgeQuery(Arrays.asList(1L, 3L, 4L));
+        CriteriaBuilder<String> biggerCb = createAllowedAgeQuery(Arrays.asList(1L, 2L, 3L, 4L, 5L));
+
+        assertTrue(getSql(cb).contains("unnest("));
+        // The SQL doesn't depend on the value count
+        assertEquals(getSql(cb), getSql(biggerCb));
+        assertEquals(Arrays.asList("doc1"), cb.getResultList());
+        assertEquals(Arrays.asList("doc1", "doc2"), biggerCb.getResultList());
+    }
+
+    // Array binding is only supported for PostgreSQL
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class, NoH2.class, NoMySQL.class, NoMySQLOld.class, NoOracle.class, NoMSSQL.class, NoDB2.class, NoFirebird.class, NoSQLite.class })
+    public void testIdentifiableValuesArrayBinding() {
+        List<Person> persons = cbf.create(em, Person.class).orderByAsc("id").getResultList();
+        CriteriaBuilder<String> cb = cbf.create(em, String.class)
+                .setProperty(ConfigurationProperties.VALUES_ARRAY_BINDING, "true")
+                .fromIdentifiableValues(Person.class, "p", persons)
+                .from(Document.class, "doc")
+                .where("doc.owner.id").eqExpression("p.id")
+                .select("doc.name")
+                .orderByAsc("doc.name");
+
+        assertTrue(getSql(cb).contains("unnest("));
+        assertEquals(Arrays.asList("doc1", "doc2"), cb.getResultList());
+
+        cb.setParameter("p", persons.subList(1, persons.size()));
+        assertEquals(Arrays.asList("doc2"), cb.getResultList());
+    }
+
+    // Array binding is only supported for PostgreSQL
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class, NoH2.class, NoMySQL.class, NoMySQLOld.class, NoOracle.class, NoMSSQL.class, NoDB2.class, NoFirebird.class, NoSQLite.class })
+    public void testTemporalValuesAreNotBoundAsArray() {
+        // The string representation of temporal values is ambiguous, so they must be bound as parameters
+        CriteriaBuilder<String> cb = cbf.create(em, String.class)
+                .setProperty(ConfigurationProperties.VALUES_ARRAY_BINDING, "true")
+                .fromValues(Document.class, "lastModified", "d", Arrays.asList(new Date(0L), new Date(1000L)))
+                .from(Document.class, "doc")
+                .where("doc.lastModified").eqExpression("d")
+                .select("doc.name");
+
+        assertFalse(getSql(cb).contains("unnest("));
+    }
+
+    // Other dbms ignore the configuration
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class, NoPostgreSQL.class })
+    public void testValuesArrayBindingFallback() {
+        CriteriaBuilder<String> cb = createAllowedAgeQuery(Arrays.asList(1L, 3L, 4L));
+
+        assertFalse(getSql(cb).contains("unnest("));
+        assertEquals(Arrays.asList("doc1"), cb.getResultList());
+    }
+
+    private CriteriaBuilder<String> createAllowedAgeQuery(List<Long> ages) {
+        CriteriaBuilder<String> cb = cbf.create(em, String.class)
+                .setProperty(ConfigurationProperties.VALUES_ARRAY_BINDING, "true");
+        cb.fromValues(Long.class, "allowedAge", ages);
+        cb.from(Document.class, "doc");
+        cb.where("doc.age").eqExpression("allowedAge");
+        cb.select("doc.name");
+        cb.orderByAsc("doc.name");
+        return cb;
+    }
+
+    private static String getSql(CriteriaBuilder<?> cb) {
+        return ((CustomSQLTypedQuery<?>) cb.getQuery()).getQuerySpecification().getSql();
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.impl.query.CustomSQLTypedQuery;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDB2;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoFirebird;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoMSSQL;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoMySQL;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoMySQLOld;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOracle;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoSQLite;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+// Temporary tables are only supported for H2 and PostgreSQL
+@Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class, NoMySQL.class, NoMySQLOld.class, NoOracle.class, NoMSSQL.class, NoDB2.class, NoFirebird.class, NoSQLite.class })
+public class ValuesClauseTemporaryTableTest extends AbstractCoreTest {
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person p1 = new Person("p1");
+                Person p2 = new Person("p2");
+                Document d1 = new Document("doc1", 1);
+                Document d2 = new Document("doc2", 2);
+                d1.setOwner(p1);
+                d2.setOwner(p2);
+
+                em.persist(p1);
+                em.persist(p2);
+                em.persist(d1);
+                em.persist(d2);
+            }
+        });
+    }
+
+    @Test
+    public void testValuesUseTemporaryTableWhenReachingThreshold() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                CriteriaBuilder<String> cb = cbf.create(em, String.class)
+                        .setProperty(ConfigurationProperties.VALUES_TEMPORARY_TABLE_THRESHOLD, "3");
+                cb.fromValues(Long.class, "allowedAge", Arrays.asList(1L, 3L, 4L));
+                cb.from(Document.class, "doc");
+                cb.where("doc.age").eqExpression("allowedAge");
+                cb.select("doc.name");
+
+                assertEquals("SELECT doc.name FROM Long(3 VALUES) allowedAge, Document doc WHERE doc.age = allowedAge", cb.getQueryString());
+                assertTrue(getSql(cb).contains("values_allowedAge_"));
+                assertEquals(Arrays.asList("doc1"), cb.getResultList());
+            }
+        });
+    }
+
+    @Test
+    public void testIdentifiableValuesUseTemporaryTableWhenReachingThreshold() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                // Use enough values to require multiple JDBC batches
+                List<Person> persons = new ArrayList<>(cbf.create(em, Person.class).orderByAsc("id").getResultList());
+                for (long i = 0; i < 2500; i++) {
+                    persons.add(new Person(-i - 1));
+                }
+                CriteriaBuilder<String> cb = cbf.create(em, String.class)
+                        .setProperty(ConfigurationProperties.VALUES_TEMPORARY_TABLE_THRESHOLD, "1000")
+                        .fromIdentifiableValues(Person.class, "p", persons)
+                        .from(Document.class, "doc")
+                        .where("doc.owner.id").eqExpression("p.id")
+                        .select("doc.name")
+                        .orderByAsc("doc.name");
+
+                assertTrue(getSql(cb).contains("values_p_"));
+                assertEquals(Arrays.asList("doc1", "doc2"), cb.getResultList());
+
+                // Executing again must replace the previously loaded values
+                cb.setParameter("p", persons.subList(1, persons.size()));
+                assertEquals(Arrays.asList("doc2"), cb.getResultList());
+            }
+        });
+    }
+
+    @Test
+    public void testPaginatedValuesUseTemporaryTable() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                // The count and object query of the paginated query share the loaded values
+                PagedList<String> result = cbf.create(em, String.class)
+                        .setProperty(ConfigurationProperties.VALUES_TEMPORARY_TABLE_THRESHOLD, "3")
+                        .fromValues(Long.class, "allowedAge", Arrays.asList(1L, 2L, 4L))
+                        .from(Document.class, "doc")
+                        .where("doc.age").eqExpression("allowedAge")
+                        .select("doc.name")
+                        .orderByAsc("doc.name")
+                        .orderByAsc("doc.id")
+                        .page(0, 1)
+                        .getResultList();
+
+                assertEquals(2, result.getTotalSize());
+                assertEquals(Arrays.asList("doc1"), result);
+            }
+        });
+    }
+
+    @Test
+    public void testValuesBelowThresholdUseParameters() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                CriteriaBuilder<String> cb = cbf.create(em, String.class)
+                        .setProperty(ConfigurationProperties.VALUES_TEMPORARY_TABLE_THRESHOLD, "4");
+                cb.fromValues(Long.class, "allowedAge", Arrays.asList(1L, 3L, 4L));
+                cb.from(Document.class, "doc");
+                cb.where("doc.age").eqExpression("allowedAge");
+                cb.select("doc.name");
+
+                assertFalse(getSql(cb).contains("values_allowedAge_"));
+                assertEquals(Arrays.asList("doc1"), cb.getResultList());
+            }
+        });
+    }
+
+    private static String getSql(CriteriaBuilder<?> cb) {
+        return ((CustomSQLTypedQuery<?>) cb.getQuery()).getQuerySpecification().getSql();
+    }
+}
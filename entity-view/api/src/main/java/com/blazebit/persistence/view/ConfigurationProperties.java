@@ -50,6 +50,16 @@ public final class ConfigurationProperties {
      * @since 1.0.6
      */
     public static final String PROXY_UNSAFE_ALLOWED = "com.blazebit.persistence.view.proxy.unsafe_allowed";
+    /**
+     * A boolean flag to make it possible to use a compact binary serialization format for entity view proxies of serializable entity views.
+     * By default the proxies use the default Java serialization which writes the field descriptors and boxed state arrays.
+     * When enabled, the proxies write the attribute values positionally, primitive values without boxing, along with a schema version.
+     * The dirty state of updatable and creatable entity views is retained.
+     * Valid values for this property are <code>true</code> or <code>false</code>. The default value is <code>false</code>.
+     *
+     * @since 1.5.0
+     */
+    public static final String PROXY_COMPACT_SERIALIZATION = "com.blazebit.persistence.view.proxy.compact_serialization";
     /**
      * A boolean flag to make it possible to disable the expression validation.
      * By default the expression validation is enabled, but since the validation is not bullet proof, it can be disabled.
@@ -103,6 +113,49 @@ public final class ConfigurationProperties {
      * @since 1.3.0
      */
     public static final String EXPECT_BATCH_MODE = "com.blazebit.persistence.view.batch_mode";
+    /**
+     * An {@link java.util.concurrent.Executor} on which the batches of correlated attributes that are fetched via the <code>SELECT</code> fetch strategy are loaded concurrently.
+     * Every batch query is executed on a separate {@link javax.persistence.EntityManager} of the same {@link javax.persistence.EntityManagerFactory},
+     * so it doesn't see uncommitted or unflushed changes of the current persistence context and correlated entities are detached.
+     * Concurrent loading is only done for correlations that batch correlation values and don't use the <code>VIEW_ROOT</code> or <code>EMBEDDING_VIEW</code> macros.
+     * By default no executor is set and the batches are loaded one after another.
+     * The executor can be set via {@linkplain com.blazebit.persistence.view.EntityViewSetting#setProperty}.
+     *
+     * @since 1.5.0
+     */
+    public static final String BATCH_CORRELATION_EXECUTOR = "com.blazebit.persistence.view.batch_correlation_executor";
+    /**
+     * A boolean specifying if the results of correlated attributes that are fetched via the <code>SELECT</code> fetch strategy should be cached across queries.
+     * The results are cached by the entity view type declaring the attribute, the attribute name, the correlation key, the values of the other parameters
+     * the correlation query uses and the fetches of the entity view setting in the {@link CorrelationCache}. This is meant for rarely changing reference data.
+     * Correlations that use parameter values other than basic immutable values, e.g. entities or collections, are never cached.
+     * Only basic values and read-only subviews are cached. Results of correlations that make use of the <code>VIEW_ROOT</code> or <code>EMBEDDING_VIEW</code> macros,
+     * of updatable or creatable subviews and of entity or embeddable types are never cached.
+     * By default the value is false and can be overridden by setting this property via {@linkplain com.blazebit.persistence.view.EntityViewSetting#setProperty}.
+     *
+     * To enable the cache for a specific attribute, append the attribute name after the "correlation_cache" like
+     * e.g. <code>com.blazebit.persistence.view.correlation_cache.subProperty</code>
+     *
+     * @since 1.5.0
+     * @see #CORRELATION_CACHE_MAXIMUM_SIZE
+     * @see #CORRELATION_CACHE_EXPIRATION
+     */
+    public static final String CORRELATION_CACHE = "com.blazebit.persistence.view.correlation_cache";
+    /**
+     * The maximum number of correlation results to cache, see {@link #CORRELATION_CACHE}.
+     * When the maximum is reached, the least recently used entry is evicted.
+     * Default is <code>1024</code>.
+     *
+     * @since 1.5.0
+     */
+    public static final String CORRELATION_CACHE_MAXIMUM_SIZE = "com.blazebit.persistence.view.correlation_cache_maximum_size";
+    /**
+     * The time in milliseconds after which a cached correlation result expires, see {@link #CORRELATION_CACHE}.
+     * Default is <code>60000</code>.
+     *
+     * @since 1.5.0
+     */
+    public static final String CORRELATION_CACHE_EXPIRATION = "com.blazebit.persistence.view.correlation_cache_expiration";
     /**
      * A boolean flag to make it possible to prepare the entity view updater cache on startup.
      * By default the eager loading of entity view updates is disabled to have a better startup performance.
@@ -167,6 +220,29 @@ public final class ConfigurationProperties {
      */
     public static final String UPDATER_ERROR_ON_INVALID_PLURAL_SETTER = "com.blazebit.persistence.view.updater.error_on_invalid_plural_setter";
 
+    /**
+     * An integer specifying the maximum number of collection element DML statements to group into a single JDBC batch when flushing updatable entity views.
+     * Inserts of collection elements and index or value updates of indexed collection elements, that are done with one statement per element, are then sent to the database in batches.
+     * Deletes of collection elements are done with a single bulk statement and are not batched.
+     * By default no JDBC batching is done i.e. the default value is <code>1</code>.
+     * Valid values are positive integers.
+     *
+     * @since 1.5.0
+     */
+    public static final String UPDATER_JDBC_BATCH_SIZE = "com.blazebit.persistence.view.updater.jdbc_batch_size";
+
+    /**
+     * A boolean flag to make updatable entity views skip the deep cloning of mutable basic values like {@link java.util.Date} into the initial state when a view is loaded.
+     * The loaded value is then shared with the initial state and the previous value is only retained when it is replaced through a setter.
+     * Mutating such a value in place, e.g. via {@link java.util.Date#setTime(long)}, is only detected if the value is passed to the setter afterwards and in that case the attribute is always considered dirty.
+     * Values of types that support dirty tracking and of collections are unaffected.
+     * By default the initial state is snapshotted eagerly i.e. the default value is <code>false</code>.
+     * Valid values for this property are <code>true</code> or <code>false</code>.
+     *
+     * @since 1.5.0
+     */
+    public static final String UPDATER_LAZY_INITIAL_STATE_SNAPSHOT = "com.blazebit.persistence.view.updater.lazy_initial_state_snapshot";
+
     /**
      * A boolean flag that allows to disable a count query for a paginated criteria builder.
      *
@@ -257,6 +333,17 @@ public final class ConfigurationProperties {
      */
     public static final String CREATE_EMPTY_FLAT_VIEWS = "com.blazebit.persistence.view.create_empty_flat_views";
 
+    /**
+     * An integer specifying the number of threads to use for validating the entity view metamodel during startup.
+     * The validation of expressions and of the JPA managed types used in entity views is done per type, and can thus be done in parallel.
+     * Scanning the entity view annotations, analyzing the bytecode, building the view types and generating proxies is always done in the bootstrapping thread.
+     * By default the validation is done in the bootstrapping thread i.e. the default value is <code>1</code>.
+     * Valid values are positive integers.
+     *
+     * @since 1.5.0
+     */
+    public static final String METAMODEL_VALIDATION_PARALLELISM = "com.blazebit.persistence.view.metamodel_validation_parallelism";
+
     private ConfigurationProperties() {
     }
 }
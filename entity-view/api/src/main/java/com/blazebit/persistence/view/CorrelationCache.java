@@ -0,0 +1,52 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view;
+
+/**
+ * A cache for the results of correlated attributes that are fetched via the {@link FetchStrategy#SELECT} strategy.
+ * The cache is available through {@link EntityViewManager#getService(Class)}
+ * and is used for attributes that enable the {@link ConfigurationProperties#CORRELATION_CACHE} property.
+ *
+ * When a transaction that flushed updatable or creatable entity views commits, the cached results are invalidated.
+ * Until then, the cache is bypassed by the entity manager that flushed the changes.
+ * Changes that are done without entity views must be signaled via {@link #invalidate(Class)}.
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public interface CorrelationCache {
+
+    /**
+     * Invalidates all cached correlation results that might use the given entity type.
+     * A correlated view can map any entity type and the used entity types aren't tracked, so this invalidates all cached results.
+     *
+     * @param entityClass The entity type that was changed
+     */
+    public void invalidate(Class<?> entityClass);
+
+    /**
+     * Invalidates all cached correlation results.
+     */
+    public void invalidateAll();
+
+    /**
+     * Returns the number of cached correlation results.
+     *
+     * @return The number of cached correlation results
+     */
+    public int size();
+}
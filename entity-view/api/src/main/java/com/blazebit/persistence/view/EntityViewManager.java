@@ -433,6 +433,54 @@ public interface EntityViewManager extends ServiceProvider {
      */
     public FlushOperationBuilder saveFullWithTo(EntityManager entityManager, Object view, Object entity);
 
+    /**
+     * Saves the entities which the given entity views map to.
+     * Issues partial updates if enabled for the respective views.
+     * The update statements of views with the same type and the same dirty attributes are grouped into JDBC batches
+     * of the size configured via {@link ConfigurationProperties#UPDATER_JDBC_BATCH_SIZE}.
+     *
+     * @param entityManager The entity manager to use for the save
+     * @param views The views to use for saving
+     * @since 1.5.0
+     */
+    public void saveAll(EntityManager entityManager, Iterable<?> views);
+
+    /**
+     * Fully saves the entities which the given entity views map to.
+     * The update statements of views with the same type are grouped into JDBC batches
+     * of the size configured via {@link ConfigurationProperties#UPDATER_JDBC_BATCH_SIZE}.
+     *
+     * @param entityManager The entity manager to use for the save
+     * @param views The views to use for saving
+     * @since 1.5.0
+     */
+    public void saveFullAll(EntityManager entityManager, Iterable<?> views);
+
+    /**
+     * Saves the entities which the given entity views map to.
+     * Issues partial updates if enabled for the respective views.
+     * The update statements of views with the same type and the same dirty attributes are grouped into JDBC batches
+     * of the size configured via {@link ConfigurationProperties#UPDATER_JDBC_BATCH_SIZE}.
+     *
+     * @param entityManager The entity manager to use for the save
+     * @param views The views to use for saving
+     * @return A flush operation builder for further configuring the flush operation
+     * @since 1.5.0
+     */
+    public FlushOperationBuilder saveAllWith(EntityManager entityManager, Iterable<?> views);
+
+    /**
+     * Fully saves the entities which the given entity views map to.
+     * The update statements of views with the same type are grouped into JDBC batches
+     * of the size configured via {@link ConfigurationProperties#UPDATER_JDBC_BATCH_SIZE}.
+     *
+     * @param entityManager The entity manager to use for the save
+     * @param views The views to use for saving
+     * @return A flush operation builder for further configuring the flush operation
+     * @since 1.5.0
+     */
+    public FlushOperationBuilder saveFullAllWith(EntityManager entityManager, Iterable<?> views);
+
     /**
      * Removes the entity represented by the given view.
      * Also cascades deletes to attributes that have {@link CascadeType#DELETE} enabled.
@@ -241,6 +241,26 @@ public class SerializableEntityViewManager implements EntityViewManager, Seriali
         return getEvm().saveFullWithTo(entityManager, view, entity);
     }
 
+    @Override
+    public void saveAll(EntityManager entityManager, Iterable<?> views) {
+        getEvm().saveAll(entityManager, views);
+    }
+
+    @Override
+    public void saveFullAll(EntityManager entityManager, Iterable<?> views) {
+        getEvm().saveFullAll(entityManager, views);
+    }
+
+    @Override
+    public FlushOperationBuilder saveAllWith(EntityManager entityManager, Iterable<?> views) {
+        return getEvm().saveAllWith(entityManager, views);
+    }
+
+    @Override
+    public FlushOperationBuilder saveFullAllWith(EntityManager entityManager, Iterable<?> views) {
+        return getEvm().saveFullAllWith(entityManager, views);
+    }
+
     @Override
     public void remove(EntityManager entityManager, Object view) {
         getEvm().remove(entityManager, view);
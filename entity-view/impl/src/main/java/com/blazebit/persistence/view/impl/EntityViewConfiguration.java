@@ -21,6 +21,7 @@ import com.blazebit.persistence.parser.expression.ExpressionFactory;
 import com.blazebit.persistence.view.ConfigurationProperties;
 import com.blazebit.persistence.view.spi.EmbeddingViewJpqlMacro;
 import com.blazebit.persistence.view.impl.metamodel.ManagedViewTypeImplementor;
+import com.blazebit.persistence.view.impl.objectbuilder.transformer.correlation.CorrelationCacheImpl;
 import com.blazebit.persistence.view.metamodel.MethodAttribute;
 import com.blazebit.persistence.view.metamodel.PluralAttribute;
 import com.blazebit.persistence.view.metamodel.SingularAttribute;
@@ -34,6 +35,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * @author Christian Beikov
@@ -49,22 +51,39 @@ public final class EntityViewConfiguration {
     private final Set<String> fetches;
     private final Map<String, Integer> batchSizeConfiguration;
     private final Map<String, BatchCorrelationMode> expectBatchCorrelationValuesConfiguration;
+    private final Executor batchCorrelationExecutor;
+    private final Map<String, Boolean> correlationCacheConfiguration;
+    private final CorrelationCacheImpl correlationCache;
 
     public EntityViewConfiguration(FullQueryBuilder<?, ?> criteriaBuilder, ExpressionFactory expressionFactory, ViewJpqlMacro viewJpqlMacro, EmbeddingViewJpqlMacro embeddingViewJpqlMacro, Map<String, Object> optionalParameters, Map<String, Object> properties, Collection<String> fetches, String attributePath) {
-        this(criteriaBuilder, expressionFactory, viewJpqlMacro, embeddingViewJpqlMacro, optionalParameters, properties, getFetches(fetches, attributePath));
+        this(criteriaBuilder, expressionFactory, viewJpqlMacro, embeddingViewJpqlMacro, optionalParameters, properties, getFetches(fetches, attributePath), null);
     }
 
-    public EntityViewConfiguration(FullQueryBuilder<?, ?> criteriaBuilder, ExpressionFactory expressionFactory, ViewJpqlMacro viewJpqlMacro, EmbeddingViewJpqlMacro embeddingViewJpqlMacro, Map<String, Object> optionalParameters, Map<String, Object> properties, Collection<String> fetches, ManagedViewTypeImplementor<?> managedViewType) {
-        this(criteriaBuilder, expressionFactory, viewJpqlMacro, embeddingViewJpqlMacro, optionalParameters, properties, getFetches(fetches, managedViewType));
+    public EntityViewConfiguration(FullQueryBuilder<?, ?> criteriaBuilder, ExpressionFactory expressionFactory, ViewJpqlMacro viewJpqlMacro, EmbeddingViewJpqlMacro embeddingViewJpqlMacro, Map<String, Object> optionalParameters, Map<String, Object> properties, Collection<String> fetches, ManagedViewTypeImplementor<?> managedViewType, CorrelationCacheImpl correlationCache) {
+        this(criteriaBuilder, expressionFactory, viewJpqlMacro, embeddingViewJpqlMacro, optionalParameters, properties, getFetches(fetches, managedViewType), correlationCache);
     }
 
-    private EntityViewConfiguration(FullQueryBuilder<?, ?> criteriaBuilder, ExpressionFactory expressionFactory, ViewJpqlMacro viewJpqlMacro, EmbeddingViewJpqlMacro embeddingViewJpqlMacro, Map<String, Object> optionalParameters, Map<String, Object> properties, Set<String> fetches) {
+    private EntityViewConfiguration(FullQueryBuilder<?, ?> criteriaBuilder, ExpressionFactory expressionFactory, ViewJpqlMacro viewJpqlMacro, EmbeddingViewJpqlMacro embeddingViewJpqlMacro, Map<String, Object> optionalParameters, Map<String, Object> properties, Set<String> fetches, CorrelationCacheImpl correlationCache) {
         Map<String, Integer> batchSizeConfiguration = new HashMap<String, Integer>(properties.size());
         Map<String, BatchCorrelationMode> expectBatchCorrelationValuesConfiguration = new HashMap<>(properties.size());
+        Executor batchCorrelationExecutor = null;
+        Map<String, Boolean> correlationCacheConfiguration = new HashMap<>(properties.size());
 
         for (Map.Entry<String, Object> entry : properties.entrySet()) {
             String key = entry.getKey();
-            if (key.startsWith(ConfigurationProperties.DEFAULT_BATCH_SIZE)) {
+            if (key.equals(ConfigurationProperties.BATCH_CORRELATION_EXECUTOR)) {
+                batchCorrelationExecutor = getBatchCorrelationExecutor(key, entry.getValue());
+            } else if (key.startsWith(ConfigurationProperties.CORRELATION_CACHE) && (key.length() == ConfigurationProperties.CORRELATION_CACHE.length() || key.charAt(ConfigurationProperties.CORRELATION_CACHE.length()) == '.')) {
+                Boolean value = getCorrelationCache(key, entry.getValue());
+                if (key.length() == ConfigurationProperties.CORRELATION_CACHE.length()) {
+                    correlationCacheConfiguration.put("", value);
+                } else if (key.length() < ConfigurationProperties.CORRELATION_CACHE.length() + 2) {
+                    throw new IllegalArgumentException("Invalid correlation cache configuration!");
+                } else {
+                    key = key.substring(ConfigurationProperties.CORRELATION_CACHE.length() + 1);
+                    correlationCacheConfiguration.put(key, value);
+                }
+            } else if (key.startsWith(ConfigurationProperties.DEFAULT_BATCH_SIZE)) {
                 Integer value = getBatchSize(key, entry.getValue());
                 if (key.length() == ConfigurationProperties.DEFAULT_BATCH_SIZE.length()) {
                     batchSizeConfiguration.put("", value);
@@ -105,11 +124,14 @@ public final class EntityViewConfiguration {
         this.fetches = fetches;
         this.batchSizeConfiguration = Collections.unmodifiableMap(batchSizeConfiguration);
         this.expectBatchCorrelationValuesConfiguration = Collections.unmodifiableMap(expectBatchCorrelationValuesConfiguration);
+        this.batchCorrelationExecutor = batchCorrelationExecutor;
+        this.correlationCacheConfiguration = Collections.unmodifiableMap(correlationCacheConfiguration);
+        this.correlationCache = correlationCache;
         this.criteriaBuilder.registerMacro("view", viewJpqlMacro);
         this.criteriaBuilder.registerMacro("embedding_view", embeddingViewJpqlMacro);
     }
 
-    private EntityViewConfiguration(EntityViewConfiguration original, FullQueryBuilder<?, ?> criteriaBuilder, String attributePath, EmbeddingViewJpqlMacro embeddingViewJpqlMacro) {
+    private EntityViewConfiguration(EntityViewConfiguration original, FullQueryBuilder<?, ?> criteriaBuilder, EmbeddingViewJpqlMacro embeddingViewJpqlMacro, Executor batchCorrelationExecutor) {
         this.criteriaBuilder = criteriaBuilder;
         this.expressionFactory = original.expressionFactory;
         this.viewJpqlMacro = original.viewJpqlMacro;
@@ -118,6 +140,9 @@ public final class EntityViewConfiguration {
         this.fetches = original.fetches;
         this.batchSizeConfiguration = original.batchSizeConfiguration;
         this.expectBatchCorrelationValuesConfiguration = original.expectBatchCorrelationValuesConfiguration;
+        this.batchCorrelationExecutor = batchCorrelationExecutor;
+        this.correlationCacheConfiguration = original.correlationCacheConfiguration;
+        this.correlationCache = original.correlationCache;
     }
 
     private static Set<String> getFetches(Collection<String> fetches, String attributePath) {
@@ -205,7 +230,15 @@ public final class EntityViewConfiguration {
     }
 
     public EntityViewConfiguration forSubview(FullQueryBuilder<?, ?> criteriaBuilder, String attributePath, EmbeddingViewJpqlMacro embeddingViewJpqlMacro) {
-        return new EntityViewConfiguration(this, criteriaBuilder, attributePath, embeddingViewJpqlMacro);
+        return new EntityViewConfiguration(this, criteriaBuilder, embeddingViewJpqlMacro, batchCorrelationExecutor);
+    }
+
+    public EntityViewConfiguration forConcurrentBatch() {
+        // Concurrent batches run in a worker of the executor, so their nested correlations must not submit further tasks to it
+        if (batchCorrelationExecutor == null) {
+            return this;
+        }
+        return new EntityViewConfiguration(this, criteriaBuilder, embeddingViewJpqlMacro, null);
     }
 
     public FullQueryBuilder<?, ?> getCriteriaBuilder() {
@@ -290,6 +323,48 @@ public final class EntityViewConfiguration {
         return value;
     }
 
+    public Executor getBatchCorrelationExecutor() {
+        return batchCorrelationExecutor;
+    }
+
+    public CorrelationCacheImpl getCorrelationCache(String attributePath) {
+        if (correlationCache == null) {
+            return null;
+        }
+        Boolean value = correlationCacheConfiguration.get(attributePath);
+        if (value == null) {
+            value = correlationCacheConfiguration.get("");
+        }
+        if (value == null || !value) {
+            return null;
+        }
+
+        return correlationCache;
+    }
+
+    private Boolean getCorrelationCache(String key, Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        } else if (value instanceof String) {
+            String s = (String) value;
+            if ("true".equalsIgnoreCase(s)) {
+                return true;
+            } else if ("false".equalsIgnoreCase(s)) {
+                return false;
+            }
+        }
+
+        throw new IllegalArgumentException("Invalid correlation cache configuration for key: " + key);
+    }
+
+    private Executor getBatchCorrelationExecutor(String key, Object value) {
+        if (value == null || value instanceof Executor) {
+            return (Executor) value;
+        }
+
+        throw new IllegalArgumentException("Invalid batch correlation executor configuration for key: " + key);
+    }
+
     private BatchCorrelationMode getExpectBatchCorrelationValues(String key, Object value) {
         BatchCorrelationMode val = null;
         if (value instanceof Boolean) {
@@ -68,14 +68,20 @@ public class EntityViewConfigurationImpl implements EntityViewConfiguration {
     private void loadDefaultProperties() {
         properties.put(ConfigurationProperties.PROXY_EAGER_LOADING, "false");
         properties.put(ConfigurationProperties.PROXY_UNSAFE_ALLOWED, "true");
+        properties.put(ConfigurationProperties.PROXY_COMPACT_SERIALIZATION, "false");
         properties.put(ConfigurationProperties.MANAGED_TYPE_VALIDATION_DISABLED, "false");
         properties.put(ConfigurationProperties.UPDATER_DISALLOW_OWNED_UPDATABLE_SUBVIEW, "true");
         properties.put(ConfigurationProperties.UPDATER_STRICT_CASCADING_CHECK, "true");
         properties.put(ConfigurationProperties.UPDATER_ERROR_ON_INVALID_PLURAL_SETTER, "false");
+        properties.put(ConfigurationProperties.UPDATER_JDBC_BATCH_SIZE, "1");
+        properties.put(ConfigurationProperties.UPDATER_LAZY_INITIAL_STATE_SNAPSHOT, "false");
         properties.put(ConfigurationProperties.STATIC_BUILDER_SCANNING_DISABLED, "false");
         properties.put(ConfigurationProperties.STATIC_IMPLEMENTATION_SCANNING_DISABLED, "false");
         properties.put(ConfigurationProperties.STATIC_METAMODEL_SCANNING_DISABLED, "false");
         properties.put(ConfigurationProperties.CREATE_EMPTY_FLAT_VIEWS, "true");
+        properties.put(ConfigurationProperties.METAMODEL_VALIDATION_PARALLELISM, "1");
+        properties.put(ConfigurationProperties.CORRELATION_CACHE_MAXIMUM_SIZE, "1024");
+        properties.put(ConfigurationProperties.CORRELATION_CACHE_EXPIRATION, "60000");
 
         typeTestValues.put(boolean.class, true);
         typeTestValues.put(byte.class, Byte.MAX_VALUE);
@@ -38,6 +38,7 @@ import com.blazebit.persistence.view.AttributeFilterProvider;
 import com.blazebit.persistence.view.ConfigurationProperties;
 import com.blazebit.persistence.view.ConvertOperationBuilder;
 import com.blazebit.persistence.view.ConvertOption;
+import com.blazebit.persistence.view.CorrelationCache;
 import com.blazebit.persistence.view.EntityViewBuilder;
 import com.blazebit.persistence.view.EntityViewManager;
 import com.blazebit.persistence.view.EntityViewSetting;
@@ -103,6 +104,7 @@ import com.blazebit.persistence.view.impl.metamodel.MetamodelBuildingContextImpl
 import com.blazebit.persistence.view.impl.metamodel.ViewMetamodelImpl;
 import com.blazebit.persistence.view.impl.metamodel.ViewTypeImpl;
 import com.blazebit.persistence.view.impl.objectbuilder.ViewTypeObjectBuilderTemplate;
+import com.blazebit.persistence.view.impl.objectbuilder.transformer.correlation.CorrelationCacheImpl;
 import com.blazebit.persistence.view.impl.proxy.ProxyFactory;
 import com.blazebit.persistence.view.impl.type.DefaultBasicUserTypeRegistry;
 import com.blazebit.persistence.view.impl.update.DefaultUpdateContext;
@@ -111,6 +113,7 @@ import com.blazebit.persistence.view.impl.update.EntityViewUpdaterImpl;
 import com.blazebit.persistence.view.impl.update.Listeners;
 import com.blazebit.persistence.view.impl.update.SimpleUpdateContext;
 import com.blazebit.persistence.view.impl.update.UpdateContext;
+import com.blazebit.persistence.view.impl.update.UpdateQueryBatcher;
 import com.blazebit.persistence.view.impl.update.flush.CompositeAttributeFlusher;
 import com.blazebit.persistence.view.impl.update.listener.ViewInstancePostCommitListener;
 import com.blazebit.persistence.view.impl.update.listener.ViewInstancePostPersistEntityListener;
@@ -201,6 +204,8 @@ public class EntityViewManagerImpl implements EntityViewManager {
     private final Map<ViewBuilderKey, Constructor<? extends EntityViewBuilder<?>>> viewBuilderClasses;
     private final boolean unsafeDisabled;
     private final boolean strictCascadingCheck;
+    private final int jdbcBatchSize;
+    private final CorrelationCacheImpl correlationCache;
 
     public EntityViewManagerImpl(EntityViewConfigurationImpl config, CriteriaBuilderFactory cbf) {
         this.cbf = cbf;
@@ -212,7 +217,14 @@ public class EntityViewManagerImpl implements EntityViewManager {
         this.entityIdAccessor = new EntityIdAttributeAccessor(jpaProvider);
         this.unsafeDisabled = !Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.PROXY_UNSAFE_ALLOWED)));
         this.strictCascadingCheck = Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.UPDATER_STRICT_CASCADING_CHECK)));
-        this.proxyFactory = new ProxyFactory(unsafeDisabled, strictCascadingCheck, packageOpener);
+        boolean lazyInitialStateSnapshot = Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.UPDATER_LAZY_INITIAL_STATE_SNAPSHOT)));
+        boolean compactSerialization = Boolean.valueOf(String.valueOf(config.getProperty(ConfigurationProperties.PROXY_COMPACT_SERIALIZATION)));
+        this.proxyFactory = new ProxyFactory(unsafeDisabled, strictCascadingCheck, lazyInitialStateSnapshot, compactSerialization, packageOpener);
+        this.jdbcBatchSize = getJdbcBatchSize(config.getProperty(ConfigurationProperties.UPDATER_JDBC_BATCH_SIZE));
+        this.correlationCache = new CorrelationCacheImpl(
+                (int) getCorrelationCacheSetting(config.getProperty(ConfigurationProperties.CORRELATION_CACHE_MAXIMUM_SIZE), ConfigurationProperties.CORRELATION_CACHE_MAXIMUM_SIZE, 1024),
+                getCorrelationCacheSetting(config.getProperty(ConfigurationProperties.CORRELATION_CACHE_EXPIRATION), ConfigurationProperties.CORRELATION_CACHE_EXPIRATION, 60000)
+        );
         this.transactionSupport = config.getTransactionSupport();
         this.optionalParameters = Collections.unmodifiableMap(new HashMap<>(config.getOptionalParameters()));
         this.serializableDelegates = new ClassValue<EntityViewManager>() {
@@ -448,6 +460,48 @@ public class EntityViewManagerImpl implements EntityViewManager {
         }
     }
 
+    private static int getJdbcBatchSize(Object property) {
+        if (property == null) {
+            return 1;
+        }
+        String value = String.valueOf(property);
+        if (value.isEmpty()) {
+            return 1;
+        }
+
+        try {
+            int batchSize = Integer.parseInt(value);
+            if (batchSize > 0) {
+                return batchSize;
+            }
+        } catch (NumberFormatException ex) {
+            // Fall through
+        }
+
+        throw new IllegalArgumentException("Invalid JDBC batch size defined for global property '" + ConfigurationProperties.UPDATER_JDBC_BATCH_SIZE + "': " + property);
+    }
+
+    private static long getCorrelationCacheSetting(Object property, String propertyName, long defaultValue) {
+        if (property == null) {
+            return defaultValue;
+        }
+        String value = String.valueOf(property);
+        if (value.isEmpty()) {
+            return defaultValue;
+        }
+
+        try {
+            long setting = Long.parseLong(value);
+            if (setting > 0 && setting <= Integer.MAX_VALUE) {
+                return setting;
+            }
+        } catch (NumberFormatException ex) {
+            // Fall through
+        }
+
+        throw new IllegalArgumentException("Invalid value defined for global property '" + propertyName + "': " + property);
+    }
+
     private static String getMetamodelClassName(Class<?> javaType) {
         String packageName = javaType.getPackage().getName();
         String fqcn = javaType.getName();
@@ -728,6 +782,8 @@ public class EntityViewManagerImpl implements EntityViewManager {
             return (T) transactionSupport;
         } else if (CriteriaBuilderFactory.class.isAssignableFrom(serviceClass)) {
             return (T) cbf;
+        } else if (CorrelationCache.class.equals(serviceClass)) {
+            return (T) correlationCache;
         }
         return cbf.getService(serviceClass);
     }
@@ -1069,6 +1125,16 @@ public class EntityViewManagerImpl implements EntityViewManager {
         updateTo(em, view, entity, true);
     }
 
+    @Override
+    public void saveAll(EntityManager em, Iterable<?> views) {
+        updateAll(new DefaultUpdateContext(this, em, false, false, false, null, views, null, true), views);
+    }
+
+    @Override
+    public void saveFullAll(EntityManager em, Iterable<?> views) {
+        updateAll(new DefaultUpdateContext(this, em, true, false, false, null, views, null, true), views);
+    }
+
     @Override
     public void remove(EntityManager entityManager, Object view) {
         remove(new DefaultUpdateContext(this, entityManager, false, false, true, null, view, null), view);
@@ -1160,6 +1226,16 @@ public class EntityViewManagerImpl implements EntityViewManager {
     public FlushOperationBuilder saveFullWithTo(EntityManager em, Object view, Object entity) {
         return new DefaultUpdateContext(this, em, true, true, false, null, view, entity);
     }
+
+    @Override
+    public FlushOperationBuilder saveAllWith(EntityManager em, Iterable<?> views) {
+        return new DefaultUpdateContext(this, em, false, false, false, null, views, null, true);
+    }
+
+    @Override
+    public FlushOperationBuilder saveFullAllWith(EntityManager em, Iterable<?> views) {
+        return new DefaultUpdateContext(this, em, true, false, false, null, views, null, true);
+    }
     
     public void update(UpdateContext context, Object view) {
         if (!(view instanceof MutableStateTrackable)) {
@@ -1182,6 +1258,35 @@ public class EntityViewManagerImpl implements EntityViewManager {
         }
     }
 
+    public void updateAll(UpdateContext context, Iterable<?> views) {
+        for (Object view : views) {
+            if (!(view instanceof MutableStateTrackable)) {
+                throw new IllegalArgumentException("Can't update non-updatable entity views: " + view);
+            }
+        }
+
+        UpdateQueryBatcher batcher = new UpdateQueryBatcher(context);
+        try {
+            for (Object view : views) {
+                MutableStateTrackable updatableProxy = (MutableStateTrackable) view;
+                Class<?> entityViewClass = updatableProxy.$$_getEntityViewClass();
+                ManagedViewTypeImplementor<?> viewType = metamodel.managedView(entityViewClass);
+                EntityViewUpdater updater = getUpdater(viewType, null, null, null);
+                if (updatableProxy.$$_isNew()) {
+                    // The persist might depend on the pending updates of the previous views
+                    batcher.flush();
+                    updater.executePersist(context, updatableProxy);
+                } else {
+                    updater.executeUpdate(context, updatableProxy, batcher);
+                }
+            }
+            batcher.flush();
+        } catch (Throwable t) {
+            context.getTransactionAccess().markRollbackOnly();
+            ExceptionUtils.doThrow(t);
+        }
+    }
+
     public void updateTo(UpdateContext context, Object view, Object entity) {
         if (!(view instanceof MutableStateTrackable)) {
             throw new IllegalArgumentException("Can't update non-updatable entity views: " + view);
@@ -1228,6 +1333,14 @@ public class EntityViewManagerImpl implements EntityViewManager {
         return unsafeDisabled;
     }
 
+    public int getJdbcBatchSize() {
+        return jdbcBatchSize;
+    }
+
+    public CorrelationCacheImpl getCorrelationCache() {
+        return correlationCache;
+    }
+
     public boolean supportsTransientReference() {
         return supportsTransientReference;
     }
@@ -1492,7 +1492,8 @@ public abstract class ManagedViewTypeImpl<X> implements ManagedViewTypeImplement
                             com.blazebit.persistence.view.metamodel.SingularAttribute<?, ?> singularAttribute = (com.blazebit.persistence.view.metamodel.SingularAttribute<?, ?>) attribute;
                             com.blazebit.persistence.view.metamodel.Type<?> t = singularAttribute.getType();
                             BasicUserType<Object> elementType = getMutableBasicUserType(t);
-                            if (elementType != null) {
+                            // With lazy snapshots, the initial state shares the loaded value unless the type tracks its dirtiness
+                            if (elementType != null && (!context.isLazyInitialStateSnapshot() || elementType.supportsDirtyTracking())) {
                                 mutableBasicUserTypes.add(new AbstractReflectionInstantiator.MutableBasicUserTypeEntry(initialStateIndex, ((com.blazebit.persistence.view.metamodel.BasicType) singularAttribute.getType()).getUserType()));
                             }
                         } else {
@@ -89,6 +89,8 @@ public interface MetamodelBuildingContext {
 
     public boolean isCreateEmptyFlatViews();
 
+    public boolean isLazyInitialStateSnapshot();
+
     public ProxyFactory getProxyFactory();
 
     public FlushMode getFlushMode(Class<?> clazz, FlushMode defaultValue);
@@ -97,6 +99,17 @@ public interface MetamodelBuildingContext {
 
     public void addError(String error);
 
+    /**
+     * Runs the given action and collects the errors that are added by it into the given list instead of adding them to the context.
+     * This allows to run actions concurrently and to add the collected errors to the context in a deterministic order.
+     *
+     * @param action The action to run
+     * @param errors The list to collect the errors into
+     */
+    public void collectErrors(Runnable action, List<String> errors);
+
+    public int getValidationParallelism();
+
     public boolean hasErrors();
 
     public boolean isEntityView(Class<?> clazz);
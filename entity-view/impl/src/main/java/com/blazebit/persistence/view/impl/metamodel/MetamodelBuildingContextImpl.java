@@ -94,11 +94,14 @@ public class MetamodelBuildingContextImpl implements MetamodelBuildingContext {
     private final Map<ViewMappingInitializationKey, ManagedViewTypeImplementor<?>> initializingManagedViews;
     private final Map<ManagedViewTypeImplementor<?>, List<Runnable>> managedViewFinishListeners;
     private final Set<String> errors;
+    private final ThreadLocal<List<String>> errorCollector = new ThreadLocal<>();
+    private final int parallelism;
 
     private final boolean disallowOwnedUpdatableSubview;
     private final boolean strictCascadingCheck;
     private final boolean errorOnInvalidPluralSetter;
     private final boolean createEmptyFlatViews;
+    private final boolean lazyInitialStateSnapshot;
     private final FlushMode flushModeOverride;
     private final Map<String, FlushMode> flushModeOverrides;
     private final FlushStrategy flushStrategyOverride;
@@ -123,12 +126,31 @@ public class MetamodelBuildingContextImpl implements MetamodelBuildingContext {
         this.strictCascadingCheck = Boolean.valueOf(String.valueOf(properties.getProperty(ConfigurationProperties.UPDATER_STRICT_CASCADING_CHECK)));
         this.errorOnInvalidPluralSetter = Boolean.valueOf(String.valueOf(properties.getProperty(ConfigurationProperties.UPDATER_ERROR_ON_INVALID_PLURAL_SETTER)));
         this.createEmptyFlatViews = Boolean.valueOf(String.valueOf(properties.getProperty(ConfigurationProperties.CREATE_EMPTY_FLAT_VIEWS)));
+        this.lazyInitialStateSnapshot = Boolean.valueOf(String.valueOf(properties.getProperty(ConfigurationProperties.UPDATER_LAZY_INITIAL_STATE_SNAPSHOT)));
+        this.parallelism = getParallelism(properties.getProperty(ConfigurationProperties.METAMODEL_VALIDATION_PARALLELISM));
         this.flushModeOverride = getFlushMode(properties.getProperty(ConfigurationProperties.UPDATER_FLUSH_MODE), "global property '" + ConfigurationProperties.UPDATER_FLUSH_MODE + "'");
         this.flushModeOverrides = getFlushModeOverrides(properties);
         this.flushStrategyOverride = getFlushStrategy(properties.getProperty(ConfigurationProperties.UPDATER_FLUSH_STRATEGY), "global property '" + ConfigurationProperties.UPDATER_FLUSH_STRATEGY + "'");
         this.flushStrategyOverrides = getFlushStrategyOverrides(properties);
     }
 
+    private static int getParallelism(String property) {
+        if (property == null || property.isEmpty()) {
+            return 1;
+        }
+
+        try {
+            int parallelism = Integer.parseInt(property);
+            if (parallelism > 0) {
+                return parallelism;
+            }
+        } catch (NumberFormatException ex) {
+            // Fall through
+        }
+
+        throw new IllegalArgumentException("Invalid parallelism defined for global property '" + ConfigurationProperties.METAMODEL_VALIDATION_PARALLELISM + "': " + property);
+    }
+
     private FlushMode getFlushMode(String property, String location) {
         if (property == null || property.isEmpty()) {
             return null;
@@ -533,6 +555,11 @@ public class MetamodelBuildingContextImpl implements MetamodelBuildingContext {
         return createEmptyFlatViews;
     }
 
+    @Override
+    public boolean isLazyInitialStateSnapshot() {
+        return lazyInitialStateSnapshot;
+    }
+
     @Override
     public ProxyFactory getProxyFactory() {
         return proxyFactory;
@@ -566,7 +593,27 @@ public class MetamodelBuildingContextImpl implements MetamodelBuildingContext {
 
     @Override
     public void addError(String error) {
-        errors.add(error);
+        List<String> collectedErrors = errorCollector.get();
+        if (collectedErrors == null) {
+            errors.add(error);
+        } else {
+            collectedErrors.add(error);
+        }
+    }
+
+    @Override
+    public void collectErrors(Runnable action, List<String> errors) {
+        errorCollector.set(errors);
+        try {
+            action.run();
+        } finally {
+            errorCollector.remove();
+        }
+    }
+
+    @Override
+    public int getValidationParallelism() {
+        return parallelism;
     }
 
     @Override
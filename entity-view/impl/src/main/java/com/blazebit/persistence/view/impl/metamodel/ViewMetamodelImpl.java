@@ -49,6 +49,9 @@ import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 /**
  *
@@ -63,7 +66,7 @@ public class ViewMetamodelImpl implements ViewMetamodel {
     private final Map<Class<?>, FlatViewTypeImpl<?>> flatViews;
     private final Map<Class<?>, ManagedViewTypeImplementor<?>> managedViews;
 
-    public ViewMetamodelImpl(EntityMetamodel entityMetamodel, MetamodelBuildingContext context, Map<Class<?>, Object> typeTestValues, boolean validateManagedTypes, boolean validateExpressions) {
+    public ViewMetamodelImpl(EntityMetamodel entityMetamodel, final MetamodelBuildingContext context, final Map<Class<?>, Object> typeTestValues, boolean validateManagedTypes, boolean validateExpressions) {
         this.metamodel = entityMetamodel;
         this.basicUserTypeRegistry = context.getBasicUserTypeRegistry();
 
@@ -100,12 +103,18 @@ public class ViewMetamodelImpl implements ViewMetamodel {
         this.managedViews = Collections.unmodifiableMap(managedViews);
 
         // Phase 4: Validate expressions against the entity model
+        // Phase 4 and 5 only read the built metamodel, so the validation of the individual types can be done in parallel
+        List<Runnable> validations = new ArrayList<>();
         if (!context.hasErrors()) {
             if (validateExpressions) {
-                List<AbstractAttribute<?, ?>> parents = new ArrayList<>();
-                for (ManagedViewTypeImplementor<?> t : managedViews.values()) {
-                    t.checkAttributes(context);
-                    t.checkNestedAttributes(parents, context, false);
+                for (final ManagedViewTypeImplementor<?> t : managedViews.values()) {
+                    validations.add(new Runnable() {
+                        @Override
+                        public void run() {
+                            t.checkAttributes(context);
+                            t.checkNestedAttributes(new ArrayList<AbstractAttribute<?, ?>>(), context, false);
+                        }
+                    });
                 }
             }
         }
@@ -140,45 +149,91 @@ public class ViewMetamodelImpl implements ViewMetamodel {
 
             // A null might end up in here because we don't filter it out before adding, so remove it here again
             jpaManagedTypes.remove(null);
-            for (ManagedType<?> jpaManagedType : jpaManagedTypes) {
-                Class<?> javaType = jpaManagedType.getJavaType();
-                if ((javaType.getModifiers() & Modifier.ABSTRACT) == 0) {
-                    try {
-                        Constructor<?> declaredConstructor = javaType.getDeclaredConstructor();
-                        declaredConstructor.setAccessible(true);
-                        Object instance1 = declaredConstructor.newInstance();
-                        Object instance2 = declaredConstructor.newInstance();
-                        Object instance3 = declaredConstructor.newInstance();
-
-                        // Try to set any value on instance3 so that it would differ from instance1
-                        String error = createValue(jpaManagedType, instance2, typeTestValues, true);
+            for (final ManagedType<?> jpaManagedType : jpaManagedTypes) {
+                validations.add(new Runnable() {
+                    @Override
+                    public void run() {
+                        validateManagedType(jpaManagedType, typeTestValues, context);
+                    }
+                });
+            }
+        }
 
-                        if (error != null) {
-                            context.addError(error);
-                        } else {
-                            error = createValue(jpaManagedType, instance3, typeTestValues, true);
-                            if (error != null) {
-                                context.addError(error);
-                            } else {
-                                String infoText = "Equals/hashCode should be based on the identifier for entities and the full state for embeddables. Consider using a subview instead or add a proper equals/hashCode implementation!";
-                                if (!instance2.equals(instance3)) {
-                                    context.addError("The use of the JPA managed type '" + javaType.getName() + "' in entity views is problematic because two instances with the same state are not equal. " + infoText);
-                                }
-                                if (instance2.hashCode() != instance3.hashCode()) {
-                                    context.addError("The use of the JPA managed type '" + javaType.getName() + "' in entity views is problematic because two instances with the same state do not have the same hashCode. " + infoText);
-                                }
-                                if (instance1.equals(instance3)) {
-                                    context.addError("The use of the JPA managed type '" + javaType.getName() + "' in entity views is problematic because two instances with different state are equal. " + infoText);
-                                }
-                            }
+        runValidations(validations, context);
+    }
+
+    private void runValidations(List<Runnable> validations, MetamodelBuildingContext context) {
+        int parallelism = Math.min(context.getValidationParallelism(), validations.size());
+        if (parallelism < 2) {
+            for (Runnable validation : validations) {
+                validation.run();
+            }
+            return;
+        }
+
+        // The validations might load classes, so the workers must use the context class loader of the bootstrapping thread
+        ForkJoinPool pool = new ForkJoinPool(parallelism, new ValidationThreadFactory(Thread.currentThread().getContextClassLoader()), null, false);
+        try {
+            List<ValidationTask> validationTasks = new ArrayList<>(validations.size());
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(validations.size());
+            for (Runnable validation : validations) {
+                ValidationTask validationTask = new ValidationTask(validation, context);
+                validationTasks.add(validationTask);
+                tasks.add(pool.submit(validationTask));
+            }
+            // Join in submission order so that errors are reported in the same order as with sequential validation
+            for (int i = 0; i < tasks.size(); i++) {
+                tasks.get(i).join();
+                ValidationTask validationTask = validationTasks.get(i);
+                for (String error : validationTask.errors) {
+                    context.addError(error);
+                }
+                if (validationTask.exception != null) {
+                    throw validationTask.exception;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void validateManagedType(ManagedType<?> jpaManagedType, Map<Class<?>, Object> typeTestValues, MetamodelBuildingContext context) {
+        Class<?> javaType = jpaManagedType.getJavaType();
+        if ((javaType.getModifiers() & Modifier.ABSTRACT) == 0) {
+            try {
+                Constructor<?> declaredConstructor = javaType.getDeclaredConstructor();
+                declaredConstructor.setAccessible(true);
+                Object instance1 = declaredConstructor.newInstance();
+                Object instance2 = declaredConstructor.newInstance();
+                Object instance3 = declaredConstructor.newInstance();
+
+                // Try to set any value on instance3 so that it would differ from instance1
+                String error = createValue(jpaManagedType, instance2, typeTestValues, true);
+
+                if (error != null) {
+                    context.addError(error);
+                } else {
+                    error = createValue(jpaManagedType, instance3, typeTestValues, true);
+                    if (error != null) {
+                        context.addError(error);
+                    } else {
+                        String infoText = "Equals/hashCode should be based on the identifier for entities and the full state for embeddables. Consider using a subview instead or add a proper equals/hashCode implementation!";
+                        if (!instance2.equals(instance3)) {
+                            context.addError("The use of the JPA managed type '" + javaType.getName() + "' in entity views is problematic because two instances with the same state are not equal. " + infoText);
+                        }
+                        if (instance2.hashCode() != instance3.hashCode()) {
+                            context.addError("The use of the JPA managed type '" + javaType.getName() + "' in entity views is problematic because two instances with the same state do not have the same hashCode. " + infoText);
+                        }
+                        if (instance1.equals(instance3)) {
+                            context.addError("The use of the JPA managed type '" + javaType.getName() + "' in entity views is problematic because two instances with different state are equal. " + infoText);
                         }
-                    } catch (Exception ex) {
-                        StringWriter sw = new StringWriter();
-                        sw.append("Error during validation of equals/hashCode implementations of managed type [").append(javaType.getName()).append("]. If you think this is due to a bug, please report the problem and temporarily deactivate the type checking by setting the property '").append(ConfigurationProperties.MANAGED_TYPE_VALIDATION_DISABLED).append("' to true.\n");
-                        ex.printStackTrace(new PrintWriter(sw));
-                        context.addError(sw.toString());
                     }
                 }
+            } catch (Exception ex) {
+                StringWriter sw = new StringWriter();
+                sw.append("Error during validation of equals/hashCode implementations of managed type [").append(javaType.getName()).append("]. If you think this is due to a bug, please report the problem and temporarily deactivate the type checking by setting the property '").append(ConfigurationProperties.MANAGED_TYPE_VALIDATION_DISABLED).append("' to true.\n");
+                ex.printStackTrace(new PrintWriter(sw));
+                context.addError(sw.toString());
             }
         }
     }
@@ -299,4 +354,68 @@ public class ViewMetamodelImpl implements ViewMetamodel {
         return new SetView<FlatViewType<?>>(flatViews.values());
     }
 
+
+    /**
+     * Runs a validation and collects the errors and a possible exception so that these can be reported by the bootstrapping thread.
+     *
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private static final class ValidationTask implements Runnable {
+
+        private final Runnable validation;
+        private final MetamodelBuildingContext context;
+        private final List<String> errors = new ArrayList<>();
+        private RuntimeException exception;
+
+        public ValidationTask(Runnable validation, MetamodelBuildingContext context) {
+            this.validation = validation;
+            this.context = context;
+        }
+
+        @Override
+        public void run() {
+            try {
+                context.collectErrors(validation, errors);
+            } catch (RuntimeException ex) {
+                exception = ex;
+            }
+        }
+    }
+
+    /**
+     * Creates the worker threads for the validation with the context class loader of the bootstrapping thread,
+     * as validations might have to load user classes.
+     *
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private static final class ValidationThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+        private final ClassLoader contextClassLoader;
+
+        public ValidationThreadFactory(ClassLoader contextClassLoader) {
+            this.contextClassLoader = contextClassLoader;
+        }
+
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            ForkJoinWorkerThread thread = new ValidationWorkerThread(pool);
+            thread.setContextClassLoader(contextClassLoader);
+            return thread;
+        }
+    }
+
+    /**
+     * A worker thread of the validation pool. The constructor of {@link ForkJoinWorkerThread} is protected, so a subclass is needed.
+     *
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private static final class ValidationWorkerThread extends ForkJoinWorkerThread {
+
+        public ValidationWorkerThread(ForkJoinPool pool) {
+            super(pool);
+        }
+    }
 }
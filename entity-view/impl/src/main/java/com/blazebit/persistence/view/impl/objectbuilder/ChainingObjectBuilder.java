@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import com.blazebit.persistence.GroupingObjectBuilder;
 import com.blazebit.persistence.ObjectBuilder;
 import com.blazebit.persistence.ParameterHolder;
 import com.blazebit.persistence.SelectBuilder;
@@ -32,14 +33,16 @@ import com.blazebit.persistence.view.impl.objectbuilder.transformator.TupleTrans
  * @author Christian Beikov
  * @since 1.0.0
  */
-public class ChainingObjectBuilder<T> implements ObjectBuilder<T> {
+public class ChainingObjectBuilder<T> implements GroupingObjectBuilder<T> {
 
     private final TupleTransformator transformator;
     private final ObjectBuilder<T> objectBuilder;
+    private final int[] rootIdPositions;
 
-    public ChainingObjectBuilder(TupleTransformatorFactory transformatorFactory, ObjectBuilder<T> objectBuilder, ParameterHolder<?> parameterHolder, Map<String, Object> optionalParameters, EntityViewConfiguration entityViewConfiguration, int startIndex) {
+    public ChainingObjectBuilder(TupleTransformatorFactory transformatorFactory, ObjectBuilder<T> objectBuilder, ParameterHolder<?> parameterHolder, Map<String, Object> optionalParameters, EntityViewConfiguration entityViewConfiguration, int startIndex, int[] rootIdPositions) {
         this.transformator = transformatorFactory.create(parameterHolder, optionalParameters, entityViewConfiguration, -1);
         this.objectBuilder = objectBuilder;
+        this.rootIdPositions = rootIdPositions;
     }
 
     @Override
@@ -47,6 +50,17 @@ public class ChainingObjectBuilder<T> implements ObjectBuilder<T> {
         objectBuilder.applySelects(queryBuilder);
     }
 
+    @Override
+    public Object getGroupKey(Object[] tuple) {
+        return new TupleId(rootIdPositions, tuple);
+    }
+
+    @Override
+    public boolean isGroupingSupported() {
+        // All tuples of a root object must be transformed together, so without a root id we must transform the whole result at once
+        return rootIdPositions != null;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public T build(Object[] tuple) {
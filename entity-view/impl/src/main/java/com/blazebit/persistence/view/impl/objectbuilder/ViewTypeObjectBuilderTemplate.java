@@ -40,6 +40,7 @@ import com.blazebit.persistence.view.impl.ScalarTargetResolvingExpressionVisitor
 import com.blazebit.persistence.view.impl.metamodel.AbstractAttribute;
 import com.blazebit.persistence.view.impl.metamodel.AbstractMethodAttribute;
 import com.blazebit.persistence.view.impl.metamodel.AbstractParameterAttribute;
+import com.blazebit.persistence.view.impl.metamodel.BasicTypeImpl;
 import com.blazebit.persistence.view.impl.metamodel.ConstrainedAttribute;
 import com.blazebit.persistence.view.impl.metamodel.ManagedViewTypeImpl;
 import com.blazebit.persistence.view.impl.metamodel.ManagedViewTypeImplementor;
@@ -1058,6 +1059,8 @@ public class ViewTypeObjectBuilderTemplate<T> {
     }
 
     private void applyBasicCorrelatedMapping(AbstractAttribute<?, ?> attribute, String attributePath, TupleElementMapperBuilder mapperBuilder, boolean[] featuresFound, ExpressionFactory ef, int batchSize, boolean dirtyTracking, EmbeddingViewJpqlMacro embeddingViewJpqlMacro) {
+        Type<?> type = getType(attribute);
+        boolean jpaManagedResult = !(type instanceof BasicTypeImpl<?>) || ((BasicTypeImpl<?>) type).isJpaManaged();
         Expression correlationResult = attribute.getCorrelationResultExpression();
         CorrelationProviderFactory factory = attribute.getCorrelationProviderFactory();
         String correlationBasis = attribute.getCorrelationBasis();
@@ -1120,7 +1123,7 @@ public class ViewTypeObjectBuilderTemplate<T> {
                         throw new IllegalArgumentException("Unknown collection type: " + pluralAttribute.getCollectionType());
                 }
                 mapperBuilder.setTupleListTransformerFactory(new CorrelatedCollectionBatchTupleListTransformerFactory(
-                        new BasicCorrelator(),
+                        new BasicCorrelator(jpaManagedResult),
                         viewRoot, viewType, correlationResult, factory, attributePath, attribute.getFetches(), correlatesThis, viewRootIndex, embeddingViewIndex, startIndex, batchSize, correlationBasisType, correlationBasisEntity,
                         createLimiter(correlationAlias, attribute),
                         attribute.getCollectionInstantiator(),
@@ -1129,7 +1132,7 @@ public class ViewTypeObjectBuilderTemplate<T> {
                 ));
             } else {
                 mapperBuilder.setTupleListTransformerFactory(new CorrelatedSingularBatchTupleListTransformerFactory(
-                        new BasicCorrelator(),
+                        new BasicCorrelator(jpaManagedResult),
                         viewRoot, viewType, correlationResult, factory, attributePath, attribute.getFetches(), correlatesThis, viewRootIndex, embeddingViewIndex, startIndex, batchSize, correlationBasisType, correlationBasisEntity,
                         createLimiter(correlationAlias, attribute)));
             }
@@ -1168,7 +1171,7 @@ public class ViewTypeObjectBuilderTemplate<T> {
                         throw new IllegalArgumentException("Unknown collection type: " + pluralAttribute.getCollectionType());
                 }
                 mapperBuilder.setTupleListTransformerFactory(new CorrelatedCollectionSubselectTupleListTransformerFactory(
-                        new BasicCorrelator(),
+                        new BasicCorrelator(jpaManagedResult),
                         evm, viewRoot, viewRootAlias, viewType, embeddingViewPath, correlationResult, correlationBasisExpression, correlationKeyExpression, factory, attributePath, attribute.getFetches(), viewRootIndex, embeddingViewIndex, startIndex, correlationBasisType, correlationBasisEntity,
                         createLimiter(correlationAlias, attribute),
                         attribute.getCollectionInstantiator(),
@@ -1177,7 +1180,7 @@ public class ViewTypeObjectBuilderTemplate<T> {
                 ));
             } else {
                 mapperBuilder.setTupleListTransformerFactory(new CorrelatedSingularSubselectTupleListTransformerFactory(
-                        new BasicCorrelator(),
+                        new BasicCorrelator(jpaManagedResult),
                         evm, viewRoot, viewRootAlias, viewType, embeddingViewPath, correlationResult, correlationBasisExpression, correlationKeyExpression, factory, attributePath, attribute.getFetches(), viewRootIndex, embeddingViewIndex, startIndex, correlationBasisType, correlationBasisEntity,
                         createLimiter(correlationAlias, attribute)));
             }
@@ -1268,7 +1271,9 @@ public class ViewTypeObjectBuilderTemplate<T> {
         }
 
         if (tupleTransformatorFactory.hasTransformers() && !isSubview) {
-            result = new ChainingObjectBuilder<T>(tupleTransformatorFactory, result, parameterHolder, optionalParameters, entityViewConfiguration, tupleOffset);
+            // Tuples can only be grouped by the root id if there are no other selections preceding the view
+            int[] rootIdPositions = hasId && tupleOffset == 0 ? idPositions : null;
+            result = new ChainingObjectBuilder<T>(tupleTransformatorFactory, result, parameterHolder, optionalParameters, entityViewConfiguration, tupleOffset, rootIdPositions);
         }
 
         return result;
@@ -28,19 +28,28 @@ import com.blazebit.persistence.view.impl.EntityViewConfiguration;
 import com.blazebit.persistence.view.impl.macro.CorrelatedSubqueryEmbeddingViewJpqlMacro;
 import com.blazebit.persistence.view.impl.macro.CorrelatedSubqueryViewRootJpqlMacro;
 import com.blazebit.persistence.view.impl.macro.MutableViewJpqlMacro;
+import com.blazebit.persistence.view.impl.metamodel.ManagedViewTypeImplementor;
 import com.blazebit.persistence.view.impl.objectbuilder.Limiter;
 import com.blazebit.persistence.view.impl.objectbuilder.TupleReuse;
 import com.blazebit.persistence.view.metamodel.ManagedViewType;
 import com.blazebit.persistence.view.metamodel.ViewType;
 
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.Parameter;
+import javax.persistence.PersistenceException;
 import javax.persistence.Query;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 /**
  *
@@ -93,6 +102,10 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
     }
 
     private String applyAndGetCorrelationRoot(BatchCorrelationMode batchCorrelationMode) {
+        return applyAndGetCorrelationRoot(batchCorrelationMode, entityViewConfiguration.getCriteriaBuilder().getEntityManager());
+    }
+
+    private String applyAndGetCorrelationRoot(BatchCorrelationMode batchCorrelationMode, EntityManager em) {
         Class<?> viewRootEntityClass = viewRootType.getEntityClass();
         Class<?> embeddingViewEntityClass = embeddingViewType.getEntityClass();
         String viewRootIdAttributePath = getEntityIdName(viewRootEntityClass);
@@ -120,7 +133,7 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
             embeddingViewExpression = CORRELATION_KEY_ALIAS;
         }
 
-        this.criteriaBuilder = queryBuilder.getCriteriaBuilderFactory().create(queryBuilder.getEntityManager(), Object[].class);
+        this.criteriaBuilder = queryBuilder.getCriteriaBuilderFactory().create(em, Object[].class);
         if (queryBuilder instanceof CTEBuilder<?>) {
             this.criteriaBuilder.withCtesFrom((CTEBuilder<?>) queryBuilder);
         }
@@ -217,6 +230,15 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
             populateParameters(criteriaBuilder);
             query = criteriaBuilder.getQuery();
 
+            Executor executor = entityViewConfiguration.getBatchCorrelationExecutor();
+            List<ConcurrentBatch> concurrentBatches = executor == null ? null : new ArrayList<ConcurrentBatch>();
+            CorrelationCacheImpl correlationCache = getCorrelationCache(em);
+            Object correlationCacheContext = correlationCache == null ? null : correlationCache.createContext(criteriaBuilder, correlationParamName, entityViewConfiguration.getFetches());
+            if (correlationCacheContext == null) {
+                correlationCache = null;
+            }
+            List<Object> uncachedCorrelationValues = correlationCache == null ? null : new ArrayList<>();
+            long correlationCacheGeneration = correlationCache == null ? 0L : correlationCache.getGeneration();
             Map<Object, TuplePromise> correlationValues = new HashMap<>(tuples.size());
             while (tupleListIter.hasNext()) {
                 Object[] tuple = tupleListIter.next();
@@ -230,21 +252,35 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
                     correlationValues.put(correlationValue, tupleIndexValue);
 
                     // Can't correlate null
+                    if (correlationValue != null && correlationCache != null) {
+                        Object cachedResult = correlationCache.get(createCorrelationCacheKey(correlationCache, correlationCacheContext, correlationValue));
+                        if (cachedResult != CorrelationCacheImpl.MISSING) {
+                            tupleIndexValue.onResult(copy(cachedResult), this);
+                            continue;
+                        }
+                        uncachedCorrelationValues.add(correlationValue);
+                    }
                     if (correlationValue != null) {
-                        if (correlationBasisEntity != null) {
+                        if (correlationBasisEntity != null && concurrentBatches == null) {
                             correlationParams.add(em.getReference(correlationBasisEntity, correlationValue));
                         } else {
+                            // References for concurrent batches are created from the entity manager of the batch
                             correlationParams.add(correlationValue);
                         }
 
                         if (batchSize == correlationParams.realSize()) {
-                            Object defaultKey;
-                            if (correlationBasisEntity != null) {
-                                defaultKey = jpaProvider.getIdentifier(correlationParams.get(0));
+                            if (concurrentBatches != null) {
+                                concurrentBatches.add(new ConcurrentBatch(correlationParams, correlationParams.get(0)));
+                                correlationParams.reset();
                             } else {
-                                defaultKey = correlationParams.get(0);
+                                Object defaultKey;
+                                if (correlationBasisEntity != null) {
+                                    defaultKey = jpaProvider.getIdentifier(correlationParams.get(0));
+                                } else {
+                                    defaultKey = correlationParams.get(0);
+                                }
+                                batchLoad(correlationValues, correlationParams, null, defaultKey, viewRootJpqlMacro, BatchCorrelationMode.VALUES);
                             }
-                            batchLoad(correlationValues, correlationParams, null, defaultKey, viewRootJpqlMacro, BatchCorrelationMode.VALUES);
                         }
                     }
                 } else {
@@ -252,17 +288,56 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
                 }
             }
 
-            if (correlationParams.realSize() > 0) {
+            if (concurrentBatches != null) {
+                if (correlationParams.realSize() > 0) {
+                    concurrentBatches.add(new ConcurrentBatch(correlationParams, null));
+                }
+                concurrentBatchLoad(executor, correlationValues, concurrentBatches, tupleOffset, correlationRoot);
+            } else if (correlationParams.realSize() > 0) {
                 batchLoad(correlationValues, correlationParams, null, null, viewRootJpqlMacro, BatchCorrelationMode.VALUES);
             }
 
             fillDefaultValues(Collections.singletonMap(null, correlationValues));
+
+            if (correlationCache != null) {
+                for (int i = 0; i < uncachedCorrelationValues.size(); i++) {
+                    Object correlationValue = uncachedCorrelationValues.get(i);
+                    Object result = correlationValues.get(correlationValue).getResult();
+                    correlationCache.put(createCorrelationCacheKey(correlationCache, correlationCacheContext, correlationValue), copy(result), correlationCacheGeneration);
+                }
+            }
         }
 
         consumeTupleMacroViewValues(tuples);
         return tuples;
     }
 
+    private CorrelationCacheImpl getCorrelationCache(EntityManager em) {
+        CorrelationCacheImpl correlationCache = entityViewConfiguration.getCorrelationCache(attributePath);
+        // Results of updatable or creatable subviews are mutable and recording collections track changes, so we can't share them
+        if (correlationCache == null || isRecording()) {
+            return null;
+        }
+        if (correlator instanceof SubviewCorrelator) {
+            ManagedViewTypeImplementor<?> managedViewType = ((SubviewCorrelator) correlator).getManagedViewType();
+            if (managedViewType.isUpdatable() || managedViewType.isCreatable()) {
+                return null;
+            }
+        } else if (!(correlator instanceof BasicCorrelator) || ((BasicCorrelator) correlator).isJpaManagedResult()) {
+            // Entities and embeddables are managed by the entity manager that loaded them, so only basic values can be shared
+            return null;
+        }
+        // A transaction with uncommitted entity view changes must neither see stale results nor publish its own changes
+        if (correlationCache.hasPendingChanges(em)) {
+            return null;
+        }
+        return correlationCache;
+    }
+
+    private Object createCorrelationCacheKey(CorrelationCacheImpl correlationCache, Object context, Object correlationValue) {
+        return correlationCache.createKey(embeddingViewType.getJavaType(), attributePath.substring(attributePath.lastIndexOf('.') + 1), context, correlationValue);
+    }
+
     @Override
     protected void populateParameters(FullQueryBuilder<?, ?> queryBuilder) {
         FullQueryBuilder<?, ?> mainBuilder = entityViewConfiguration.getCriteriaBuilder();
@@ -462,6 +537,110 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
         }
     }
 
+    private void concurrentBatchLoad(Executor executor, Map<Object, TuplePromise> correlationValues, List<ConcurrentBatch> batches, int tupleOffset, String correlationRoot) {
+        EntityManagerFactory entityManagerFactory = criteriaBuilder.getEntityManager().getEntityManagerFactory();
+        List<Future<List<Object>>> futures = new ArrayList<>(batches.size());
+        CriteriaBuilder<?> originalCriteriaBuilder = criteriaBuilder;
+        CorrelatedSubqueryViewRootJpqlMacro originalViewRootJpqlMacro = viewRootJpqlMacro;
+        CorrelatedSubqueryEmbeddingViewJpqlMacro originalEmbeddingViewJpqlMacro = embeddingViewJpqlMacro;
+        // Nested correlations of a batch are loaded in the worker thread, as waiting for other tasks there could starve a bounded executor
+        EntityViewConfiguration batchEntityViewConfiguration = entityViewConfiguration.forConcurrentBatch();
+        try {
+            // The batch queries are built in the calling thread as the correlation provider and the main query builder aren't thread safe
+            for (int i = 0; i < batches.size(); i++) {
+                final EntityManager em = entityManagerFactory.createEntityManager();
+                boolean submitted = false;
+                try {
+                    final Query batchQuery = createBatchQuery(em, batchEntityViewConfiguration, batches.get(i), tupleOffset, correlationRoot);
+                    FutureTask<List<Object>> task = new FutureTask<>(new Callable<List<Object>>() {
+                        @Override
+                        public List<Object> call() {
+                            try {
+                                return (List<Object>) batchQuery.getResultList();
+                            } finally {
+                                em.close();
+                            }
+                        }
+                    });
+                    executor.execute(task);
+                    submitted = true;
+                    futures.add(task);
+                } finally {
+                    if (!submitted) {
+                        em.close();
+                    }
+                }
+            }
+        } finally {
+            this.criteriaBuilder = originalCriteriaBuilder;
+            this.viewRootJpqlMacro = originalViewRootJpqlMacro;
+            this.embeddingViewJpqlMacro = originalEmbeddingViewJpqlMacro;
+        }
+
+        // Results are applied in batch order so that the outcome doesn't depend on the scheduling
+        for (int i = 0; i < futures.size(); i++) {
+            List<Object> list;
+            try {
+                list = futures.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PersistenceException("Interrupted while waiting for the correlation batch result of attribute '" + attributePath + "'", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new PersistenceException("Error during the execution of the correlation batch query of attribute '" + attributePath + "'", e.getCause());
+            }
+            populateResult(correlationValues, batches.get(i).defaultKey, list);
+        }
+    }
+
+    private Query createBatchQuery(EntityManager em, EntityViewConfiguration batchEntityViewConfiguration, ConcurrentBatch batch, int tupleOffset, String correlationRoot) {
+        applyAndGetCorrelationRoot(BatchCorrelationMode.VALUES, em);
+        correlator.finish(criteriaBuilder, batchEntityViewConfiguration, tupleOffset, correlationRoot, embeddingViewJpqlMacro, true);
+        if (batchSize > 1) {
+            criteriaBuilder.select(correlationSelectExpression);
+        }
+        populateParameters(criteriaBuilder);
+        Query batchQuery = criteriaBuilder.getQuery();
+
+        if (criteriaBuilder.containsParameter(correlationParamName)) {
+            FixedArrayList batchParameters = new FixedArrayList(batchSize);
+            for (int i = 0; i < batch.values.length; i++) {
+                if (correlationBasisEntity != null) {
+                    batchParameters.add(em.getReference(correlationBasisEntity, batch.values[i]));
+                } else {
+                    batchParameters.add(batch.values[i]);
+                }
+            }
+            if (batchSize > 1) {
+                criteriaBuilder.setParameter(correlationParamName, batchParameters);
+                batchQuery.setParameter(correlationParamName, batchParameters);
+            } else {
+                criteriaBuilder.setParameter(correlationParamName, batchParameters.get(0));
+                batchQuery.setParameter(correlationParamName, batchParameters.get(0));
+            }
+        }
+        return batchQuery;
+    }
+
     protected abstract void populateResult(Map<Object, TuplePromise> correlationValues, Object defaultKey, List<Object> list);
 
+    /**
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private static final class ConcurrentBatch {
+
+        private final Object[] values;
+        private final Object defaultKey;
+
+        public ConcurrentBatch(FixedArrayList correlationParams, Object defaultKey) {
+            this.values = new Object[correlationParams.realSize()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = correlationParams.get(i);
+            }
+            this.defaultKey = defaultKey;
+        }
+    }
 }
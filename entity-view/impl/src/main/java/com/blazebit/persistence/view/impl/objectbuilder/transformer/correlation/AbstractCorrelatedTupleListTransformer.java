@@ -220,6 +220,10 @@ public abstract class AbstractCorrelatedTupleListTransformer extends TupleListTr
         public boolean hasResult() {
             return hasResult;
         }
+
+        public Object getResult() {
+            return result;
+        }
     }
 
     /**
@@ -28,6 +28,21 @@ import com.blazebit.persistence.view.spi.EmbeddingViewJpqlMacro;
  */
 public final class BasicCorrelator implements Correlator {
 
+    private final boolean jpaManagedResult;
+
+    public BasicCorrelator(boolean jpaManagedResult) {
+        this.jpaManagedResult = jpaManagedResult;
+    }
+
+    /**
+     * Returns whether the correlation result is a JPA managed type i.e. an entity or embeddable rather than a basic value.
+     *
+     * @return Whether the correlation result is a JPA managed type
+     */
+    public boolean isJpaManagedResult() {
+        return jpaManagedResult;
+    }
+
     @Override
     public int getElementOffset() {
         return 0;
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.impl.objectbuilder.transformer.correlation;
+
+import com.blazebit.persistence.FullQueryBuilder;
+import com.blazebit.persistence.view.CorrelationCache;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Parameter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A size-bounded least recently used cache for correlation results with expiration.
+ *
+ * Changes done through entity views are only applied to the cache after the transaction committed, see {@link #afterCompletion(EntityManager, Set, boolean)}.
+ * Entity managers with changes that are not yet committed must not use the cache, as they could see or publish uncommitted state.
+ * Results are only put into the cache if no invalidation happened since the correlation queries started, see {@link #getGeneration()}.
+ * A correlation result might use any entity type through the mappings of the correlated view, so every invalidation invalidates all results.
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public class CorrelationCacheImpl implements CorrelationCache {
+
+    /**
+     * The marker that is returned by {@link #get(Object)} if no result is cached, as <code>null</code> is a valid correlation result.
+     */
+    public static final Object MISSING = new Object();
+    private static final Object UNSUPPORTED_VALUE = new Object();
+
+    private final long expirationNanos;
+    private final LinkedHashMap<Key, Entry> entries;
+    private final Map<EntityManager, Integer> pendingChanges;
+    private volatile long generation;
+
+    public CorrelationCacheImpl(final int maximumSize, long expirationMillis) {
+        this.expirationNanos = expirationMillis * 1000000L;
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maximumSize;
+            }
+        };
+        this.pendingChanges = new IdentityHashMap<>();
+    }
+
+    /**
+     * Returns the context of the keys for the results of the given correlation query or <code>null</code> if the results can't be cached.
+     * The results also depend on the values of the parameters other than the correlation parameter and on the fetches of the entity view setting,
+     * so these are part of the context. Parameter values other than basic immutable values like e.g. entities or collections aren't supported.
+     *
+     * @param correlationBuilder The query builder for the correlated results
+     * @param correlationParamName The name of the correlation parameter
+     * @param fetches The fetches of the entity view setting
+     * @return The context or <code>null</code>
+     */
+    public Object createContext(FullQueryBuilder<?, ?> correlationBuilder, String correlationParamName, Set<String> fetches) {
+        Map<String, Object> parameterValues = new HashMap<>();
+        for (Parameter<?> parameter : correlationBuilder.getParameters()) {
+            String name = parameter.getName();
+            if (name != null && !name.equals(correlationParamName) && correlationBuilder.isParameterSet(name)) {
+                Object value = normalizeValue(correlationBuilder.getParameterValue(name));
+                if (value == UNSUPPORTED_VALUE) {
+                    return null;
+                }
+                parameterValues.put(name, value);
+            }
+        }
+        return new KeyContext(Collections.unmodifiableMap(parameterValues), fetches);
+    }
+
+    private static Object normalizeValue(Object value) {
+        if (value == null || value instanceof String || value instanceof Boolean || value instanceof Character || value instanceof Enum<?>
+                || value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte
+                || value instanceof Double || value instanceof Float || value instanceof BigDecimal || value instanceof BigInteger
+                || value instanceof UUID || value.getClass().getName().startsWith("java.time.")) {
+            return value;
+        }
+        if (value instanceof Date) {
+            // Dates are mutable, so we use a copy
+            return ((Date) value).clone();
+        }
+        // Entities, collections, arrays and other types might be mutable or expensive to retain, so we don't support them
+        return UNSUPPORTED_VALUE;
+    }
+
+    public Object createKey(Class<?> viewType, String attributeName, Object context, Object correlationValue) {
+        return new Key(viewType, attributeName, (KeyContext) context, correlationValue);
+    }
+
+    public Object get(Object key) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return MISSING;
+            }
+            if (now - entry.creationTime >= expirationNanos) {
+                entries.remove(key);
+                return MISSING;
+            }
+            return entry.result;
+        }
+    }
+
+    /**
+     * Returns the current generation of the cache which must be retrieved before running the queries that produce results
+     * for {@link #put(Object, Object, long)}.
+     *
+     * @return The current generation
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    public void put(Object key, Object result, long generation) {
+        Entry entry = new Entry(result, System.nanoTime());
+        synchronized (entries) {
+            // Don't publish results that were possibly loaded before a concurrent invalidation
+            if (this.generation == generation) {
+                entries.put((Key) key, entry);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the given entity manager flushed changes through entity views that are not yet committed.
+     *
+     * @param em The entity manager
+     * @return Whether there are uncommitted changes
+     */
+    public boolean hasPendingChanges(EntityManager em) {
+        synchronized (pendingChanges) {
+            return !pendingChanges.isEmpty() && pendingChanges.containsKey(em);
+        }
+    }
+
+    /**
+     * Registers that the given entity manager flushed changes through entity views in the current transaction.
+     * Every call must be followed by a call to {@link #afterCompletion(EntityManager, Set, boolean)} when the transaction completes.
+     *
+     * @param em The entity manager
+     */
+    public void beginChanges(EntityManager em) {
+        synchronized (pendingChanges) {
+            Integer count = pendingChanges.get(em);
+            pendingChanges.put(em, count == null ? 1 : count + 1);
+        }
+    }
+
+    /**
+     * Invalidates the cached results that use the changed entity types if the transaction committed
+     * and unregisters the changes of the entity manager that were registered via {@link #beginChanges(EntityManager)}.
+     *
+     * @param em The entity manager
+     * @param changedEntityClasses The changed entity types
+     * @param committed Whether the transaction committed
+     */
+    public void afterCompletion(EntityManager em, Set<Class<?>> changedEntityClasses, boolean committed) {
+        if (committed && !changedEntityClasses.isEmpty()) {
+            invalidateAll();
+        }
+        synchronized (pendingChanges) {
+            Integer count = pendingChanges.get(em);
+            if (count != null) {
+                if (count == 1) {
+                    pendingChanges.remove(em);
+                } else {
+                    pendingChanges.put(em, count - 1);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void invalidate(Class<?> entityClass) {
+        // The entity types that a result uses aren't known, so we have to be conservative
+        invalidateAll();
+    }
+
+    @Override
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+        }
+    }
+
+    @Override
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private static final class KeyContext {
+        private final Map<String, Object> parameterValues;
+        private final Set<String> fetches;
+        private final int hash;
+
+        public KeyContext(Map<String, Object> parameterValues, Set<String> fetches) {
+            this.parameterValues = parameterValues;
+            this.fetches = fetches;
+            this.hash = 31 * parameterValues.hashCode() + fetches.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof KeyContext)) {
+                return false;
+            }
+
+            KeyContext that = (KeyContext) o;
+            return hash == that.hash && parameterValues.equals(that.parameterValues) && fetches.equals(that.fetches);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private static final class Key {
+        private final Class<?> viewType;
+        private final String attributeName;
+        private final KeyContext context;
+        private final Object correlationValue;
+        private final int hash;
+
+        public Key(Class<?> viewType, String attributeName, KeyContext context, Object correlationValue) {
+            this.viewType = viewType;
+            this.attributeName = attributeName;
+            this.context = context;
+            this.correlationValue = correlationValue;
+            this.hash = 31 * (31 * (31 * viewType.hashCode() + attributeName.hashCode()) + context.hashCode()) + correlationValue.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) o;
+            return hash == key.hash && viewType == key.viewType && attributeName.equals(key.attributeName) && context.equals(key.context)
+                    && correlationValue.equals(key.correlationValue);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private static final class Entry {
+        private final Object result;
+        private final long creationTime;
+
+        public Entry(Object result, long creationTime) {
+            this.result = result;
+            this.creationTime = creationTime;
+        }
+    }
+}
@@ -45,6 +45,10 @@ public final class SubviewCorrelator implements Correlator {
         this.attributePath = attributePath;
     }
 
+    public ManagedViewTypeImplementor<?> getManagedViewType() {
+        return managedViewType;
+    }
+
     @Override
     public int getElementOffset() {
         return managedViewType.getInheritanceSubtypeConfiguration(null).hasSubtypes() ? 1 : 0;
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.impl.proxy;
+
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.lang.reflect.Field;
+
+/**
+ * Helpers that are invoked by the <code>writeObject</code> and <code>readObject</code> methods
+ * which {@link ProxyFactory} generates for the compact serialization of entity view proxies.
+ * Wrapper values are written as a presence marker followed by the primitive value
+ * and initial state elements that are the same as the mutable state elements are only written as marker.
+ * Final fields of the proxy are restored through reflection, just like the default serialization mechanism does.
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public final class CompactSerializationSupport {
+
+    private static final byte NULL = 0;
+    private static final byte PRESENT = 1;
+    private static final byte FALSE = 1;
+    private static final byte TRUE = 2;
+    private static final byte SAME_AS_MUTABLE_STATE = 2;
+
+    private CompactSerializationSupport() {
+    }
+
+    public static Field[] getFinalFields(Class<?> proxyClass, String[] fieldNames) {
+        Field[] fields = new Field[fieldNames.length];
+        for (int i = 0; i < fieldNames.length; i++) {
+            try {
+                Field field = proxyClass.getDeclaredField(fieldNames[i]);
+                field.setAccessible(true);
+                fields[i] = field;
+            } catch (NoSuchFieldException ex) {
+                throw new IllegalStateException("Could not find the field " + fieldNames[i] + " of the entity view proxy " + proxyClass.getName(), ex);
+            }
+        }
+        return fields;
+    }
+
+    public static void setFinalField(Object proxy, Field field, Object value) throws IOException {
+        try {
+            field.set(proxy, value);
+        } catch (IllegalAccessException ex) {
+            InvalidObjectException exception = new InvalidObjectException("Could not restore the final field " + field.getName() + " of the entity view proxy " + proxy.getClass().getName());
+            exception.initCause(ex);
+            throw exception;
+        }
+    }
+
+    public static void checkSchemaVersion(ObjectInput in, int schemaVersion, Class<?> proxyClass) throws IOException {
+        int serializedSchemaVersion = in.readInt();
+        if (serializedSchemaVersion != schemaVersion) {
+            throw new InvalidClassException(proxyClass.getName(), "Incompatible entity view schema version " + serializedSchemaVersion + ", expected " + schemaVersion);
+        }
+    }
+
+    public static void writeInitialState(ObjectOutput out, Object[] initialState, Object[] mutableState) throws IOException {
+        if (initialState == null) {
+            out.writeBoolean(false);
+            return;
+        }
+        out.writeBoolean(true);
+        for (int i = 0; i < initialState.length; i++) {
+            Object value = initialState[i];
+            if (value == mutableState[i] || isImmutableValue(value) && value.equals(mutableState[i])) {
+                out.writeByte(SAME_AS_MUTABLE_STATE);
+            } else if (value == null) {
+                out.writeByte(NULL);
+            } else {
+                out.writeByte(PRESENT);
+                out.writeObject(value);
+            }
+        }
+    }
+
+    public static Object[] readInitialState(ObjectInput in, Object[] mutableState) throws IOException, ClassNotFoundException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        Object[] initialState = new Object[mutableState.length];
+        for (int i = 0; i < initialState.length; i++) {
+            switch (in.readByte()) {
+                case SAME_AS_MUTABLE_STATE:
+                    initialState[i] = mutableState[i];
+                    break;
+                case PRESENT:
+                    initialState[i] = in.readObject();
+                    break;
+                default:
+                    break;
+            }
+        }
+        return initialState;
+    }
+
+    private static boolean isImmutableValue(Object value) {
+        // The mutable state of primitive attributes is re-boxed when reading, so identity can't be relied upon
+        return value instanceof Number && value.getClass().getName().startsWith("java.lang.")
+            || value instanceof Boolean
+            || value instanceof Character
+            || value instanceof String;
+    }
+
+    public static void writeBoolean(ObjectOutput out, Boolean value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else {
+            out.writeByte(value ? TRUE : FALSE);
+        }
+    }
+
+    public static Boolean readBoolean(ObjectInput in) throws IOException {
+        byte marker = in.readByte();
+        if (marker == NULL) {
+            return null;
+        }
+        return marker == TRUE;
+    }
+
+    public static void writeByte(ObjectOutput out, Byte value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else {
+            out.writeByte(PRESENT);
+            out.writeByte(value);
+        }
+    }
+
+    public static Byte readByte(ObjectInput in) throws IOException {
+        if (in.readByte() == NULL) {
+            return null;
+        }
+        return in.readByte();
+    }
+
+    public static void writeShort(ObjectOutput out, Short value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else {
+            out.writeByte(PRESENT);
+            out.writeShort(value);
+        }
+    }
+
+    public static Short readShort(ObjectInput in) throws IOException {
+        if (in.readByte() == NULL) {
+            return null;
+        }
+        return in.readShort();
+    }
+
+    public static void writeCharacter(ObjectOutput out, Character value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else {
+            out.writeByte(PRESENT);
+            out.writeChar(value);
+        }
+    }
+
+    public static Character readCharacter(ObjectInput in) throws IOException {
+        if (in.readByte() == NULL) {
+            return null;
+        }
+        return in.readChar();
+    }
+
+    public static void writeInteger(ObjectOutput out, Integer value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else {
+            out.writeByte(PRESENT);
+            out.writeInt(value);
+        }
+    }
+
+    public static Integer readInteger(ObjectInput in) throws IOException {
+        if (in.readByte() == NULL) {
+            return null;
+        }
+        return in.readInt();
+    }
+
+    public static void writeLong(ObjectOutput out, Long value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else {
+            out.writeByte(PRESENT);
+            out.writeLong(value);
+        }
+    }
+
+    public static Long readLong(ObjectInput in) throws IOException {
+        if (in.readByte() == NULL) {
+            return null;
+        }
+        return in.readLong();
+    }
+
+    public static void writeFloat(ObjectOutput out, Float value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else {
+            out.writeByte(PRESENT);
+            out.writeFloat(value);
+        }
+    }
+
+    public static Float readFloat(ObjectInput in) throws IOException {
+        if (in.readByte() == NULL) {
+            return null;
+        }
+        return in.readFloat();
+    }
+
+    public static void writeDouble(ObjectOutput out, Double value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else {
+            out.writeByte(PRESENT);
+            out.writeDouble(value);
+        }
+    }
+
+    public static Double readDouble(ObjectInput in) throws IOException {
+        if (in.readByte() == NULL) {
+            return null;
+        }
+        return in.readDouble();
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.impl.proxy;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Invokes a constructor reflectively with the elements of the tuple as arguments.
+ * Used when {@link ProxyFactory} can't generate an instantiator that invokes the constructor directly.
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public class ConstructorReflectionInstantiator<T> implements ObjectInstantiator<T> {
+
+    private final Constructor<T> constructor;
+
+    public ConstructorReflectionInstantiator(Constructor<T> constructor) {
+        this.constructor = constructor;
+    }
+
+    @Override
+    public T newInstance(Object[] tuple) {
+        try {
+            return constructor.newInstance(tuple);
+        } catch (InvocationTargetException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            } else if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+            throw new RuntimeException(ex.getCause());
+        } catch (InstantiationException | IllegalAccessException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+}
@@ -49,6 +49,7 @@ import com.blazebit.persistence.view.metamodel.SingularAttribute;
 import com.blazebit.persistence.view.metamodel.Type;
 import com.blazebit.persistence.view.metamodel.ViewType;
 import com.blazebit.persistence.view.spi.type.BasicDirtyTracker;
+import com.blazebit.persistence.view.spi.type.BasicUserType;
 import com.blazebit.persistence.view.spi.type.DirtyStateTrackable;
 import com.blazebit.persistence.view.spi.type.DirtyTracker;
 import com.blazebit.persistence.view.spi.type.EntityViewProxy;
@@ -62,6 +63,7 @@ import javassist.CtClass;
 import javassist.CtConstructor;
 import javassist.CtField;
 import javassist.CtMethod;
+import javassist.CtNewConstructor;
 import javassist.CtPrimitiveType;
 import javassist.Modifier;
 import javassist.NotFoundException;
@@ -98,6 +100,7 @@ import java.io.ObjectStreamField;
 import java.io.PrintWriter;
 import java.io.Serializable;
 import java.io.StringWriter;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -105,6 +108,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -115,6 +119,7 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -132,10 +137,13 @@ public class ProxyFactory {
     private final ConcurrentMap<Class<?>, Class<?>> proxyClasses = new ConcurrentHashMap<>();
     private final ConcurrentMap<Class<?>, Class<?>> unsafeProxyClasses = new ConcurrentHashMap<>();
     private final ConcurrentMap<Class<?>, Class<?>> proxyClassesToViewClasses = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Constructor<?>, ObjectInstantiator<?>> constructorInstantiators = new ConcurrentHashMap<>();
     private final Object proxyLock = new Object();
     private final ClassPool pool;
     private final boolean unsafeDisabled;
     private final boolean strictCascadingCheck;
+    private final boolean lazyInitialStateSnapshot;
+    private final boolean compactSerialization;
     private final PackageOpener packageOpener;
 
     static {
@@ -154,9 +162,15 @@ public class ProxyFactory {
     }
 
     public ProxyFactory(boolean unsafeDisabled, boolean strictCascadingCheck, PackageOpener packageOpener) {
+        this(unsafeDisabled, strictCascadingCheck, false, false, packageOpener);
+    }
+
+    public ProxyFactory(boolean unsafeDisabled, boolean strictCascadingCheck, boolean lazyInitialStateSnapshot, boolean compactSerialization, PackageOpener packageOpener) {
         this.pool = new ClassPool(ClassPool.getDefault());
         this.unsafeDisabled = unsafeDisabled;
         this.strictCascadingCheck = strictCascadingCheck;
+        this.lazyInitialStateSnapshot = lazyInitialStateSnapshot;
+        this.compactSerialization = compactSerialization;
         this.packageOpener = packageOpener;
     }
 
@@ -172,6 +186,32 @@ public class ProxyFactory {
         return (Class<T>) proxyClassesToViewClasses.get(implementationClass);
     }
 
+    /**
+     * Returns an instantiator that invokes the given constructor with the elements of the passed array as arguments.
+     * If possible, the instantiator is a generated class that invokes the constructor directly, otherwise reflection is used.
+     *
+     * @param constructor The constructor of a proxy class
+     * @param <T> The proxy type
+     * @return The instantiator for the constructor
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ObjectInstantiator<T> getConstructorInstantiator(Constructor<T> constructor) {
+        ObjectInstantiator<T> instantiator = (ObjectInstantiator<T>) constructorInstantiators.get(constructor);
+
+        // Double checked locking since we can only define the class once
+        if (instantiator == null) {
+            synchronized (proxyLock) {
+                instantiator = (ObjectInstantiator<T>) constructorInstantiators.get(constructor);
+                if (instantiator == null) {
+                    instantiator = createConstructorInstantiator(constructor);
+                    constructorInstantiators.put(constructor, instantiator);
+                }
+            }
+        }
+
+        return instantiator;
+    }
+
     private static String getImplementationClassName(Class<?> javaType, Class<?> baseJavaType) {
         String packageName = javaType.getPackage().getName();
         String fqcn = javaType.getName();
@@ -517,6 +557,9 @@ public class ProxyFactory {
             cc.addMethod(createToString(managedViewType, cc, viewType != null, attributeFields));
             createSpecialMethods(managedViewType, cc, cc);
             createSerializationSubclass(managedViewType, cc);
+            if (compactSerialization && Serializable.class.isAssignableFrom(clazz)) {
+                addCompactSerialization(cc, attributeFields, methodAttributes, mutableStateField, mutableAttributeCount);
+            }
 
             Set<MappingConstructorImpl<T>> constructors = (Set<MappingConstructorImpl<T>>) (Set<?>) managedViewType.getConstructors();
             boolean hasEmptyConstructor = managedViewType.hasEmptyConstructor();
@@ -604,6 +647,192 @@ public class ProxyFactory {
         }
     }
 
+    private void addCompactSerialization(CtClass cc, CtField[] attributeFields, AbstractMethodAttribute<?, ?>[] methodAttributes, CtField mutableStateField, int mutableAttributeCount) throws NotFoundException, CannotCompileException {
+        String support = CompactSerializationSupport.class.getName();
+        // The schema version guards against reading payloads written by a different version of the entity view
+        StringBuilder schemaSb = new StringBuilder();
+        for (int i = 0; i < attributeFields.length; i++) {
+            schemaSb.append(attributeFields[i].getName()).append(':').append(attributeFields[i].getFieldInfo2().getDescriptor());
+            if (methodAttributes[i] != null && methodAttributes[i].hasDirtyStateIndex()) {
+                schemaSb.append(':').append(methodAttributes[i].getDirtyStateIndex());
+            }
+            schemaSb.append(';');
+        }
+        schemaSb.append(mutableStateField != null);
+        int schemaVersion = schemaSb.toString().hashCode();
+
+        // No fields are written by the default mechanism, the generated writeObject and readObject methods write the state positionally
+        cc.addField(CtField.make("private static final java.io.ObjectStreamField[] serialPersistentFields = new java.io.ObjectStreamField[0];", cc));
+        // Final fields can't be assigned in readObject, so they are set through reflective fields that are resolved once per proxy class
+        List<String> finalFieldNames = new ArrayList<>();
+        for (CtField field : cc.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (!Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers)) {
+                finalFieldNames.add(field.getName());
+            }
+        }
+        if (!finalFieldNames.isEmpty()) {
+            StringBuilder fieldsSb = new StringBuilder();
+            fieldsSb.append("private static final java.lang.reflect.Field[] $$_finalFields = ").append(support).append(".getFinalFields(").append(cc.getName()).append(".class, new String[] { ");
+            for (int i = 0; i < finalFieldNames.size(); i++) {
+                if (i != 0) {
+                    fieldsSb.append(", ");
+                }
+                fieldsSb.append('"').append(finalFieldNames.get(i)).append('"');
+            }
+            fieldsSb.append(" });");
+            cc.addField(CtField.make(fieldsSb.toString(), cc));
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {\n");
+        sb.append("\t$1.defaultWriteObject();\n");
+        sb.append("\t$1.writeInt(").append(schemaVersion).append(");\n");
+        sb.append("\t$1.writeByte($0.$$_kind);\n");
+        for (int i = 0; i < attributeFields.length; i++) {
+            sb.append('\t');
+            appendCompactWrite(sb, attributeFields[i].getType(), "$0." + attributeFields[i].getName());
+        }
+        if (mutableStateField != null) {
+            sb.append("\t$1.writeBoolean($0.$$_initialized);\n");
+            sb.append("\t$1.writeLong($0.$$_dirty);\n");
+            sb.append("\t$1.writeBoolean($0.").append(mutableStateField.getName()).append(" != null);\n");
+            sb.append("\tif ($0.").append(mutableStateField.getName()).append(" != null) {\n");
+            sb.append("\t\t").append(support).append(".writeInitialState($1, $0.$$_initialState, $0.").append(mutableStateField.getName()).append(");\n");
+            sb.append("\t}\n");
+            sb.append("\t$1.writeObject($0.$$_parent);\n");
+            sb.append("\t$1.writeInt($0.$$_parentIndex);\n");
+            sb.append("\t$1.writeObject($0.$$_readOnlyParents);\n");
+        }
+        sb.append('}');
+        cc.addMethod(CtMethod.make(sb.toString(), cc));
+
+        sb.setLength(0);
+        sb.append("private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {\n");
+        sb.append("\t$1.defaultReadObject();\n");
+        sb.append("\t").append(support).append(".checkSchemaVersion($1, ").append(schemaVersion).append(", $0.getClass());\n");
+        if (!finalFieldNames.isEmpty()) {
+            sb.append("\tObject finalFieldValue;\n");
+        }
+        sb.append("\t$0.$$_kind = $1.readByte();\n");
+        for (int i = 0; i < attributeFields.length; i++) {
+            appendCompactFieldAssignment(sb, cc, attributeFields[i].getName(), attributeFields[i].getType(), getCompactReadExpression(attributeFields[i].getType()), finalFieldNames);
+        }
+        if (mutableStateField != null) {
+            appendCompactFieldAssignment(sb, cc, "$$_initialized", CtClass.booleanType, "$1.readBoolean()", finalFieldNames);
+            sb.append("\t$0.$$_dirty = $1.readLong();\n");
+            // The mutable state always mirrors the attribute fields, so it is rebuilt rather than written
+            sb.append("\tif ($1.readBoolean()) {\n");
+            sb.append("\t\tObject[] mutableStateArr = new Object[").append(mutableAttributeCount).append("];\n");
+            for (int i = 0; i < attributeFields.length; i++) {
+                if (methodAttributes[i] != null && methodAttributes[i].hasDirtyStateIndex()) {
+                    sb.append("\t\tmutableStateArr[").append(methodAttributes[i].getDirtyStateIndex()).append("] = ");
+                    renderValueForArray(sb, attributeFields[i].getType(), "$0." + attributeFields[i].getName());
+                }
+            }
+            appendCompactFieldAssignment(sb, cc, mutableStateField.getName(), mutableStateField.getType(), "mutableStateArr", finalFieldNames);
+            appendCompactFieldAssignment(sb, cc, "$$_initialState", mutableStateField.getType(), support + ".readInitialState($1, mutableStateArr)", finalFieldNames);
+            sb.append("\t}\n");
+            sb.append("\t$0.$$_parent = (").append(DirtyTracker.class.getName()).append(") $1.readObject();\n");
+            sb.append("\t$0.$$_parentIndex = $1.readInt();\n");
+            sb.append("\t$0.$$_readOnlyParents = (").append(List.class.getName()).append(") $1.readObject();\n");
+        }
+        sb.append('}');
+        cc.addMethod(CtMethod.make(sb.toString(), cc));
+    }
+
+    private void appendCompactWrite(StringBuilder sb, CtClass type, String value) {
+        String support = CompactSerializationSupport.class.getName();
+        if (type.isPrimitive()) {
+            if (type == CtClass.longType) {
+                sb.append("$1.writeLong(");
+            } else if (type == CtClass.floatType) {
+                sb.append("$1.writeFloat(");
+            } else if (type == CtClass.doubleType) {
+                sb.append("$1.writeDouble(");
+            } else if (type == CtClass.shortType) {
+                sb.append("$1.writeShort(");
+            } else if (type == CtClass.byteType) {
+                sb.append("$1.writeByte(");
+            } else if (type == CtClass.booleanType) {
+                sb.append("$1.writeBoolean(");
+            } else if (type == CtClass.charType) {
+                sb.append("$1.writeChar(");
+            } else {
+                sb.append("$1.writeInt(");
+            }
+            sb.append(value).append(");\n");
+        } else {
+            String wrapperName = getCompactWrapperName(type);
+            if (wrapperName == null) {
+                sb.append("$1.writeObject(").append(value).append(");\n");
+            } else {
+                sb.append(support).append(".write").append(wrapperName).append("($1, ").append(value).append(");\n");
+            }
+        }
+    }
+
+    private void appendCompactFieldAssignment(StringBuilder sb, CtClass cc, String fieldName, CtClass type, String value, List<String> finalFieldNames) {
+        int finalFieldIndex = finalFieldNames.indexOf(fieldName);
+        if (finalFieldIndex == -1) {
+            sb.append("\t$0.").append(fieldName).append(" = ").append(value).append(";\n");
+        } else {
+            sb.append("\tfinalFieldValue = ");
+            renderValueForArray(sb, type, value);
+            sb.append('\t').append(CompactSerializationSupport.class.getName()).append(".setFinalField($0, ").append(cc.getName()).append(".$$_finalFields[").append(finalFieldIndex).append("], finalFieldValue);\n");
+        }
+    }
+
+    private String getCompactReadExpression(CtClass type) {
+        if (type.isPrimitive()) {
+            if (type == CtClass.longType) {
+                return "$1.readLong()";
+            } else if (type == CtClass.floatType) {
+                return "$1.readFloat()";
+            } else if (type == CtClass.doubleType) {
+                return "$1.readDouble()";
+            } else if (type == CtClass.shortType) {
+                return "$1.readShort()";
+            } else if (type == CtClass.byteType) {
+                return "$1.readByte()";
+            } else if (type == CtClass.booleanType) {
+                return "$1.readBoolean()";
+            } else if (type == CtClass.charType) {
+                return "$1.readChar()";
+            } else {
+                return "$1.readInt()";
+            }
+        } else {
+            String wrapperName = getCompactWrapperName(type);
+            if (wrapperName == null) {
+                return "(" + type.getName() + ") $1.readObject()";
+            } else {
+                return CompactSerializationSupport.class.getName() + ".read" + wrapperName + "($1)";
+            }
+        }
+    }
+
+    private static String getCompactWrapperName(CtClass type) {
+        String name = type.getName();
+        if (name.startsWith("java.lang.")) {
+            String simpleName = name.substring("java.lang.".length());
+            switch (simpleName) {
+                case "Boolean":
+                case "Byte":
+                case "Short":
+                case "Character":
+                case "Integer":
+                case "Long":
+                case "Float":
+                case "Double":
+                    return simpleName;
+                default:
+                    break;
+            }
+        }
+        return null;
+    }
+
     private void createSerializableClass(ManagedViewTypeImplementor<?> managedViewType, CtClass cc, String serializableClassName, Set<AbstractMethodAttribute<?, ?>> attributes, CtClass[] attributeTypes) throws Exception {
         CtClass serializableClass = pool.makeClass(serializableClassName);
         Class<?> clazz = managedViewType.getJavaType();
@@ -944,6 +1173,83 @@ public class ProxyFactory {
         return managedViewType.getEntityClass();
     }
 
+    @SuppressWarnings("unchecked")
+    private <T> ObjectInstantiator<T> createConstructorInstantiator(Constructor<T> constructor) {
+        Class<T> proxyClass = constructor.getDeclaringClass();
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        boolean accessible = java.lang.reflect.Modifier.isPublic(constructor.getModifiers()) && isPublic(proxyClass);
+        for (int i = 0; accessible && i < parameterTypes.length; i++) {
+            accessible = isPublic(parameterTypes[i]);
+        }
+        if (!accessible) {
+            return new ConstructorReflectionInstantiator<>(constructor);
+        }
+
+        // The index makes the name unique and deterministic, so multiple proxy factories for the same class loader can share the class
+        int constructorIndex = Arrays.asList(proxyClass.getDeclaredConstructors()).indexOf(constructor);
+        CtClass cc = pool.makeClass(proxyClass.getName() + "_$$_instantiator_" + constructorIndex);
+        ClassPath classPath = new ClassClassPath(proxyClass);
+        pool.insertClassPath(classPath);
+
+        try {
+            cc.addInterface(pool.get(ObjectInstantiator.class.getName()));
+            cc.addConstructor(CtNewConstructor.defaultConstructor(cc));
+
+            StringBuilder sb = new StringBuilder(64 + parameterTypes.length * 32);
+            sb.append("public Object newInstance(Object[] tuple) {\n");
+            sb.append("\treturn new ").append(proxyClass.getName()).append('(');
+            for (int i = 0; i < parameterTypes.length; i++) {
+                if (i != 0) {
+                    sb.append(", ");
+                }
+                appendUnwrapped(sb, parameterTypes[i], "tuple[" + i + "]");
+            }
+            sb.append(");\n");
+            sb.append('}');
+            cc.addMethod(CtMethod.make(sb.toString(), cc));
+
+            Class<?> instantiatorClass = defineOrGetClass(proxyClass, cc);
+            return (ObjectInstantiator<T>) instantiatorClass.newInstance();
+        } catch (Exception | LinkageError ex) {
+            LOG.log(Level.FINE, "Could not generate an instantiator for the constructor '" + constructor + "', falling back to reflection", ex);
+            return new ConstructorReflectionInstantiator<>(constructor);
+        } finally {
+            pool.removeClassPath(classPath);
+            cc.detach();
+        }
+    }
+
+    private static boolean isPublic(Class<?> clazz) {
+        while (clazz.isArray()) {
+            clazz = clazz.getComponentType();
+        }
+        if (clazz.isPrimitive()) {
+            return true;
+        }
+        for (Class<?> c = clazz; c != null; c = c.getDeclaringClass()) {
+            if (!java.lang.reflect.Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void appendUnwrapped(StringBuilder sb, Class<?> type, String expression) {
+        if (type.isPrimitive()) {
+            Class<?> wrapperType = ReflectionUtils.getObjectClassOfPrimitve(type);
+            sb.append("((").append(wrapperType.getName()).append(") ").append(expression).append(").").append(type.getName()).append("Value()");
+        } else {
+            sb.append('(').append(getSourceName(type)).append(") ").append(expression);
+        }
+    }
+
+    private static String getSourceName(Class<?> type) {
+        if (type.isArray()) {
+            return getSourceName(type.getComponentType()) + "[]";
+        }
+        return type.getName();
+    }
+
     private <T> Class<? extends T> defineOrGetClass(Class<?> clazz, CtClass cc) throws IOException, IllegalAccessException, NoSuchFieldException, CannotCompileException {
         return defineOrGetClass(null, false, clazz, cc);
     }
@@ -1782,6 +2088,14 @@ public class ProxyFactory {
         }
     }
 
+    private boolean isLazilySnapshotted(AbstractMethodAttribute<?, ?> attribute) {
+        if (!lazyInitialStateSnapshot || !attribute.isMutable() || attribute.isId() || attribute.isCollection() || attribute.isSubview() || attribute.getDeclaringType().getFlushMode() == FlushMode.FULL) {
+            return false;
+        }
+        BasicUserType<?> userType = ((BasicType<?>) ((SingularAttribute<?, ?>) attribute).getType()).getUserType();
+        return userType != null && userType.isMutable() && !userType.supportsDirtyChecking() && userType.supportsDeepCloning() && !userType.supportsDirtyTracking();
+    }
+
     private CtMethod addSetter(AbstractMethodAttribute<?, ?> attribute, CtClass cc, CtField attributeField, String methodName, CtField mutableStateField, boolean dirtyChecking, boolean isId) throws CannotCompileException, NotFoundException {
         FieldInfo finfo = attributeField.getFieldInfo2();
         String fieldType = finfo.getDescriptor();
@@ -1947,6 +2261,13 @@ public class ProxyFactory {
                 // this.dirty = true
                 sb.append("\t$0.$$_markDirty(").append(mutableStateIndex).append(");\n");
 
+                if (isLazilySnapshotted(attribute)) {
+                    // The initial state shares the loaded value, so setting that same instance means it was mutated in place and its initial value is lost
+                    sb.append("\tif ($1 != null && $1 == $0.$$_initialState[").append(mutableStateIndex).append("]) {\n");
+                    sb.append("\t\t$0.$$_initialState[").append(mutableStateIndex).append("] = null;\n");
+                    sb.append("\t}\n");
+                }
+
                 // Set new objects parent
                 if (attribute.isCollection() || attribute.isSubview()) {
                     sb.append("\tif ($0.$$_initialized && $1 != null && $0.").append(fieldName).append(" != $1) {\n");
@@ -32,6 +32,7 @@ import java.util.List;
 public class TupleConstructorReflectionInstantiator<T> extends AbstractReflectionInstantiator<T> {
 
     private final Constructor<T> constructor;
+    private final ObjectInstantiator<T> constructorInstantiator;
     private final Object[] defaultObject;
 
     public TupleConstructorReflectionInstantiator(MappingConstructorImpl<T> mappingConstructor, ProxyFactory proxyFactory, ManagedViewTypeImplementor<T> viewType, Class<?>[] parameterTypes,
@@ -67,6 +68,7 @@ public class TupleConstructorReflectionInstantiator<T> extends AbstractReflectio
         }
 
         this.constructor = javaConstructor;
+        this.constructorInstantiator = proxyFactory.getConstructorInstantiator(javaConstructor);
         this.defaultObject = defaultObject;
     }
 
@@ -76,7 +78,7 @@ public class TupleConstructorReflectionInstantiator<T> extends AbstractReflectio
             prepareTuple(tuple);
             Object[] array = Arrays.copyOf(defaultObject, defaultObject.length);
             array[2] = tuple;
-            T instance = constructor.newInstance(array);
+            T instance = constructorInstantiator.newInstance(array);
             finalizeInstance(instance);
             return instance;
         } catch (Exception ex) {
@@ -80,6 +80,7 @@ public class DefaultUpdateContext implements UpdateContext, FlushOperationBuilde
     private final Class<?> entityViewClass;
     private final Object object;
     private final Object entity;
+    private final boolean multiple;
     private final TransactionAccess transactionAccess;
     private final InitialStateResetter initialStateResetter;
     private final ListenerManager listenerManager;
@@ -89,6 +90,10 @@ public class DefaultUpdateContext implements UpdateContext, FlushOperationBuilde
     private List<PostFlushDeleter> orphanRemovalDeleters = new ArrayList<>();
 
     public DefaultUpdateContext(EntityViewManagerImpl evm, EntityManager em, boolean forceFull, boolean forceEntity, boolean remove, Class<?> entityViewClass, Object object, Object entity) {
+        this(evm, em, forceFull, forceEntity, remove, entityViewClass, object, entity, false);
+    }
+
+    public DefaultUpdateContext(EntityViewManagerImpl evm, EntityManager em, boolean forceFull, boolean forceEntity, boolean remove, Class<?> entityViewClass, Object object, Object entity, boolean multiple) {
         this.evm = evm;
         this.em = em;
         this.forceFull = forceFull;
@@ -98,6 +103,7 @@ public class DefaultUpdateContext implements UpdateContext, FlushOperationBuilde
         this.entityViewClass = entityViewClass;
         this.object = object;
         this.entity = entity;
+        this.multiple = multiple;
 
         if (!transactionAccess.isActive()) {
             throw new IllegalStateException("Transaction is not active!");
@@ -683,7 +689,9 @@ public class DefaultUpdateContext implements UpdateContext, FlushOperationBuilde
                 evm.remove(this, entityViewClass, object);
             }
         } else {
-            if (entity == null) {
+            if (multiple) {
+                evm.updateAll(this, (Iterable<?>) object);
+            } else if (entity == null) {
                 evm.update(this, object);
             } else {
                 evm.updateTo(this, object, entity);
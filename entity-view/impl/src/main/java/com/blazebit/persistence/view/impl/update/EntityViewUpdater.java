@@ -40,6 +40,8 @@ public interface EntityViewUpdater extends UpdateQueryFactory {
 
     public Object executeUpdate(UpdateContext context, Object entity, MutableStateTrackable updatableProxy);
 
+    public boolean executeUpdate(UpdateContext context, MutableStateTrackable updatableProxy, UpdateQueryBatcher batcher);
+
     public Object executePersist(UpdateContext context, MutableStateTrackable updatableProxy);
 
     public Object executePersist(UpdateContext context, Object entity, MutableStateTrackable updatableProxy);
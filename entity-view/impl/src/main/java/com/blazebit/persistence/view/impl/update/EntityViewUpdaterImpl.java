@@ -108,6 +108,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  *
@@ -128,6 +131,9 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
     private final String updatePrefixString;
     private final String updatePostfixString;
     private final String fullUpdateQueryString;
+    // Partial update query strings by the update query fragment key of the dirty flusher
+    private final ConcurrentMap<Long, String> partialUpdateQueryStrings = new ConcurrentHashMap<>();
+    private final AtomicLong partialUpdateQueryStringHitCount = new AtomicLong();
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public EntityViewUpdaterImpl(EntityViewManagerImpl evm, ManagedViewTypeImplementor<?> viewType, ManagedViewTypeImplementor<?> declaredViewType, EntityViewUpdaterImpl owner, String ownerMapping) {
@@ -583,6 +589,10 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
         return new VersionAttributeFlusher<>(attributeName, attributeMapping, userType, updateFragment, parameterName, attributeAccessor, viewAttributeAccessor, jpaVersion);
     }
 
+    public long getPartialUpdateQueryStringHitCount() {
+        return partialUpdateQueryStringHitCount.get();
+    }
+
     @Override
     public CompositeAttributeFlusher getFullGraphNode() {
         return fullFlusher;
@@ -619,7 +629,7 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
 
     @Override
     public boolean executeUpdate(UpdateContext context, MutableStateTrackable updatableProxy) {
-        return update(context, null, updatableProxy);
+        return update(context, null, updatableProxy, null);
     }
 
     @Override
@@ -627,10 +637,15 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
         if (entity == null) {
             throw new IllegalArgumentException("Illegal null entity!");
         }
-        update(context, entity, updatableProxy);
+        update(context, entity, updatableProxy, null);
         return entity;
     }
 
+    @Override
+    public boolean executeUpdate(UpdateContext context, MutableStateTrackable updatableProxy, UpdateQueryBatcher batcher) {
+        return update(context, null, updatableProxy, batcher);
+    }
+
     @Override
     public Query createUpdateQuery(UpdateContext context, MutableStateTrackable updatableProxy, DirtyAttributeFlusher<?, ?, ?> flusher) {
         String queryString;
@@ -639,24 +654,35 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
             queryString = fullUpdateQueryString;
             needsOptimisticLocking = fullFlusher.hasVersionFlusher();
         } else {
-            StringBuilder sb = new StringBuilder(updatePrefixString.length() + updatePostfixString.length() + 250);
-            sb.append(updatePrefixString);
-            int initialLength = sb.length();
-            flusher.appendUpdateQueryFragment(context, sb, "e.", "", ", ");
-            if (sb.length() == initialLength) {
-                // If we still need optimistic locking, we just append a flush for the version increment
-                if (needsOptimisticLocking = fullFlusher.hasVersionFlusher() && flusher.isOptimisticLockProtected()) {
-                    versionFlusher.appendUpdateQueryFragment(context, sb, "e.", "", ", ");
+            // A key greater than zero means that attributes contribute to the fragment, so the query string doesn't depend on the version handling
+            long fragmentKey = flusher instanceof CompositeAttributeFlusher ? ((CompositeAttributeFlusher) flusher).getUpdateQueryFragmentKey() : -1L;
+            queryString = fragmentKey > 0L ? partialUpdateQueryStrings.get(fragmentKey) : null;
+            if (queryString != null) {
+                partialUpdateQueryStringHitCount.incrementAndGet();
+                needsOptimisticLocking = fullFlusher.hasVersionFlusher() && flusher.isOptimisticLockProtected();
+            } else {
+                StringBuilder sb = new StringBuilder(updatePrefixString.length() + updatePostfixString.length() + 250);
+                sb.append(updatePrefixString);
+                int initialLength = sb.length();
+                flusher.appendUpdateQueryFragment(context, sb, "e.", "", ", ");
+                if (sb.length() == initialLength) {
+                    // If we still need optimistic locking, we just append a flush for the version increment
+                    if (needsOptimisticLocking = fullFlusher.hasVersionFlusher() && flusher.isOptimisticLockProtected()) {
+                        versionFlusher.appendUpdateQueryFragment(context, sb, "e.", "", ", ");
+                        sb.append(updatePostfixString);
+                        queryString = sb.toString();
+                    } else {
+                        queryString = null;
+                        needsOptimisticLocking = false;
+                    }
+                } else {
                     sb.append(updatePostfixString);
                     queryString = sb.toString();
-                } else {
-                    queryString = null;
-                    needsOptimisticLocking = false;
+                    needsOptimisticLocking = fullFlusher.hasVersionFlusher() && flusher.isOptimisticLockProtected();
+                    if (fragmentKey > 0L) {
+                        partialUpdateQueryStrings.putIfAbsent(fragmentKey, queryString);
+                    }
                 }
-            } else {
-                sb.append(updatePostfixString);
-                queryString = sb.toString();
-                needsOptimisticLocking = fullFlusher.hasVersionFlusher() && flusher.isOptimisticLockProtected();
             }
         }
 
@@ -674,7 +700,7 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
         return query;
     }
 
-    private boolean update(UpdateContext context, Object entity, MutableStateTrackable updatableProxy) {
+    private boolean update(UpdateContext context, Object entity, MutableStateTrackable updatableProxy, UpdateQueryBatcher batcher) {
         if (!rootUpdateAllowed && entity == null) {
             throw new IllegalArgumentException("Updating instances of the view type [" + updatableProxy.getClass().getName() + "] is not allowed because no entity id is known!");
         }
@@ -687,18 +713,31 @@ public class EntityViewUpdaterImpl implements EntityViewUpdater {
             return false;
         }
 
-        if (flushStrategy == FlushStrategy.ENTITY || context.isForceEntity() || !flusher.supportsQueryFlush()) {
+        boolean entityFlush = flushStrategy == FlushStrategy.ENTITY || context.isForceEntity() || !flusher.supportsQueryFlush();
+        if (batcher != null && (entityFlush || !(flusher instanceof CompositeAttributeFlusher) || !((CompositeAttributeFlusher) flusher).flushesOnlyUpdateQuery())) {
+            // Nested statements might depend on the pending updates of the previous views, so these must be executed first
+            batcher.flush();
+        }
+        if (entityFlush) {
             return flusher.flushEntity(context, entity, updatableProxy, updatableProxy, updatableProxy, null);
         } else {
             int orphanRemovalStartIndex = context.getOrphanRemovalDeleters().size();
             Query query = flusher.flushQuery(context, null, this, null, updatableProxy, updatableProxy, updatableProxy, null, flusher);
             if (query != null) {
-                int updated = query.executeUpdate();
+                if (batcher == null) {
+                    int updated = query.executeUpdate();
 
-                if (updated != 1) {
-                    throw new OptimisticLockException("The update operation did not return the expected update count!", entity, updatableProxy);
+                    if (updated != 1) {
+                        throw new OptimisticLockException("The update operation did not return the expected update count!", entity, updatableProxy);
+                    }
+                } else {
+                    batcher.executeUpdate(query, entity, updatableProxy, versionFlusher != null && flusher.isOptimisticLockProtected());
                 }
             }
+            if (batcher != null && context.getOrphanRemovalDeleters().size() > orphanRemovalStartIndex) {
+                // Pending batched updates might still refer to the orphans, so we have to execute them before removing
+                batcher.flush();
+            }
             context.removeOrphans(orphanRemovalStartIndex);
             return true;
         }
@@ -35,6 +35,7 @@ import com.blazebit.persistence.view.spi.type.EntityViewProxy;
 
 import javax.persistence.EntityManager;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -48,6 +49,8 @@ public class ListenerManager {
     private final EntityViewManagerImpl evm;
     private final Map<Class<?>, Listeners> listeners;
     private final Map<Class<?>, Listeners> customListeners;
+    private EntityManager changingEntityManager;
+    private Set<Class<?>> changedEntityClasses;
 
     public ListenerManager(EntityViewManagerImpl evm) {
         this.evm = evm;
@@ -227,6 +230,28 @@ public class ListenerManager {
         return false;
     }
 
+    private void onEntityChange(UpdateContext context, Class<?> entityClass) {
+        if (changedEntityClasses == null) {
+            changedEntityClasses = new HashSet<>();
+            changingEntityManager = context.getEntityManager();
+            evm.getCorrelationCache().beginChanges(changingEntityManager);
+        }
+        changedEntityClasses.add(entityClass);
+    }
+
+    /**
+     * Applies the entity changes of the transaction to the correlation cache after the transaction completed.
+     *
+     * @param committed Whether the transaction committed
+     */
+    public void onTransactionCompletion(boolean committed) {
+        if (changedEntityClasses != null) {
+            evm.getCorrelationCache().afterCompletion(changingEntityManager, changedEntityClasses, committed);
+            changedEntityClasses = null;
+            changingEntityManager = null;
+        }
+    }
+
     public void invokePrePersist(UpdateContext context, MutableStateTrackable updatableProxy, Object entity) {
         ManagedViewTypeImplementor<?> managedView = evm.getMetamodel().managedView(updatableProxy.$$_getEntityViewClass());
         Listeners listeners = this.listeners.get(managedView.getJavaType());
@@ -245,6 +270,7 @@ public class ListenerManager {
 
     public void invokePostPersist(UpdateContext context, MutableStateTrackable updatableProxy, Object entity) {
         ManagedViewTypeImplementor<?> managedView = evm.getMetamodel().managedView(updatableProxy.$$_getEntityViewClass());
+        onEntityChange(context, managedView.getEntityClass());
         Listeners listeners = this.listeners.get(managedView.getJavaType());
         if (listeners != null) {
             listeners.invokePostPersist(context, updatableProxy, entity);
@@ -279,6 +305,7 @@ public class ListenerManager {
 
     public void invokePostUpdate(UpdateContext context, MutableStateTrackable updatableProxy) {
         ManagedViewTypeImplementor<?> managedView = evm.getMetamodel().managedView(updatableProxy.$$_getEntityViewClass());
+        onEntityChange(context, managedView.getEntityClass());
         Listeners listeners = this.listeners.get(managedView.getJavaType());
         if (listeners != null) {
             listeners.invokePostUpdate(context, updatableProxy);
@@ -346,6 +373,7 @@ public class ListenerManager {
                 listeners.invokePostRemove(context, entityView, entityId);
             }
         }
+        onEntityChange(context, entityClass);
         listeners = this.listeners.get(entityClass);
         if (listeners != null) {
             listeners.invokePostRemove(context, entityView, entityId);
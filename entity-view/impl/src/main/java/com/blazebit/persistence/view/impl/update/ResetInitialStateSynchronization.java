@@ -176,6 +176,8 @@ public class ResetInitialStateSynchronization implements Synchronization, Initia
     @Override
     @SuppressWarnings("unchecked")
     public void afterCompletion(int status) {
+        // Cached correlation results must only be invalidated after the changes are visible to other transactions
+        listenerManager.onTransactionCompletion(status == Status.STATUS_COMMITTED);
         if (status != Status.STATUS_COMMITTED) {
             Map<EntityViewProxy, ViewTransition> objects;
             if (listenerManager.hasPostRollbackListeners()) {
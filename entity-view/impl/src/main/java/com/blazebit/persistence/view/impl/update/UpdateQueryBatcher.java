@@ -0,0 +1,150 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.impl.update;
+
+import com.blazebit.persistence.spi.ExtendedQuerySupport;
+import com.blazebit.persistence.spi.ModificationBatch;
+import com.blazebit.persistence.spi.ServiceProvider;
+import com.blazebit.persistence.view.OptimisticLockException;
+import com.blazebit.persistence.view.spi.type.MutableStateTrackable;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Parameter;
+import javax.persistence.Query;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups the update queries of multiple root entity views by their SQL and executes each group as JDBC batch.
+ * Views of the same type with the same dirty attributes produce the same update statement and thus end up in the same group.
+ * Optimistic lock protected updates are only batched if the JDBC driver reports update counts for batches, otherwise they are executed one by one.
+ * Pending batches must be flushed before statements are executed that might depend on the updates.
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public class UpdateQueryBatcher implements ServiceProvider {
+
+    private final UpdateContext context;
+    private final ExtendedQuerySupport extendedQuerySupport;
+    private final int batchSize;
+    private final boolean batchUpdateCounts;
+    private final Map<String, UpdateQueryBatch> batches = new LinkedHashMap<>();
+
+    public UpdateQueryBatcher(UpdateContext context) {
+        this.context = context;
+        this.extendedQuerySupport = context.getEntityViewManager().getCriteriaBuilderFactory().getService(ExtendedQuerySupport.class);
+        this.batchSize = context.getEntityViewManager().getJdbcBatchSize();
+        this.batchUpdateCounts = context.getEntityViewManager().getDbmsDialect().supportsBatchUpdateCounts();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getService(Class<T> serviceClass) {
+        if (EntityManager.class.equals(serviceClass)) {
+            return (T) context.getEntityManager();
+        }
+        return context.getEntityViewManager().getCriteriaBuilderFactory().getService(serviceClass);
+    }
+
+    public void executeUpdate(Query query, Object entity, MutableStateTrackable updatableProxy, boolean optimisticLock) {
+        if (batchSize < 2 || extendedQuerySupport == null || !extendedQuerySupport.supportsAdvancedSql() || optimisticLock && !batchUpdateCounts) {
+            checkUpdateCount(query.executeUpdate(), entity, updatableProxy, true);
+            return;
+        }
+
+        String sql = extendedQuerySupport.getSql(context.getEntityManager(), query);
+        UpdateQueryBatch batch = batches.get(sql);
+        if (batch == null) {
+            ModificationBatch modificationBatch = extendedQuerySupport.createModificationBatch(this, Collections.singletonList(query), query, query, sql, false);
+            if (modificationBatch == null) {
+                checkUpdateCount(query.executeUpdate(), entity, updatableProxy, true);
+                return;
+            }
+            batch = new UpdateQueryBatch(query, modificationBatch);
+            batches.put(sql, batch);
+        } else {
+            // The batch captures the parameters of the query it was created for, so we copy the values over
+            for (Parameter<?> parameter : query.getParameters()) {
+                batch.query.setParameter(parameter.getName(), query.getParameterValue(parameter));
+            }
+        }
+
+        batch.add(entity, updatableProxy, optimisticLock);
+        if (batch.views.size() >= batchSize) {
+            batch.execute();
+        }
+    }
+
+    public void flush() {
+        for (UpdateQueryBatch batch : batches.values()) {
+            batch.execute();
+        }
+    }
+
+    private static void checkUpdateCount(int updated, Object entity, Object view, boolean requireCount) {
+        // Some drivers don't report update counts for batched statements, which is only acceptable if no optimistic lock is involved
+        if (updated != 1 && (requireCount || updated != Statement.SUCCESS_NO_INFO)) {
+            throw new OptimisticLockException("The update operation did not return the expected update count!", entity, view);
+        }
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private static class UpdateQueryBatch {
+
+        private final Query query;
+        private final ModificationBatch batch;
+        private final List<Object> entities = new ArrayList<>();
+        private final List<Object> views = new ArrayList<>();
+        private final List<Boolean> optimisticLocks = new ArrayList<>();
+
+        public UpdateQueryBatch(Query query, ModificationBatch batch) {
+            this.query = query;
+            this.batch = batch;
+        }
+
+        public void add(Object entity, Object view, boolean optimisticLock) {
+            batch.addBatch();
+            entities.add(entity);
+            views.add(view);
+            optimisticLocks.add(optimisticLock);
+        }
+
+        public void execute() {
+            if (views.isEmpty()) {
+                return;
+            }
+            try {
+                int[] updateCounts = batch.executeBatch();
+                for (int i = 0; i < updateCounts.length; i++) {
+                    checkUpdateCount(updateCounts[i], entities.get(i), views.get(i), optimisticLocks.get(i));
+                }
+            } finally {
+                entities.clear();
+                views.clear();
+                optimisticLocks.clear();
+            }
+        }
+    }
+}
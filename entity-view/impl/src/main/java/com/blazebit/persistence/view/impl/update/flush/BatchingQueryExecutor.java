@@ -0,0 +1,96 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.impl.update.flush;
+
+import com.blazebit.persistence.spi.ModificationBatch;
+import com.blazebit.persistence.view.OptimisticLockException;
+import com.blazebit.persistence.view.impl.update.UpdateContext;
+
+import javax.persistence.PersistenceException;
+import javax.persistence.Query;
+import java.sql.Statement;
+
+/**
+ * Executes a modification query for every element of a collection, grouping the executions into JDBC batches
+ * of the configured size if the query supports that.
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public class BatchingQueryExecutor {
+
+    /**
+     * The update count to use for statements that may affect any number of rows.
+     */
+    public static final int ANY_UPDATE_COUNT = -1;
+
+    private final Query query;
+    private final ModificationBatch batch;
+    private final int batchSize;
+    private final int expectedUpdateCount;
+
+    public BatchingQueryExecutor(UpdateContext context, Query query, int expectedUpdateCount) {
+        this.query = query;
+        this.batchSize = context.getEntityViewManager().getJdbcBatchSize();
+        this.expectedUpdateCount = expectedUpdateCount;
+        if (batchSize > 1 && query instanceof ModificationBatch) {
+            this.batch = (ModificationBatch) query;
+        } else {
+            this.batch = null;
+        }
+    }
+
+    public void executeUpdate() {
+        if (batch == null) {
+            checkUpdateCount(query.executeUpdate());
+        } else {
+            batch.addBatch();
+            if (batch.getBatchSize() >= batchSize) {
+                executeBatch();
+            }
+        }
+    }
+
+    public void flush() {
+        if (batch != null && batch.getBatchSize() != 0) {
+            executeBatch();
+        }
+    }
+
+    private void executeBatch() {
+        int expectedCount = batch.getBatchSize();
+        int[] updateCounts = batch.executeBatch();
+        if (updateCounts.length != expectedCount) {
+            throw new PersistenceException("Expected " + expectedCount + " update counts for the JDBC batch but got " + updateCounts.length + "!");
+        }
+        for (int updateCount : updateCounts) {
+            // Some drivers don't report update counts for batched statements
+            if (updateCount != Statement.SUCCESS_NO_INFO) {
+                checkUpdateCount(updateCount);
+            }
+        }
+    }
+
+    private void checkUpdateCount(int updateCount) {
+        if (updateCount == Statement.EXECUTE_FAILED) {
+            throw new PersistenceException("A statement of the JDBC batch failed to execute!");
+        }
+        if (expectedUpdateCount != ANY_UPDATE_COUNT && updateCount != expectedUpdateCount) {
+            throw new OptimisticLockException("The update operation did not return the expected update count!", null, null);
+        }
+    }
+}
@@ -530,7 +530,7 @@ public class CollectionAttributeFlusher<E, V extends Collection<?>> extends Abst
                 }
                 insertQuery.executeUpdate();
             } else {
-                // TODO: Use batching when we implement #657
+                BatchingQueryExecutor executor = new BatchingQueryExecutor(context, insertQuery, 1);
                 Object[] singletonArray = new Object[1];
                 List<Object> singletonList = Arrays.asList(singletonArray);
                 for (Object o : elementsToAdd) {
@@ -540,9 +540,10 @@ public class CollectionAttributeFlusher<E, V extends Collection<?>> extends Abst
                         }
                         singletonArray[0] = o;
                         insertQuery.setParameter("val", singletonList);
-                        insertQuery.executeUpdate();
+                        executor.executeUpdate();
                     }
                 }
+                executor.flush();
             }
         } else {
             if (removedAllWithoutCollectionActions) {
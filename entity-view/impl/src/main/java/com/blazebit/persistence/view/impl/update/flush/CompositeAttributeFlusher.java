@@ -63,6 +63,7 @@ import java.util.Set;
  */
 public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<CompositeAttributeFlusher, DirtyAttributeFlusher<?, Object, Object>> implements DirtyAttributeFlusher<CompositeAttributeFlusher, Object, Object> {
 
+    private static final int VERSION_FRAGMENT_KEY_BIT = 62;
     private static final Runnable EMPTY_RUNNABLE = new Runnable() {
         @Override
         public void run() {
@@ -277,6 +278,16 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
         return versionFlusher != null;
     }
 
+    public boolean flushesOnlyUpdateQuery() {
+        for (int i = 0; i < flushers.length; i++) {
+            DirtyAttributeFlusher<?, Object, Object> flusher = flushers[i];
+            if (flusher != null && !(flusher instanceof BasicAttributeFlusher<?, ?> && ((BasicAttributeFlusher<?, ?>) flusher).flushesOnlyUpdateQuery())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public Object cloneDeep(Object view, Object oldValue, Object newValue) {
         return newValue;
@@ -325,6 +336,36 @@ public class CompositeAttributeFlusher extends CompositeAttributeFetchGraphNode<
         return wasDirty;
     }
 
+    /**
+     * Returns a key that identifies the update query fragment appended by this flusher, or <code>-1</code> if the fragment
+     * can't be determined without actually appending it. The key has a bit set for every attribute that contributes to the fragment.
+     *
+     * @return the update query fragment key or <code>-1</code>
+     */
+    public long getUpdateQueryFragmentKey() {
+        if (flushers.length >= VERSION_FRAGMENT_KEY_BIT) {
+            return -1L;
+        }
+        long key = 0L;
+        boolean optimisticLock = false;
+        for (int i = 0; i < flushers.length; i++) {
+            DirtyAttributeFlusher<?, Object, Object> flusher = flushers[i];
+            if (flusher != null) {
+                if (!(flusher instanceof BasicAttributeFlusher<?, ?>)) {
+                    return -1L;
+                }
+                if (((BasicAttributeFlusher<?, ?>) flusher).appendsUpdateQueryFragment()) {
+                    key |= 1L << i;
+                    optimisticLock |= flusher.isOptimisticLockProtected();
+                }
+            }
+        }
+        if (optimisticLock && optimisticLockProtected && versionFlusher != null) {
+            key |= 1L << VERSION_FRAGMENT_KEY_BIT;
+        }
+        return key;
+    }
+
     @Override
     public boolean supportsQueryFlush() {
         return supportsQueryFlush;
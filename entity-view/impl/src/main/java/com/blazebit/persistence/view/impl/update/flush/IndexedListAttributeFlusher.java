@@ -204,13 +204,15 @@ public class IndexedListAttributeFlusher<E, V extends List<?>> extends Collectio
                 updateCb.where("INDEX(" + mapping + ")").ltExpression(":maxIdx");
                 Query query = updateCb.getQuery();
                 ownerIdFlusher.flushQuery(context, null, null, query, ownerView, view, ownerIdFlusher.getViewAttributeAccessor().getValue(ownerView), null, null);
+                BatchingQueryExecutor executor = new BatchingQueryExecutor(context, query, BatchingQueryExecutor.ANY_UPDATE_COUNT);
                 for (int i = 0; i < translations.size(); i++) {
                     FusedCollectionIndexActions.IndexTranslateOperation translation = translations.get(i);
                     query.setParameter("minIdx", translation.getStartIndex());
                     query.setParameter("maxIdx", translation.getEndIndex());
                     query.setParameter("offset", translation.getOffset());
-                    query.executeUpdate();
+                    executor.executeUpdate();
                 }
+                executor.flush();
             }
 
             List<FusedCollectionIndexActions.ReplaceOperation> replaces = indexActions.getReplaces();
@@ -220,6 +222,7 @@ public class IndexedListAttributeFlusher<E, V extends List<?>> extends Collectio
                 updateCb.setWhereExpression(ownerIdWhereFragment);
                 updateCb.where("INDEX(" + mapping + ")").eqExpression(":idx");
                 Query query = updateCb.getQuery();
+                BatchingQueryExecutor executor = new BatchingQueryExecutor(context, query, 1);
 
                 if (replaces.size() != 0) {
                     ownerIdFlusher.flushQuery(context, null, null, query, ownerView, view, ownerIdFlusher.getViewAttributeAccessor().getValue(ownerView), null, null);
@@ -232,7 +235,7 @@ public class IndexedListAttributeFlusher<E, V extends List<?>> extends Collectio
                             }
                             query.setParameter("idx", replace.getIndex());
                             query.setParameter("element", replace.getNewObject());
-                            query.executeUpdate();
+                            executor.executeUpdate();
                         }
                     } else {
                         ViewToEntityMapper loadOnlyViewToEntityMapper = elementDescriptor.getLoadOnlyViewToEntityMapper();
@@ -240,7 +243,7 @@ public class IndexedListAttributeFlusher<E, V extends List<?>> extends Collectio
                             FusedCollectionIndexActions.ReplaceOperation replace = replaces.get(i);
                             query.setParameter("idx", replace.getIndex());
                             query.setParameter("element", loadOnlyViewToEntityMapper.applyToEntity(context, null, replace.getNewObject()));
-                            query.executeUpdate();
+                            executor.executeUpdate();
                         }
                     }
                 }
@@ -248,9 +251,10 @@ public class IndexedListAttributeFlusher<E, V extends List<?>> extends Collectio
                     for (int i = 0; i < embeddablesToUpdate.size(); i++) {
                         query.setParameter("idx", i);
                         query.setParameter("element", embeddablesToUpdate.get(i));
-                        query.executeUpdate();
+                        executor.executeUpdate();
                     }
                 }
+                executor.flush();
             }
 
             appends = indexActions.getAdded(context);
@@ -289,7 +293,7 @@ public class IndexedListAttributeFlusher<E, V extends List<?>> extends Collectio
             Query query = insertCb.getQuery();
             ownerIdFlusher.flushQuery(context, null, null, query, ownerView, view, ownerIdFlusher.getViewAttributeAccessor().getValue(ownerView), null, null);
 
-            // TODO: Use batching when we implement #657
+            BatchingQueryExecutor executor = new BatchingQueryExecutor(context, query, 1);
             Object[] singletonArray = new Object[1];
             List<Object> singletonList = Arrays.asList(singletonArray);
             if (elementDescriptor.getViewToEntityMapper() == null) {
@@ -304,7 +308,7 @@ public class IndexedListAttributeFlusher<E, V extends List<?>> extends Collectio
                             query.setParameter("idx", appendIndex++);
                         }
                         query.setParameter("val", singletonList);
-                        query.executeUpdate();
+                        executor.executeUpdate();
                     }
                 }
             } else {
@@ -316,10 +320,11 @@ public class IndexedListAttributeFlusher<E, V extends List<?>> extends Collectio
                             query.setParameter("idx", appendIndex++);
                         }
                         query.setParameter("val", singletonList);
-                        query.executeUpdate();
+                        executor.executeUpdate();
                     }
                 }
             }
+            executor.flush();
         }
     }
 
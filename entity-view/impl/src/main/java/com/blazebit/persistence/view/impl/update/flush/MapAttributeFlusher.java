@@ -447,6 +447,7 @@ public class MapAttributeFlusher<E, V extends Map<?, ?>> extends AbstractPluralA
                 updateCb.setWhereExpression(ownerIdWhereFragment);
                 updateCb.where("KEY(" + mapping + ")").eqExpression(":key");
                 Query query = updateCb.getQuery();
+                BatchingQueryExecutor executor = new BatchingQueryExecutor(context, query, 1);
 
                 if (replaces.size() != 0) {
                     ownerIdFlusher.flushQuery(context, null, null, query, ownerView, view, ownerIdFlusher.getViewAttributeAccessor().getValue(ownerView), null, null);
@@ -473,16 +474,17 @@ public class MapAttributeFlusher<E, V extends Map<?, ?>> extends AbstractPluralA
 
                         query.setParameter("key", k);
                         query.setParameter("element", v);
-                        query.executeUpdate();
+                        executor.executeUpdate();
                     }
                 }
                 if (embeddablesToUpdate != null && !embeddablesToUpdate.isEmpty()) {
                     for (Map.Entry<Object, Object> entry : embeddablesToUpdate.entrySet()) {
                         query.setParameter("key", entry.getKey());
                         query.setParameter("element", entry.getValue());
-                        query.executeUpdate();
+                        executor.executeUpdate();
                     }
                 }
+                executor.flush();
             }
 
             appends = fusedCollectionActions.getAdded();
@@ -518,7 +520,7 @@ public class MapAttributeFlusher<E, V extends Map<?, ?>> extends AbstractPluralA
             Query query = insertCb.getQuery();
             ownerIdFlusher.flushQuery(context, null, null, query, ownerView, view, ownerIdFlusher.getViewAttributeAccessor().getValue(ownerView), null, null);
 
-            // TODO: Use batching when we implement #657
+            BatchingQueryExecutor executor = new BatchingQueryExecutor(context, query, 1);
             Object[] singletonKeyArray = new Object[1];
             Object[] singletonValueArray = new Object[1];
             List<Object> singletonKeyList = Arrays.asList(singletonKeyArray);
@@ -548,9 +550,10 @@ public class MapAttributeFlusher<E, V extends Map<?, ?>> extends AbstractPluralA
                     }
                     query.setParameter("key", singletonKeyList);
                     query.setParameter("val", singletonValueList);
-                    query.executeUpdate();
+                    executor.executeUpdate();
                 }
             }
+            executor.flush();
         }
     }
 
@@ -16,7 +16,9 @@
 
 package com.blazebit.persistence.view.testsuite.basic;
 
+import com.blazebit.persistence.testsuite.entity.Document;
 import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.view.ConfigurationProperties;
 import com.blazebit.persistence.view.EntityView;
 import com.blazebit.persistence.view.Mapping;
 import com.blazebit.persistence.view.testsuite.basic.model.IdHolderView;
@@ -91,10 +93,48 @@ public class ValidationTest extends AbstractEntityViewTest {
         }
     }
 
+    @Test
+    public void testParallelValidationReportsSameErrors() {
+        Assert.assertEquals(getValidationErrors("1"), getValidationErrors("4"));
+    }
+
+    private String getValidationErrors(String parallelism) {
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.setProperty(ConfigurationProperties.METAMODEL_VALIDATION_PARALLELISM, parallelism);
+        cfg.addEntityView(DocumentValidationView.class);
+        cfg.addEntityView(PersonValidationView.class);
+        cfg.addEntityView(DocumentInvalidFetchValidationView.class);
+        cfg.addEntityView(PersonInvalidFetchValidationView.class);
+
+        try {
+            cfg.createEntityViewManager(cbf);
+            Assert.fail("Expected validation exception!");
+            return null;
+        } catch (IllegalArgumentException ex) {
+            Assert.assertTrue(ex.getMessage().contains(DocumentInvalidFetchValidationView.class.getSimpleName() + ".getOwner"));
+            Assert.assertTrue(ex.getMessage().contains(PersonInvalidFetchValidationView.class.getSimpleName() + ".getPartnerDocument"));
+            return ex.getMessage();
+        }
+    }
+
     @EntityView(Person.class)
     public interface PersonInvalidCaseMappingValidationView extends IdHolderView<Long> {
 
         @Mapping("CASE WHEN partnerDocument.invalid = 1 THEN true ELSE false END")
         public boolean getValid();
     }
+
+    @EntityView(Document.class)
+    public interface DocumentInvalidFetchValidationView extends IdHolderView<Long> {
+
+        @Mapping(value = "owner", fetches = "invalid")
+        public Person getOwner();
+    }
+
+    @EntityView(Person.class)
+    public interface PersonInvalidFetchValidationView extends IdHolderView<Long> {
+
+        @Mapping(value = "partnerDocument", fetches = "invalid")
+        public Document getPartnerDocument();
+    }
 }
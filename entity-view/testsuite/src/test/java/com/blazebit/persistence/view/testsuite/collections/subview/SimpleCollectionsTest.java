@@ -19,6 +19,7 @@ package com.blazebit.persistence.view.testsuite.collections.subview;
 import static com.blazebit.persistence.view.testsuite.collections.subview.SubviewAssert.assertSubviewEquals;
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -31,6 +32,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.CriteriaBuilder;
 import com.blazebit.persistence.view.EntityViewManager;
 import com.blazebit.persistence.view.EntityViewSetting;
@@ -163,4 +165,35 @@ public class SimpleCollectionsTest<T extends SubviewDocumentCollectionsView> ext
         assertSubviewEquals(doc2.getPartners(), results.get(1).getPartners());
         assertSubviewEquals(doc2.getPersonList(), results.get(1).getPersonList());
     }
+
+    @Test
+    public void testCollectionsResultIterator() {
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.addEntityView(viewType);
+        cfg.addEntityView(SubviewPersonForCollectionsView.class);
+        EntityViewManager evm = cfg.createEntityViewManager(cbf);
+
+        CriteriaBuilder<DocumentForCollections> criteria = cbf.create(em, DocumentForCollections.class, "d")
+            .orderByAsc("id");
+        CriteriaBuilder<T> cb = evm.applySetting(EntityViewSetting.create(viewType), criteria);
+        List<T> results = new ArrayList<>();
+        try (CloseableIterator<T> iterator = cb.getResultIterator()) {
+            while (iterator.hasNext()) {
+                results.add(iterator.next());
+            }
+        }
+
+        assertEquals(2, results.size());
+        // Doc1
+        assertEquals(doc1.getName(), results.get(0).getName());
+        assertSubviewEquals(doc1.getContacts(), results.get(0).getContacts());
+        assertSubviewEquals(doc1.getPartners(), results.get(0).getPartners());
+        assertSubviewEquals(doc1.getPersonList(), results.get(0).getPersonList());
+
+        // Doc2
+        assertEquals(doc2.getName(), results.get(1).getName());
+        assertSubviewEquals(doc2.getContacts(), results.get(1).getContacts());
+        assertSubviewEquals(doc2.getPartners(), results.get(1).getPartners());
+        assertSubviewEquals(doc2.getPersonList(), results.get(1).getPersonList());
+    }
 }
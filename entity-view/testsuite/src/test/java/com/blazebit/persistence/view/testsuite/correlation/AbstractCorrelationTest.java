@@ -22,6 +22,7 @@ import com.blazebit.persistence.view.EntityViewManager;
 import com.blazebit.persistence.view.EntityViewSetting;
 import com.blazebit.persistence.view.EntityViews;
 import com.blazebit.persistence.view.ConfigurationProperties;
+import com.blazebit.persistence.view.CorrelationCache;
 import com.blazebit.persistence.view.spi.EntityViewConfiguration;
 import com.blazebit.persistence.view.testsuite.AbstractEntityViewTest;
 import com.blazebit.persistence.view.testsuite.correlation.model.DocumentCorrelationView;
@@ -36,8 +37,11 @@ import javax.persistence.EntityManager;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  *
@@ -92,6 +96,14 @@ public abstract class AbstractCorrelationTest extends AbstractEntityViewTest {
     }
 
     protected <T extends DocumentCorrelationView> void testCorrelation(Class<T> entityView, Integer batchSize) {
+        testCorrelation(entityView, batchSize, null);
+    }
+
+    protected <T extends DocumentCorrelationView> void testCorrelation(Class<T> entityView, Integer batchSize, Executor batchCorrelationExecutor) {
+        testCorrelation(entityView, batchSize, batchCorrelationExecutor, false);
+    }
+
+    protected <T extends DocumentCorrelationView> void testCorrelation(Class<T> entityView, Integer batchSize, Executor batchCorrelationExecutor, boolean correlationCache) {
         EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
         cfg.addEntityView(entityView);
         cfg.addEntityView(SimpleDocumentCorrelatedView.class);
@@ -103,9 +115,27 @@ public abstract class AbstractCorrelationTest extends AbstractEntityViewTest {
         if (batchSize != null) {
             setting.setProperty(ConfigurationProperties.DEFAULT_BATCH_SIZE + ".ownerRelatedDocumentIds", batchSize);
         }
+        if (batchCorrelationExecutor != null) {
+            setting.setProperty(ConfigurationProperties.BATCH_CORRELATION_EXECUTOR, batchCorrelationExecutor);
+        }
+        if (correlationCache) {
+            setting.setProperty(ConfigurationProperties.CORRELATION_CACHE + ".ownerOnlyRelatedDocumentIds", true);
+        }
         CriteriaBuilder<T> cb = evm.applySetting(setting, criteria);
-        List<T> results = cb.getResultList();
+        assertCorrelationResults(cb.getResultList());
+
+        if (correlationCache) {
+            CorrelationCache cache = evm.getService(CorrelationCache.class);
+            assertTrue(cache.size() > 0);
+            // The second query must produce the same results from the cached correlation values
+            criteria = cbf.create(em, Document.class, "d").orderByAsc("id");
+            assertCorrelationResults(evm.applySetting(setting, criteria).getResultList());
+            cache.invalidate(Document.class);
+            assertEquals(0, cache.size());
+        }
+    }
 
+    private void assertCorrelationResults(List<? extends DocumentCorrelationView> results) {
         assertEquals(4, results.size());
 
         // Doc1
@@ -240,4 +270,30 @@ public abstract class AbstractCorrelationTest extends AbstractEntityViewTest {
         assertEquals(pers.getId(), view.getId());
         assertEquals(pers.getName().toUpperCase(), view.getName());
     }
+
+    /**
+     * An executor that counts the tasks it ran, so tests can verify that correlation batches were actually loaded concurrently.
+     *
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    protected static final class CountingExecutor implements Executor {
+
+        private final Executor delegate;
+        private final AtomicInteger executionCount = new AtomicInteger();
+
+        public CountingExecutor(Executor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            executionCount.incrementAndGet();
+            delegate.execute(command);
+        }
+
+        public int getExecutionCount() {
+            return executionCount.get();
+        }
+    }
 }
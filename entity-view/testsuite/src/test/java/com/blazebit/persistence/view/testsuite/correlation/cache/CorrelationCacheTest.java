@@ -0,0 +1,173 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.testsuite.correlation.cache;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus4;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import com.blazebit.persistence.view.ConfigurationProperties;
+import com.blazebit.persistence.view.CorrelationCache;
+import com.blazebit.persistence.view.EntityViewSetting;
+import com.blazebit.persistence.view.testsuite.AbstractEntityViewTest;
+import com.blazebit.persistence.view.testsuite.correlation.cache.model.DocumentCachedCorrelationView;
+import com.blazebit.persistence.view.testsuite.correlation.cache.model.DocumentParameterizedCachedCorrelationView;
+import com.blazebit.persistence.view.testsuite.correlation.cache.model.UpdatableDocumentAgeView;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+// NOTE: Requires values clause which currently is only available for Hibernate
+@Category({ NoDatanucleus4.class, NoDatanucleus.class, NoOpenJPA.class, NoEclipselink.class})
+public class CorrelationCacheTest extends AbstractEntityViewTest {
+
+    private Document doc1;
+    private Document doc2;
+    private Document doc3;
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("pers1");
+                Person o2 = new Person("pers2");
+                em.persist(o1);
+                em.persist(o2);
+
+                Document doc1 = new Document("doc1", o1);
+                Document doc2 = new Document("doc2", o2);
+                Document doc3 = new Document("doc3", o2);
+                em.persist(doc1);
+                em.persist(doc2);
+                em.persist(doc3);
+            }
+        });
+    }
+
+    @Before
+    public void setUp() {
+        doc1 = cbf.create(em, Document.class).where("name").eq("doc1").getSingleResult();
+        doc2 = cbf.create(em, Document.class).where("name").eq("doc2").getSingleResult();
+        doc3 = cbf.create(em, Document.class).where("name").eq("doc3").getSingleResult();
+        build(DocumentCachedCorrelationView.class, DocumentParameterizedCachedCorrelationView.class, UpdatableDocumentAgeView.class);
+    }
+
+    @After
+    public void tearDown() {
+        disableQueryCollecting();
+    }
+
+    @Test
+    public void testCachedCorrelationSkipsCorrelationQuery() {
+        CorrelationCache cache = evm.getService(CorrelationCache.class);
+        enableQueryCollecting();
+
+        assertOwnerDocumentIds(getResultList(em));
+        // The main query and one batched correlation query for both owners
+        assertQueryCount(2);
+        assertEquals(2, cache.size());
+
+        clearQueries();
+        assertOwnerDocumentIds(getResultList(em));
+        // Only the main query, the correlation results come from the cache
+        assertQueryCount(1);
+    }
+
+    @Test
+    public void testCachedCorrelationIsInvalidatedAfterCommit() {
+        final CorrelationCache cache = evm.getService(CorrelationCache.class);
+        assertOwnerDocumentIds(getResultList(em));
+        assertEquals(2, cache.size());
+
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                UpdatableDocumentAgeView view = evm.find(em, UpdatableDocumentAgeView.class, doc1.getId());
+                view.setAge(view.getAge() + 1);
+                evm.save(em, view);
+
+                // The flushed changes aren't committed yet, so the cache must neither be invalidated nor used by this transaction
+                enableQueryCollecting();
+                assertOwnerDocumentIds(getResultList(em));
+                assertQueryCount(2);
+                disableQueryCollecting();
+                assertEquals(2, cache.size());
+            }
+        });
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testCorrelationParametersArePartOfTheKey() {
+        CorrelationCache cache = evm.getService(CorrelationCache.class);
+
+        List<DocumentParameterizedCachedCorrelationView> results = getParameterizedResultList("doc2");
+        assertEquals(new HashSet<>(Arrays.asList(doc1.getId())), results.get(0).getOwnerDocumentIds());
+        assertEquals(new HashSet<>(Arrays.asList(doc3.getId())), results.get(1).getOwnerDocumentIds());
+        assertEquals(2, cache.size());
+
+        // A different parameter value must not reuse the results of the previous query
+        results = getParameterizedResultList("doc3");
+        assertEquals(new HashSet<>(Arrays.asList(doc1.getId())), results.get(0).getOwnerDocumentIds());
+        assertEquals(new HashSet<>(Arrays.asList(doc2.getId())), results.get(1).getOwnerDocumentIds());
+        assertEquals(4, cache.size());
+    }
+
+    private List<DocumentParameterizedCachedCorrelationView> getParameterizedResultList(String excludedName) {
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d").orderByAsc("id");
+        EntityViewSetting<DocumentParameterizedCachedCorrelationView, CriteriaBuilder<DocumentParameterizedCachedCorrelationView>> setting = EntityViewSetting.create(DocumentParameterizedCachedCorrelationView.class);
+        setting.setProperty(ConfigurationProperties.DEFAULT_BATCH_SIZE + ".ownerDocumentIds", 2);
+        setting.setProperty(ConfigurationProperties.CORRELATION_CACHE + ".ownerDocumentIds", true);
+        setting.addOptionalParameter("excludedName", excludedName);
+        return evm.applySetting(setting, criteria).getResultList();
+    }
+
+    private List<DocumentCachedCorrelationView> getResultList(EntityManager em) {
+        CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d").orderByAsc("id");
+        EntityViewSetting<DocumentCachedCorrelationView, CriteriaBuilder<DocumentCachedCorrelationView>> setting = EntityViewSetting.create(DocumentCachedCorrelationView.class);
+        setting.setProperty(ConfigurationProperties.DEFAULT_BATCH_SIZE + ".ownerDocumentIds", 2);
+        setting.setProperty(ConfigurationProperties.CORRELATION_CACHE + ".ownerDocumentIds", true);
+        return evm.applySetting(setting, criteria).getResultList();
+    }
+
+    private void assertOwnerDocumentIds(List<DocumentCachedCorrelationView> results) {
+        assertEquals(3, results.size());
+        assertEquals(new HashSet<>(Arrays.asList(doc1.getId())), results.get(0).getOwnerDocumentIds());
+        assertEquals(new HashSet<>(Arrays.asList(doc2.getId(), doc3.getId())), results.get(1).getOwnerDocumentIds());
+        assertEquals(new HashSet<>(Arrays.asList(doc2.getId(), doc3.getId())), results.get(2).getOwnerDocumentIds());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.testsuite.correlation.concurrent;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus4;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.view.ConfigurationProperties;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViewSetting;
+import com.blazebit.persistence.view.EntityViews;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import com.blazebit.persistence.view.testsuite.correlation.AbstractCorrelationTest;
+import com.blazebit.persistence.view.testsuite.correlation.concurrent.model.DocumentNestedConcurrentCorrelationView;
+import com.blazebit.persistence.view.testsuite.correlation.concurrent.model.PersonNestedConcurrentCorrelationView;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public class NestedConcurrentCorrelationTest extends AbstractCorrelationTest {
+
+    @Test
+    // NOTE: Requires values clause which currently is only available for Hibernate
+    @Category({ NoDatanucleus4.class, NoDatanucleus.class, NoOpenJPA.class, NoEclipselink.class})
+    public void testNestedCorrelationDoesNotStarveExecutor() {
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.addEntityView(DocumentNestedConcurrentCorrelationView.class);
+        cfg.addEntityView(PersonNestedConcurrentCorrelationView.class);
+        EntityViewManager evm = cfg.createEntityViewManager(cbf);
+
+        // Every owner is loaded in its own batch, so both workers are busy with the outer batches when the nested correlations are loaded
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        CountingExecutor executor = new CountingExecutor(executorService);
+        try {
+            CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d").orderByAsc("id");
+            EntityViewSetting<DocumentNestedConcurrentCorrelationView, CriteriaBuilder<DocumentNestedConcurrentCorrelationView>> setting =
+                    EntityViewSetting.create(DocumentNestedConcurrentCorrelationView.class);
+            setting.setProperty(ConfigurationProperties.DEFAULT_BATCH_SIZE, 1);
+            setting.setProperty(ConfigurationProperties.BATCH_CORRELATION_EXECUTOR, executor);
+            List<DocumentNestedConcurrentCorrelationView> results = evm.applySetting(setting, criteria).getResultList();
+
+            assertEquals(4, results.size());
+            assertOwnedDocuments(results.get(0), doc1.getId());
+            assertOwnedDocuments(results.get(1), doc2.getId(), doc3.getId(), doc4.getId());
+            assertOwnedDocuments(results.get(2), doc2.getId(), doc3.getId(), doc4.getId());
+            assertOwnedDocuments(results.get(3), doc2.getId(), doc3.getId(), doc4.getId());
+            // Only the outer batches run on the executor, the nested correlations are loaded in the worker threads
+            assertEquals(2, executor.getExecutionCount());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private void assertOwnedDocuments(DocumentNestedConcurrentCorrelationView view, Long... documentIds) {
+        assertEquals(1, view.getCorrelatedOwners().size());
+        PersonNestedConcurrentCorrelationView owner = view.getCorrelatedOwners().iterator().next();
+        assertEquals(new HashSet<>(Arrays.asList(documentIds)), new HashSet<>(owner.getOwnedDocumentIds()));
+    }
+}
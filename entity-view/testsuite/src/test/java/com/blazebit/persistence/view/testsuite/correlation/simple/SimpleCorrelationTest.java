@@ -33,6 +33,11 @@ import com.blazebit.persistence.view.testsuite.correlation.simple.model.Document
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertTrue;
+
 /**
  *
  * @author Christian Beikov
@@ -96,6 +101,41 @@ public class SimpleCorrelationTest extends AbstractCorrelationTest {
         testCorrelation(DocumentSimpleCorrelationViewSubqueryId.class, 20);
     }
 
+    @Test
+    // NOTE: Requires values clause which currently is only available for Hibernate
+    @Category({ NoDatanucleus4.class, NoDatanucleus.class, NoOpenJPA.class, NoEclipselink.class})
+    public void testSubqueryConcurrentBatchedCorrelationNormalSize2() {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            CountingExecutor executor = new CountingExecutor(executorService);
+            testCorrelation(DocumentSimpleCorrelationViewSubqueryNormal.class, 2, executor);
+            assertTrue(executor.getExecutionCount() > 0);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    // NOTE: Requires values clause which currently is only available for Hibernate
+    @Category({ NoDatanucleus4.class, NoDatanucleus.class, NoOpenJPA.class, NoEclipselink.class})
+    public void testSubqueryConcurrentBatchedCorrelationIdSize2() {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            CountingExecutor executor = new CountingExecutor(executorService);
+            testCorrelation(DocumentSimpleCorrelationViewSubqueryId.class, 2, executor);
+            assertTrue(executor.getExecutionCount() > 0);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    // NOTE: Requires values clause which currently is only available for Hibernate
+    @Category({ NoDatanucleus4.class, NoDatanucleus.class, NoOpenJPA.class, NoEclipselink.class})
+    public void testSubqueryCachedBatchedCorrelationIdSize2() {
+        testCorrelation(DocumentSimpleCorrelationViewSubqueryId.class, 2, null, true);
+    }
+
     // TODO: test batch correlation expectation configuration
     // TODO: make explicit test for correlation key batching with view root usage maybe via nested subviews through collections?
 
@@ -20,6 +20,7 @@ import com.blazebit.persistence.spi.PackageOpener;
 import com.blazebit.persistence.testsuite.entity.Person;
 import com.blazebit.persistence.view.impl.metamodel.ManagedViewTypeImplementor;
 import com.blazebit.persistence.view.impl.metamodel.MappingConstructorImpl;
+import com.blazebit.persistence.view.impl.proxy.ConstructorReflectionInstantiator;
 import com.blazebit.persistence.view.impl.proxy.ObjectInstantiator;
 import com.blazebit.persistence.view.impl.proxy.ProxyFactory;
 import com.blazebit.persistence.view.impl.proxy.TupleConstructorReflectionInstantiator;
@@ -135,6 +136,35 @@ public class ProxyFactoryTest extends AbstractEntityViewTest {
         assertTrue(expectedId == instance.getId());
     }
 
+    @Test
+    public void testGeneratedConstructorInstantiator() throws Exception {
+        ViewType<DocumentInterfaceView> viewType = getViewMetamodel().view(DocumentInterfaceView.class);
+        Class<? extends DocumentInterfaceView> proxyClass = proxyFactory.getProxy(evm, (ManagedViewTypeImplementor<DocumentInterfaceView>) viewType);
+
+        // The parameter order is _id, contacts, firstContactPerson, id, name
+        Constructor<? extends DocumentInterfaceView> constructor = proxyClass.getConstructor(Long.class, Map.class,
+                                                                                             Person.class, Person.class, String.class);
+        ObjectInstantiator<? extends DocumentInterfaceView> instantiator = proxyFactory.getConstructorInstantiator(constructor);
+        assertFalse(instantiator instanceof ConstructorReflectionInstantiator<?>);
+        assertSame(instantiator, proxyFactory.getConstructorInstantiator(constructor));
+
+        Map<Integer, Person> expectedContacts = new HashMap<Integer, Person>();
+        Person expectedFirstContactPerson = new Person("pers");
+        Long expectedId = 1L;
+        Person expectedMyContactPerson = new Person("my-pers");
+        String expectedName = "doc";
+
+        DocumentInterfaceView instance = instantiator.newInstance(new Object[] {expectedId, expectedContacts, expectedFirstContactPerson,
+                expectedMyContactPerson, expectedName});
+
+        assertTrue(proxyClass == instance.getClass());
+        assertTrue(expectedContacts == instance.getContacts());
+        assertTrue(expectedFirstContactPerson == instance.getFirstContactPerson());
+        assertTrue(expectedId == instance.getId());
+        assertTrue(expectedMyContactPerson == instance.getMyContactPerson());
+        assertTrue(expectedName == instance.getName());
+    }
+
     @Test
     public void testClassProxy() throws Exception {
         ViewType<DocumentClassView> viewType = getViewMetamodel().view(DocumentClassView.class);
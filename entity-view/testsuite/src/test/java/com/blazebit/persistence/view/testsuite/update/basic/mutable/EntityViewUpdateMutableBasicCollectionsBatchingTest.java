@@ -0,0 +1,124 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.testsuite.update.basic.mutable;
+
+import com.blazebit.persistence.testsuite.base.jpa.assertion.AssertStatementBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.view.ConfigurationProperties;
+import com.blazebit.persistence.view.FlushMode;
+import com.blazebit.persistence.view.FlushStrategy;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import com.blazebit.persistence.view.testsuite.update.basic.AbstractEntityViewUpdateBasicCollectionsTest;
+import com.blazebit.persistence.view.testsuite.update.basic.mutable.model.UpdatableDocumentBasicWithCollectionsView;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+@RunWith(Parameterized.class)
+// NOTE: No Datanucleus support yet
+@Category({ NoDatanucleus.class, NoEclipselink.class})
+public class EntityViewUpdateMutableBasicCollectionsBatchingTest extends AbstractEntityViewUpdateBasicCollectionsTest<UpdatableDocumentBasicWithCollectionsView> {
+
+    public EntityViewUpdateMutableBasicCollectionsBatchingTest(FlushMode mode, FlushStrategy strategy, boolean version) {
+        super(mode, strategy, version, UpdatableDocumentBasicWithCollectionsView.class);
+    }
+
+    @Parameterized.Parameters(name = "{0} - {1} - VERSIONED={2}")
+    public static Object[][] combinations() {
+        return MODE_STRATEGY_VERSION_COMBINATIONS;
+    }
+
+    @Override
+    protected void registerViewTypes(EntityViewConfiguration cfg) {
+        cfg.setProperty(ConfigurationProperties.UPDATER_JDBC_BATCH_SIZE, "2");
+    }
+
+    @Test
+    public void testUpdateAddMultipleToCollection() {
+        // Given
+        final UpdatableDocumentBasicWithCollectionsView docView = getDoc1View();
+        clearQueries();
+
+        // When
+        docView.getStrings().addAll(Arrays.asList("a", "b", "c"));
+        update(docView);
+
+        // Then
+        if (isQueryStrategy()) {
+            assertBatchExecuted(2);
+        }
+        restartTransactionAndReload();
+        assertEquals(Arrays.asList("asd", "a", "b", "c"), doc1.getStrings());
+        assertEquals(doc1.getStrings(), docView.getStrings());
+    }
+
+    @Test
+    public void testUpdateInsertMultipleIntoCollection() {
+        // Given
+        final UpdatableDocumentBasicWithCollectionsView docView = getDoc1View();
+        docView.getStrings().addAll(Arrays.asList("a", "b"));
+        update(docView);
+        clearQueries();
+
+        // When
+        docView.getStrings().add(0, "first");
+        docView.getStrings().add(2, "second");
+        docView.getStrings().set(4, "replaced");
+        update(docView);
+
+        // Then
+        if (isQueryStrategy()) {
+            assertBatchExecuted(2);
+        }
+        restartTransactionAndReload();
+        assertEquals(Arrays.asList("first", "asd", "second", "a", "replaced"), doc1.getStrings());
+        assertEquals(doc1.getStrings(), docView.getStrings());
+    }
+
+    @Override
+    protected AssertStatementBuilder fullFetch(AssertStatementBuilder builder) {
+        return builder.assertSelect()
+                .fetching(Document.class)
+                .fetching(Document.class, "strings")
+                .and();
+    }
+
+    @Override
+    protected AssertStatementBuilder fullUpdate(AssertStatementBuilder builder) {
+        // The inserts of all elements are done in a single JDBC batch
+        return builder.delete(Document.class, "strings")
+                .insert(Document.class, "strings")
+                .update(Document.class);
+    }
+
+    @Override
+    protected AssertStatementBuilder versionUpdate(AssertStatementBuilder builder) {
+        return builder.update(Document.class);
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.testsuite.update.basic.mutable;
+
+import com.blazebit.persistence.testsuite.base.jpa.assertion.AssertStatementBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.view.ConfigurationProperties;
+import com.blazebit.persistence.view.FlushMode;
+import com.blazebit.persistence.view.FlushStrategy;
+import com.blazebit.persistence.view.change.SingularChangeModel;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import com.blazebit.persistence.view.testsuite.update.basic.AbstractEntityViewUpdateBasicTest;
+import com.blazebit.persistence.view.testsuite.update.basic.mutable.model.UpdatableDocumentBasicSerializableView;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.lang.reflect.Modifier;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+@RunWith(Parameterized.class)
+// NOTE: No Datanucleus support yet
+@Category({ NoDatanucleus.class, NoEclipselink.class})
+public class EntityViewUpdateMutableBasicCompactSerializationTest extends AbstractEntityViewUpdateBasicTest<UpdatableDocumentBasicSerializableView> {
+
+    public EntityViewUpdateMutableBasicCompactSerializationTest(FlushMode mode, FlushStrategy strategy, boolean version) {
+        super(mode, strategy, version, UpdatableDocumentBasicSerializableView.class);
+    }
+
+    @Parameterized.Parameters(name = "{0} - {1} - VERSIONED={2}")
+    public static Object[][] combinations() {
+        return MODE_STRATEGY_VERSION_COMBINATIONS;
+    }
+
+    @Override
+    protected void registerViewTypes(EntityViewConfiguration cfg) {
+        cfg.setProperty(ConfigurationProperties.PROXY_COMPACT_SERIALIZATION, "true");
+    }
+
+    @Test
+    public void testNoDefaultSerializedFields() {
+        // Given & When
+        final UpdatableDocumentBasicSerializableView docView = getDoc1View();
+
+        // Then
+        assertEquals(0, ObjectStreamClass.lookup(docView.getClass()).getFields().length);
+    }
+
+    @Test
+    public void testProxyFieldsStayFinal() throws Exception {
+        // Given & When
+        final UpdatableDocumentBasicSerializableView docView = getDoc1View();
+
+        // Then
+        assertTrue(Modifier.isFinal(docView.getClass().getDeclaredField("$$_mutableState").getModifiers()));
+        assertTrue(Modifier.isFinal(docView.getClass().getDeclaredField("$$_initialState").getModifiers()));
+        assertTrue(Modifier.isFinal(docView.getClass().getDeclaredField("$$_initialized").getModifiers()));
+    }
+
+    @Test
+    public void testRoundTripUnchanged() throws Exception {
+        // Given
+        final UpdatableDocumentBasicSerializableView docView = getDoc1View();
+
+        // When
+        UpdatableDocumentBasicSerializableView copy = roundTrip(docView);
+
+        // Then
+        assertEquals(docView.getId(), copy.getId());
+        assertEquals(docView.getVersion(), copy.getVersion());
+        assertEquals("doc1", copy.getName());
+        assertEquals(new Date(EPOCH_2K), copy.getLastModified());
+        assertEquals(docView.getAge(), copy.getAge());
+        assertNull(copy.getSomeValue());
+        if (!isFullMode()) {
+            assertFalse(evm.getChangeModel(copy).isDirty());
+        }
+    }
+
+    @Test
+    public void testRoundTripRetainsDirtyState() throws Exception {
+        // Given
+        final UpdatableDocumentBasicSerializableView docView = getDoc1View();
+        docView.setName("newDoc");
+        docView.setAge(42L);
+        docView.setSomeValue(1.5D);
+
+        // When
+        UpdatableDocumentBasicSerializableView copy = roundTrip(docView);
+
+        // Then
+        assertEquals("newDoc", copy.getName());
+        assertEquals(42L, copy.getAge());
+        assertEquals(Double.valueOf(1.5D), copy.getSomeValue());
+        if (!isFullMode()) {
+            SingularChangeModel<UpdatableDocumentBasicSerializableView> changeModel = evm.getChangeModel(copy);
+            assertTrue(changeModel.isDirty());
+            assertTrue(changeModel.get("name").isDirty());
+            assertEquals("doc1", changeModel.get("name").getInitialState());
+            assertFalse(changeModel.get("lastModified").isDirty());
+        }
+        clearQueries();
+        update(copy);
+
+        // Then
+        restartTransactionAndReload();
+        assertEquals("newDoc", doc1.getName());
+        assertEquals(42L, doc1.getAge());
+        assertEquals(Double.valueOf(1.5D), doc1.getSomeValue());
+    }
+
+    private static <T> T roundTrip(T object) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.writeObject(object);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+            return (T) ois.readObject();
+        }
+    }
+
+    @Override
+    protected AssertStatementBuilder fullFetch(AssertStatementBuilder builder) {
+        return builder.assertSelect()
+                .fetching(Document.class)
+                .and();
+    }
+
+    @Override
+    protected AssertStatementBuilder fullUpdate(AssertStatementBuilder builder) {
+        return builder.assertUpdate()
+                .forEntity(Document.class)
+                .and();
+    }
+
+    @Override
+    protected AssertStatementBuilder versionUpdate(AssertStatementBuilder builder) {
+        return builder.update(Document.class);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.testsuite.update.basic.mutable;
+
+import com.blazebit.persistence.testsuite.base.jpa.assertion.AssertStatementBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.view.ConfigurationProperties;
+import com.blazebit.persistence.view.FlushMode;
+import com.blazebit.persistence.view.FlushStrategy;
+import com.blazebit.persistence.view.change.ChangeModel;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import com.blazebit.persistence.view.testsuite.update.basic.AbstractEntityViewUpdateBasicTest;
+import com.blazebit.persistence.view.testsuite.update.basic.mutable.model.UpdatableDocumentBasicView;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+@RunWith(Parameterized.class)
+// NOTE: No Datanucleus support yet
+@Category({ NoDatanucleus.class, NoEclipselink.class})
+public class EntityViewUpdateMutableBasicLazySnapshotTest extends AbstractEntityViewUpdateBasicTest<UpdatableDocumentBasicView> {
+
+    public EntityViewUpdateMutableBasicLazySnapshotTest(FlushMode mode, FlushStrategy strategy, boolean version) {
+        super(mode, strategy, version, UpdatableDocumentBasicView.class);
+    }
+
+    @Parameterized.Parameters(name = "{0} - {1} - VERSIONED={2}")
+    public static Object[][] combinations() {
+        return MODE_STRATEGY_VERSION_COMBINATIONS;
+    }
+
+    @Override
+    protected void registerViewTypes(EntityViewConfiguration cfg) {
+        cfg.setProperty(ConfigurationProperties.UPDATER_LAZY_INITIAL_STATE_SNAPSHOT, "true");
+    }
+
+    @Test
+    public void testLoadSharesInitialState() {
+        // Given & When
+        final UpdatableDocumentBasicView docView = getDoc1View();
+
+        // Then
+        if (!isFullMode()) {
+            ChangeModel<?> lastModifiedChange = evm.getChangeModel(docView).get("lastModified");
+            assertSame(docView.getLastModified(), lastModifiedChange.getInitialState());
+        }
+    }
+
+    @Test
+    public void testUpdateMutable() {
+        // Given
+        final UpdatableDocumentBasicView docView = getDoc1View();
+        Date initialLastModified = docView.getLastModified();
+        clearQueries();
+
+        // When
+        docView.setLastModified(new Date(0));
+        if (!isFullMode()) {
+            ChangeModel<?> lastModifiedChange = evm.getChangeModel(docView).get("lastModified");
+            assertSame(initialLastModified, lastModifiedChange.getInitialState());
+            assertEquals(new Date(EPOCH_2K), lastModifiedChange.getInitialState());
+        }
+        update(docView);
+
+        // Then
+        restartTransactionAndReload();
+        assertEquals(0, doc1.getLastModified().getTime());
+    }
+
+    @Test
+    public void testMutateAndSetMutable() {
+        // Given
+        final UpdatableDocumentBasicView docView = getDoc1View();
+        clearQueries();
+
+        // When
+        Date lastModified = docView.getLastModified();
+        lastModified.setTime(0);
+        docView.setLastModified(lastModified);
+        if (!isFullMode()) {
+            ChangeModel<?> lastModifiedChange = evm.getChangeModel(docView).get("lastModified");
+            assertNotSame(lastModified, lastModifiedChange.getInitialState());
+        }
+        update(docView);
+
+        // Then
+        restartTransactionAndReload();
+        assertEquals(0, doc1.getLastModified().getTime());
+    }
+
+    @Override
+    protected AssertStatementBuilder fullFetch(AssertStatementBuilder builder) {
+        return builder.assertSelect()
+                .fetching(Document.class)
+                .and();
+    }
+
+    @Override
+    protected AssertStatementBuilder fullUpdate(AssertStatementBuilder builder) {
+        return builder.assertUpdate()
+                .forEntity(Document.class)
+                .and();
+    }
+
+    @Override
+    protected AssertStatementBuilder versionUpdate(AssertStatementBuilder builder) {
+        return builder.update(Document.class);
+    }
+}
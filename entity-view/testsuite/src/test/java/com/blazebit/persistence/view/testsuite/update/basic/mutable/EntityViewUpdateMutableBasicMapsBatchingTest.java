@@ -0,0 +1,137 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.testsuite.update.basic.mutable;
+
+import com.blazebit.persistence.testsuite.base.jpa.assertion.AssertStatementBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.view.ConfigurationProperties;
+import com.blazebit.persistence.view.FlushMode;
+import com.blazebit.persistence.view.FlushStrategy;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import com.blazebit.persistence.view.testsuite.update.basic.AbstractEntityViewUpdateBasicMapsTest;
+import com.blazebit.persistence.view.testsuite.update.basic.mutable.model.UpdatableDocumentBasicWithMapsView;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+@RunWith(Parameterized.class)
+// NOTE: No Datanucleus support yet
+@Category({ NoDatanucleus.class, NoEclipselink.class})
+public class EntityViewUpdateMutableBasicMapsBatchingTest extends AbstractEntityViewUpdateBasicMapsTest<UpdatableDocumentBasicWithMapsView> {
+
+    public EntityViewUpdateMutableBasicMapsBatchingTest(FlushMode mode, FlushStrategy strategy, boolean version) {
+        super(mode, strategy, version, UpdatableDocumentBasicWithMapsView.class);
+    }
+
+    @Parameterized.Parameters(name = "{0} - {1} - VERSIONED={2}")
+    public static Object[][] combinations() {
+        return MODE_STRATEGY_VERSION_COMBINATIONS;
+    }
+
+    @Override
+    protected void registerViewTypes(EntityViewConfiguration cfg) {
+        cfg.setProperty(ConfigurationProperties.UPDATER_JDBC_BATCH_SIZE, "2");
+    }
+
+    @Test
+    public void testUpdatePutMultipleToMap() {
+        // Given
+        final UpdatableDocumentBasicWithMapsView docView = getDoc1View();
+        clearQueries();
+
+        // When
+        docView.getStringMap().put("a", "a");
+        docView.getStringMap().put("b", "b");
+        docView.getStringMap().put("c", "c");
+        update(docView);
+
+        // Then
+        if (isQueryStrategy()) {
+            assertBatchExecuted(2);
+        }
+        restartTransactionAndReload();
+        Map<String, String> expected = new HashMap<>();
+        expected.put("doc1", "doc1");
+        expected.put("a", "a");
+        expected.put("b", "b");
+        expected.put("c", "c");
+        assertEquals(expected, doc1.getStringMap());
+        assertEquals(doc1.getStringMap(), docView.getStringMap());
+    }
+
+    @Test
+    public void testUpdateReplaceMultipleInMap() {
+        // Given
+        final UpdatableDocumentBasicWithMapsView docView = getDoc1View();
+        docView.getStringMap().put("a", "a");
+        docView.getStringMap().put("b", "b");
+        update(docView);
+        clearQueries();
+
+        // When
+        docView.getStringMap().put("doc1", "replaced1");
+        docView.getStringMap().put("a", "replaced2");
+        docView.getStringMap().put("b", "replaced3");
+        update(docView);
+
+        // Then
+        if (isQueryStrategy()) {
+            assertBatchExecuted(2);
+        }
+        restartTransactionAndReload();
+        Map<String, String> expected = new HashMap<>();
+        expected.put("doc1", "replaced1");
+        expected.put("a", "replaced2");
+        expected.put("b", "replaced3");
+        assertEquals(expected, doc1.getStringMap());
+        assertEquals(doc1.getStringMap(), docView.getStringMap());
+    }
+
+    @Override
+    protected AssertStatementBuilder fullFetch(AssertStatementBuilder builder) {
+        return builder.assertSelect()
+                .fetching(Document.class)
+                .fetching(Document.class, "stringMap")
+                .and();
+    }
+
+    @Override
+    protected AssertStatementBuilder fullUpdate(AssertStatementBuilder builder) {
+        // The inserts of all elements are done in a single JDBC batch
+        return builder.delete(Document.class, "stringMap")
+                .insert(Document.class, "stringMap")
+                .update(Document.class);
+    }
+
+    @Override
+    protected AssertStatementBuilder versionUpdate(AssertStatementBuilder builder) {
+        return builder.update(Document.class);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.testsuite.update.basic.mutable;
+
+import com.blazebit.persistence.testsuite.base.jpa.assertion.AssertStatementBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import com.blazebit.persistence.view.ConfigurationProperties;
+import com.blazebit.persistence.view.FlushMode;
+import com.blazebit.persistence.view.FlushStrategy;
+import com.blazebit.persistence.view.OptimisticLockException;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import com.blazebit.persistence.view.testsuite.update.AbstractEntityViewUpdateDocumentTest;
+import com.blazebit.persistence.view.testsuite.update.basic.mutable.model.UpdatableDocumentBasicView;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+@RunWith(Parameterized.class)
+// NOTE: No Datanucleus support yet
+@Category({ NoDatanucleus.class, NoEclipselink.class})
+public class EntityViewUpdateMutableBasicSaveAllTest extends AbstractEntityViewUpdateDocumentTest<UpdatableDocumentBasicView> {
+
+    public EntityViewUpdateMutableBasicSaveAllTest(FlushMode mode, FlushStrategy strategy, boolean version) {
+        super(mode, strategy, version, UpdatableDocumentBasicView.class);
+    }
+
+    @Parameterized.Parameters(name = "{0} - {1} - VERSIONED={2}")
+    public static Object[][] combinations() {
+        return MODE_STRATEGY_VERSION_COMBINATIONS;
+    }
+
+    @Override
+    protected void registerViewTypes(EntityViewConfiguration cfg) {
+        cfg.setProperty(ConfigurationProperties.UPDATER_JDBC_BATCH_SIZE, "2");
+    }
+
+    @Test
+    public void testSaveAll() {
+        // Given
+        final UpdatableDocumentBasicView doc1View = getDoc1View();
+        final UpdatableDocumentBasicView doc2View = getDoc2View();
+        clearQueries();
+
+        // When
+        doc1View.setName("newDoc1");
+        doc2View.setName("newDoc2");
+        saveAll(Arrays.asList(doc1View, doc2View));
+
+        // Then
+        if (isQueryStrategy()) {
+            // The update statements of both views are executed in a single JDBC batch
+            assertUnorderedQuerySequence()
+                    .update(Document.class)
+                    .validate();
+        }
+        restartTransactionAndReload();
+        assertEquals("newDoc1", doc1.getName());
+        assertEquals("newDoc2", doc2.getName());
+        assertEquals(doc1.getVersion(), doc1View.getVersion());
+        assertEquals(doc2.getVersion(), doc2View.getVersion());
+    }
+
+    @Test
+    public void testSaveAllDetectsConcurrentModification() {
+        Assume.assumeTrue(isQueryStrategy() && version);
+        // Given
+        final UpdatableDocumentBasicView doc1View = getDoc1View();
+        final UpdatableDocumentBasicView doc2View = getDoc2View();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                em.createQuery("UPDATE Document d SET d.version = d.version + 1 WHERE d.id = :id")
+                        .setParameter("id", doc2.getId())
+                        .executeUpdate();
+            }
+        });
+
+        // When
+        doc1View.setName("newDoc1");
+        doc2View.setName("newDoc2");
+        try {
+            saveAll(Arrays.asList(doc1View, doc2View));
+            fail("Expected optimistic lock exception");
+        } catch (OptimisticLockException ex) {
+            assertEquals(doc2View, ex.getEntityView());
+        }
+
+        // Then
+        restartTransactionAndReload();
+        assertEquals("doc1", doc1.getName());
+        assertEquals("doc2", doc2.getName());
+    }
+
+    private void saveAll(final List<UpdatableDocumentBasicView> views) {
+        transactional(new TxVoidWork() {
+
+            @Override
+            public void work(EntityManager em) {
+                evm.saveAll(em, views);
+                em.flush();
+            }
+        });
+    }
+
+    @Override
+    protected AssertStatementBuilder fullFetch(AssertStatementBuilder builder) {
+        return builder.assertSelect()
+                .fetching(Document.class)
+                .and();
+    }
+
+    @Override
+    protected AssertStatementBuilder versionUpdate(AssertStatementBuilder builder) {
+        return builder.update(Document.class);
+    }
+}
@@ -24,9 +24,13 @@ import com.blazebit.persistence.view.FlushMode;
 import com.blazebit.persistence.view.FlushStrategy;
 import com.blazebit.persistence.view.change.ChangeModel;
 import com.blazebit.persistence.view.change.SingularChangeModel;
+import com.blazebit.persistence.view.impl.EntityViewManagerImpl;
+import com.blazebit.persistence.view.impl.metamodel.ManagedViewTypeImplementor;
+import com.blazebit.persistence.view.impl.update.EntityViewUpdaterImpl;
 import com.blazebit.persistence.view.spi.type.MutableStateTrackable;
 import com.blazebit.persistence.view.testsuite.update.basic.AbstractEntityViewUpdateBasicTest;
 import com.blazebit.persistence.view.testsuite.update.basic.mutable.model.UpdatableDocumentBasicView;
+import org.junit.Assume;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
@@ -189,6 +193,27 @@ public class EntityViewUpdateMutableBasicTest extends AbstractEntityViewUpdateBa
         assertNoUpdateAndReload(docView);
     }
 
+    @Test
+    public void testPartialUpdateQueryStringIsReused() {
+        // Only partial flushes with the query strategy build a partial update query
+        Assume.assumeTrue(!isFullMode() && isQueryStrategy());
+        ManagedViewTypeImplementor<?> managedViewType = (ManagedViewTypeImplementor<?>) evm.getMetamodel().managedView(UpdatableDocumentBasicView.class);
+        EntityViewUpdaterImpl updater = ((EntityViewManagerImpl) evm).getUpdater(managedViewType, null, null, null);
+        final UpdatableDocumentBasicView docView = getDoc1View();
+
+        // When
+        docView.setName("newDoc");
+        update(docView);
+        long hitCount = updater.getPartialUpdateQueryStringHitCount();
+        docView.setName("newDoc2");
+        update(docView);
+
+        // Then
+        assertEquals(hitCount + 1, updater.getPartialUpdateQueryStringHitCount());
+        restartTransactionAndReload();
+        assertEquals("newDoc2", doc1.getName());
+    }
+
     @Override
     protected AssertStatementBuilder fullFetch(AssertStatementBuilder builder) {
         return builder.assertSelect()
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.testsuite.update.basic.mutable.model;
+
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.view.EntityView;
+import com.blazebit.persistence.view.UpdatableEntityView;
+import com.blazebit.persistence.view.UpdatableMapping;
+import com.blazebit.persistence.view.testsuite.update.basic.model.UpdatableDocumentBasicViewBase;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+@UpdatableEntityView
+@EntityView(Document.class)
+public interface UpdatableDocumentBasicSerializableView extends UpdatableDocumentBasicViewBase, Serializable {
+
+    @UpdatableMapping
+    public Date getLastModified();
+
+    public void setLastModified(Date date);
+
+    public long getAge();
+
+    public void setAge(long age);
+
+    public Double getSomeValue();
+
+    public void setSomeValue(Double someValue);
+
+}
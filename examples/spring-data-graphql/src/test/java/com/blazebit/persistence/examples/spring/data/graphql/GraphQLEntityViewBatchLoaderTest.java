@@ -0,0 +1,289 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.examples.spring.data.graphql;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.examples.spring.data.graphql.model.Cat;
+import com.blazebit.persistence.examples.spring.data.graphql.model.Person;
+import com.blazebit.persistence.examples.spring.data.graphql.repository.AbstractSampleTest;
+import com.blazebit.persistence.examples.spring.data.graphql.view.CatSimpleView;
+import com.blazebit.persistence.examples.spring.data.graphql.view.PersonIdView;
+import com.blazebit.persistence.examples.spring.data.graphql.view.PersonSimpleView;
+import com.blazebit.persistence.integration.graphql.GraphQLEntityViewBatchLoader;
+import com.blazebit.persistence.integration.graphql.GraphQLEntityViewSupport;
+import com.blazebit.persistence.integration.graphql.GraphQLEntityViewSupportFactory;
+import com.blazebit.persistence.integration.graphql.GraphQLRelayConnection;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViewSetting;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import graphql.schema.idl.TypeRuntimeWiring;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest
+@DirtiesContext
+public class GraphQLEntityViewBatchLoaderTest {
+
+    @Autowired
+    AbstractSampleTest.DataInitializer dataInitializer;
+    @Autowired
+    EntityViewManager evm;
+    @Autowired
+    CriteriaBuilderFactory cbf;
+    @Autowired
+    EntityManager em;
+
+    private Person person1;
+    private Person person2;
+    private Person person3;
+    private Cat cat1;
+    private Cat cat2;
+
+    @Before
+    public void init() {
+        dataInitializer.run(em -> {
+            person1 = new Person("Person 1");
+            person2 = new Person("Person 2");
+            person3 = new Person("Person 3");
+            em.persist(person1);
+            em.persist(person2);
+            em.persist(person3);
+            for (int i = 0; i < 5; i++) {
+                em.persist(new Cat("Cat 1." + i, i, person1));
+            }
+            for (int i = 0; i < 2; i++) {
+                em.persist(new Cat("Cat 2." + i, i, person2));
+            }
+            Cat kitten1 = new Cat("Kitten 1", 1, null);
+            Cat kitten2 = new Cat("Kitten 2", 1, null);
+            Cat kitten3 = new Cat("Kitten 3", 1, null);
+            em.persist(kitten1);
+            em.persist(kitten2);
+            em.persist(kitten3);
+            cat1 = new Cat("Mother 1", 5, null);
+            cat1.getKittens().addAll(Arrays.asList(kitten1, kitten2, kitten3));
+            cat2 = new Cat("Mother 2", 5, null);
+            cat2.getKittens().addAll(Arrays.asList(kitten2, kitten3));
+            em.persist(cat1);
+            em.persist(cat2);
+        });
+    }
+
+    @Test
+    public void testLoadAll() throws Exception {
+        GraphQLEntityViewBatchLoader<CatSimpleView> loader = new GraphQLEntityViewBatchLoader<>(evm, em, Person.class, "kittens", EntityViewSetting.create(CatSimpleView.class));
+        List<List<CatSimpleView>> result = loader.load(Arrays.<Object>asList(person2.getId(), person3.getId(), person1.getId())).toCompletableFuture().get();
+
+        assertEquals(3, result.size());
+        assertEquals(Arrays.asList("Cat 2.0", "Cat 2.1"), names(result.get(0)));
+        assertTrue(result.get(1).isEmpty());
+        assertEquals(Arrays.asList("Cat 1.0", "Cat 1.1", "Cat 1.2", "Cat 1.3", "Cat 1.4"), names(result.get(2)));
+    }
+
+    @Test
+    public void testLoadPaginatedOneToMany() throws Exception {
+        // One-to-many collections are paginated by ranking the elements in a subquery
+        GraphQLEntityViewBatchLoader<CatSimpleView> loader = new GraphQLEntityViewBatchLoader<>(evm, em, Person.class, "kittens", EntityViewSetting.create(CatSimpleView.class), 1, 2);
+        List<List<CatSimpleView>> result = loader.load(Arrays.<Object>asList(person1.getId(), person3.getId(), person2.getId())).toCompletableFuture().get();
+
+        assertEquals(3, result.size());
+        assertEquals(Arrays.asList("Cat 1.1", "Cat 1.2"), names(result.get(0)));
+        assertTrue(result.get(1).isEmpty());
+        assertEquals(Collections.singletonList("Cat 2.1"), names(result.get(2)));
+    }
+
+    @Test
+    public void testLoadPaginatedManyToMany() throws Exception {
+        // A kitten is shared by both cats, so the pagination must be applied per parent
+        GraphQLEntityViewBatchLoader<CatSimpleView> loader = new GraphQLEntityViewBatchLoader<>(evm, em, Cat.class, "kittens", EntityViewSetting.create(CatSimpleView.class), 1, 1);
+        List<List<CatSimpleView>> result = loader.load(Arrays.<Object>asList(cat1.getId(), cat2.getId())).toCompletableFuture().get();
+
+        assertEquals(2, result.size());
+        assertEquals(Collections.singletonList("Kitten 2"), names(result.get(0)));
+        assertEquals(Collections.singletonList("Kitten 3"), names(result.get(1)));
+    }
+
+    @Test
+    public void testCreateBatchLoader() {
+        TypeDefinitionRegistry typeRegistry = new SchemaParser().parse(
+                "type Query {\n" +
+                "    people: [PersonSimpleView]\n" +
+                "}\n" +
+                "extend type PersonSimpleView {\n" +
+                "    kittens(first: Int, offset: Int): [CatSimpleView]\n" +
+                "}");
+        GraphQLEntityViewSupportFactory graphQLEntityViewSupportFactory = new GraphQLEntityViewSupportFactory(true, true);
+        graphQLEntityViewSupportFactory.setImplementRelayNode(false);
+        graphQLEntityViewSupportFactory.setDefineRelayNodeIfNotExist(true);
+        GraphQLEntityViewSupport graphQLEntityViewSupport = graphQLEntityViewSupportFactory.create(typeRegistry, evm);
+        RuntimeWiring runtimeWiring = RuntimeWiring.newRuntimeWiring()
+                .type(TypeRuntimeWiring.newTypeWiring("Query")
+                        .dataFetcher("people", new DataFetcher() {
+                            @Override
+                            public Object get(DataFetchingEnvironment dataFetchingEnvironment) {
+                                CriteriaBuilder<Person> cb = cbf.create(em, Person.class)
+                                        .where("id").in(person1.getId(), person2.getId(), person3.getId())
+                                        .orderByAsc("id");
+                                return evm.applySetting(EntityViewSetting.create(PersonSimpleView.class), cb).getResultList();
+                            }
+                        })
+                )
+                .type(TypeRuntimeWiring.newTypeWiring("PersonSimpleView")
+                        .dataFetcher("kittens", new DataFetcher() {
+                            @Override
+                            public Object get(DataFetchingEnvironment dataFetchingEnvironment) {
+                                // Usually the loader is wrapped by a DataLoader that is shared by all parents of an execution level
+                                Object parentId = ((PersonIdView) dataFetchingEnvironment.getSource()).getId();
+                                GraphQLEntityViewBatchLoader<Object> loader = graphQLEntityViewSupport.createBatchLoader(dataFetchingEnvironment, evm, em, Person.class, "kittens");
+                                return loader.load(Collections.singletonList(parentId)).thenApply(lists -> lists.get(0));
+                            }
+                        })
+                )
+                .build();
+        GraphQL graphQL = GraphQL.newGraphQL(new SchemaGenerator().makeExecutableSchema(typeRegistry, runtimeWiring)).build();
+
+        ExecutionResult executionResult = graphQL.execute("query {\n" +
+                "  people {\n" +
+                "    name\n" +
+                "    kittens(first: 2, offset: 3) {\n" +
+                "      name\n" +
+                "    }\n" +
+                "  }\n" +
+                "}");
+
+        assertTrue(executionResult.getErrors().toString(), executionResult.getErrors().isEmpty());
+        Map<String, Object> data = executionResult.getData();
+        List<Map<String, Object>> people = (List<Map<String, Object>>) data.get("people");
+        assertEquals(3, people.size());
+        assertEquals(Arrays.asList("Cat 1.3", "Cat 1.4"), names(people.get(0)));
+        assertTrue(names(people.get(1)).isEmpty());
+        assertTrue(names(people.get(2)).isEmpty());
+    }
+
+    @Test
+    public void testCreateBatchLoaderForConnectionField() {
+        TypeDefinitionRegistry typeRegistry = new SchemaParser().parse(
+                "type Query {\n" +
+                "    people: [PersonSimpleView]\n" +
+                "}\n" +
+                "extend type PersonSimpleView {\n" +
+                "    kittens(first: Int, offset: Int): CatSimpleViewConnection\n" +
+                "}");
+        GraphQLEntityViewSupportFactory graphQLEntityViewSupportFactory = new GraphQLEntityViewSupportFactory(true, true);
+        graphQLEntityViewSupportFactory.setImplementRelayNode(false);
+        graphQLEntityViewSupportFactory.setDefineRelayNodeIfNotExist(true);
+        GraphQLEntityViewSupport graphQLEntityViewSupport = graphQLEntityViewSupportFactory.create(typeRegistry, evm);
+        RuntimeWiring runtimeWiring = RuntimeWiring.newRuntimeWiring()
+                .type(TypeRuntimeWiring.newTypeWiring("Query")
+                        .dataFetcher("people", new DataFetcher() {
+                            @Override
+                            public Object get(DataFetchingEnvironment dataFetchingEnvironment) {
+                                CriteriaBuilder<Person> cb = cbf.create(em, Person.class)
+                                        .where("id").in(person1.getId(), person2.getId())
+                                        .orderByAsc("id");
+                                return evm.applySetting(EntityViewSetting.create(PersonSimpleView.class), cb).getResultList();
+                            }
+                        })
+                )
+                .type(TypeRuntimeWiring.newTypeWiring("PersonSimpleView")
+                        .dataFetcher("kittens", new DataFetcher() {
+                            @Override
+                            public Object get(DataFetchingEnvironment dataFetchingEnvironment) {
+                                Object parentId = ((PersonIdView) dataFetchingEnvironment.getSource()).getId();
+                                GraphQLEntityViewBatchLoader<Object> loader = graphQLEntityViewSupport.createBatchLoader(dataFetchingEnvironment, evm, em, Person.class, "kittens");
+                                return loader.load(Collections.singletonList(parentId)).thenApply(lists -> new GraphQLRelayConnection<>(lists.get(0)));
+                            }
+                        })
+                )
+                .build();
+        GraphQL graphQL = GraphQL.newGraphQL(new SchemaGenerator().makeExecutableSchema(typeRegistry, runtimeWiring)).build();
+
+        ExecutionResult executionResult = graphQL.execute("query {\n" +
+                "  people {\n" +
+                "    name\n" +
+                "    kittens(first: 2, offset: 1) {\n" +
+                "      edges {\n" +
+                "        node {\n" +
+                "          name\n" +
+                "        }\n" +
+                "      }\n" +
+                "    }\n" +
+                "  }\n" +
+                "}");
+
+        assertTrue(executionResult.getErrors().toString(), executionResult.getErrors().isEmpty());
+        Map<String, Object> data = executionResult.getData();
+        List<Map<String, Object>> people = (List<Map<String, Object>>) data.get("people");
+        assertEquals(2, people.size());
+        assertEquals(Arrays.asList("Cat 1.1", "Cat 1.2"), nodeNames(people.get(0)));
+        assertEquals(Collections.singletonList("Cat 2.1"), nodeNames(people.get(1)));
+    }
+
+    private static List<String> names(List<CatSimpleView> views) {
+        List<String> names = new ArrayList<>(views.size());
+        for (CatSimpleView view : views) {
+            names.add(view.getName());
+        }
+        return names;
+    }
+
+    private static List<String> names(Map<String, Object> person) {
+        List<Map<String, Object>> kittens = (List<Map<String, Object>>) person.get("kittens");
+        List<String> names = new ArrayList<>(kittens.size());
+        for (Map<String, Object> kitten : kittens) {
+            names.add((String) kitten.get("name"));
+        }
+        return names;
+    }
+
+    private static List<String> nodeNames(Map<String, Object> person) {
+        List<Map<String, Object>> edges = (List<Map<String, Object>>) ((Map<String, Object>) person.get("kittens")).get("edges");
+        List<String> names = new ArrayList<>(edges.size());
+        for (Map<String, Object> edge : edges) {
+            names.add((String) ((Map<String, Object>) edge.get("node")).get("name"));
+        }
+        return names;
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.blazebit.persistence.integration.datanucleus;
 
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.JoinType;
 import com.blazebit.persistence.spi.JoinTable;
 import com.blazebit.persistence.spi.JpaMetamodelAccessor;
@@ -407,6 +408,12 @@ public class DataNucleus51JpaProvider implements JpaProvider {
         return false;
     }
 
+    @Override
+    public boolean isConvertedBasicAttribute(EntityType<?> ownerType, String attributeName) {
+        // We don't inspect the type handling of the provider, so we have to be conservative
+        return true;
+    }
+
     @Override
     public boolean isOrphanRemoval(ManagedType<?> ownerType, String attributeName) {
         AttributeImpl<?, ?> attribute = getAttribute(ownerType, attributeName);
@@ -520,6 +527,17 @@ public class DataNucleus51JpaProvider implements JpaProvider {
         query.setHint("datanucleus.query.results.cached", true);
     }
 
+    @Override
+    public CloseableIterator<Object> getResultIterator(EntityManager em, Query query) {
+        return null;
+    }
+
+    @Override
+    public boolean hasPendingChanges(EntityManager em) {
+        // We can't tell if changes were flushed, so we have to assume that an active transaction did changes
+        return em.unwrap(ExecutionContext.class).getTransaction().isActive();
+    }
+
     @Override
     public List<String> getIdentifierOrUniqueKeyEmbeddedPropertyNames(EntityType<?> ownerType, String attributeName) {
         AttributeImpl<?, ?> attribute = getAttribute(ownerType, attributeName);
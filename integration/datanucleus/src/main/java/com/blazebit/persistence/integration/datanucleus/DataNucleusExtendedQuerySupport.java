@@ -19,6 +19,7 @@ package com.blazebit.persistence.integration.datanucleus;
 import com.blazebit.apt.service.ServiceProvider;
 import com.blazebit.persistence.ReturningResult;
 import com.blazebit.persistence.spi.ExtendedQuerySupport;
+import com.blazebit.persistence.spi.ModificationBatch;
 import org.datanucleus.store.rdbms.query.JPQLQuery;
 import org.datanucleus.store.rdbms.query.RDBMSQueryCompilation;
 
@@ -99,6 +100,29 @@ public class DataNucleusExtendedQuerySupport implements ExtendedQuerySupport {
         return query.executeUpdate();
     }
 
+    @Override
+    public ModificationBatch createModificationBatch(com.blazebit.persistence.spi.ServiceProvider serviceProvider, List<Query> participatingQueries, Query baseQuery, Query query, String sqlOverride, boolean queryPlanCacheEnabled) {
+        return null;
+    }
+
+    @Override
+    public int[] executeBatch(EntityManager em, String sql, List<Object[]> batchParameters) {
+        // TODO: implement
+        throw new UnsupportedOperationException("Not yet implemeneted!");
+    }
+
+    @Override
+    public void createTemporaryTable(EntityManager em, String tableName, String creationSql) {
+        // TODO: implement
+        throw new UnsupportedOperationException("Not yet implemeneted!");
+    }
+
+    @Override
+    public boolean executeExists(EntityManager em, String sql, Object[] parameters) {
+        // TODO: implement
+        throw new UnsupportedOperationException("Not yet implemeneted!");
+    }
+
     @Override
     public ReturningResult<Object[]> executeReturning(com.blazebit.persistence.spi.ServiceProvider serviceProvider, List<Query> participatingQueries, Query modificationBaseQuery, Query exampleQuery, String sqlOverride, boolean queryPlanCacheEnabled) {
         // TODO: implement
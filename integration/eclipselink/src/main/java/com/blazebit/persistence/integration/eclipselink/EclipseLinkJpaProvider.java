@@ -16,6 +16,7 @@
 
 package com.blazebit.persistence.integration.eclipselink;
 
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.JoinType;
 import com.blazebit.persistence.integration.jpa.JpaMetamodelAccessorImpl;
 import com.blazebit.persistence.spi.JoinTable;
@@ -27,7 +28,9 @@ import org.eclipse.persistence.internal.helper.DatabaseField;
 import org.eclipse.persistence.internal.jpa.metamodel.AttributeImpl;
 import org.eclipse.persistence.internal.jpa.metamodel.ManagedTypeImpl;
 import org.eclipse.persistence.internal.jpa.metamodel.PluralAttributeImpl;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
 import org.eclipse.persistence.jpa.JpaEntityManager;
+import org.eclipse.persistence.mappings.AbstractDirectMapping;
 import org.eclipse.persistence.mappings.AggregateCollectionMapping;
 import org.eclipse.persistence.mappings.CollectionMapping;
 import org.eclipse.persistence.mappings.DatabaseMapping;
@@ -473,6 +476,16 @@ public class EclipseLinkJpaProvider implements JpaProvider {
         return false;
     }
 
+    @Override
+    public boolean isConvertedBasicAttribute(EntityType<?> ownerType, String attributeName) {
+        AttributeImpl<?, ?> attribute = getAttribute(ownerType, attributeName);
+        if (attribute == null) {
+            return true;
+        }
+        DatabaseMapping mapping = attribute.getMapping();
+        return !(mapping instanceof AbstractDirectMapping) || ((AbstractDirectMapping) mapping).getConverter() != null;
+    }
+
     @Override
     public boolean isOrphanRemoval(ManagedType<?> ownerType, String attributeName) {
         AttributeImpl<?, ?> attribute = getAttribute(ownerType, attributeName);
@@ -624,6 +637,22 @@ public class EclipseLinkJpaProvider implements JpaProvider {
         query.setHint("eclipselink.query-results-cache", true);
     }
 
+    @Override
+    public CloseableIterator<Object> getResultIterator(EntityManager em, Query query) {
+        return null;
+    }
+
+    @Override
+    public boolean hasPendingChanges(EntityManager em) {
+        org.eclipse.persistence.sessions.Session session = em.unwrap(JpaEntityManager.class).getActiveSession();
+        if (session instanceof UnitOfWorkImpl) {
+            UnitOfWorkImpl unitOfWork = (UnitOfWorkImpl) session;
+            // The unit of work begins the database transaction prematurely when changes are flushed
+            return unitOfWork.wasTransactionBegunPrematurely() || unitOfWork.hasChanges();
+        }
+        return false;
+    }
+
     @Override
     public List<String> getIdentifierOrUniqueKeyEmbeddedPropertyNames(EntityType<?> ownerType, String attributeName) {
         AttributeImpl<?, ?> attribute = getAttribute(ownerType, attributeName);
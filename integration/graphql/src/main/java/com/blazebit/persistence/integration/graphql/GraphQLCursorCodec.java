@@ -0,0 +1,484 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.integration.graphql;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Encodes and decodes {@link GraphQLCursor} objects to and from a compact, versioned binary format encoded as Base64.
+ *
+ * The format consists of a version byte, a flags byte, the offset, the page size and the tuple values.
+ * Every tuple value is written positionally with a type tag, so common types like numbers, strings, temporal types and UUIDs
+ * are decoded without reflection. Values of other types are embedded in Java serialized form and are subject to the
+ * whitelist of serializable basic types. If a secret is configured, an HMAC of the content is appended and verified on decoding.
+ *
+ * Cursors in the Java serialized format of previous versions are still accepted, unless a secret is configured.
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public class GraphQLCursorCodec {
+
+    /**
+     * The current version of the cursor format.
+     */
+    public static final byte VERSION = 1;
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int HMAC_LENGTH = 32;
+    private static final byte FLAG_HMAC = 1;
+    // The first byte of the Java serialization stream magic 0xACED
+    private static final byte JAVA_SERIALIZATION_MAGIC = (byte) 0xAC;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_BOOLEAN = 2;
+    private static final byte TAG_BYTE = 3;
+    private static final byte TAG_SHORT = 4;
+    private static final byte TAG_CHARACTER = 5;
+    private static final byte TAG_INTEGER = 6;
+    private static final byte TAG_LONG = 7;
+    private static final byte TAG_FLOAT = 8;
+    private static final byte TAG_DOUBLE = 9;
+    private static final byte TAG_BIG_INTEGER = 10;
+    private static final byte TAG_BIG_DECIMAL = 11;
+    private static final byte TAG_UUID = 12;
+    private static final byte TAG_DATE = 13;
+    private static final byte TAG_SQL_DATE = 14;
+    private static final byte TAG_SQL_TIME = 15;
+    private static final byte TAG_SQL_TIMESTAMP = 16;
+    private static final byte TAG_INSTANT = 17;
+    private static final byte TAG_LOCAL_DATE = 18;
+    private static final byte TAG_LOCAL_TIME = 19;
+    private static final byte TAG_LOCAL_DATE_TIME = 20;
+    private static final byte TAG_OFFSET_DATE_TIME = 21;
+    private static final byte TAG_BYTE_ARRAY = 22;
+    private static final byte TAG_SERIALIZED = 127;
+
+    private final Set<String> serializableBasicTypes;
+    private final Set<String> serializableValueTypes;
+    private final SecretKeySpec secretKey;
+
+    /**
+     * Creates a new cursor codec that doesn't sign cursors.
+     *
+     * @param serializableBasicTypes The whitelist of allowed serializable basic types to use for deserialization of values without type tag
+     */
+    public GraphQLCursorCodec(Set<String> serializableBasicTypes) {
+        this(serializableBasicTypes, null);
+    }
+
+    /**
+     * Creates a new cursor codec that signs cursors with an HMAC based on the given secret.
+     *
+     * @param serializableBasicTypes The whitelist of allowed serializable basic types to use for deserialization of values without type tag
+     * @param secret The secret for the HMAC or <code>null</code> if cursors should not be signed
+     */
+    public GraphQLCursorCodec(Set<String> serializableBasicTypes, byte[] secret) {
+        this.serializableBasicTypes = serializableBasicTypes == null ? Collections.<String>emptySet() : serializableBasicTypes;
+        // Arrays are not allowed for embedded values, as Java deserialization allocates arrays based on an untrusted length
+        Set<String> serializableValueTypes = new HashSet<>(this.serializableBasicTypes.size());
+        for (String typeName : this.serializableBasicTypes) {
+            if (!typeName.startsWith("[")) {
+                serializableValueTypes.add(typeName);
+            }
+        }
+        this.serializableValueTypes = serializableValueTypes;
+        this.secretKey = secret == null || secret.length == 0 ? null : new SecretKeySpec(secret, HMAC_ALGORITHM);
+    }
+
+    /**
+     * Encodes the given cursor components to a Base64 string.
+     *
+     * @param offset The offset
+     * @param pageSize The page size
+     * @param tuple The tuple
+     * @return the encoded cursor
+     */
+    public String encode(int offset, int pageSize, Serializable[] tuple) {
+        return Base64.getEncoder().encodeToString(encodeBytes(offset, pageSize, tuple));
+    }
+
+    /**
+     * Encodes the given cursor components to a byte array.
+     *
+     * @param offset The offset
+     * @param pageSize The page size
+     * @param tuple The tuple
+     * @return the encoded cursor
+     */
+    public byte[] encodeBytes(int offset, int pageSize, Serializable[] tuple) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(baos)) {
+            out.writeByte(VERSION);
+            out.writeByte(secretKey == null ? 0 : FLAG_HMAC);
+            writeVarInt(out, offset);
+            writeVarInt(out, pageSize);
+            if (tuple == null) {
+                writeVarInt(out, 0);
+            } else {
+                writeVarInt(out, tuple.length + 1);
+                for (int i = 0; i < tuple.length; i++) {
+                    writeValue(out, tuple[i]);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Couldn't write cursor", e);
+        }
+        if (secretKey == null) {
+            return baos.toByteArray();
+        }
+        byte[] content = baos.toByteArray();
+        byte[] hmac = hmac(content, content.length);
+        byte[] bytes = Arrays.copyOf(content, content.length + hmac.length);
+        System.arraycopy(hmac, 0, bytes, content.length, hmac.length);
+        return bytes;
+    }
+
+    /**
+     * Decodes the given Base64 encoded cursor.
+     *
+     * @param cursor The Base64 encoded cursor
+     * @return the decoded cursor
+     */
+    public GraphQLCursor decode(String cursor) {
+        return decode(Base64.getDecoder().decode(cursor));
+    }
+
+    /**
+     * Decodes the given cursor bytes.
+     *
+     * @param bytes The cursor bytes
+     * @return the decoded cursor
+     */
+    public GraphQLCursor decode(byte[] bytes) {
+        if (bytes.length == 0) {
+            throw new IllegalArgumentException("Empty cursor");
+        }
+        if (bytes[0] == JAVA_SERIALIZATION_MAGIC) {
+            if (secretKey != null) {
+                throw new IllegalArgumentException("Unsigned cursors are not allowed");
+            }
+            return decodeJavaSerialized(bytes);
+        }
+        if (bytes[0] != VERSION || bytes.length < 2) {
+            throw new IllegalArgumentException("Unsupported cursor version: " + bytes[0]);
+        }
+
+        int contentLength = bytes.length;
+        if ((bytes[1] & FLAG_HMAC) != 0) {
+            if (secretKey == null) {
+                throw new IllegalArgumentException("Can't verify signed cursor without a secret");
+            }
+            contentLength -= HMAC_LENGTH;
+            if (contentLength < 2 || !MessageDigest.isEqual(hmac(bytes, contentLength), Arrays.copyOfRange(bytes, contentLength, bytes.length))) {
+                throw new IllegalArgumentException("Invalid cursor signature");
+            }
+        } else if (secretKey != null) {
+            throw new IllegalArgumentException("Unsigned cursors are not allowed");
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 2, contentLength - 2))) {
+            int offset = readVarInt(in);
+            int pageSize = readVarInt(in);
+            int tupleLength = readVarInt(in) - 1;
+            // Every value needs at least a type tag byte
+            if (tupleLength > in.available()) {
+                throw new IllegalArgumentException("Invalid cursor tuple length: " + tupleLength);
+            }
+            Serializable[] tuple;
+            if (tupleLength < 0) {
+                tuple = null;
+            } else {
+                tuple = new Serializable[tupleLength];
+                for (int i = 0; i < tupleLength; i++) {
+                    tuple[i] = readValue(in);
+                }
+            }
+            return new GraphQLCursor(offset, pageSize, tuple);
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalArgumentException("Couldn't read cursor", e);
+        }
+    }
+
+    private GraphQLCursor decodeJavaSerialized(byte[] bytes) {
+        try (ObjectInputStream ois = new GraphQLCursorObjectInputStream(new ByteArrayInputStream(bytes), serializableBasicTypes)) {
+            int offset = ois.read();
+            int pageSize = ois.read();
+            Serializable[] tuple = (Serializable[]) ois.readObject();
+            return new GraphQLCursor(offset, pageSize, tuple);
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalArgumentException("Couldn't read cursor", e);
+        }
+    }
+
+    private byte[] hmac(byte[] bytes, int length) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(secretKey);
+            mac.update(bytes, 0, length);
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Couldn't compute the cursor signature", e);
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Serializable value) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+            return;
+        }
+        // We compare the exact classes as subclasses could carry additional state
+        Class<?> valueClass = value.getClass();
+        if (valueClass == String.class) {
+            out.writeByte(TAG_STRING);
+            writeBytes(out, ((String) value).getBytes(StandardCharsets.UTF_8));
+        } else if (valueClass == byte[].class) {
+            out.writeByte(TAG_BYTE_ARRAY);
+            writeBytes(out, (byte[]) value);
+        } else if (valueClass == Long.class) {
+            out.writeByte(TAG_LONG);
+            writeVarLong(out, zigZag((Long) value));
+        } else if (valueClass == Integer.class) {
+            out.writeByte(TAG_INTEGER);
+            writeVarLong(out, zigZag((Integer) value));
+        } else if (valueClass == Short.class) {
+            out.writeByte(TAG_SHORT);
+            out.writeShort((Short) value);
+        } else if (valueClass == Byte.class) {
+            out.writeByte(TAG_BYTE);
+            out.writeByte((Byte) value);
+        } else if (valueClass == Boolean.class) {
+            out.writeByte(TAG_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (valueClass == Character.class) {
+            out.writeByte(TAG_CHARACTER);
+            out.writeChar((Character) value);
+        } else if (valueClass == Double.class) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (valueClass == Float.class) {
+            out.writeByte(TAG_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (valueClass == BigInteger.class) {
+            out.writeByte(TAG_BIG_INTEGER);
+            writeBytes(out, ((BigInteger) value).toByteArray());
+        } else if (valueClass == BigDecimal.class) {
+            BigDecimal bigDecimal = (BigDecimal) value;
+            out.writeByte(TAG_BIG_DECIMAL);
+            writeVarLong(out, zigZag(bigDecimal.scale()));
+            writeBytes(out, bigDecimal.unscaledValue().toByteArray());
+        } else if (valueClass == UUID.class) {
+            UUID uuid = (UUID) value;
+            out.writeByte(TAG_UUID);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else if (valueClass == Date.class) {
+            out.writeByte(TAG_DATE);
+            out.writeLong(((Date) value).getTime());
+        } else if (valueClass == java.sql.Date.class) {
+            out.writeByte(TAG_SQL_DATE);
+            out.writeLong(((Date) value).getTime());
+        } else if (valueClass == java.sql.Time.class) {
+            out.writeByte(TAG_SQL_TIME);
+            out.writeLong(((Date) value).getTime());
+        } else if (valueClass == java.sql.Timestamp.class) {
+            java.sql.Timestamp timestamp = (java.sql.Timestamp) value;
+            out.writeByte(TAG_SQL_TIMESTAMP);
+            out.writeLong(timestamp.getTime());
+            out.writeInt(timestamp.getNanos());
+        } else if (valueClass == Instant.class) {
+            Instant instant = (Instant) value;
+            out.writeByte(TAG_INSTANT);
+            out.writeLong(instant.getEpochSecond());
+            out.writeInt(instant.getNano());
+        } else if (valueClass == LocalDate.class) {
+            out.writeByte(TAG_LOCAL_DATE);
+            writeVarLong(out, zigZag(((LocalDate) value).toEpochDay()));
+        } else if (valueClass == LocalTime.class) {
+            out.writeByte(TAG_LOCAL_TIME);
+            out.writeLong(((LocalTime) value).toNanoOfDay());
+        } else if (valueClass == LocalDateTime.class) {
+            LocalDateTime localDateTime = (LocalDateTime) value;
+            out.writeByte(TAG_LOCAL_DATE_TIME);
+            writeVarLong(out, zigZag(localDateTime.toLocalDate().toEpochDay()));
+            out.writeLong(localDateTime.toLocalTime().toNanoOfDay());
+        } else if (valueClass == OffsetDateTime.class) {
+            OffsetDateTime offsetDateTime = (OffsetDateTime) value;
+            out.writeByte(TAG_OFFSET_DATE_TIME);
+            writeVarLong(out, zigZag(offsetDateTime.toLocalDate().toEpochDay()));
+            out.writeLong(offsetDateTime.toLocalTime().toNanoOfDay());
+            out.writeInt(offsetDateTime.getOffset().getTotalSeconds());
+        } else {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+                oos.writeObject(value);
+            }
+            out.writeByte(TAG_SERIALIZED);
+            writeBytes(out, baos.toByteArray());
+        }
+    }
+
+    private Serializable readValue(DataInputStream in) throws IOException, ClassNotFoundException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return new String(readBytes(in), StandardCharsets.UTF_8);
+            case TAG_BOOLEAN:
+                return in.readBoolean();
+            case TAG_BYTE:
+                return in.readByte();
+            case TAG_SHORT:
+                return in.readShort();
+            case TAG_CHARACTER:
+                return in.readChar();
+            case TAG_INTEGER:
+                return (int) unZigZag(readVarLong(in));
+            case TAG_LONG:
+                return unZigZag(readVarLong(in));
+            case TAG_FLOAT:
+                return in.readFloat();
+            case TAG_DOUBLE:
+                return in.readDouble();
+            case TAG_BIG_INTEGER:
+                return new BigInteger(readBytes(in));
+            case TAG_BIG_DECIMAL:
+                int scale = (int) unZigZag(readVarLong(in));
+                return new BigDecimal(new BigInteger(readBytes(in)), scale);
+            case TAG_UUID:
+                return new UUID(in.readLong(), in.readLong());
+            case TAG_DATE:
+                return new Date(in.readLong());
+            case TAG_SQL_DATE:
+                return new java.sql.Date(in.readLong());
+            case TAG_SQL_TIME:
+                return new java.sql.Time(in.readLong());
+            case TAG_SQL_TIMESTAMP:
+                java.sql.Timestamp timestamp = new java.sql.Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                return timestamp;
+            case TAG_INSTANT:
+                return Instant.ofEpochSecond(in.readLong(), in.readInt());
+            case TAG_LOCAL_DATE:
+                return LocalDate.ofEpochDay(unZigZag(readVarLong(in)));
+            case TAG_LOCAL_TIME:
+                return LocalTime.ofNanoOfDay(in.readLong());
+            case TAG_LOCAL_DATE_TIME:
+                LocalDate date = LocalDate.ofEpochDay(unZigZag(readVarLong(in)));
+                return LocalDateTime.of(date, LocalTime.ofNanoOfDay(in.readLong()));
+            case TAG_OFFSET_DATE_TIME:
+                LocalDate offsetDate = LocalDate.ofEpochDay(unZigZag(readVarLong(in)));
+                LocalTime offsetTime = LocalTime.ofNanoOfDay(in.readLong());
+                return OffsetDateTime.of(offsetDate, offsetTime, ZoneOffset.ofTotalSeconds(in.readInt()));
+            case TAG_BYTE_ARRAY:
+                return readBytes(in);
+            case TAG_SERIALIZED:
+                try (ObjectInputStream ois = new GraphQLCursorObjectInputStream(new ByteArrayInputStream(readBytes(in)), serializableValueTypes)) {
+                    return (Serializable) ois.readObject();
+                }
+            default:
+                throw new IllegalArgumentException("Unknown cursor value type tag: " + tag);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = readVarInt(in);
+        if (length < 0 || length > in.available()) {
+            throw new IllegalArgumentException("Invalid cursor value length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Illegal negative cursor integer: " + value);
+        }
+        writeVarLong(out, value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        long value = readVarLong(in);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid cursor integer: " + value);
+        }
+        return (int) value;
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid cursor variable length integer");
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,384 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.integration.graphql;
+import com.blazebit.annotation.AnnotationUtils;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.FullSelectCTECriteriaBuilder;
+import com.blazebit.persistence.parser.EntityMetamodel;
+import com.blazebit.persistence.parser.util.JpaMetamodelUtils;
+import com.blazebit.persistence.spi.DbmsDialect;
+import com.blazebit.persistence.spi.ExtendedAttribute;
+import com.blazebit.persistence.spi.ExtendedManagedType;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViewSetting;
+import com.blazebit.persistence.view.metamodel.MappingAttribute;
+import com.blazebit.persistence.view.metamodel.MethodAttribute;
+import com.blazebit.persistence.view.metamodel.ViewType;
+import org.dataloader.BatchLoader;
+
+import javax.persistence.EntityManager;
+import javax.persistence.OrderBy;
+import javax.persistence.Tuple;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.ListAttribute;
+import javax.persistence.metamodel.PluralAttribute;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A {@link BatchLoader} that loads the entity views of a collection attribute for a batch of parent entity ids,
+ * so that nested fields of non-root GraphQL types can be resolved with a constant number of queries per execution level
+ * instead of one query per parent object.
+ *
+ * The loader first runs a query that selects the parent and element ids of the collection attribute for all requested parents,
+ * ordered by parent id and the order of the collection i.e. the list index, the {@link OrderBy} clause or the element id.
+ * If the collection is paginated, the elements are ranked per parent with <code>ROW_NUMBER() OVER (PARTITION BY parent ...)</code>
+ * in a subquery in the FROM clause and only the elements of the requested page are selected.
+ * Since the subquery is typed by the element entity, this is only possible for one-to-many collections where an element belongs to at most one parent.
+ * For other collections or if the DBMS doesn't support window functions, the per-parent offset and page size are applied while reading the ids.
+ * Then it loads the entity views for the selected element ids with a single query and distributes them to the parents.
+ *
+ * The keys of the loader must be the ids of the parent entity type. The batch size can be bounded by the options of the
+ * {@link org.dataloader.DataLoader} that wraps this loader.
+ *
+ * @param <T> The entity view type of the collection elements
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public class GraphQLEntityViewBatchLoader<T> implements BatchLoader<Object, List<T>> {
+
+    private static final String PARENT_ALIAS = "parent";
+    private static final String ELEMENT_ALIAS = "element";
+    private static final String RANKED_ALIAS = "rankedElement";
+    private static final String RANKED_PARENT_ALIAS = "rankingParent";
+    private static final String RANKED_ELEMENT_ALIAS = "rankingElement";
+
+    private final EntityViewManager entityViewManager;
+    private final CriteriaBuilderFactory criteriaBuilderFactory;
+    private final EntityManager entityManager;
+    private final Class<?> parentEntityClass;
+    private final String collectionAttribute;
+    private final EntityViewSetting<T, CriteriaBuilder<T>> setting;
+    private final int firstResult;
+    private final int maxResults;
+    private final String parentIdAttribute;
+    private final String elementIdMapping;
+    private final Method elementIdGetter;
+    private final List<String> orderByExpressions;
+    private final List<Boolean> orderByAscending;
+    private final Class<?> elementEntityClass;
+    private final String elementEntityIdAttribute;
+    private final Set<String> elementEntityAttributePaths;
+
+    /**
+     * Creates a new batch loader that loads all elements of the collection attribute for the parents.
+     *
+     * @param entityViewManager The entity view manager
+     * @param entityManager The entity manager to use for querying
+     * @param parentEntityClass The entity class of the parent objects
+     * @param collectionAttribute The collection attribute path relative to the parent entity
+     * @param setting The entity view setting for the element entity views
+     */
+    public GraphQLEntityViewBatchLoader(EntityViewManager entityViewManager, EntityManager entityManager, Class<?> parentEntityClass, String collectionAttribute, EntityViewSetting<T, CriteriaBuilder<T>> setting) {
+        this(entityViewManager, entityManager, parentEntityClass, collectionAttribute, setting, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a new batch loader that loads the elements of the collection attribute for the parents paginated per parent.
+     *
+     * @param entityViewManager The entity view manager
+     * @param entityManager The entity manager to use for querying
+     * @param parentEntityClass The entity class of the parent objects
+     * @param collectionAttribute The collection attribute path relative to the parent entity
+     * @param setting The entity view setting for the element entity views
+     * @param firstResult The offset of the first element per parent
+     * @param maxResults The maximum number of elements per parent
+     */
+    public GraphQLEntityViewBatchLoader(EntityViewManager entityViewManager, EntityManager entityManager, Class<?> parentEntityClass, String collectionAttribute, EntityViewSetting<T, CriteriaBuilder<T>> setting, int firstResult, int maxResults) {
+        if (setting.isPaginated()) {
+            throw new IllegalArgumentException("The entity view setting for a batch loader must not be paginated. Pass the first result and max results to the batch loader instead!");
+        }
+        if (firstResult < 0) {
+            throw new IllegalArgumentException("Illegal negative first result: " + firstResult);
+        }
+        if (maxResults < 0) {
+            throw new IllegalArgumentException("Illegal negative max results: " + maxResults);
+        }
+        ViewType<T> viewType = entityViewManager.getMetamodel().view(setting.getEntityViewClass());
+        if (viewType == null) {
+            throw new IllegalArgumentException("The entity view class doesn't refer to a view type with an id attribute: " + setting.getEntityViewClass().getName());
+        }
+        MethodAttribute<? super T, ?> idAttribute = viewType.getIdAttribute();
+        if (!(idAttribute instanceof MappingAttribute<?, ?>)) {
+            throw new IllegalArgumentException("The id attribute of the entity view class must be a mapping attribute: " + setting.getEntityViewClass().getName());
+        }
+        CriteriaBuilderFactory criteriaBuilderFactory = entityViewManager.getService(CriteriaBuilderFactory.class);
+        EntityMetamodel metamodel = criteriaBuilderFactory.getService(EntityMetamodel.class);
+        ExtendedAttribute<?, ?> attribute = metamodel.getManagedType(ExtendedManagedType.class, parentEntityClass).getAttribute(collectionAttribute);
+        if (!(attribute.getAttribute() instanceof PluralAttribute<?, ?, ?>)) {
+            throw new IllegalArgumentException("The attribute '" + collectionAttribute + "' of the entity class " + parentEntityClass.getName() + " is not a collection!");
+        }
+        EntityType<?> elementType = metamodel.getEntity(attribute.getElementClass());
+        if (elementType == null) {
+            throw new IllegalArgumentException("The elements of the collection attribute '" + collectionAttribute + "' of the entity class " + parentEntityClass.getName() + " are not entities!");
+        }
+        this.entityViewManager = entityViewManager;
+        this.criteriaBuilderFactory = criteriaBuilderFactory;
+        this.entityManager = entityManager;
+        this.parentEntityClass = parentEntityClass;
+        this.collectionAttribute = collectionAttribute;
+        this.setting = setting;
+        this.firstResult = firstResult;
+        this.maxResults = maxResults;
+        this.parentIdAttribute = JpaMetamodelUtils.getSingleIdAttribute(entityManager.getMetamodel().entity(parentEntityClass)).getName();
+        this.elementIdMapping = ((MappingAttribute<?, ?>) idAttribute).getMapping();
+        this.elementIdGetter = idAttribute.getJavaMethod();
+        this.elementIdGetter.setAccessible(true);
+        this.orderByExpressions = new ArrayList<>();
+        this.orderByAscending = new ArrayList<>();
+        initOrderBy(attribute);
+
+        if (isRankable(attribute, elementType, criteriaBuilderFactory.getService(DbmsDialect.class))) {
+            this.elementEntityClass = elementType.getJavaType();
+            this.elementEntityIdAttribute = JpaMetamodelUtils.getSingleIdAttribute(elementType).getName();
+            this.elementEntityAttributePaths = getLeafAttributePaths(metamodel.getManagedType(ExtendedManagedType.class, elementEntityClass).getOwnedSingularAttributes().keySet());
+        } else {
+            this.elementEntityClass = null;
+            this.elementEntityIdAttribute = null;
+            this.elementEntityAttributePaths = null;
+        }
+    }
+
+    private boolean isRankable(ExtendedAttribute<?, ?> attribute, EntityType<?> elementType, DbmsDialect dbmsDialect) {
+        if (firstResult == 0 && maxResults == Integer.MAX_VALUE || !dbmsDialect.supportsWindowFunctions() || !elementType.hasSingleIdAttribute()) {
+            return false;
+        }
+        // Only if an element can be reached through a single parent, the ranked elements can be matched with the parent again
+        List<Attribute<?, ?>> attributePath = attribute.getAttributePath();
+        for (int i = 0; i < attributePath.size() - 1; i++) {
+            if (attributePath.get(i).getPersistentAttributeType() != Attribute.PersistentAttributeType.EMBEDDED) {
+                return false;
+            }
+        }
+        return attribute.getAttribute().getPersistentAttributeType() == Attribute.PersistentAttributeType.ONE_TO_MANY;
+    }
+
+    private void initOrderBy(ExtendedAttribute<?, ?> extendedAttribute) {
+        Attribute<?, ?> attribute = extendedAttribute.getAttribute();
+        if (attribute instanceof ListAttribute<?, ?> && !extendedAttribute.isBag()) {
+            // A null expression represents the list index
+            orderByExpressions.add(null);
+            orderByAscending.add(true);
+            return;
+        }
+        Member member = attribute.getJavaMember();
+        OrderBy orderBy;
+        if (member instanceof Field) {
+            orderBy = ((Field) member).getAnnotation(OrderBy.class);
+        } else if (member instanceof Method) {
+            orderBy = AnnotationUtils.findAnnotation((Method) member, OrderBy.class);
+        } else {
+            orderBy = null;
+        }
+        if (orderBy != null && !orderBy.value().trim().isEmpty()) {
+            for (String item : orderBy.value().split(",")) {
+                String[] parts = item.trim().split("\\s+");
+                orderByExpressions.add(parts[0]);
+                orderByAscending.add(parts.length < 2 || !"DESC".equalsIgnoreCase(parts[1]));
+            }
+        }
+        // An empty order by or no order at all orders by the id which is also needed to make the order deterministic
+        orderByExpressions.add(elementIdMapping);
+        orderByAscending.add(true);
+    }
+
+    private static Set<String> getLeafAttributePaths(Set<String> attributePaths) {
+        // Like for entity subqueries, embeddables and associations are bound through their leaf attributes
+        NavigableSet<String> sortedPaths = new TreeSet<>(attributePaths);
+        Set<String> leafPaths = new LinkedHashSet<>(sortedPaths.size());
+        for (String path : sortedPaths) {
+            String higher = sortedPaths.higher(path);
+            if (higher == null || !higher.startsWith(path + ".")) {
+                leafPaths.add(path);
+            }
+        }
+        return leafPaths;
+    }
+
+    @Override
+    public CompletionStage<List<List<T>>> load(List<Object> parentIds) {
+        CompletableFuture<List<List<T>>> future = new CompletableFuture<>();
+        try {
+            future.complete(loadAll(parentIds));
+        } catch (RuntimeException ex) {
+            future.completeExceptionally(ex);
+        }
+        return future;
+    }
+
+    /**
+     * Loads the element entity views for the given parent ids.
+     *
+     * @param parentIds The parent ids
+     * @return the lists of element entity views in the order of the given parent ids
+     */
+    protected List<List<T>> loadAll(List<Object> parentIds) {
+        if (parentIds.isEmpty() || maxResults == 0) {
+            return emptyResults(parentIds.size());
+        }
+
+        String parentIdPath = PARENT_ALIAS + "." + parentIdAttribute;
+        String elementIdPath = ELEMENT_ALIAS + "." + elementIdMapping;
+        CriteriaBuilder<Tuple> idQuery = criteriaBuilderFactory.create(entityManager, Tuple.class)
+                .from(parentEntityClass, PARENT_ALIAS)
+                .innerJoin(PARENT_ALIAS + "." + collectionAttribute, ELEMENT_ALIAS)
+                .select(parentIdPath)
+                .select(elementIdPath)
+                .where(parentIdPath).in(parentIds);
+        boolean ranked = elementEntityClass != null;
+        if (ranked) {
+            applyRanking(idQuery, parentIds);
+        }
+        idQuery.orderByAsc(parentIdPath);
+        for (int i = 0; i < orderByExpressions.size(); i++) {
+            idQuery.orderBy(getOrderByExpression(ELEMENT_ALIAS, i), orderByAscending.get(i));
+        }
+
+        Map<Object, List<Object>> elementIdsByParentId = new HashMap<>(parentIds.size());
+        Set<Object> elementIds = new LinkedHashSet<>();
+        List<Object> currentElementIds = null;
+        Object currentParentId = null;
+        int position = 0;
+        for (Tuple tuple : idQuery.getResultList()) {
+            Object parentId = tuple.get(0);
+            if (!parentId.equals(currentParentId)) {
+                currentParentId = parentId;
+                currentElementIds = new ArrayList<>();
+                elementIdsByParentId.put(parentId, currentElementIds);
+                position = 0;
+            }
+            // Unless the query already selected the page, the position within the ordered rows of the parent decides about pagination
+            if (ranked || position >= firstResult && position - firstResult < maxResults) {
+                Object elementId = tuple.get(1);
+                currentElementIds.add(elementId);
+                elementIds.add(elementId);
+            }
+            position++;
+        }
+
+        if (elementIds.isEmpty()) {
+            return emptyResults(parentIds.size());
+        }
+
+        CriteriaBuilder<?> viewQuery = criteriaBuilderFactory.create(entityManager, entityViewManager.getMetamodel().view(setting.getEntityViewClass()).getEntityClass(), ELEMENT_ALIAS)
+                .where(elementIdPath).in(elementIds);
+        Map<Object, T> viewsById = new HashMap<>(elementIds.size());
+        for (T view : entityViewManager.applySetting(setting, viewQuery).getResultList()) {
+            viewsById.put(getElementId(view), view);
+        }
+
+        List<List<T>> results = new ArrayList<>(parentIds.size());
+        for (Object parentId : parentIds) {
+            List<Object> ids = elementIdsByParentId.get(parentId);
+            if (ids == null) {
+                results.add(Collections.<T>emptyList());
+            } else {
+                List<T> views = new ArrayList<>(ids.size());
+                for (Object id : ids) {
+                    T view = viewsById.get(id);
+                    if (view != null) {
+                        views.add(view);
+                    }
+                }
+                results.add(views);
+            }
+        }
+        return results;
+    }
+
+    private void applyRanking(CriteriaBuilder<Tuple> idQuery, List<Object> parentIds) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("CASE WHEN ROW_NUMBER() OVER (PARTITION BY ").append(RANKED_PARENT_ALIAS).append('.').append(parentIdAttribute).append(" ORDER BY ");
+        for (int i = 0; i < orderByExpressions.size(); i++) {
+            if (i != 0) {
+                sb.append(", ");
+            }
+            sb.append(getOrderByExpression(RANKED_ELEMENT_ALIAS, i)).append(orderByAscending.get(i) ? " ASC" : " DESC");
+        }
+        sb.append(')');
+        long lastPosition = (long) firstResult + maxResults;
+        if (lastPosition > Integer.MAX_VALUE) {
+            sb.append(" > ").append(firstResult);
+        } else {
+            sb.append(" BETWEEN ").append(firstResult + 1).append(" AND ").append(lastPosition);
+        }
+        sb.append(" THEN ").append(RANKED_ELEMENT_ALIAS).append('.').append(elementEntityIdAttribute).append(" END");
+
+        // The elements outside of the page get a NULL id in the derived table and thus don't match any element
+        FullSelectCTECriteriaBuilder<CriteriaBuilder<Tuple>> rankedBuilder = idQuery.fromSubquery(elementEntityClass, RANKED_ALIAS)
+                .from(parentEntityClass, RANKED_PARENT_ALIAS)
+                .innerJoin(RANKED_PARENT_ALIAS + "." + collectionAttribute, RANKED_ELEMENT_ALIAS)
+                .where(RANKED_PARENT_ALIAS + "." + parentIdAttribute).in(parentIds);
+        for (String attributePath : elementEntityAttributePaths) {
+            if (elementEntityIdAttribute.equals(attributePath)) {
+                rankedBuilder.bind(attributePath).select(sb.toString());
+            } else {
+                rankedBuilder.bind(attributePath).select(RANKED_ELEMENT_ALIAS + "." + attributePath);
+            }
+        }
+        rankedBuilder.end()
+                .where(RANKED_ALIAS + "." + elementEntityIdAttribute).eqExpression(ELEMENT_ALIAS + "." + elementEntityIdAttribute);
+    }
+
+    private String getOrderByExpression(String alias, int index) {
+        String expression = orderByExpressions.get(index);
+        if (expression == null) {
+            return "INDEX(" + alias + ")";
+        }
+        return alias + "." + expression;
+    }
+
+    private Object getElementId(T view) {
+        try {
+            return elementIdGetter.invoke(view);
+        } catch (Exception ex) {
+            throw new RuntimeException("Couldn't access the id of the entity view: " + view, ex);
+        }
+    }
+
+    private List<List<T>> emptyResults(int size) {
+        List<List<T>> results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            results.add(Collections.<T>emptyList());
+        }
+        return results;
+    }
+}
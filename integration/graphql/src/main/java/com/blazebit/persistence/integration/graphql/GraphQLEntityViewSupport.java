@@ -22,6 +22,7 @@ import com.blazebit.persistence.DefaultKeysetPage;
 import com.blazebit.persistence.KeysetPage;
 import com.blazebit.persistence.PaginatedCriteriaBuilder;
 import com.blazebit.persistence.view.ConfigurationProperties;
+import com.blazebit.persistence.view.EntityViewManager;
 import com.blazebit.persistence.view.EntityViewSetting;
 import graphql.language.Field;
 import graphql.schema.DataFetchingEnvironment;
@@ -30,10 +31,7 @@ import graphql.schema.GraphQLNonNull;
 import graphql.schema.GraphQLObjectType;
 import graphql.schema.GraphQLType;
 
-import java.io.ByteArrayInputStream;
-import java.io.ObjectInputStream;
-import java.io.Serializable;
-import java.util.Base64;
+import javax.persistence.EntityManager;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -86,6 +84,7 @@ public class GraphQLEntityViewSupport {
 
     private final Map<String, Class<?>> typeNameToClass;
     private final Set<String> serializableBasicTypes;
+    private final GraphQLCursorCodec cursorCodec;
 
     private final String pageSizeName;
     private final String offsetName;
@@ -121,6 +120,38 @@ public class GraphQLEntityViewSupport {
      * @param elementCursorName The name of the cursor field within elements
      */
     public GraphQLEntityViewSupport(Map<String, Class<?>> typeNameToClass, Set<String> serializableBasicTypes, String pageSizeName, String offsetName, String beforeCursorName, String afterCursorName, String totalCountName, String pageElementsName, String pageElementObjectName, String elementCursorName) {
+        this(typeNameToClass, serializableBasicTypes, new GraphQLCursorCodec(serializableBasicTypes), pageSizeName, offsetName, beforeCursorName, afterCursorName, totalCountName, pageElementsName, pageElementObjectName, elementCursorName);
+    }
+
+    /**
+     * Creates a new {@link GraphQLEntityViewSupport} instance with the given type name to class mapping, serializable basic type whitelist and cursor codec.
+     * It uses the GraphQL Relay specification names for accessing page info fields for paginated settings.
+     *
+     * @param typeNameToClass The mapping from GraphQL type names to entity view class names
+     * @param serializableBasicTypes The whitelist of allowed serializable basic types to use for cursor deserialization
+     * @param cursorCodec The codec to use for encoding and decoding cursors
+     * @since 1.5.0
+     */
+    public GraphQLEntityViewSupport(Map<String, Class<?>> typeNameToClass, Set<String> serializableBasicTypes, GraphQLCursorCodec cursorCodec) {
+        this(typeNameToClass, serializableBasicTypes, cursorCodec, PAGE_SIZE_NAME, OFFSET_NAME, BEFORE_CURSOR_NAME, AFTER_CURSOR_NAME, TOTAL_COUNT_NAME, EDGES_NAME, EDGE_NODE_NAME, EDGE_CURSOR_NAME);
+    }
+
+    /**
+     * Creates a new {@link GraphQLEntityViewSupport} instance with the given type name to class mapping, serializable basic type whitelist and cursor codec.
+     * @param typeNameToClass The mapping from GraphQL type names to entity view class names
+     * @param serializableBasicTypes The whitelist of allowed serializable basic types to use for cursor deserialization
+     * @param cursorCodec The codec to use for encoding and decoding cursors
+     * @param pageSizeName The name of the page size field
+     * @param offsetName The name of the offset field
+     * @param beforeCursorName The name of the beforeCursor field
+     * @param afterCursorName The name of the afterCursor field
+     * @param totalCountName The name of the totalCount field
+     * @param pageElementsName The name of the elements field
+     * @param pageElementObjectName The name of the element object field within elements
+     * @param elementCursorName The name of the cursor field within elements
+     * @since 1.5.0
+     */
+    public GraphQLEntityViewSupport(Map<String, Class<?>> typeNameToClass, Set<String> serializableBasicTypes, GraphQLCursorCodec cursorCodec, String pageSizeName, String offsetName, String beforeCursorName, String afterCursorName, String totalCountName, String pageElementsName, String pageElementObjectName, String elementCursorName) {
         this.pageSizeName = pageSizeName;
         this.offsetName = offsetName;
         this.beforeCursorName = beforeCursorName;
@@ -129,6 +160,7 @@ public class GraphQLEntityViewSupport {
         this.pageElementsName = pageElementsName;
         this.typeNameToClass = typeNameToClass;
         this.serializableBasicTypes = serializableBasicTypes;
+        this.cursorCodec = cursorCodec;
         this.pageElementObjectName = pageElementObjectName;
         this.elementCursorName = elementCursorName;
     }
@@ -183,14 +215,7 @@ public class GraphQLEntityViewSupport {
      * @return the entity view setting
      */
     public <T> EntityViewSetting<T, PaginatedCriteriaBuilder<T>> createPaginatedSetting(Class<T> entityViewClass, DataFetchingEnvironment dataFetchingEnvironment, String elementRoot) {
-        String objectRoot;
-        if (pageElementObjectName == null || pageElementObjectName.isEmpty()) {
-            objectRoot = elementRoot;
-        } else if (elementRoot == null || elementRoot.isEmpty()) {
-            objectRoot = pageElementObjectName;
-        } else {
-            objectRoot = elementRoot + "/" + pageElementObjectName;
-        }
+        String objectRoot = getElementObjectRoot(elementRoot);
         EntityViewSetting<T, PaginatedCriteriaBuilder<T>> setting = (EntityViewSetting<T, PaginatedCriteriaBuilder<T>>) (EntityViewSetting<?, ?>) createSetting(entityViewClass, dataFetchingEnvironment, objectRoot);
 
         Map<String, List<Field>> map = dataFetchingEnvironment.getSelectionSet().get();
@@ -214,6 +239,16 @@ public class GraphQLEntityViewSupport {
         return setting;
     }
 
+    private String getElementObjectRoot(String elementRoot) {
+        if (pageElementObjectName == null || pageElementObjectName.isEmpty()) {
+            return elementRoot;
+        } else if (elementRoot == null || elementRoot.isEmpty()) {
+            return pageElementObjectName;
+        } else {
+            return elementRoot + "/" + pageElementObjectName;
+        }
+    }
+
     /**
      * Like calling {{@link #createSetting(DataFetchingEnvironment, String)}} with an empty element root.
      *
@@ -355,6 +390,62 @@ public class GraphQLEntityViewSupport {
         return setting;
     }
 
+    /**
+     * Returns a new batch loader for the collection attribute of the given parent entity class that is resolved by the field of the data fetching environment.
+     * The element entity view class is determined by the type of the field. The fetches are applied as requested by the selection set
+     * and the page size and offset arguments are applied per parent. Since arguments and selection set are the same for all parents
+     * of the field on one execution level, the data fetching environment of any parent can be used.
+     * The field may either be a list field or a connection field like for {@link #createPaginatedSetting(DataFetchingEnvironment)},
+     * in which case the element type and the fetches are resolved through the configured elements and element object fields.
+     * The loader always produces the element list per parent, so for a connection field, the data fetcher has to wrap it
+     * e.g. in a {@link GraphQLRelayConnection}. Since no count query is executed, the total count is the size of the loaded page.
+     *
+     * @param dataFetchingEnvironment The GraphQL data fetching environment
+     * @param entityViewManager The entity view manager
+     * @param entityManager The entity manager to use for querying
+     * @param parentEntityClass The entity class of the parent objects
+     * @param collectionAttribute The collection attribute path relative to the parent entity
+     * @param <T> The entity view type
+     * @return the batch loader
+     * @since 1.5.0
+     */
+    public <T> GraphQLEntityViewBatchLoader<T> createBatchLoader(DataFetchingEnvironment dataFetchingEnvironment, EntityViewManager entityViewManager, EntityManager entityManager, Class<?> parentEntityClass, String collectionAttribute) {
+        String elementRoot = isConnectionField(dataFetchingEnvironment) ? getElementObjectRoot(pageElementsName) : "";
+        String typeName = getElementTypeName(dataFetchingEnvironment, elementRoot);
+        Class<T> entityViewClass = (Class<T>) typeNameToClass.get(typeName);
+        if (entityViewClass == null) {
+            throw new IllegalArgumentException("No entity view type is registered for the name: " + typeName);
+        }
+        if (dataFetchingEnvironment.getArgument(beforeCursorName) != null || dataFetchingEnvironment.getArgument(afterCursorName) != null || dataFetchingEnvironment.getArgument(RELAY_LAST_NAME) != null) {
+            throw new IllegalArgumentException("Cursor based pagination is not supported for batch loaded fields!");
+        }
+        Integer pageSize = dataFetchingEnvironment.getArgument(pageSizeName);
+        Integer offset = dataFetchingEnvironment.getArgument(offsetName);
+        if (pageSize == null) {
+            pageSize = Integer.MAX_VALUE;
+        } else if (pageSize < 0) {
+            throw new RuntimeException("Illegal negative " + pageSizeName + " parameter: " + pageSize);
+        }
+        if (offset == null) {
+            offset = 0;
+        } else if (offset < 0) {
+            throw new RuntimeException("Illegal negative " + offsetName + " parameter: " + offset);
+        }
+        EntityViewSetting<T, CriteriaBuilder<T>> setting = EntityViewSetting.create(entityViewClass);
+        applyFetches(dataFetchingEnvironment, setting, elementRoot);
+        return new GraphQLEntityViewBatchLoader<>(entityViewManager, entityManager, parentEntityClass, collectionAttribute, setting, offset, pageSize);
+    }
+
+    private boolean isConnectionField(DataFetchingEnvironment dataFetchingEnvironment) {
+        GraphQLType type = dataFetchingEnvironment.getFieldTypeInfo().getType();
+        if (type instanceof GraphQLNonNull) {
+            type = ((GraphQLNonNull) type).getWrappedType();
+        }
+        // A connection is an object type that has the elements field, whereas a list field directly refers to the element type
+        return type instanceof GraphQLObjectType && pageElementsName != null && !pageElementsName.isEmpty()
+                && ((GraphQLObjectType) type).getFieldDefinition(pageElementsName) != null;
+    }
+
     /**
      * Extracts the {@link KeysetPage} from the {@link DataFetchingEnvironment} by extracting page size and offset,
      * as well as deserializing before or afterCursors.
@@ -451,16 +542,24 @@ public class GraphQLEntityViewSupport {
      * @return a new cursor
      */
     protected GraphQLCursor deserialize(String beforeCursor) {
-        try (ObjectInputStream ois = new GraphQLCursorObjectInputStream(Base64.getDecoder().wrap(new ByteArrayInputStream(beforeCursor.getBytes())), serializableBasicTypes)) {
-            int offset = ois.read();
-            int pageSize = ois.read();
-            Serializable[] tuple = (Serializable[]) ois.readObject();
-            return new GraphQLCursor(offset, pageSize, tuple);
+        try {
+            return cursorCodec.decode(beforeCursor);
         } catch (Exception e) {
             throw new RuntimeException("Couldn't read cursor", e);
         }
     }
 
+    /**
+     * Returns the codec that is used for encoding and decoding cursors.
+     * Pass it to {@link GraphQLRelayConnection#GraphQLRelayConnection(List, GraphQLCursorCodec)} so that produced cursors can be decoded again.
+     *
+     * @return the cursor codec
+     * @since 1.5.0
+     */
+    public GraphQLCursorCodec getCursorCodec() {
+        return cursorCodec;
+    }
+
     /**
      * Returns the entity view class for the given GraphQL type name.
      *
@@ -85,6 +85,7 @@ public class GraphQLEntityViewSupportFactory {
     private boolean defineRelayTypes;
     private Boolean implementRelayNode;
     private boolean defineRelayNodeIfNotExist = false;
+    private byte[] cursorSecret;
 
     /**
      * Creates a new entity view support factory with the given configuration.
@@ -169,6 +170,26 @@ public class GraphQLEntityViewSupportFactory {
         this.defineRelayNodeIfNotExist = defineRelayNodeIfNotExist;
     }
 
+    /**
+     * Returns the secret that is used for signing cursors or <code>null</code> if cursors aren't signed.
+     *
+     * @return the secret that is used for signing cursors or <code>null</code>
+     * @since 1.5.0
+     */
+    public byte[] getCursorSecret() {
+        return cursorSecret;
+    }
+
+    /**
+     * Sets the secret that is used for signing cursors with an HMAC. If set, unsigned or tampered cursors are rejected.
+     *
+     * @param cursorSecret The secret that is used for signing cursors or <code>null</code> if cursors shouldn't be signed
+     * @since 1.5.0
+     */
+    public void setCursorSecret(byte[] cursorSecret) {
+        this.cursorSecret = cursorSecret;
+    }
+
     /**
      * Returns a new {@link GraphQLEntityViewSupport} after registering the entity view types from {@link EntityViewManager}
      * on the given {@link TypeDefinitionRegistry}.
@@ -217,7 +238,7 @@ public class GraphQLEntityViewSupportFactory {
 
         serializableBasicTypes.add(Serializable[].class.getName());
         serializableBasicTypes.add(GraphQLCursor.class.getName());
-        return new GraphQLEntityViewSupport(typeNameToClass, serializableBasicTypes);
+        return new GraphQLEntityViewSupport(typeNameToClass, serializableBasicTypes, new GraphQLCursorCodec(serializableBasicTypes, cursorSecret));
     }
 
     protected void addObjectTypeDefinition(TypeDefinitionRegistry typeRegistry, Map<String, Class<?>> typeNameToClass, ManagedViewType<?> managedView, ObjectTypeDefinition objectTypeDefinition) {
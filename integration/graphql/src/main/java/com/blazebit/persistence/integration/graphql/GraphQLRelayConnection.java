@@ -44,9 +44,20 @@ public class GraphQLRelayConnection<T> implements Serializable {
      * @param list The list
      */
     public GraphQLRelayConnection(List<T> list) {
+        this(list, null);
+    }
+
+    /**
+     * Creates a new GraphQL page from the given list that encodes cursors with the given codec.
+     *
+     * @param list The list
+     * @param cursorCodec The cursor codec or <code>null</code> to use a default codec that doesn't sign cursors
+     * @since 1.5.0
+     */
+    public GraphQLRelayConnection(List<T> list, GraphQLCursorCodec cursorCodec) {
         if (list instanceof PagedList<?>) {
             PagedList<T> data = (PagedList<T>) list;
-            this.pageInfo = new GraphQLRelayPageInfo(data);
+            this.pageInfo = new GraphQLRelayPageInfo(data, cursorCodec);
             this.totalCount = data.getTotalSize();
         } else {
             this.pageInfo = GraphQLRelayPageInfo.EMPTY;
@@ -61,7 +72,18 @@ public class GraphQLRelayConnection<T> implements Serializable {
      * @param list The paged list
      */
     public GraphQLRelayConnection(PagedList<T> list) {
-        this.pageInfo = new GraphQLRelayPageInfo(list);
+        this(list, null);
+    }
+
+    /**
+     * Creates a GraphQL page from the given paged list that encodes cursors with the given codec.
+     *
+     * @param list The paged list
+     * @param cursorCodec The cursor codec or <code>null</code> to use a default codec that doesn't sign cursors
+     * @since 1.5.0
+     */
+    public GraphQLRelayConnection(PagedList<T> list, GraphQLCursorCodec cursorCodec) {
+        this.pageInfo = new GraphQLRelayPageInfo(list, cursorCodec);
         this.totalCount = list.getTotalSize();
         this.edges = createEdges(list, pageInfo);
     }
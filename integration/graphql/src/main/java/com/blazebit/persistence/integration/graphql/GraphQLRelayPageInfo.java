@@ -24,6 +24,7 @@ import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.Base64;
+import java.util.Collections;
 
 /**
  * A GraphQL Relay page info.
@@ -35,16 +36,20 @@ public class GraphQLRelayPageInfo implements Serializable {
 
     public static final GraphQLRelayPageInfo EMPTY = new GraphQLRelayPageInfo();
 
+    private static final GraphQLCursorCodec DEFAULT_CURSOR_CODEC = new GraphQLCursorCodec(Collections.<String>emptySet());
+
     private final boolean hasNextPage;
     private final boolean hasPreviousPage;
     private final GraphQLCursor startCursor;
     private final GraphQLCursor endCursor;
+    private final transient GraphQLCursorCodec cursorCodec;
 
     private GraphQLRelayPageInfo() {
         this.hasNextPage = true;
         this.hasPreviousPage = true;
         this.startCursor = null;
         this.endCursor = null;
+        this.cursorCodec = null;
     }
 
     /**
@@ -53,6 +58,18 @@ public class GraphQLRelayPageInfo implements Serializable {
      * @param data The paged list
      */
     public GraphQLRelayPageInfo(PagedList<?> data) {
+        this(data, null);
+    }
+
+    /**
+     * Creates a new page info object from the given paged list that encodes cursors with the given codec.
+     *
+     * @param data The paged list
+     * @param cursorCodec The cursor codec or <code>null</code> to use a default codec that doesn't sign cursors
+     * @since 1.5.0
+     */
+    public GraphQLRelayPageInfo(PagedList<?> data, GraphQLCursorCodec cursorCodec) {
+        this.cursorCodec = cursorCodec;
         this.hasPreviousPage = data.getFirstResult() != 0;
         this.hasNextPage = data.getTotalSize() == -1 || data.getFirstResult() + data.getMaxResults() < data.getTotalSize();
         KeysetPage keysetPage = data.getKeysetPage();
@@ -117,7 +134,7 @@ public class GraphQLRelayPageInfo implements Serializable {
      * @return the serialized form of the cursor
      */
     protected byte[] serialize(GraphQLCursor cursor) {
-        return serializeCursor(cursor.getOffset(), cursor.getPageSize(), cursor.getTuple());
+        return serialize(cursor.getOffset(), cursor.getPageSize(), cursor.getTuple());
     }
 
     /**
@@ -129,11 +146,12 @@ public class GraphQLRelayPageInfo implements Serializable {
      * @return the serialized form of the cursor
      */
     protected byte[] serialize(int offset, int pageSize, Serializable[] tuple) {
-        return serializeCursor(offset, pageSize, tuple);
+        GraphQLCursorCodec codec = cursorCodec == null ? DEFAULT_CURSOR_CODEC : cursorCodec;
+        return codec.encodeBytes(offset, pageSize, tuple);
     }
 
     /**
-     * Serializes the given cursor components to a byte array.
+     * Serializes the given cursor components to a byte array in the Java serialization based format of previous versions.
      *
      * @param offset The offset
      * @param pageSize The page size
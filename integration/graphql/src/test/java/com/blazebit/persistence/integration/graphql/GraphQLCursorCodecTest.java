@@ -0,0 +1,183 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.integration.graphql;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public class GraphQLCursorCodecTest {
+
+    @Test
+    public void testRoundTrip() {
+        GraphQLCursorCodec codec = new GraphQLCursorCodec(Collections.<String>emptySet());
+        java.sql.Timestamp timestamp = new java.sql.Timestamp(1234567890123L);
+        timestamp.setNanos(123456789);
+        Serializable[] tuple = new Serializable[]{
+            null, "abcä", true, (byte) -1, (short) 300, 'x', -5, Long.MIN_VALUE, 1.5f, -2.5d,
+            new BigInteger("-123456789012345678901234567890"), new BigDecimal("-12.3400"), UUID.randomUUID(),
+            new Date(1234567890123L), new java.sql.Date(1234567890123L), new java.sql.Time(1234567890123L), timestamp,
+            Instant.ofEpochSecond(-1234567890L, 987654321), LocalDate.of(1900, 2, 28), LocalTime.of(23, 59, 59, 999),
+            LocalDateTime.of(2020, 1, 2, 3, 4, 5, 6), OffsetDateTime.of(2020, 1, 2, 3, 4, 5, 6, ZoneOffset.ofHours(-5))
+        };
+
+        GraphQLCursor cursor = codec.decode(codec.encode(20, 10, tuple));
+        Assert.assertEquals(20, cursor.getOffset());
+        Assert.assertEquals(10, cursor.getPageSize());
+        Assert.assertArrayEquals(tuple, cursor.getTuple());
+    }
+
+    @Test
+    public void testSerializedFallbackRequiresWhitelist() {
+        Set<String> allowedTypes = new HashSet<>();
+        allowedTypes.add(Thread.State.class.getName());
+        allowedTypes.add(Enum.class.getName());
+        GraphQLCursorCodec codec = new GraphQLCursorCodec(allowedTypes);
+        Serializable[] tuple = new Serializable[]{ Thread.State.NEW };
+        String encoded = codec.encode(0, 10, tuple);
+        Assert.assertArrayEquals(tuple, codec.decode(encoded).getTuple());
+
+        try {
+            new GraphQLCursorCodec(Collections.<String>emptySet()).decode(encoded);
+            Assert.fail("Expected to fail deserializing of enum");
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testLegacyCursor() {
+        Set<String> allowedTypes = new HashSet<>();
+        allowedTypes.add(Integer.class.getName());
+        allowedTypes.add(Number.class.getName());
+        allowedTypes.add(Serializable[].class.getName());
+        Serializable[] tuple = new Serializable[]{ 1 };
+        String legacyCursor = Base64.getEncoder().encodeToString(GraphQLRelayPageInfo.serializeCursor(5, 10, tuple));
+
+        GraphQLCursor cursor = new GraphQLCursorCodec(allowedTypes).decode(legacyCursor);
+        Assert.assertEquals(5, cursor.getOffset());
+        Assert.assertEquals(10, cursor.getPageSize());
+        Assert.assertArrayEquals(tuple, cursor.getTuple());
+
+        try {
+            new GraphQLCursorCodec(allowedTypes, "secret".getBytes(StandardCharsets.UTF_8)).decode(legacyCursor);
+            Assert.fail("Expected to reject unsigned legacy cursor");
+        } catch (IllegalArgumentException ex) {
+            Assert.assertEquals("Unsigned cursors are not allowed", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testSignedCursor() {
+        GraphQLCursorCodec codec = new GraphQLCursorCodec(Collections.<String>emptySet(), "secret".getBytes(StandardCharsets.UTF_8));
+        Serializable[] tuple = new Serializable[]{ 1L, "abc" };
+        byte[] bytes = codec.encodeBytes(0, 10, tuple);
+        Assert.assertArrayEquals(tuple, codec.decode(bytes).getTuple());
+
+        bytes[bytes.length - 40] ^= 1;
+        try {
+            codec.decode(bytes);
+            Assert.fail("Expected to reject tampered cursor");
+        } catch (IllegalArgumentException ex) {
+            Assert.assertEquals("Invalid cursor signature", ex.getMessage());
+        }
+
+        try {
+            new GraphQLCursorCodec(Collections.<String>emptySet(), "other".getBytes(StandardCharsets.UTF_8)).decode(codec.encode(0, 10, tuple));
+            Assert.fail("Expected to reject cursor signed with a different secret");
+        } catch (IllegalArgumentException ex) {
+            Assert.assertEquals("Invalid cursor signature", ex.getMessage());
+        }
+
+        try {
+            codec.decode(new GraphQLCursorCodec(Collections.<String>emptySet()).encode(0, 10, tuple));
+            Assert.fail("Expected to reject unsigned cursor");
+        } catch (IllegalArgumentException ex) {
+            Assert.assertEquals("Unsigned cursors are not allowed", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testMalformedCursors() {
+        GraphQLCursorCodec codec = new GraphQLCursorCodec(Collections.<String>emptySet());
+        // Tuple length of Integer.MAX_VALUE - 1 in a few bytes must not be allocated
+        assertInvalid(codec, new byte[]{ 1, 0, 0, 10, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 });
+        // Offset that doesn't fit into a non-negative int
+        assertInvalid(codec, new byte[]{ 1, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F, 10, 0 });
+        // Variable length integer that never ends
+        assertInvalid(codec, new byte[]{ 1, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF });
+        // Truncated cursor
+        byte[] bytes = codec.encodeBytes(0, 10, new Serializable[]{ "abc", 1L });
+        assertInvalid(codec, Arrays.copyOf(bytes, bytes.length - 2));
+        // Value length beyond the cursor size
+        assertInvalid(codec, new byte[]{ 1, 0, 0, 10, 2, 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 });
+        // Unknown version and type tag
+        assertInvalid(codec, new byte[]{ 2, 0, 0, 10, 0 });
+        assertInvalid(codec, new byte[]{ 1, 0, 0, 10, 2, 100 });
+        assertInvalid(codec, new byte[0]);
+
+        try {
+            codec.decode("not base 64!");
+            Assert.fail("Expected to reject invalid Base64");
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testEmbeddedArraysRejected() {
+        Set<String> allowedTypes = new HashSet<>();
+        allowedTypes.add(Integer.class.getName());
+        allowedTypes.add(Number.class.getName());
+        allowedTypes.add(Serializable[].class.getName());
+        GraphQLCursorCodec codec = new GraphQLCursorCodec(allowedTypes);
+        assertInvalid(codec, codec.encodeBytes(0, 10, new Serializable[]{ new Serializable[]{ 1 } }));
+
+        byte[] array = new byte[]{ 1, 2, 3 };
+        Assert.assertArrayEquals(array, (byte[]) codec.decode(codec.encode(0, 10, new Serializable[]{ array })).getTuple()[0]);
+    }
+
+    private static void assertInvalid(GraphQLCursorCodec codec, byte[] bytes) {
+        try {
+            codec.decode(bytes);
+            Assert.fail("Expected to reject invalid cursor " + Arrays.toString(bytes));
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+    }
+}
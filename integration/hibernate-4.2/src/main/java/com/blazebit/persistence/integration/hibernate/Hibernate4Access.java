@@ -25,6 +25,7 @@ import com.blazebit.reflection.ReflectionUtils;
 import org.hibernate.HibernateException;
 import org.hibernate.LockOptions;
 import org.hibernate.Query;
+import org.hibernate.action.internal.BulkOperationCleanupAction;
 import org.hibernate.dialect.Dialect;
 import org.hibernate.ejb.HibernateEntityManagerImplementor;
 import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
@@ -45,6 +46,7 @@ import org.hibernate.hql.spi.ParameterTranslations;
 import org.hibernate.internal.util.StringHelper;
 import org.hibernate.loader.hql.QueryLoader;
 import org.hibernate.param.ParameterSpecification;
+import org.hibernate.persister.entity.Queryable;
 import org.hibernate.type.Type;
 
 import javax.persistence.EntityManager;
@@ -53,6 +55,8 @@ import java.io.Serializable;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -137,6 +141,45 @@ public class Hibernate4Access implements HibernateAccess {
         }
     }
 
+    @Override
+    public int[] executeBatch(SessionImplementor session, Queryable persister, String sql, List<ParameterSpecification> parameterSpecifications, List<QueryParameters> batchParameters) {
+        BulkOperationCleanupAction action = new BulkOperationCleanupAction(session, persister);
+        if (session.isEventSource()) {
+            ((EventSource) session).getActionQueue().addAction(action);
+        } else {
+            action.getAfterTransactionCompletionProcess().doAfterTransactionCompletion(true, session);
+        }
+
+        JdbcCoordinator jdbcCoordinator = session.getTransactionCoordinator().getJdbcCoordinator();
+        PreparedStatement st = null;
+        try {
+            try {
+                st = jdbcCoordinator.getStatementPreparer().prepareStatement(sql, false);
+                RowSelection selection = batchParameters.get(0).getRowSelection();
+                if (selection != null && selection.getTimeout() != null) {
+                    st.setQueryTimeout(selection.getTimeout());
+                }
+
+                for (QueryParameters parameters : batchParameters) {
+                    int pos = 1;
+                    for (ParameterSpecification parameterSpecification : parameterSpecifications) {
+                        pos += parameterSpecification.bind(st, parameters, session, pos);
+                    }
+                    st.addBatch();
+                }
+
+                return st.executeBatch();
+            } finally {
+                if (st != null) {
+                    jdbcCoordinator.release(st);
+                    jdbcCoordinator.afterStatementExecution();
+                }
+            }
+        } catch (SQLException e) {
+            throw session.getFactory().getSQLExceptionHelper().convert(e, "could not execute batch update query", sql);
+        }
+    }
+
     @Override
     public QueryParameters getQueryParameters(Query hibernateQuery, Map<String, TypedValue> namedParams) {
         return ((org.hibernate.internal.AbstractQueryImpl) hibernateQuery).getQueryParameters(namedParams);
@@ -17,6 +17,7 @@
 package com.blazebit.persistence.integration.hibernate;
 
 import com.blazebit.persistence.integration.hibernate.base.HibernateReturningResult;
+import com.blazebit.persistence.integration.hibernate.base.ReturningPreparedStatement;
 import com.blazebit.persistence.spi.DbmsDialect;
 import org.hibernate.ScrollMode;
 import org.hibernate.cfg.Settings;
@@ -26,7 +27,6 @@ import org.hibernate.engine.jdbc.spi.SqlExceptionHelper;
 import org.hibernate.engine.jdbc.spi.StatementPreparer;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
 
-import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
@@ -118,7 +118,7 @@ public class StatementPreparerImpl implements StatementPreparer {
                 return dbmsDialect.prepare(ps, returningSqlTypes);
             }
         }.prepareStatement();
-        ps = (PreparedStatement) Proxy.newProxyInstance(ps.getClass().getClassLoader(), new Class[]{ PreparedStatement.class }, new PreparedStatementInvocationHandler(ps, dbmsDialect, columns, returningResult));
+        ps = new ReturningPreparedStatement(ps, dbmsDialect, columns, returningResult);
         jdbcCoordinator.registerLastQuery(ps);
         return ps;
     }
@@ -19,6 +19,7 @@ package com.blazebit.persistence.integration.hibernate;
 import com.blazebit.apt.service.ServiceProvider;
 import com.blazebit.persistence.CTE;
 import com.blazebit.persistence.integration.hibernate.base.Database;
+import com.blazebit.persistence.integration.hibernate.base.FlushedChangesListener;
 import com.blazebit.persistence.integration.hibernate.base.SimpleDatabase;
 import com.blazebit.persistence.integration.hibernate.base.SimpleTableNameFormatter;
 import org.hibernate.boot.registry.StandardServiceInitiator;
@@ -27,6 +28,7 @@ import org.hibernate.boot.registry.selector.spi.StrategySelector;
 import org.hibernate.cfg.Configuration;
 import org.hibernate.engine.jdbc.spi.JdbcServices;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
 import org.hibernate.hql.spi.MultiTableBulkIdStrategy;
 import org.hibernate.hql.spi.PersistentTableBulkIdStrategy;
 import org.hibernate.hql.spi.TemporaryTableBulkIdStrategy;
@@ -174,6 +176,7 @@ public class Hibernate43Integrator implements ServiceContributingIntegrator, Typ
         }
 
         serviceRegistry.locateServiceBinding(PersisterClassResolver.class).setService(new CustomPersisterClassResolver());
+        FlushedChangesListener.register(serviceRegistry.getService(EventListenerRegistry.class));
         serviceRegistry.locateServiceBinding(Database.class).setService(new SimpleDatabase(configuration.getTableMappings(), sessionFactory.getDialect(), new SimpleTableNameFormatter(), configuration.buildMapping()));
     }
 
@@ -19,12 +19,14 @@ package com.blazebit.persistence.integration.hibernate;
 import com.blazebit.apt.service.ServiceProvider;
 import com.blazebit.persistence.CTE;
 import com.blazebit.persistence.integration.hibernate.base.Database;
+import com.blazebit.persistence.integration.hibernate.base.FlushedChangesListener;
 import com.blazebit.persistence.integration.hibernate.base.MultiIterator;
 import com.blazebit.persistence.integration.hibernate.base.SimpleDatabase;
 import com.blazebit.persistence.integration.hibernate.base.TableNameFormatter;
 import org.hibernate.boot.Metadata;
 import org.hibernate.boot.model.relational.Namespace;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
 import org.hibernate.integrator.spi.Integrator;
 import org.hibernate.mapping.PersistentClass;
 import org.hibernate.mapping.Property;
@@ -86,6 +88,7 @@ public class Hibernate52Integrator implements Integrator {
         }
 
         serviceRegistry.locateServiceBinding(PersisterClassResolver.class).setService(new CustomPersisterClassResolver());
+        FlushedChangesListener.register(serviceRegistry.getService(EventListenerRegistry.class));
         TableNameFormatter formatter = new NativeTableNameFormatter(sessionFactory.getJdbcServices().getJdbcEnvironment().getQualifiedObjectNameFormatter());
         serviceRegistry.locateServiceBinding(Database.class).setService(new SimpleDatabase(getTableIterator(metadata.getDatabase().getNamespaces()), sessionFactory.getDialect(), formatter, metadata));
     }
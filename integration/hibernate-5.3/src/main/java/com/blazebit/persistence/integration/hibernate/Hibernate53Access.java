@@ -24,6 +24,7 @@ import com.blazebit.persistence.spi.DbmsDialect;
 import org.hibernate.HibernateException;
 import org.hibernate.LockOptions;
 import org.hibernate.Query;
+import org.hibernate.action.internal.BulkOperationCleanupAction;
 import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
 import org.hibernate.engine.query.spi.HQLQueryPlan;
 import org.hibernate.engine.spi.ExceptionConverter;
@@ -40,6 +41,7 @@ import org.hibernate.hql.internal.ast.exec.StatementExecutor;
 import org.hibernate.hql.spi.ParameterTranslations;
 import org.hibernate.loader.hql.QueryLoader;
 import org.hibernate.param.ParameterSpecification;
+import org.hibernate.persister.entity.Queryable;
 import org.hibernate.query.internal.AbstractProducedQuery;
 import org.hibernate.query.internal.QueryParameterBindingsImpl;
 import org.hibernate.query.spi.QueryImplementor;
@@ -53,6 +55,8 @@ import java.io.Serializable;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
@@ -142,6 +146,45 @@ public class Hibernate53Access implements HibernateAccess {
         }
     }
 
+    @Override
+    public int[] executeBatch(SessionImplementor session, Queryable persister, String sql, List<ParameterSpecification> parameterSpecifications, List<QueryParameters> batchParameters) {
+        BulkOperationCleanupAction action = new BulkOperationCleanupAction(session, persister);
+        if (session.isEventSource()) {
+            ((EventSource) session).getActionQueue().addAction(action);
+        } else {
+            action.getAfterTransactionCompletionProcess().doAfterTransactionCompletion(true, session);
+        }
+
+        JdbcCoordinator jdbcCoordinator = session.getJdbcCoordinator();
+        PreparedStatement st = null;
+        try {
+            try {
+                st = jdbcCoordinator.getStatementPreparer().prepareStatement(sql, false);
+                RowSelection selection = batchParameters.get(0).getRowSelection();
+                if (selection != null && selection.getTimeout() != null) {
+                    st.setQueryTimeout(selection.getTimeout());
+                }
+
+                for (QueryParameters parameters : batchParameters) {
+                    int pos = 1;
+                    for (ParameterSpecification parameterSpecification : parameterSpecifications) {
+                        pos += parameterSpecification.bind(st, parameters, session, pos);
+                    }
+                    st.addBatch();
+                }
+
+                return st.executeBatch();
+            } finally {
+                if (st != null) {
+                    jdbcCoordinator.getResourceRegistry().release(st);
+                    jdbcCoordinator.afterStatementExecution();
+                }
+            }
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper().convert(e, "could not execute batch update query", sql);
+        }
+    }
+
     @Override
     public QueryParameters getQueryParameters(Query hibernateQuery, Map<String, TypedValue> namedParams) {
         return ((AbstractProducedQuery<?>) hibernateQuery).getQueryParameters();
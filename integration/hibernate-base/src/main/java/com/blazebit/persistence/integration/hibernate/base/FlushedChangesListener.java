@@ -0,0 +1,153 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.integration.hibernate.base;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.event.service.spi.EventListenerGroup;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import javax.transaction.Synchronization;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Remembers the sessions that flushed changes in their still active transaction, i.e. changes that are not yet visible to other transactions.
+ * The listener is registered for the sessions of a session factory via {@link #register(EventListenerRegistry)}.
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public class FlushedChangesListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionRecreateEventListener, PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    public static final FlushedChangesListener INSTANCE = new FlushedChangesListener();
+    private static final long serialVersionUID = 1L;
+
+    private final transient Map<Session, Boolean> sessionsWithFlushedChanges = Collections.synchronizedMap(new WeakHashMap<Session, Boolean>());
+
+    private FlushedChangesListener() {
+    }
+
+    public static void register(EventListenerRegistry eventListenerRegistry) {
+        EventListenerGroup<PostInsertEventListener> postInsertGroup = eventListenerRegistry.getEventListenerGroup(EventType.POST_INSERT);
+        for (PostInsertEventListener listener : postInsertGroup.listeners()) {
+            if (listener == INSTANCE) {
+                return;
+            }
+        }
+        eventListenerRegistry.appendListeners(EventType.POST_INSERT, INSTANCE);
+        eventListenerRegistry.appendListeners(EventType.POST_UPDATE, INSTANCE);
+        eventListenerRegistry.appendListeners(EventType.POST_DELETE, INSTANCE);
+        eventListenerRegistry.appendListeners(EventType.POST_COLLECTION_RECREATE, INSTANCE);
+        eventListenerRegistry.appendListeners(EventType.POST_COLLECTION_UPDATE, INSTANCE);
+        eventListenerRegistry.appendListeners(EventType.POST_COLLECTION_REMOVE, INSTANCE);
+    }
+
+    /**
+     * Returns whether the given session flushed changes in the currently active transaction.
+     *
+     * @param session The session
+     * @return Whether the session flushed changes that are not yet committed
+     */
+    public boolean hasFlushedChanges(Session session) {
+        return !sessionsWithFlushedChanges.isEmpty() && sessionsWithFlushedChanges.containsKey(session);
+    }
+
+    private void markChanged(EventSource eventSource) {
+        final Session session = eventSource;
+        Transaction transaction;
+        try {
+            transaction = session.getTransaction();
+        } catch (IllegalStateException ex) {
+            // The transaction is not accessible, so we can't know when the changes become visible and keep the mark for the lifetime of the session
+            sessionsWithFlushedChanges.put(session, Boolean.TRUE);
+            return;
+        }
+        if (!transaction.isActive()) {
+            // Without a transaction, the changes are visible right away
+            return;
+        }
+        if (sessionsWithFlushedChanges.put(session, Boolean.TRUE) == null) {
+            transaction.registerSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    sessionsWithFlushedChanges.remove(session);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        markChanged(event.getSession());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        markChanged(event.getSession());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        markChanged(event.getSession());
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        markChanged(event.getSession());
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        markChanged(event.getSession());
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        markChanged(event.getSession());
+    }
+
+    private Object readResolve() {
+        return INSTANCE;
+    }
+
+    // Required since Hibernate 4.3
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+}
@@ -30,6 +30,7 @@ import org.hibernate.hql.internal.ast.exec.StatementExecutor;
 import org.hibernate.hql.spi.ParameterTranslations;
 import org.hibernate.loader.hql.QueryLoader;
 import org.hibernate.param.ParameterSpecification;
+import org.hibernate.persister.entity.Queryable;
 import org.hibernate.type.Type;
 
 import javax.persistence.EntityManager;
@@ -52,6 +53,8 @@ public interface HibernateAccess {
 
     public void doExecute(StatementExecutor executor, String delete, QueryParameters parameters, SessionImplementor session, List<ParameterSpecification> parameterSpecifications);
 
+    public int[] executeBatch(SessionImplementor session, Queryable persister, String sql, List<ParameterSpecification> parameterSpecifications, List<QueryParameters> batchParameters);
+
     public QueryParameters getQueryParameters(Query hibernateQuery, Map<String, TypedValue> namedParams);
 
     public Map<String, TypedValue> getNamedParams(Query hibernateQuery);
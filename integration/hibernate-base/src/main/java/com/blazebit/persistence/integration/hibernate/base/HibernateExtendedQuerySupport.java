@@ -25,10 +25,12 @@ import com.blazebit.persistence.spi.CteQueryWrapper;
 import com.blazebit.persistence.spi.DbmsDialect;
 import com.blazebit.persistence.spi.DbmsStatementType;
 import com.blazebit.persistence.spi.ExtendedQuerySupport;
+import com.blazebit.persistence.spi.ModificationBatch;
 import com.blazebit.reflection.ReflectionUtils;
 import org.hibernate.HibernateException;
 import org.hibernate.LockMode;
 import org.hibernate.LockOptions;
+import org.hibernate.Session;
 import org.hibernate.TypeMismatchException;
 import org.hibernate.engine.query.spi.HQLQueryPlan;
 import org.hibernate.engine.query.spi.QueryPlanCache;
@@ -56,9 +58,11 @@ import org.hibernate.hql.internal.ast.tree.SelectClause;
 import org.hibernate.hql.spi.ParameterTranslations;
 import org.hibernate.hql.spi.QueryTranslator;
 import org.hibernate.internal.util.collections.BoundedConcurrentHashMap;
+import org.hibernate.jdbc.Work;
 import org.hibernate.loader.hql.QueryLoader;
 import org.hibernate.param.ParameterSpecification;
 import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.Queryable;
 import org.hibernate.type.ManyToOneType;
 import org.hibernate.type.Type;
 
@@ -67,8 +71,15 @@ import javax.persistence.NoResultException;
 import javax.persistence.NonUniqueResultException;
 import javax.persistence.PersistenceException;
 import javax.persistence.Query;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
 import java.io.Serializable;
 import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
@@ -82,6 +93,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Logger;
@@ -98,6 +110,8 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
     
     private final ConcurrentMap<SessionFactoryImplementor, BoundedConcurrentHashMap<QueryPlanCacheKey, HQLQueryPlan>> queryPlanCachesCache = new ConcurrentHashMap<SessionFactoryImplementor, BoundedConcurrentHashMap<QueryPlanCacheKey, HQLQueryPlan>>();
     private final HibernateAccess hibernateAccess;
+    // Temporary tables are bound to the connection, so we remember the ones that were created per connection
+    private final Map<Connection, Set<String>> temporaryTables = Collections.synchronizedMap(new WeakHashMap<Connection, Set<String>>());
     
     public HibernateExtendedQuerySupport() {
         Iterator<HibernateAccess> serviceIter = ServiceLoader.load(HibernateAccess.class).iterator();
@@ -371,14 +385,15 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         QueryParamEntry queryParametersEntry = createQueryParameters(em, query, participatingQueries, queryStrings, querySpaces);
         QueryParameters queryParameters = queryParametersEntry.queryParameters;
 
-        QueryPlanCacheKey cacheKey = queryPlanCacheEnabled ? createCacheKey(participatingQueries, queryStrings) : null;
-        CacheEntry<HQLQueryPlan> queryPlanEntry = getQueryPlan(sfi, query, cacheKey);
+        // The limit and offset of the query are applied by the Hibernate LimitHandler as parameters during execution, so we don't need them in the key
+        QueryPlanCacheKey cacheKey = queryPlanCacheEnabled ? createCacheKey(participatingQueries, queryStrings, query) : null;
+        CacheEntry<HQLQueryPlan> queryPlanEntry = getQueryPlan(serviceProvider, sfi, query, cacheKey);
         HQLQueryPlan queryPlan = queryPlanEntry.getValue();
         
         if (!queryPlanEntry.isFromCache()) {
             prepareQueryPlan(queryPlan, queryParametersEntry.specifications, finalSql, session, null, false, serviceProvider.getService(DbmsDialect.class));
             if (queryPlanCacheEnabled) {
-                queryPlan = putQueryPlanIfAbsent(sfi, cacheKey, queryPlan);
+                queryPlan = putQueryPlanIfAbsent(serviceProvider, sfi, cacheKey, queryPlan);
             }
         }
 
@@ -414,22 +429,28 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         QueryParameters queryParameters = queryParametersEntry.queryParameters;
 
         QueryPlanCacheKey cacheKey = queryPlanCacheEnabled ? createCacheKey(participatingQueries, queryStrings, firstResult, maxResults) : null;
-        CacheEntry<HQLQueryPlan> queryPlanEntry = getQueryPlan(sfi, query, cacheKey);
+        CacheEntry<HQLQueryPlan> queryPlanEntry = getQueryPlan(serviceProvider, sfi, query, cacheKey);
         HQLQueryPlan queryPlan = queryPlanEntry.getValue();
 
         if (!queryPlanEntry.isFromCache()) {
             prepareQueryPlan(queryPlan, queryParametersEntry.specifications, finalSql, session, baseQuery, true, dbmsDialect);
             if (queryPlanCacheEnabled) {
-                queryPlan = putQueryPlanIfAbsent(sfi, cacheKey, queryPlan);
+                queryPlan = putQueryPlanIfAbsent(serviceProvider, sfi, cacheKey, queryPlan);
             }
         }
 
         autoFlush(querySpaces, session);
 
+        return executeUpdate(serviceProvider, em, session, queryPlan, queryParameters, finalSql);
+    }
+
+    private int executeUpdate(com.blazebit.persistence.spi.ServiceProvider serviceProvider, EntityManager em, SessionImplementor session, HQLQueryPlan queryPlan, QueryParameters queryParameters, String finalSql) {
         if (queryPlan.getReturnMetadata() == null) {
             return hibernateAccess.performExecuteUpdate(queryPlan, session, queryParameters);
         }
 
+        DbmsDialect dbmsDialect = serviceProvider.getService(DbmsDialect.class);
+        SessionFactoryImplementor sfi = session.getFactory();
         boolean caseInsensitive = !Boolean.valueOf(serviceProvider.getService(ConfigurationSource.class).getProperty(ConfigurationProperties.RETURNING_CLAUSE_CASE_SENSITIVE));
         String exampleQuerySql = queryPlan.getSqlStrings()[0];
         String[][] returningColumns = getReturningColumns(caseInsensitive, exampleQuerySql);
@@ -458,6 +479,115 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         }
     }
 
+    @Override
+    public ModificationBatch createModificationBatch(com.blazebit.persistence.spi.ServiceProvider serviceProvider, List<Query> participatingQueries, Query baseQuery, Query query, String sqlOverride, boolean queryPlanCacheEnabled) {
+        return new HibernateModificationBatch(serviceProvider, participatingQueries, baseQuery, query, sqlOverride, queryPlanCacheEnabled);
+    }
+
+    @Override
+    public int[] executeBatch(EntityManager em, final String sql, final List<Object[]> batchParameters) {
+        final int[][] updateCounts = new int[1][];
+        em.unwrap(Session.class).doWork(new Work() {
+            @Override
+            public void execute(Connection connection) throws SQLException {
+                try (PreparedStatement st = connection.prepareStatement(sql)) {
+                    if (batchParameters.size() == 1) {
+                        bindParameters(st, batchParameters.get(0));
+                        updateCounts[0] = new int[]{ st.executeUpdate() };
+                    } else {
+                        for (Object[] parameters : batchParameters) {
+                            bindParameters(st, parameters);
+                            st.addBatch();
+                        }
+                        updateCounts[0] = st.executeBatch();
+                    }
+                }
+            }
+        });
+        return updateCounts[0];
+    }
+
+    @Override
+    public void createTemporaryTable(EntityManager em, final String tableName, final String creationSql) {
+        final Session session = em.unwrap(Session.class);
+        session.doWork(new Work() {
+            @Override
+            public void execute(final Connection connection) throws SQLException {
+                synchronized (temporaryTables) {
+                    Set<String> tableNames = temporaryTables.get(connection);
+                    if (tableNames != null && tableNames.contains(tableName)) {
+                        return;
+                    }
+                }
+                try (PreparedStatement st = connection.prepareStatement(creationSql)) {
+                    st.executeUpdate();
+                }
+                org.hibernate.Transaction transaction;
+                try {
+                    transaction = session.getTransaction();
+                } catch (IllegalStateException ex) {
+                    // The transaction is not accessible, so we can't know if the creation is rolled back and have to create the table again next time
+                    return;
+                }
+                if (transaction.isActive()) {
+                    // The creation of a temporary table is rolled back along with the transaction on some dbms
+                    transaction.registerSynchronization(new Synchronization() {
+                        @Override
+                        public void beforeCompletion() {
+                        }
+
+                        @Override
+                        public void afterCompletion(int status) {
+                            if (status != Status.STATUS_COMMITTED) {
+                                synchronized (temporaryTables) {
+                                    Set<String> tableNames = temporaryTables.get(connection);
+                                    if (tableNames != null) {
+                                        tableNames.remove(tableName);
+                                    }
+                                }
+                            }
+                        }
+                    });
+                }
+                synchronized (temporaryTables) {
+                    Set<String> tableNames = temporaryTables.get(connection);
+                    if (tableNames == null) {
+                        tableNames = new HashSet<>();
+                        temporaryTables.put(connection, tableNames);
+                    }
+                    tableNames.add(tableName);
+                }
+            }
+        });
+    }
+
+    @Override
+    public boolean executeExists(EntityManager em, final String sql, final Object[] parameters) {
+        final boolean[] exists = new boolean[1];
+        em.unwrap(Session.class).doWork(new Work() {
+            @Override
+            public void execute(Connection connection) throws SQLException {
+                try (PreparedStatement st = connection.prepareStatement(sql)) {
+                    bindParameters(st, parameters);
+                    try (ResultSet rs = st.executeQuery()) {
+                        exists[0] = rs.next();
+                    }
+                }
+            }
+        });
+        return exists[0];
+    }
+
+    private static void bindParameters(PreparedStatement st, Object[] parameters) throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i] == null) {
+                st.setNull(i + 1, Types.NULL);
+            } else {
+                st.setObject(i + 1, parameters[i]);
+            }
+        }
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public ReturningResult<Object[]> executeReturning(com.blazebit.persistence.spi.ServiceProvider serviceProvider, List<Query> participatingQueries, Query modificationBaseQuery, Query exampleQuery, String sqlOverride, boolean queryPlanCacheEnabled) {
@@ -478,7 +608,7 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         
         // Create plan for example query
         QueryPlanCacheKey cacheKey = queryPlanCacheEnabled ? createCacheKey(participatingQueries, queryStrings) : null;
-        CacheEntry<HQLQueryPlan> queryPlanEntry = getQueryPlan(sfi, exampleQuery, cacheKey);
+        CacheEntry<HQLQueryPlan> queryPlanEntry = getQueryPlan(serviceProvider, sfi, exampleQuery, cacheKey);
         HQLQueryPlan queryPlan = queryPlanEntry.getValue();
         String exampleQuerySql = queryPlan.getSqlStrings()[0];
         
@@ -495,7 +625,7 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
             if (!queryPlanEntry.isFromCache()) {
                 prepareQueryPlan(queryPlan, queryParametersEntry.specifications, finalSql, session, modificationBaseQuery, true, dbmsDialect);
                 if (queryPlanCacheEnabled) {
-                    queryPlan = putQueryPlanIfAbsent(sfi, cacheKey, queryPlan);
+                    queryPlan = putQueryPlanIfAbsent(serviceProvider, sfi, cacheKey, queryPlan);
                 }
             }
 
@@ -988,14 +1118,14 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         return i;
     }
 
-    private CacheEntry<HQLQueryPlan> getQueryPlan(SessionFactoryImplementor sfi, Query query, QueryPlanCacheKey cacheKey) {
+    private CacheEntry<HQLQueryPlan> getQueryPlan(com.blazebit.persistence.spi.ServiceProvider serviceProvider, SessionFactoryImplementor sfi, Query query, QueryPlanCacheKey cacheKey) {
         HQLQueryPlan queryPlan;
         boolean fromCache;
         if (cacheKey == null) {
             fromCache = false;
             queryPlan = createQueryPlan(sfi, query);
         } else {
-            BoundedConcurrentHashMap<QueryPlanCacheKey, HQLQueryPlan> queryPlanCache = getQueryPlanCache(sfi);
+            BoundedConcurrentHashMap<QueryPlanCacheKey, HQLQueryPlan> queryPlanCache = getQueryPlanCache(serviceProvider, sfi);
             queryPlan = queryPlanCache.get(cacheKey);
             if (queryPlan == null) {
                 fromCache = false;
@@ -1008,8 +1138,8 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         return new CacheEntry<HQLQueryPlan>(queryPlan, fromCache);
     }
     
-    private HQLQueryPlan putQueryPlanIfAbsent(SessionFactoryImplementor sfi, QueryPlanCacheKey cacheKey, HQLQueryPlan queryPlan) {
-        BoundedConcurrentHashMap<QueryPlanCacheKey, HQLQueryPlan> queryPlanCache = getQueryPlanCache(sfi);
+    private HQLQueryPlan putQueryPlanIfAbsent(com.blazebit.persistence.spi.ServiceProvider serviceProvider, SessionFactoryImplementor sfi, QueryPlanCacheKey cacheKey, HQLQueryPlan queryPlan) {
+        BoundedConcurrentHashMap<QueryPlanCacheKey, HQLQueryPlan> queryPlanCache = getQueryPlanCache(serviceProvider, sfi);
         HQLQueryPlan oldQueryPlan = queryPlanCache.putIfAbsent(cacheKey, queryPlan);
         if (oldQueryPlan != null) {
             queryPlan = oldQueryPlan;
@@ -1024,10 +1154,10 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         return new HQLQueryPlan(queryString, false, Collections.EMPTY_MAP, sfi);
     }
     
-    private BoundedConcurrentHashMap<QueryPlanCacheKey, HQLQueryPlan> getQueryPlanCache(SessionFactoryImplementor sfi) {
+    private BoundedConcurrentHashMap<QueryPlanCacheKey, HQLQueryPlan> getQueryPlanCache(com.blazebit.persistence.spi.ServiceProvider serviceProvider, SessionFactoryImplementor sfi) {
         BoundedConcurrentHashMap<QueryPlanCacheKey, HQLQueryPlan> queryPlanCache = queryPlanCachesCache.get(sfi);
         if (queryPlanCache == null) {
-            queryPlanCache = new BoundedConcurrentHashMap<QueryPlanCacheKey, HQLQueryPlan>(QueryPlanCache.DEFAULT_QUERY_PLAN_MAX_COUNT, 20, BoundedConcurrentHashMap.Eviction.LIRS);
+            queryPlanCache = new BoundedConcurrentHashMap<QueryPlanCacheKey, HQLQueryPlan>(getQueryPlanCacheMaximumSize(serviceProvider), 20, BoundedConcurrentHashMap.Eviction.LIRS);
             BoundedConcurrentHashMap<QueryPlanCacheKey, HQLQueryPlan> oldQueryPlanCache = queryPlanCachesCache.putIfAbsent(sfi, queryPlanCache);
             if (oldQueryPlanCache != null) {
                 queryPlanCache = oldQueryPlanCache;
@@ -1037,16 +1167,38 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         return queryPlanCache;
     }
 
+    private int getQueryPlanCacheMaximumSize(com.blazebit.persistence.spi.ServiceProvider serviceProvider) {
+        String maximumSize = serviceProvider.getService(ConfigurationSource.class).getProperty(ConfigurationProperties.QUERY_PLAN_CACHE_MAXIMUM_SIZE);
+        if (maximumSize == null) {
+            return QueryPlanCache.DEFAULT_QUERY_PLAN_MAX_COUNT;
+        }
+        return Integer.parseInt(maximumSize);
+    }
+
     private QueryPlanCacheKey createCacheKey(List<Query> queries, List<String> queryStrings) {
-        return createCacheKey(queries, queryStrings, null, null);
+        return createCacheKey(queries, queryStrings, null, null, null);
     }
-    
+
+    private QueryPlanCacheKey createCacheKey(List<Query> queries, List<String> queryStrings, Query nativelyLimitedQuery) {
+        return createCacheKey(queries, queryStrings, nativelyLimitedQuery, null, null);
+    }
+
     private QueryPlanCacheKey createCacheKey(List<Query> queries, List<String> queryStrings, Integer firstResult, Integer maxResults) {
+        return createCacheKey(queries, queryStrings, null, firstResult, maxResults);
+    }
+    
+    private QueryPlanCacheKey createCacheKey(List<Query> queries, List<String> queryStrings, Query nativelyLimitedQuery, Integer firstResult, Integer maxResults) {
         List<QueryPlanCacheKeyComponent> cacheKeyComponents = new ArrayList<>(queries.size());
         for (int i = 0; i < queries.size(); i++) {
             Query query = queries.get(i);
             String queryString = queryStrings.get(i);
-            cacheKeyComponents.add(new QueryPlanCacheKeyComponent(queryString, query.getFirstResult(), query.getMaxResults()));
+            if (query == nativelyLimitedQuery) {
+                // The limit and offset of this query don't end up in the SQL of the query plan
+                cacheKeyComponents.add(new QueryPlanCacheKeyComponent(queryString));
+            } else {
+                // Limit and offset of other participating queries are inlined into the SQL
+                cacheKeyComponents.add(new QueryPlanCacheKeyComponent(queryString, query.getFirstResult(), query.getMaxResults()));
+            }
         }
         return new QueryPlanCacheKey(cacheKeyComponents, firstResult, maxResults);
     }
@@ -1063,6 +1215,127 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         }
     }
 
+    /**
+     * Captures the query parameters of every execution and sends them as JDBC batch through the statement of the query plan.
+     *
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private class HibernateModificationBatch implements ModificationBatch {
+
+        private final com.blazebit.persistence.spi.ServiceProvider serviceProvider;
+        private final List<Query> participatingQueries;
+        private final Query baseQuery;
+        private final Query query;
+        private final String finalSql;
+        private final boolean queryPlanCacheEnabled;
+        private final List<QueryParameters> batchParameters = new ArrayList<>();
+        private final List<Integer> executedUpdateCounts = new ArrayList<>();
+        private List<String> queryStrings;
+        private Set<String> querySpaces;
+        private List<ParameterSpecification> specifications;
+
+        public HibernateModificationBatch(com.blazebit.persistence.spi.ServiceProvider serviceProvider, List<Query> participatingQueries, Query baseQuery, Query query, String finalSql, boolean queryPlanCacheEnabled) {
+            this.serviceProvider = serviceProvider;
+            this.participatingQueries = participatingQueries;
+            this.baseQuery = baseQuery;
+            this.query = query;
+            this.finalSql = finalSql;
+            this.queryPlanCacheEnabled = queryPlanCacheEnabled;
+        }
+
+        @Override
+        public void addBatch() {
+            EntityManager em = serviceProvider.getService(EntityManager.class);
+            List<String> queryStrings = new ArrayList<>(participatingQueries.size());
+            Set<String> querySpaces = new HashSet<>();
+            QueryParamEntry queryParametersEntry = createQueryParameters(em, baseQuery, participatingQueries, queryStrings, querySpaces);
+            // Expanded parameter lists result in a different statement, so execute what we have so far
+            if (this.queryStrings != null && !this.queryStrings.equals(queryStrings)) {
+                executePendingBatch();
+            }
+            if (this.queryStrings == null) {
+                this.queryStrings = queryStrings;
+                this.querySpaces = querySpaces;
+                this.specifications = queryParametersEntry.specifications;
+            }
+            batchParameters.add(queryParametersEntry.queryParameters);
+        }
+
+        @Override
+        public int getBatchSize() {
+            return executedUpdateCounts.size() + batchParameters.size();
+        }
+
+        @Override
+        public int[] executeBatch() {
+            executePendingBatch();
+            int[] updateCounts = new int[executedUpdateCounts.size()];
+            for (int i = 0; i < updateCounts.length; i++) {
+                updateCounts[i] = executedUpdateCounts.get(i);
+            }
+            executedUpdateCounts.clear();
+            return updateCounts;
+        }
+
+        private void executePendingBatch() {
+            if (batchParameters.isEmpty()) {
+                return;
+            }
+            DbmsDialect dbmsDialect = serviceProvider.getService(DbmsDialect.class);
+            EntityManager em = serviceProvider.getService(EntityManager.class);
+            SessionImplementor session = em.unwrap(SessionImplementor.class);
+            SessionFactoryImplementor sfi = session.getFactory();
+
+            if (session.isClosed()) {
+                throw new PersistenceException("Entity manager is closed!");
+            }
+
+            Integer firstResult = null;
+            Integer maxResults = null;
+
+            if (query.getFirstResult() > 0) {
+                firstResult = query.getFirstResult();
+            }
+            if (query.getMaxResults() != Integer.MAX_VALUE) {
+                maxResults = query.getMaxResults();
+            }
+
+            QueryPlanCacheKey cacheKey = queryPlanCacheEnabled ? createCacheKey(participatingQueries, queryStrings, firstResult, maxResults) : null;
+            CacheEntry<HQLQueryPlan> queryPlanEntry = getQueryPlan(serviceProvider, sfi, query, cacheKey);
+            HQLQueryPlan queryPlan = queryPlanEntry.getValue();
+
+            if (!queryPlanEntry.isFromCache()) {
+                prepareQueryPlan(queryPlan, specifications, finalSql, session, baseQuery, true, dbmsDialect);
+                if (queryPlanCacheEnabled) {
+                    queryPlan = putQueryPlanIfAbsent(serviceProvider, sfi, cacheKey, queryPlan);
+                }
+            }
+
+            autoFlush(querySpaces, session);
+
+            try {
+                StatementExecutor executor = getStatementExecutor(queryPlan.getTranslators()[0]);
+                // Only plain DML statements can be batched, everything else is executed one by one
+                if (queryPlan.getReturnMetadata() == null && executor != null && executor.getClass() == BasicExecutor.class) {
+                    Queryable persister = getField(executor, "persister");
+                    for (int updateCount : hibernateAccess.executeBatch(session, persister, finalSql, specifications, batchParameters)) {
+                        executedUpdateCounts.add(updateCount);
+                    }
+                } else {
+                    for (QueryParameters queryParameters : batchParameters) {
+                        executedUpdateCounts.add(executeUpdate(serviceProvider, em, session, queryPlan, queryParameters, finalSql));
+                    }
+                }
+            } finally {
+                batchParameters.clear();
+                queryStrings = null;
+                querySpaces = null;
+                specifications = null;
+            }
+        }
+    }
+
     /**
      * @author Christian Beikov
      * @since 1.2.0
@@ -16,12 +16,15 @@
 
 package com.blazebit.persistence.integration.hibernate.base;
 
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.JoinType;
 import com.blazebit.persistence.integration.jpa.JpaMetamodelAccessorImpl;
 import com.blazebit.persistence.spi.JoinTable;
 import com.blazebit.persistence.spi.JpaMetamodelAccessor;
 import com.blazebit.persistence.spi.JpaProvider;
 import org.hibernate.MappingException;
+import org.hibernate.ScrollMode;
+import org.hibernate.Session;
 import org.hibernate.engine.spi.CascadingAction;
 import org.hibernate.engine.spi.EntityKey;
 import org.hibernate.engine.spi.Mapping;
@@ -44,6 +47,7 @@ import org.hibernate.proxy.HibernateProxy;
 import org.hibernate.proxy.LazyInitializer;
 import org.hibernate.sql.InFragment;
 import org.hibernate.tuple.entity.EntityMetamodel;
+import org.hibernate.type.AbstractStandardBasicType;
 import org.hibernate.type.AssociationType;
 import org.hibernate.type.CollectionType;
 import org.hibernate.type.ComponentType;
@@ -70,6 +74,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -1274,6 +1279,17 @@ public class HibernateJpaProvider implements JpaProvider {
         return persister != null && !persister.hasIndex() && !persister.isInverse() && !(getAttribute(ownerType, attributeName) instanceof SetAttribute<?, ?>);
     }
 
+    @Override
+    public boolean isConvertedBasicAttribute(EntityType<?> ownerType, String attributeName) {
+        AbstractEntityPersister entityPersister = getEntityPersister(ownerType);
+        if (entityPersister == null) {
+            return true;
+        }
+        Type propertyType = entityPersister.getPropertyType(attributeName);
+        // Only the standard basic types of Hibernate bind values as they are, attribute converters are adapted by types of other packages
+        return !(propertyType instanceof AbstractStandardBasicType<?>) || !"org.hibernate.type".equals(propertyType.getClass().getPackage().getName());
+    }
+
     @Override
     public boolean isOrphanRemoval(ManagedType<?> ownerType, String attributeName) {
         AbstractEntityPersister entityPersister = getEntityPersister(ownerType);
@@ -1497,6 +1513,21 @@ public class HibernateJpaProvider implements JpaProvider {
         query.setHint("org.hibernate.cacheable", true);
     }
 
+    @Override
+    public CloseableIterator<Object> getResultIterator(EntityManager em, Query query) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        // The entities that are managed before scrolling must never be evicted by the iterator
+        Set<Object> managedEntities = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        managedEntities.addAll(session.getPersistenceContext().getEntitiesByKey().values());
+        return new ScrollableResultsIterator((Session) session, query.unwrap(org.hibernate.Query.class).scroll(ScrollMode.FORWARD_ONLY), managedEntities);
+    }
+
+    @Override
+    public boolean hasPendingChanges(EntityManager em) {
+        Session session = em.unwrap(Session.class);
+        return FlushedChangesListener.INSTANCE.hasFlushedChanges(session) || session.isDirty();
+    }
+
     @Override
     public List<String> getIdentifierOrUniqueKeyEmbeddedPropertyNames(EntityType<?> owner, String attributeName) {
         return new ArrayList<>(getJoinMappingPropertyNames(owner, null, attributeName).keySet());
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.integration.hibernate.base;
+
+import com.blazebit.persistence.spi.DbmsDialect;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Executes a returning query and exposes the returned columns through a {@link ReturningResultSet}.
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public class ReturningPreparedStatement extends DelegatingPreparedStatement {
+
+    private final DbmsDialect dbmsDialect;
+    private final Map<String, Integer> aliasIndex;
+    private final HibernateReturningResult<?> returningResult;
+
+    public ReturningPreparedStatement(PreparedStatement delegate, DbmsDialect dbmsDialect, String[][] columns, HibernateReturningResult<?> returningResult) {
+        super(delegate);
+        this.dbmsDialect = dbmsDialect;
+        this.aliasIndex = new HashMap<String, Integer>(columns.length);
+        this.returningResult = returningResult;
+
+        for (int i = 0; i < columns.length; i++) {
+            aliasIndex.put(columns[i][1], i + 1);
+        }
+    }
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        ResultSet rs;
+        HibernateReturningResult<?> result;
+
+        if (delegate.execute()) {
+            rs = delegate.getResultSet();
+            result = returningResult;
+        } else {
+            result = null;
+            returningResult.setUpdateCount(delegate.getUpdateCount());
+            rs = dbmsDialect.extractReturningResult(delegate);
+        }
+
+        return new ReturningResultSet(rs, aliasIndex, result);
+    }
+
+}
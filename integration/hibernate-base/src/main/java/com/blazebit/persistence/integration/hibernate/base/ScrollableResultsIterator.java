@@ -0,0 +1,128 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.integration.hibernate.base;
+
+import com.blazebit.persistence.spi.EntityDetachingIterator;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A forward only iterator over Hibernate {@link ScrollableResults} that unwraps single element rows.
+ * The entities that were loaded by the scroll are evicted from the session on request, so the persistence context doesn't grow.
+ * Entities that were already managed before the query was executed are never evicted, as they might have unflushed changes.
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public class ScrollableResultsIterator implements EntityDetachingIterator<Object> {
+
+    private final Session session;
+    private final ScrollableResults results;
+    private final Set<Object> previouslyManagedEntities;
+    private final Set<Object> loadedEntities = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+    private Object[] currentRow;
+    private boolean advanced;
+    private boolean hasNext;
+    private boolean closed;
+
+    public ScrollableResultsIterator(Session session, ScrollableResults results, Set<Object> previouslyManagedEntities) {
+        this.session = session;
+        this.results = results;
+        this.previouslyManagedEntities = previouslyManagedEntities;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!advanced) {
+            advanced = true;
+            if (closed) {
+                hasNext = false;
+            } else {
+                hasNext = results.next();
+                if (!hasNext) {
+                    // Only release the cursor, the consumer might still use the entities of the last row
+                    closed = true;
+                    results.close();
+                }
+            }
+        }
+        return hasNext;
+    }
+
+    @Override
+    public Object next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        advanced = false;
+        Object[] row = results.get();
+        for (int i = 0; i < row.length; i++) {
+            if (row[i] != null && results.getType(i).isEntityType() && !previouslyManagedEntities.contains(row[i])) {
+                loadedEntities.add(row[i]);
+            }
+        }
+        currentRow = row;
+        return row.length == 1 ? row[0] : row;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void detachLoadedEntities(boolean keepCurrentElement) {
+        Iterator<Object> iterator = loadedEntities.iterator();
+        while (iterator.hasNext()) {
+            Object entity = iterator.next();
+            if (!keepCurrentElement || !isPartOfCurrentRow(entity)) {
+                iterator.remove();
+                if (session.contains(entity)) {
+                    session.evict(entity);
+                }
+            }
+        }
+    }
+
+    private boolean isPartOfCurrentRow(Object entity) {
+        if (currentRow != null) {
+            for (int i = 0; i < currentRow.length; i++) {
+                if (currentRow[i] == entity) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        detachLoadedEntities(false);
+        currentRow = null;
+        if (!closed) {
+            closed = true;
+            results.close();
+        }
+    }
+}
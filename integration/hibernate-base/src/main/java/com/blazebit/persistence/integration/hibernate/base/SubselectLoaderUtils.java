@@ -18,9 +18,6 @@ package com.blazebit.persistence.integration.hibernate.base;
 
 import org.hibernate.engine.spi.QueryParameters;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Proxy;
 import java.sql.PreparedStatement;
 
 /**
@@ -29,27 +26,11 @@ import java.sql.PreparedStatement;
  */
 public class SubselectLoaderUtils {
 
-    private static final Constructor<? extends PreparedStatement> PROXY_CONSTRUCTOR;
-
-    static {
-        try {
-            Class<? extends PreparedStatement> proxyClass = (Class<? extends PreparedStatement>)
-                    Proxy.getProxyClass(SubselectPreparedStatementProxyHandler.class.getClassLoader(), PreparedStatement.class);
-            PROXY_CONSTRUCTOR = proxyClass.getConstructor(InvocationHandler.class);
-        } catch (Exception e) {
-            throw new IllegalStateException(e);
-        }
-    }
-
     private SubselectLoaderUtils() {
     }
 
     public static PreparedStatement getPreparedStatementProxy(PreparedStatement delegate, QueryParameters queryParameters, int cteParameterCount, int selectParameterCount) {
-        try {
-            return PROXY_CONSTRUCTOR.newInstance(new SubselectPreparedStatementProxyHandler(delegate, queryParameters, cteParameterCount, selectParameterCount));
-        } catch (Exception e) {
-            throw new IllegalStateException(e);
-        }
+        return new SubselectPreparedStatement(delegate, queryParameters, cteParameterCount, selectParameterCount);
     }
 
     public static int applyCteAndCountParameters(String originalSql, StringBuilder sb) {
@@ -0,0 +1,486 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.integration.hibernate.base;
+
+import org.hibernate.engine.spi.QueryParameters;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLType;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+/**
+ * Hibernate always binds positioned parameters before named parameters, which is problematic
+ * for any CTE prepended to the query, for which its parameters will be bound out of order.
+ * This {@code PreparedStatement} ensures that the indexes used for parameter bindings
+ * are adjusted accordingly, effectively swapping the positional query parameters with the
+ * named query parameters in the CTE query segment.
+ *
+ * @author Jan-Willem Gmelig Meyling
+ * @since 1.5.0
+ */
+public class SubselectPreparedStatement extends DelegatingPreparedStatement {
+
+    private final int positionalParameterCount;
+    private final int cteParameterCount;
+    private final int selectParameterCount;
+
+    public SubselectPreparedStatement(PreparedStatement delegate, QueryParameters queryParameters, int cteParameterCount, int selectParameterCount) {
+        super(delegate);
+        this.positionalParameterCount = queryParameters.getFilteredPositionalParameterTypes().length;
+        this.cteParameterCount = cteParameterCount;
+        this.selectParameterCount = selectParameterCount;
+    }
+
+    /**
+     * Returns the index to use for the delegate or -1 if the parameter is a select parameter that must be skipped.
+     */
+    private int remapIndex(int parameterIndex) {
+        int ctePositionedParameterStartIndex = 1;
+        int cteNamedParameterStartIndex = ctePositionedParameterStartIndex + positionalParameterCount;
+        int regularNamedParameterStartIndex = cteNamedParameterStartIndex + cteParameterCount;
+
+        boolean isPositionedParamRegular = parameterIndex < cteNamedParameterStartIndex;
+        boolean isNamedParamCte = parameterIndex < regularNamedParameterStartIndex;
+        int index = parameterIndex + (isPositionedParamRegular ? cteParameterCount : isNamedParamCte ? -positionalParameterCount : 0);
+
+        if (index > cteParameterCount) {
+            // We skip the select parameters
+            index -= selectParameterCount;
+            if (index <= cteParameterCount) {
+                return -1;
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setNull(index, sqlType);
+        }
+    }
+
+    @Override
+    public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setBoolean(index, x);
+        }
+    }
+
+    @Override
+    public void setByte(int parameterIndex, byte x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setByte(index, x);
+        }
+    }
+
+    @Override
+    public void setShort(int parameterIndex, short x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setShort(index, x);
+        }
+    }
+
+    @Override
+    public void setInt(int parameterIndex, int x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setInt(index, x);
+        }
+    }
+
+    @Override
+    public void setLong(int parameterIndex, long x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setLong(index, x);
+        }
+    }
+
+    @Override
+    public void setFloat(int parameterIndex, float x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setFloat(index, x);
+        }
+    }
+
+    @Override
+    public void setDouble(int parameterIndex, double x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setDouble(index, x);
+        }
+    }
+
+    @Override
+    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setBigDecimal(index, x);
+        }
+    }
+
+    @Override
+    public void setString(int parameterIndex, String x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setString(index, x);
+        }
+    }
+
+    @Override
+    public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setBytes(index, x);
+        }
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setDate(index, x);
+        }
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setTime(index, x);
+        }
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setTimestamp(index, x);
+        }
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setAsciiStream(index, x, length);
+        }
+    }
+
+    @Deprecated
+    @Override
+    public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setUnicodeStream(index, x, length);
+        }
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setBinaryStream(index, x, length);
+        }
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setObject(index, x, targetSqlType);
+        }
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setObject(index, x);
+        }
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader x, int length) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setCharacterStream(index, x, length);
+        }
+    }
+
+    @Override
+    public void setRef(int parameterIndex, Ref x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setRef(index, x);
+        }
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, Blob x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setBlob(index, x);
+        }
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Clob x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setClob(index, x);
+        }
+    }
+
+    @Override
+    public void setArray(int parameterIndex, Array x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setArray(index, x);
+        }
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setDate(index, x, cal);
+        }
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setTime(index, x, cal);
+        }
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setTimestamp(index, x, cal);
+        }
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setNull(index, sqlType, typeName);
+        }
+    }
+
+    @Override
+    public void setURL(int parameterIndex, URL x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setURL(index, x);
+        }
+    }
+
+    @Override
+    public void setRowId(int parameterIndex, RowId x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setRowId(index, x);
+        }
+    }
+
+    @Override
+    public void setNString(int parameterIndex, String x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setNString(index, x);
+        }
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader x, long length) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setNCharacterStream(index, x, length);
+        }
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, NClob x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setNClob(index, x);
+        }
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader x, long length) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setClob(index, x, length);
+        }
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream x, long length) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setBlob(index, x, length);
+        }
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader x, long length) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setNClob(index, x, length);
+        }
+    }
+
+    @Override
+    public void setSQLXML(int parameterIndex, SQLXML x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setSQLXML(index, x);
+        }
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setObject(index, x, targetSqlType, scaleOrLength);
+        }
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setObject(index, x, targetSqlType, scaleOrLength);
+        }
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setObject(index, x, targetSqlType);
+        }
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setAsciiStream(index, x, length);
+        }
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setBinaryStream(index, x, length);
+        }
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader x, long length) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setCharacterStream(index, x, length);
+        }
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setAsciiStream(index, x);
+        }
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setBinaryStream(index, x);
+        }
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setCharacterStream(index, x);
+        }
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setNCharacterStream(index, x);
+        }
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setClob(index, x);
+        }
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setBlob(index, x);
+        }
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader x) throws SQLException {
+        int index = remapIndex(parameterIndex);
+        if (index != -1) {
+            delegate.setNClob(index, x);
+        }
+    }
+
+}
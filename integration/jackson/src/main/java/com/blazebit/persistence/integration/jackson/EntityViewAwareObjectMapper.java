@@ -27,14 +27,20 @@ import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationConfig;
 import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
 import com.fasterxml.jackson.databind.introspect.AnnotatedMethod;
 import com.fasterxml.jackson.databind.introspect.VisibilityChecker;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Christian Beikov
@@ -59,6 +65,22 @@ public class EntityViewAwareObjectMapper {
                 return deserializer;
             }
         });
+        module.setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc, List<BeanPropertyWriter> beanProperties) {
+                ManagedViewType<?> view = EntityViewPropertyWriter.getManagedViewType(entityViewManager, beanDesc.getBeanClass());
+                if (view == null) {
+                    return beanProperties;
+                }
+                // Replace the reflection based writers of primitive and string attributes with ones that write values without boxing
+                Set<String> attributeGetterNames = EntityViewPropertyWriter.getAttributeGetterNames(view);
+                List<BeanPropertyWriter> properties = new ArrayList<>(beanProperties.size());
+                for (BeanPropertyWriter beanProperty : beanProperties) {
+                    properties.add(EntityViewPropertyWriter.optimize(beanProperty, attributeGetterNames));
+                }
+                return properties;
+            }
+        });
         objectMapper.registerModule(module);
         // We need this property, otherwise Jackson thinks it can use non-visible setters as mutators
         objectMapper.configure(MapperFeature.INFER_PROPERTY_MUTATORS, false);
@@ -0,0 +1,423 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.integration.jackson;
+
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.metamodel.ManagedViewType;
+import com.blazebit.persistence.view.metamodel.MethodAttribute;
+import com.blazebit.persistence.view.spi.type.EntityViewProxy;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMethod;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.std.BooleanSerializer;
+import com.fasterxml.jackson.databind.ser.std.NumberSerializers;
+import com.fasterxml.jackson.databind.ser.std.StringSerializer;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A {@link BeanPropertyWriter} for entity view attributes of primitive or string type that accesses the attribute
+ * through a {@link MethodHandle} and writes the value directly to the {@link JsonGenerator} without boxing.
+ * Since the bean property writer is derived from the one that Jackson introspected, naming, ordering and ignore semantics are retained.
+ * If Jackson resolved a serializer other than its standard serializer for the type, e.g. through a module or {@code @JsonFormat},
+ * the value is written through the default implementation.
+ *
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+public abstract class EntityViewPropertyWriter extends BeanPropertyWriter {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    protected final transient MethodHandle getter;
+    private final Class<?> defaultSerializerClass;
+
+    /**
+     * Creates a new property writer based on the given property writer that uses the given getter.
+     *
+     * @param base The property writer as introspected by Jackson
+     * @param getter The method handle for the getter adapted to take an {@link Object}
+     * @param defaultSerializerClass The class of the Jackson standard serializer for the property type
+     */
+    protected EntityViewPropertyWriter(BeanPropertyWriter base, MethodHandle getter, Class<?> defaultSerializerClass) {
+        super(base);
+        this.getter = getter;
+        this.defaultSerializerClass = defaultSerializerClass;
+    }
+
+    /**
+     * Returns whether the serializer that Jackson resolved for this property is the standard serializer for the property type.
+     * The serializer is assigned during resolution of the bean serializer, after the properties were changed.
+     * Note that checking for a Jackson standard implementation isn't enough, as e.g. {@code @JsonFormat(shape = STRING)} resolves to the
+     * standard {@link com.fasterxml.jackson.databind.ser.std.ToStringSerializer}.
+     *
+     * @return whether the value can be written directly
+     */
+    protected final boolean hasDefaultSerializer() {
+        return _serializer != null && _serializer.getClass() == defaultSerializerClass;
+    }
+
+    /**
+     * Returns the managed view type for the given class, which may be an entity view proxy class, or <code>null</code>.
+     *
+     * @param entityViewManager The entity view manager
+     * @param clazz The class
+     * @return the managed view type or <code>null</code>
+     */
+    public static ManagedViewType<?> getManagedViewType(EntityViewManager entityViewManager, Class<?> clazz) {
+        ManagedViewType<?> managedViewType = entityViewManager.getMetamodel().managedView(clazz);
+        if (managedViewType != null || !EntityViewProxy.class.isAssignableFrom(clazz)) {
+            return managedViewType;
+        }
+        if (clazz.getSuperclass() != null && (managedViewType = entityViewManager.getMetamodel().managedView(clazz.getSuperclass())) != null) {
+            return managedViewType;
+        }
+        for (Class<?> interfaceClass : clazz.getInterfaces()) {
+            if ((managedViewType = entityViewManager.getMetamodel().managedView(interfaceClass)) != null) {
+                return managedViewType;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the names of the getter methods of the attributes of the given managed view type.
+     *
+     * @param managedViewType The managed view type
+     * @return the getter method names
+     */
+    public static Set<String> getAttributeGetterNames(ManagedViewType<?> managedViewType) {
+        Set<String> getterNames = new HashSet<>();
+        for (MethodAttribute<?, ?> attribute : managedViewType.getAttributes()) {
+            getterNames.add(attribute.getJavaMethod().getName());
+        }
+        return getterNames;
+    }
+
+    /**
+     * Returns an optimized property writer for the given property writer if it writes an entity view attribute of primitive or string type
+     * with the default serialization, otherwise returns the given property writer.
+     *
+     * @param writer The property writer as introspected by Jackson
+     * @param attributeGetterNames The getter method names of the entity view attributes
+     * @return the optimized property writer or the given property writer
+     */
+    public static BeanPropertyWriter optimize(BeanPropertyWriter writer, Set<String> attributeGetterNames) {
+        AnnotatedMember member = writer.getMember();
+        if (!(member instanceof AnnotatedMethod) || writer.hasSerializer() || writer.hasNullSerializer() || writer.getTypeSerializer() != null) {
+            return writer;
+        }
+        Method method = ((AnnotatedMethod) member).getAnnotated();
+        if (method.getParameterTypes().length != 0 || !attributeGetterNames.contains(method.getName())) {
+            return writer;
+        }
+        Class<?> type = method.getReturnType();
+        MethodHandle getter;
+        try {
+            method.setAccessible(true);
+            getter = LOOKUP.unreflect(method).asType(MethodType.methodType(type, Object.class));
+        } catch (RuntimeException | IllegalAccessException ex) {
+            return writer;
+        }
+        EntityViewPropertyWriter optimizedWriter;
+        if (type == int.class) {
+            optimizedWriter = new IntPropertyWriter(writer, getter);
+        } else if (type == long.class) {
+            optimizedWriter = new LongPropertyWriter(writer, getter);
+        } else if (type == boolean.class) {
+            optimizedWriter = new BooleanPropertyWriter(writer, getter);
+        } else if (type == double.class) {
+            optimizedWriter = new DoublePropertyWriter(writer, getter);
+        } else if (type == float.class) {
+            optimizedWriter = new FloatPropertyWriter(writer, getter);
+        } else if (type == short.class) {
+            optimizedWriter = new ShortPropertyWriter(writer, getter);
+        } else if (type == byte.class) {
+            optimizedWriter = new BytePropertyWriter(writer, getter);
+        } else if (type == String.class) {
+            optimizedWriter = new StringPropertyWriter(writer, getter);
+        } else {
+            return writer;
+        }
+        // Value suppression through inclusion rules is left to the default implementation
+        return optimizedWriter.hasDefaultInclusion() ? optimizedWriter : writer;
+    }
+
+    private boolean hasDefaultInclusion() {
+        return !_suppressNulls && _suppressableValue == null;
+    }
+
+    /**
+     * Rethrows the given throwable as exception.
+     *
+     * @param t The throwable
+     * @return the exception to throw
+     */
+    protected static Exception rethrow(Throwable t) {
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        if (t instanceof Exception) {
+            return (Exception) t;
+        }
+        return new RuntimeException(t);
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private static final class IntPropertyWriter extends EntityViewPropertyWriter {
+
+        private static final long serialVersionUID = 1L;
+
+        public IntPropertyWriter(BeanPropertyWriter base, MethodHandle getter) {
+            super(base, getter, NumberSerializers.IntegerSerializer.class);
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            if (!hasDefaultSerializer()) {
+                super.serializeAsField(bean, gen, prov);
+                return;
+            }
+            int value;
+            try {
+                value = (int) getter.invokeExact(bean);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+            gen.writeFieldName(_name);
+            gen.writeNumber(value);
+        }
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private static final class LongPropertyWriter extends EntityViewPropertyWriter {
+
+        private static final long serialVersionUID = 1L;
+
+        public LongPropertyWriter(BeanPropertyWriter base, MethodHandle getter) {
+            super(base, getter, NumberSerializers.LongSerializer.class);
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            if (!hasDefaultSerializer()) {
+                super.serializeAsField(bean, gen, prov);
+                return;
+            }
+            long value;
+            try {
+                value = (long) getter.invokeExact(bean);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+            gen.writeFieldName(_name);
+            gen.writeNumber(value);
+        }
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private static final class BooleanPropertyWriter extends EntityViewPropertyWriter {
+
+        private static final long serialVersionUID = 1L;
+
+        public BooleanPropertyWriter(BeanPropertyWriter base, MethodHandle getter) {
+            super(base, getter, BooleanSerializer.class);
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            if (!hasDefaultSerializer()) {
+                super.serializeAsField(bean, gen, prov);
+                return;
+            }
+            boolean value;
+            try {
+                value = (boolean) getter.invokeExact(bean);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+            gen.writeFieldName(_name);
+            gen.writeBoolean(value);
+        }
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private static final class DoublePropertyWriter extends EntityViewPropertyWriter {
+
+        private static final long serialVersionUID = 1L;
+
+        public DoublePropertyWriter(BeanPropertyWriter base, MethodHandle getter) {
+            super(base, getter, NumberSerializers.DoubleSerializer.class);
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            if (!hasDefaultSerializer()) {
+                super.serializeAsField(bean, gen, prov);
+                return;
+            }
+            double value;
+            try {
+                value = (double) getter.invokeExact(bean);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+            gen.writeFieldName(_name);
+            gen.writeNumber(value);
+        }
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private static final class FloatPropertyWriter extends EntityViewPropertyWriter {
+
+        private static final long serialVersionUID = 1L;
+
+        public FloatPropertyWriter(BeanPropertyWriter base, MethodHandle getter) {
+            super(base, getter, NumberSerializers.FloatSerializer.class);
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            if (!hasDefaultSerializer()) {
+                super.serializeAsField(bean, gen, prov);
+                return;
+            }
+            float value;
+            try {
+                value = (float) getter.invokeExact(bean);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+            gen.writeFieldName(_name);
+            gen.writeNumber(value);
+        }
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private static final class ShortPropertyWriter extends EntityViewPropertyWriter {
+
+        private static final long serialVersionUID = 1L;
+
+        public ShortPropertyWriter(BeanPropertyWriter base, MethodHandle getter) {
+            super(base, getter, NumberSerializers.ShortSerializer.class);
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            if (!hasDefaultSerializer()) {
+                super.serializeAsField(bean, gen, prov);
+                return;
+            }
+            short value;
+            try {
+                value = (short) getter.invokeExact(bean);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+            gen.writeFieldName(_name);
+            gen.writeNumber(value);
+        }
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private static final class BytePropertyWriter extends EntityViewPropertyWriter {
+
+        private static final long serialVersionUID = 1L;
+
+        public BytePropertyWriter(BeanPropertyWriter base, MethodHandle getter) {
+            super(base, getter, NumberSerializers.IntLikeSerializer.class);
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            if (!hasDefaultSerializer()) {
+                super.serializeAsField(bean, gen, prov);
+                return;
+            }
+            byte value;
+            try {
+                value = (byte) getter.invokeExact(bean);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+            gen.writeFieldName(_name);
+            gen.writeNumber(value);
+        }
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private static final class StringPropertyWriter extends EntityViewPropertyWriter {
+
+        private static final long serialVersionUID = 1L;
+
+        public StringPropertyWriter(BeanPropertyWriter base, MethodHandle getter) {
+            super(base, getter, StringSerializer.class);
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            if (!hasDefaultSerializer()) {
+                super.serializeAsField(bean, gen, prov);
+                return;
+            }
+            String value;
+            try {
+                value = (String) getter.invokeExact(bean);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+            if (value == null) {
+                // Let the default implementation handle null serializers
+                super.serializeAsField(bean, gen, prov);
+            } else {
+                gen.writeFieldName(_name);
+                gen.writeString(value);
+            }
+        }
+    }
+}
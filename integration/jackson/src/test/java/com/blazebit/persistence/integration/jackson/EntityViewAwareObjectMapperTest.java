@@ -25,17 +25,24 @@ import com.blazebit.persistence.view.IdMapping;
 import com.blazebit.persistence.view.UpdatableEntityView;
 import com.blazebit.persistence.view.spi.EntityViewConfiguration;
 import com.blazebit.persistence.view.spi.type.EntityViewProxy;
+import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.exc.IgnoredPropertyException;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
+import java.io.IOException;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.List;
@@ -306,6 +313,57 @@ public class EntityViewAwareObjectMapperTest {
         void setName(String name);
     }
 
+    @Test
+    public void testWriteView() throws Exception {
+        EntityViewAwareObjectMapper mapper = mapper(CreatableViewWithSetters.class, NameView.class);
+        ObjectReader objectReader = mapper.readerFor(mapper.getObjectMapper().constructType(CreatableViewWithSetters.class));
+        CreatableViewWithSetters view = objectReader.readValue("{\"name\": \"test\", \"parent\": {\"id\": 2}}");
+        JsonNode tree = mapper.getObjectMapper().readTree(mapper.getObjectMapper().writeValueAsString(view));
+        Assert.assertEquals(0L, tree.get("id").longValue());
+        Assert.assertEquals("test", tree.get("name").textValue());
+        Assert.assertEquals(2L, tree.get("parent").get("id").longValue());
+        Assert.assertTrue(tree.get("parent").get("name").isNull());
+    }
+
+    @Test
+    public void testWriteViewWithIgnoreId() throws Exception {
+        EntityViewAwareObjectMapper mapper = mapper(CreatableWithIgnoreId.class);
+        ObjectReader objectReader = mapper.readerFor(mapper.getObjectMapper().constructType(CreatableWithIgnoreId.class));
+        CreatableWithIgnoreId view = objectReader.readValue("{\"name\": \"test\"}");
+        JsonNode tree = mapper.getObjectMapper().readTree(mapper.getObjectMapper().writeValueAsString(view));
+        Assert.assertFalse(tree.has("id"));
+        Assert.assertEquals("test", tree.get("name").textValue());
+    }
+
+    @Test
+    public void testWriteViewWithCustomSerializers() throws Exception {
+        EntityViewAwareObjectMapper mapper = mapper(CreatableWithStringId.class);
+        SimpleModule module = new SimpleModule();
+        module.addSerializer(String.class, new StdSerializer<String>(String.class) {
+            @Override
+            public void serialize(String value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+                gen.writeString(value.toUpperCase());
+            }
+        });
+        mapper.getObjectMapper().registerModule(module);
+        ObjectReader objectReader = mapper.readerFor(mapper.getObjectMapper().constructType(CreatableWithStringId.class));
+        CreatableWithStringId view = objectReader.readValue("{\"name\": \"test\"}");
+        JsonNode tree = mapper.getObjectMapper().readTree(mapper.getObjectMapper().writeValueAsString(view));
+        Assert.assertTrue(tree.get("id").isTextual());
+        Assert.assertEquals("0", tree.get("id").textValue());
+        Assert.assertEquals("TEST", tree.get("name").textValue());
+    }
+
+    @EntityView(SomeEntity.class)
+    @CreatableEntityView
+    interface CreatableWithStringId {
+        @IdMapping
+        @JsonFormat(shape = JsonFormat.Shape.STRING)
+        long getId();
+        String getName();
+        void setName(String name);
+    }
+
     @Test
     public void testUpdatableWithCollectionWithSetter() throws Exception {
         EntityViewAwareObjectMapper mapper = mapper(UpdatableWithCollectionWithSetter.class, NameView.class);
@@ -16,11 +16,13 @@
 
 package com.blazebit.persistence.integration.openjpa;
 
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.JoinType;
 import com.blazebit.persistence.integration.jpa.JpaMetamodelAccessorImpl;
 import com.blazebit.persistence.spi.JoinTable;
 import com.blazebit.persistence.spi.JpaMetamodelAccessor;
 import com.blazebit.persistence.spi.JpaProvider;
+import org.apache.openjpa.persistence.OpenJPAPersistence;
 import org.apache.openjpa.persistence.OpenJPAQuery;
 
 import javax.persistence.EntityManager;
@@ -273,6 +275,12 @@ public class OpenJPAJpaProvider implements JpaProvider {
         return false;
     }
 
+    @Override
+    public boolean isConvertedBasicAttribute(EntityType<?> ownerType, String attributeName) {
+        // We don't inspect the type handling of the provider, so we have to be conservative
+        return true;
+    }
+
     @Override
     public boolean isOrphanRemoval(ManagedType<?> ownerType, String attributeName) {
         return false;
@@ -385,6 +393,17 @@ public class OpenJPAJpaProvider implements JpaProvider {
         }
     }
 
+    @Override
+    public CloseableIterator<Object> getResultIterator(EntityManager em, Query query) {
+        return null;
+    }
+
+    @Override
+    public boolean hasPendingChanges(EntityManager em) {
+        // We can't tell if changes were flushed, so we have to assume that an active transaction did changes
+        return OpenJPAPersistence.cast(em).isTransactionActive();
+    }
+
     private Attribute<?, ?> getAttribute(ManagedType<?> ownerType, String attributeName) {
         if (attributeName.indexOf('.') == -1) {
             return ownerType.getAttribute(attributeName);
@@ -23,6 +23,7 @@ import com.blazebit.persistence.integration.quarkus.runtime.DefaultCriteriaBuild
 import com.blazebit.persistence.integration.quarkus.runtime.DefaultEntityViewManagerProducer;
 import com.blazebit.persistence.integration.quarkus.runtime.EntityViewConfigurationHolder;
 import com.blazebit.persistence.integration.quarkus.runtime.EntityViewRecorder;
+import com.blazebit.persistence.parser.expression.BoundedExpressionCache;
 import com.blazebit.persistence.parser.expression.ConcurrentHashMapExpressionCache;
 import io.quarkus.arc.deployment.AdditionalBeanBuildItem;
 import io.quarkus.arc.deployment.BeanContainerListenerBuildItem;
@@ -110,6 +111,7 @@ class BlazePersistenceProcessor {
                     BuildProducer<ReflectiveClassBuildItem> reflectionProducer) {
         reflectionProducer.produce(new ReflectiveClassBuildItem(true, true, ValuesEntity.class));
         reflectionProducer.produce(new ReflectiveClassBuildItem(true, false, false, ConcurrentHashMapExpressionCache.class));
+        reflectionProducer.produce(new ReflectiveClassBuildItem(true, false, false, BoundedExpressionCache.class));
         reflectionProducer.produce(new ReflectiveClassBuildItem(true, false, false, "com.blazebit.persistence.integration.hibernate.CustomOneToManyPersister"));
         reflectionProducer.produce(new ReflectiveClassBuildItem(true, false, false, "com.blazebit.persistence.integration.hibernate.CustomBasicCollectionPersister"));
         reflectionProducer.produce(ReflectiveClassBuildItem.builder("org.hibernate.dialect.function.SQLFunctionRegistry")
@@ -51,6 +51,7 @@ import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -200,26 +201,43 @@ public abstract class AbstractPartTreeBlazePersistenceQuery extends AbstractJpaQ
 
             this.persistenceProvider = persistenceProvider;
 
-            FixedJpaQueryCreator creator = createCreator(null, persistenceProvider);
+            CompiledQuery compiledQuery = recreateQueries ? null : compile();
 
-            this.cachedCriteriaQuery = recreateQueries ? null : invokeQueryCreator(creator, null);
-            this.expressions = recreateQueries ? null : creator.getParameterExpressions();
+            this.cachedCriteriaQuery = compiledQuery == null ? null : compiledQuery.criteriaQuery;
+            this.expressions = compiledQuery == null ? null : compiledQuery.expressions;
         }
 
         /******************************************
          * Moritz Becker, Christian Beikov:
          * The following methods were modified to work with entity views.
          ******************************************/
-        private TypedQuery<?> createQuery(CriteriaQuery<?> criteriaQuery, Object[] values) {
-            if (this.cachedCriteriaQuery != null) {
-                synchronized (this.cachedCriteriaQuery) {
-                    return createQuery0(criteriaQuery, values);
-                }
-            }
-            return createQuery0(criteriaQuery, values);
+
+        /**
+         * Creates the criteria query template that is shared by all invocations along with the parameter expressions to bind.
+         * Rendering a criteria query lazily assigns aliases and names to unnamed parameters, so we render it once upfront.
+         * Subsequent renderings only read the template which allows concurrent invocations to create queries without locking.
+         *
+         * @return the compiled query or <code>null</code> if queries must be created per invocation
+         */
+        protected CompiledQuery compile() {
+            FixedJpaQueryCreator creator = createCreator(null, persistenceProvider);
+            CriteriaQuery<?> criteriaQuery = invokeQueryCreator(creator, null);
+            ((BlazeCriteriaQuery<?>) criteriaQuery).createCriteriaBuilder(getEntityManager());
+            return new CompiledQuery(criteriaQuery, creator.getParameterExpressions());
         }
 
-        protected TypedQuery<?> createQuery0(CriteriaQuery<?> criteriaQuery, Object[] values) {
+        /**
+         * Returns whether the invocation must create its own criteria query instead of using the shared template.
+         * A specification adds its predicate to the criteria query, so it must never be applied to the shared template.
+         *
+         * @param accessor The parameter accessor of the invocation
+         * @return whether a criteria query must be created for the invocation
+         */
+        private boolean needsCriteriaQueryPerInvocation(ParametersParameterAccessor accessor) {
+            return cachedCriteriaQuery == null || accessor.hasBindableNullValue() || parameters.hasSpecificationParameter();
+        }
+
+        protected TypedQuery<?> createQuery(CriteriaQuery<?> criteriaQuery, Object[] values) {
             processSpecification(criteriaQuery, values);
 
             com.blazebit.persistence.CriteriaBuilder<?> cb = ((BlazeCriteriaQuery<?>) criteriaQuery).createCriteriaBuilder(getEntityManager());
@@ -257,7 +275,7 @@ public abstract class AbstractPartTreeBlazePersistenceQuery extends AbstractJpaQ
             List<ParameterMetadataProvider.ParameterMetadata<?>> expressions = this.expressions;
             ParametersParameterAccessor accessor = new ParametersParameterAccessor(parameters, values);
 
-            if (cachedCriteriaQuery == null || accessor.hasBindableNullValue()) {
+            if (needsCriteriaQueryPerInvocation(accessor)) {
                 FixedJpaQueryCreator creator = createCreator(accessor, persistenceProvider);
                 criteriaQuery = invokeQueryCreator(creator, appliesSortThroughAttributeSorters() ? null : getDynamicSort(values));
                 expressions = creator.getParameterExpressions();
@@ -391,7 +409,7 @@ public abstract class AbstractPartTreeBlazePersistenceQuery extends AbstractJpaQ
             List<ParameterMetadataProvider.ParameterMetadata<?>> expressions = this.expressions;
             ParametersParameterAccessor accessor = new ParametersParameterAccessor(parameters, values);
 
-            if (cachedCriteriaQuery == null || accessor.hasBindableNullValue()) {
+            if (needsCriteriaQueryPerInvocation(accessor)) {
                 FixedJpaQueryCreator creator = createCreator(accessor, persistenceProvider);
                 criteriaQuery = invokeQueryCreator(creator, appliesSortThroughAttributeSorters() ? null : getDynamicSort(values));
                 expressions = creator.getParameterExpressions();
@@ -462,6 +480,23 @@ public abstract class AbstractPartTreeBlazePersistenceQuery extends AbstractJpaQ
         }
     }
 
+    /**
+     * The immutable form of a derived query that can be shared between concurrent invocations.
+     *
+     * @author Christian Beikov
+     * @since 1.5.0
+     */
+    private static final class CompiledQuery {
+
+        private final CriteriaQuery<?> criteriaQuery;
+        private final List<ParameterMetadataProvider.ParameterMetadata<?>> expressions;
+
+        public CompiledQuery(CriteriaQuery<?> criteriaQuery, List<ParameterMetadataProvider.ParameterMetadata<?>> expressions) {
+            this.criteriaQuery = criteriaQuery;
+            this.expressions = Collections.unmodifiableList(new ArrayList<>(expressions));
+        }
+    }
+
     /**
      * Special {@link PartTreeJpaQuery.QueryPreparer} to create count queries.
      *
@@ -499,8 +534,17 @@ public abstract class AbstractPartTreeBlazePersistenceQuery extends AbstractJpaQ
             return binder.bind(query);
         }
 
+        /**
+         * Count queries are built with the criteria implementation of the JPA provider which gives no guarantees about
+         * concurrent rendering, so we create them per invocation instead of sharing a template.
+         */
+        @Override
+        protected CompiledQuery compile() {
+            return null;
+        }
+
         @Override
-        protected TypedQuery<?> createQuery0(CriteriaQuery<?> criteriaQuery, Object[] values) {
+        protected TypedQuery<?> createQuery(CriteriaQuery<?> criteriaQuery, Object[] values) {
             return getEntityManager().createQuery(criteriaQuery);
         }
 
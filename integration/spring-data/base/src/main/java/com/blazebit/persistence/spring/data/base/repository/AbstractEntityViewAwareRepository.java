@@ -24,6 +24,7 @@ import com.blazebit.persistence.criteria.BlazeCriteriaBuilder;
 import com.blazebit.persistence.criteria.BlazeCriteriaQuery;
 import com.blazebit.persistence.criteria.BlazeCriteria;
 import com.blazebit.persistence.parser.EntityMetamodel;
+import com.blazebit.persistence.spi.DbmsDialect;
 import com.blazebit.persistence.spi.ExtendedManagedType;
 import com.blazebit.persistence.spring.data.base.EntityViewSortUtil;
 import com.blazebit.persistence.spring.data.base.query.KeysetAwarePageImpl;
@@ -77,6 +78,7 @@ public abstract class AbstractEntityViewAwareRepository<V, E, ID extends Seriali
     private static final String ID_MUST_NOT_BE_NULL = "The given id must not be null!";
     private static final String DELETE_ALL_QUERY_STRING = "delete from %s x";
     private static final String[] EMPTY = new String[0];
+    private static final int DEFAULT_ID_CHUNK_SIZE = 1024;
 
     private final JpaEntityInformation<E, ?> entityInformation;
     private final EntityManager entityManager;
@@ -84,6 +86,7 @@ public abstract class AbstractEntityViewAwareRepository<V, E, ID extends Seriali
     private final EntityViewManager evm;
     private final Class<V> entityViewClass;
     private final String idAttributeName;
+    private final int idChunkSize;
 
     private EntityViewAwareCrudMethodMetadata metadata;
 
@@ -94,6 +97,16 @@ public abstract class AbstractEntityViewAwareRepository<V, E, ID extends Seriali
         this.evm = evm;
         this.entityViewClass = entityViewClass;
         this.idAttributeName = getIdAttribute(getDomainClass());
+        this.idChunkSize = getIdChunkSize(cbf.getService(DbmsDialect.class));
+    }
+
+    private static int getIdChunkSize(DbmsDialect dbmsDialect) {
+        int maximumInListSize = dbmsDialect == null ? -1 : dbmsDialect.getMaximumInListSize();
+        if (maximumInListSize < 1) {
+            return DEFAULT_ID_CHUNK_SIZE;
+        }
+        // Use a power of two so that IN list padding can't exceed the limit of the dbms
+        return Math.min(DEFAULT_ID_CHUNK_SIZE, Integer.highestOneBit(maximumInListSize));
     }
 
     public void setRepositoryMethodMetadata(EntityViewAwareCrudMethodMetadata crudMethodMetadata) {
@@ -216,6 +229,7 @@ public abstract class AbstractEntityViewAwareRepository<V, E, ID extends Seriali
 
     @Transactional
     public void deleteAll() {
+        // Remove the elements one by one so that they become detached and lifecycle callbacks and cascades are invoked
         for (E element : (Iterable<E>) findAll()) {
             delete(element);
         }
@@ -240,7 +254,9 @@ public abstract class AbstractEntityViewAwareRepository<V, E, ID extends Seriali
 
     @Transactional
     public void deleteAllInBatch() {
-        entityManager.createQuery(getQueryString(DELETE_ALL_QUERY_STRING, entityInformation.getEntityName())).executeUpdate();
+        // Like in Spring Data JPA, lifecycle callbacks are not invoked and managed entities are not detached
+        // The delete criteria builder also deletes the collection table entries of the deleted entities
+        cbf.delete(entityManager, getDomainClass()).executeUpdate();
     }
 
     public E getOne(ID id) {
@@ -373,6 +389,19 @@ public abstract class AbstractEntityViewAwareRepository<V, E, ID extends Seriali
         for (ID id : idIterable) {
             idList.add(id);
         }
+        if (idList.size() <= idChunkSize) {
+            return createFindAllByIdsQuery(idList).getResultList();
+        }
+
+        // Query the ids in chunks to avoid exceeding the limits of the dbms
+        List<V> result = new ArrayList<>(idList.size());
+        for (int i = 0; i < idList.size(); i += idChunkSize) {
+            result.addAll(createFindAllByIdsQuery(idList.subList(i, Math.min(i + idChunkSize, idList.size()))).getResultList());
+        }
+        return result;
+    }
+
+    private TypedQuery<V> createFindAllByIdsQuery(List<ID> idList) {
         CriteriaBuilder<?> cb = cbf.create(entityManager, getDomainClass())
                 .where(idAttributeName).in(idList);
 
@@ -390,7 +419,7 @@ public abstract class AbstractEntityViewAwareRepository<V, E, ID extends Seriali
 
         applyRepositoryMethodMetadata(findAllByIdsQuery, fetches.length == 0);
 
-        return findAllByIdsQuery.getResultList();
+        return findAllByIdsQuery;
     }
 
     private String getIdAttribute(Class<?> entityClass) {
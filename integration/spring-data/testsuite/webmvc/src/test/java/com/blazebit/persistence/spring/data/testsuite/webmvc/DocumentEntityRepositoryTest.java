@@ -0,0 +1,110 @@
+/*
+ * Copyright 2014 - 2020 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.spring.data.testsuite.webmvc;
+
+import com.blazebit.persistence.integration.view.spring.EnableEntityViews;
+import com.blazebit.persistence.spring.data.impl.repository.BlazePersistenceRepositoryFactoryBean;
+import com.blazebit.persistence.spring.data.testsuite.webmvc.entity.Document;
+import com.blazebit.persistence.spring.data.testsuite.webmvc.repository.DocumentEntityRepository;
+import com.blazebit.persistence.spring.data.testsuite.webmvc.tx.TransactionalWorkService;
+import com.blazebit.persistence.spring.data.testsuite.webmvc.tx.TxVoidWork;
+import com.blazebit.persistence.spring.data.testsuite.webmvc.tx.TxWork;
+import com.blazebit.persistence.view.EntityViewManager;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.ImportResource;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+
+import javax.persistence.EntityManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * @author Christian Beikov
+ * @since 1.5.0
+ */
+@ContextConfiguration(classes = DocumentEntityRepositoryTest.TestConfig.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class DocumentEntityRepositoryTest extends AbstractSpringTest {
+
+    @Autowired
+    private TransactionalWorkService transactionalWorkService;
+
+    @Autowired
+    private DocumentEntityRepository documentEntityRepository;
+
+    @Test
+    public void testDeleteAllDetachesDeletedEntities() {
+        // Given
+        final Document d1 = createDocument("D1");
+        createDocument("D2");
+
+        // When
+        transactionalWorkService.doTxWork(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em, EntityViewManager evm) {
+                Document document = em.find(Document.class, d1.getId());
+                documentEntityRepository.deleteAll();
+
+                // Then
+                assertFalse(em.contains(document));
+            }
+        });
+        assertEquals(0, documentEntityRepository.count());
+    }
+
+    @Test
+    public void testDeleteAllInBatch() {
+        // Given
+        createDocument("D1");
+        createDocument("D2");
+
+        // When
+        documentEntityRepository.deleteAllInBatch();
+
+        // Then
+        assertEquals(0, documentEntityRepository.count());
+    }
+
+    private Document createDocument(final String name) {
+        return transactionalWorkService.doTxWork(new TxWork<Document>() {
+            @Override
+            public Document work(EntityManager em, EntityViewManager evm) {
+                Document d = new Document(name);
+                em.persist(d);
+                return d;
+            }
+        });
+    }
+
+    @Configuration
+    @ComponentScan(excludeFilters = @ComponentScan.Filter(type = FilterType.REGEX, pattern = ".*TestConfig"))
+    @ImportResource("classpath:/com/blazebit/persistence/spring/data/testsuite/webmvc/application-config.xml")
+    @EnableEntityViews(basePackages = "com.blazebit.persistence.spring.data.testsuite.webmvc.view")
+    @EnableJpaRepositories(
+            basePackages = "com.blazebit.persistence.spring.data.testsuite.webmvc.repository",
+            entityManagerFactoryRef = "myEmf",
+            repositoryFactoryBeanClass = BlazePersistenceRepositoryFactoryBean.class)
+    static class TestConfig {
+    }
+}
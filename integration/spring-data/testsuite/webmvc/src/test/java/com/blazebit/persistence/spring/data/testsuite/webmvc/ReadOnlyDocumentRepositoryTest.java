@@ -68,6 +68,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.*;
 
@@ -185,6 +189,31 @@ public class ReadOnlyDocumentRepositoryTest extends AbstractSpringTest {
         assertTrue(actualIds.contains(d2.getId()));
     }
 
+    @Test
+    public void testFindAllByIdsChunked() {
+        // ignored with EclipseLink due to IN collection rendering bug
+        Assume.assumeFalse(isEntityRepository() && isEclipseLink());
+        // Given
+        final Document d1 = createDocument("D1");
+        final Document d2 = createDocument("D2");
+        List<Long> ids = new ArrayList<>();
+        ids.add(d1.getId());
+        // Add enough ids to require multiple chunks
+        for (long i = 1; i <= 2500; i++) {
+            ids.add(-i);
+        }
+        ids.add(d2.getId());
+
+        // When
+        Iterable<DocumentAccessor> actual = DocumentAccessors.of(readOnlyDocumentRepository.findAll(ids));
+        List<Long> actualIds = getIdsFromViews(actual);
+
+        // Then
+        assertEquals(2, actualIds.size());
+        assertTrue(actualIds.contains(d1.getId()));
+        assertTrue(actualIds.contains(d2.getId()));
+    }
+
     @Test
     public void testCount() {
         // Given
@@ -211,6 +240,37 @@ public class ReadOnlyDocumentRepositoryTest extends AbstractSpringTest {
         assertEquals(d1.getId(), result.get(0).getId());
     }
 
+    @Test
+    public void testFindByNameConcurrently() throws Exception {
+        // Given
+        final Document d1 = createDocument("D1");
+        final Document d2 = createDocument("D2");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<List<DocumentAccessor>>> futures = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < 16; i++) {
+                final String name = i % 2 == 0 ? d1.getName() : d2.getName();
+                futures.add(executor.submit(new Callable<List<DocumentAccessor>>() {
+                    @Override
+                    public List<DocumentAccessor> call() {
+                        return DocumentAccessors.of(readOnlyDocumentRepository.findByName(name));
+                    }
+                }));
+            }
+
+            // Then
+            for (int i = 0; i < futures.size(); i++) {
+                List<DocumentAccessor> result = futures.get(i).get();
+                assertEquals(1, result.size());
+                assertEquals(i % 2 == 0 ? d1.getId() : d2.getId(), result.get(0).getId());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void testFindByDescription() {
         // Given
@@ -567,6 +627,43 @@ public class ReadOnlyDocumentRepositoryTest extends AbstractSpringTest {
         assertEquals(actual.get(0).getOptionalParameter(), param);
     }
 
+    @Test
+    public void testFindAllBySpecConcurrently() throws Exception {
+        // Given
+        createDocument("d3", null, 3L, null);
+        createDocument("d2", null, 2L, null);
+        createDocument("d1", null, 1L, null);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<List<DocumentView>>> futures = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < 16; i++) {
+                final long minAge = i % 3 + 1;
+                futures.add(executor.submit(new Callable<List<DocumentView>>() {
+                    @Override
+                    public List<DocumentView> call() {
+                        return readOnlyDocumentRepository.findAll(new Specification<Document>() {
+
+                            @Override
+                            public Predicate toPredicate(Root<Document> root, CriteriaQuery<?> criteriaQuery, CriteriaBuilder criteriaBuilder) {
+                                return criteriaBuilder.ge(root.<Long>get("age"), minAge);
+                            }
+                        }, "Foo");
+                    }
+                }));
+            }
+
+            // Then
+            for (int i = 0; i < futures.size(); i++) {
+                // Every invocation must only see its own specification
+                assertEquals(3 - i % 3, futures.get(i).get().size());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void testEntityViewSettingProcessorParameter() {
         // Given
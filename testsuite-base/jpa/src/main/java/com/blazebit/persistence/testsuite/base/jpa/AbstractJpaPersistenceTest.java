@@ -594,6 +594,7 @@ public abstract class AbstractJpaPersistenceTest {
 
         public static final QueryInspectorListener INSTANCE = new QueryInspectorListener();
         private static final List<String> EXECUTED_QUERIES = new ArrayList<>();
+        private static final List<Integer> EXECUTED_BATCH_SIZES = new ArrayList<>();
         private static boolean enabled = false;
         private static boolean collectSequences = false;
 
@@ -607,6 +608,9 @@ public abstract class AbstractJpaPersistenceTest {
         @Override
         public void afterQuery(ExecutionInfo executionInfo, List<QueryInfo> list) {
             if (enabled) {
+                if (executionInfo.isBatch()) {
+                    EXECUTED_BATCH_SIZES.add(executionInfo.getBatchSize());
+                }
                 for (QueryInfo q : list) {
                     String query = q.getQuery();
                     if (collectSequences || (!query.contains("next_val") && !query.contains("nextval"))) {
@@ -619,6 +623,7 @@ public abstract class AbstractJpaPersistenceTest {
 
     public static void clearQueries() {
         QueryInspectorListener.EXECUTED_QUERIES.clear();
+        QueryInspectorListener.EXECUTED_BATCH_SIZES.clear();
     }
 
     public static void enableQueryCollecting() {
@@ -628,6 +633,7 @@ public abstract class AbstractJpaPersistenceTest {
     public static void disableQueryCollecting() {
         QueryInspectorListener.enabled = false;
         QueryInspectorListener.EXECUTED_QUERIES.clear();
+        QueryInspectorListener.EXECUTED_BATCH_SIZES.clear();
     }
 
     public static void assertUnorderedEquals(List<?> list1, List<?> list2) {
@@ -650,6 +656,11 @@ public abstract class AbstractJpaPersistenceTest {
         }
     }
 
+    public static void assertBatchExecuted(int batchSize) {
+        List<Integer> batchSizes = QueryInspectorListener.EXECUTED_BATCH_SIZES;
+        Assert.assertTrue("Expected a JDBC batch of size " + batchSize + " but got the batches: " + batchSizes, batchSizes.contains(batchSize));
+    }
+
     public AssertStatementBuilder assertOrderedQuerySequence() {
         return new AssertStatementBuilder(getRelationalModelAccessor(), QueryInspectorListener.EXECUTED_QUERIES);
     }